@@ -0,0 +1,68 @@
+package benchmark;
+
+import inventory.FoodItem;
+import inventory.GiftItem;
+import inventory.Inventory;
+import inventory.ItemCatalog;
+import logic.Pet;
+import logic.PetType;
+import logic.VitalStatistics;
+
+/**
+ * Builds the pets and inventories the benchmarks work on.
+ */
+final class BenchmarkPets {
+
+    /**
+     * The balanced starter pet, with room in every stat so actions and ticks do real work.
+     */
+    static final PetType TYPE = new PetType("Brock", 70, 60, 50, 70, 1, 2, 2, 0);
+
+    private BenchmarkPets() {
+    }
+
+    /**
+     * Creates a healthy pet carrying the given number of distinct food and gift items.
+     */
+    static Pet create(int index, int inventorySize) {
+        Pet pet = new Pet("Pet" + index, TYPE, new VitalStatistics(50, 40, 30, 50), 0, 0, false, false, false, false);
+        Inventory inventory = pet.getInventory();
+        int[] ids = itemIds(inventorySize);
+        for (int i = 0; i < ids.length; i++) {
+            inventory.add(ids[i], i + 1);
+        }
+        return pet;
+    }
+
+    /**
+     * Puts the pet back into its starting state, so long runs never leave it dead or asleep.
+     */
+    static void reset(Pet pet) {
+        VitalStatistics stats = pet.getVitalStats();
+        stats.setHealth(50);
+        stats.setSleep(40);
+        stats.setFullness(30);
+        stats.setHappiness(50);
+        pet.checkStates();
+    }
+
+    /**
+     * Returns the ids of the given number of distinct catalog items, half food and half gifts.
+     * Benchmark items are registered the first time they are needed and reused afterwards,
+     * since the catalog only ever grows.
+     */
+    static synchronized int[] itemIds(int size) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            String name = "Benchmark item " + i;
+            int id = ItemCatalog.idOf(name);
+            if (id < 0) {
+                id = ItemCatalog.register(i % 2 == 0
+                        ? new FoodItem(name, "Benchmark food", 2)
+                        : new GiftItem(name, "Benchmark gift", 2));
+            }
+            ids[i] = id;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import inventory.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks adding and removing items in an {@link Inventory} that already holds
+ * {@code inventorySize} distinct items. Every operation covers one inventory per pet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int petCount;
+
+    @Param({"6", "64", "1024"})
+    int inventorySize;
+
+    private Inventory[] inventories;
+    private int[] items;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        items = BenchmarkPets.itemIds(inventorySize);
+        inventories = new Inventory[petCount];
+        for (int p = 0; p < petCount; p++) {
+            inventories[p] = new Inventory();
+            for (int item : items) {
+                inventories[p].add(item, 1);
+            }
+        }
+        next = 0;
+    }
+
+    /**
+     * Adds one item to every inventory and takes it out again, cycling through the items.
+     */
+    @Benchmark
+    public int addRemove() {
+        int item = items[next];
+        next = (next + 1) % items.length;
+        int total = 0;
+        for (Inventory inventory : inventories) {
+            inventory.add(item, 1);
+            inventory.remove(item, 1);
+            total += inventory.getQuantity(item);
+        }
+        return total;
+    }
+}
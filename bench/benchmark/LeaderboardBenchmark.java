@@ -0,0 +1,96 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import logic.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a {@link Leaderboard} that already ranks {@code petCount} pets: submitting scores from
+ * several threads at once, reading the top 100 and looking up the rank of a pet. The board is only
+ * saved between trials.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"10000", "1000000"})
+    int petCount;
+
+    private Path directory;
+    private Leaderboard leaderboard;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("leaderboard-bench");
+        leaderboard = Leaderboard.open(directory, Leaderboard.DEFAULT_TOP, Leaderboard.DEFAULT_MAX_SCORE, Long.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < petCount; i++) {
+            leaderboard.submit("player" + i, "Pet", random.nextInt(100_000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        leaderboard.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * The random pet of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        private final SplittableRandom random = new SplittableRandom();
+
+        String nextPlayer(int petCount) {
+            return "player" + random.nextInt(petCount);
+        }
+    }
+
+    /**
+     * Raises the score of a random pet, or tries to.
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean submit(Session session) {
+        return leaderboard.submit(session.nextPlayer(petCount), "Pet", session.random.nextInt(110_000));
+    }
+
+    @Benchmark
+    public List<Leaderboard.Entry> top100() {
+        return leaderboard.getTop(100);
+    }
+
+    @Benchmark
+    public long rank(Session session) {
+        return leaderboard.getRank(session.nextPlayer(petCount), "Pet");
+    }
+}
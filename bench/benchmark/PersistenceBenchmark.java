@@ -0,0 +1,102 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import logic.ParentalControls;
+import logic.Pet;
+import logic.SaveManager;
+import logic.SaveService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks saving and loading pets and parental controls through the real files.
+ * Every operation covers all {@code petCount} pets, each in its own file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"1", "100"})
+    int petCount;
+
+    @Param({"0", "6", "64"})
+    int inventorySize;
+
+    private Path directory;
+    private Pet[] pets;
+    private String[] petFiles;
+    private ParentalControls parentalControls;
+    private String parentalControlsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pet-bench");
+        pets = new Pet[petCount];
+        petFiles = new String[petCount];
+        for (int i = 0; i < petCount; i++) {
+            pets[i] = BenchmarkPets.create(i, inventorySize);
+            petFiles[i] = directory.resolve("pet" + i + ".csv").toString();
+        }
+        parentalControlsFile = directory.resolve("parental_controls.csv").toString();
+        parentalControls = new ParentalControls(parentalControlsFile);
+        parentalControls.saveToCSV(parentalControlsFile);
+        SaveService.getInstance().flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SaveService.getInstance().flush();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Writes every pet to its CSV file and reads it back.
+     */
+    @Benchmark
+    public int savePetLoadPet() throws IOException {
+        int health = 0;
+        for (int i = 0; i < petCount; i++) {
+            SaveManager.savePet(petFiles[i], pets[i]);
+            health += SaveManager.loadPet(petFiles[i]).getVitalStats().getHealth();
+        }
+        return health;
+    }
+
+    /**
+     * Saves the parental controls and waits until the background writer has put them on disk.
+     */
+    @Benchmark
+    public void parentalControlsSave() {
+        parentalControls.saveToCSV(parentalControlsFile);
+        SaveService.getInstance().flush();
+    }
+
+    @Benchmark
+    public void parentalControlsLoad() {
+        parentalControls.loadFromCSV(parentalControlsFile);
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import logic.Pet;
+import logic.PetSimulation;
+import logic.PetWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the pet actions, the state evaluation and a full decay tick.
+ * Every operation covers all {@code petCount} pets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int petCount;
+
+    @Param({"0", "6", "64"})
+    int inventorySize;
+
+    /**
+     * Number of world ticks between two restores of the world's pets.
+     */
+    private static final int WORLD_TICKS_PER_RESTORE = 10;
+
+    private Pet[] pets;
+    private PetSimulation[] simulations;
+    private PetWorld world;
+    private int worldTicks;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pets = new Pet[petCount];
+        simulations = new PetSimulation[petCount];
+        world = new PetWorld(petCount);
+        for (int i = 0; i < petCount; i++) {
+            pets[i] = BenchmarkPets.create(i, inventorySize);
+            simulations[i] = new PetSimulation(pets[i]);
+            world.addPet(pets[i]);
+        }
+        worldTicks = 0;
+    }
+
+    @Benchmark
+    public void feed() {
+        for (Pet pet : pets) {
+            pet.feed(2);
+            pet.getVitalStats().setFullness(30);
+        }
+    }
+
+    @Benchmark
+    public void giveGift() {
+        for (Pet pet : pets) {
+            pet.giveGift(2);
+            pet.getVitalStats().setHappiness(50);
+        }
+    }
+
+    @Benchmark
+    public void exercise() {
+        for (Pet pet : pets) {
+            pet.exercise(1, 1, 1);
+            BenchmarkPets.reset(pet);
+        }
+    }
+
+    /**
+     * Playing starts a cooldown, so every operation plays with pets that have never played.
+     * The measured time includes creating them.
+     */
+    @Benchmark
+    public void play(Blackhole blackhole) {
+        for (int i = 0; i < petCount; i++) {
+            blackhole.consume(BenchmarkPets.create(i, 0).play(1));
+        }
+    }
+
+    @Benchmark
+    public void checkStates() {
+        for (Pet pet : pets) {
+            pet.checkStates();
+        }
+    }
+
+    /**
+     * One decay tick per pet through the event-publishing simulation.
+     * The pets are reset first so they never die during a run.
+     */
+    @Benchmark
+    public void decayTick() {
+        for (int i = 0; i < petCount; i++) {
+            BenchmarkPets.reset(pets[i]);
+            simulations[i].tick();
+        }
+    }
+
+    /**
+     * One decay interval for all pets in the array-backed world, for comparison with {@link #decayTick()}.
+     * The pets are restored every few ticks, which adds a small amortised cost.
+     */
+    @Benchmark
+    public void worldTick() {
+        if (++worldTicks == WORLD_TICKS_PER_RESTORE) {
+            for (int i = 0; i < petCount; i++) {
+                world.setPet(i, pets[i]);
+            }
+            worldTicks = 0;
+        }
+        world.tick();
+    }
+}
@@ -1,11 +1,16 @@
-import ui.MainMenu;
+import server.PetServer;
+import ui.Preloader;
+
+import java.util.Arrays;
 
 public class Main {
-    public static void main(String[] args) {
-        // Initialize and launch the main menu
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            MainMenu menu = new MainMenu();
-            menu.setVisible(true);
-        });
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            // Host pets over HTTP without a user interface
+            PetServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Load the images and settings in the background, then launch the main menu
+        Preloader.launch();
     }
 }
@@ -0,0 +1,246 @@
+package balance;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * The {@code BalanceReport} class sums up the simulated lifetimes of one pet type: when the pets
+ * died, when one of their stats first became critical, and what score their players reached.
+ * Times are counted in whole simulated minutes; pets still alive at the end of the run count as survivors.
+ *
+ * <p>Each fork-join worker fills a report of its own, and the reports are merged at the end,
+ * so nothing is shared while the lifetimes run.</p>
+ */
+public class BalanceReport {
+
+    /**
+     * Points every score the game gives is a multiple of.
+     */
+    public static final int SCORE_STEP = 5;
+
+    /**
+     * Scores below this many steps get a histogram bucket each; above it, every doubling of the
+     * score is split into {@link #SUB_BUCKETS} buckets, so percentiles stay within about 3%.
+     */
+    private static final int EXACT_STEPS = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int SCORE_BUCKETS = EXACT_STEPS + (64 - 6) * SUB_BUCKETS;
+
+    private final String typeName;
+    private final int minutes;
+    private long lifetimes = 0;
+    private long survivors = 0;
+    private long minutesSimulated = 0;
+    private final long[] deathsByMinute; // Pets that died during each minute
+    private long neverCritical = 0;
+    private final long[] firstCriticalByMinute; // Pets whose first critical stat came during each minute
+    private final long[] scores = new long[SCORE_BUCKETS];
+    private long scoreSum = 0;
+    private long maxScore = 0;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param typeName the pet type the lifetimes belong to
+     * @param minutes  the number of minutes each lifetime was simulated for at most
+     */
+    public BalanceReport(String typeName, int minutes) {
+        this.typeName = typeName;
+        this.minutes = minutes;
+        this.deathsByMinute = new long[minutes];
+        this.firstCriticalByMinute = new long[minutes];
+    }
+
+    /**
+     * Adds one simulated lifetime.
+     *
+     * @param minutesLived          the number of minutes the pet was simulated for
+     * @param diedAtMinute          the minute the pet died in, or -1 if it survived the run
+     * @param firstCriticalAtMinute the minute a stat first became critical, or -1 if none ever did
+     * @param score                 the score the player reached
+     */
+    void add(long minutesLived, long diedAtMinute, long firstCriticalAtMinute, long score) {
+        lifetimes++;
+        minutesSimulated += minutesLived;
+        if (diedAtMinute < 0) {
+            survivors++;
+        } else {
+            deathsByMinute[(int) diedAtMinute]++;
+        }
+        if (firstCriticalAtMinute < 0) {
+            neverCritical++;
+        } else {
+            firstCriticalByMinute[(int) firstCriticalAtMinute]++;
+        }
+        scores[scoreBucket(score / SCORE_STEP)]++;
+        scoreSum += score;
+        maxScore = Math.max(maxScore, score);
+    }
+
+    /**
+     * Adds the lifetimes of another report of the same type and length to this one.
+     *
+     * @param other the report to add
+     * @return this report
+     */
+    BalanceReport merge(BalanceReport other) {
+        lifetimes += other.lifetimes;
+        survivors += other.survivors;
+        minutesSimulated += other.minutesSimulated;
+        neverCritical += other.neverCritical;
+        for (int minute = 0; minute < minutes; minute++) {
+            deathsByMinute[minute] += other.deathsByMinute[minute];
+            firstCriticalByMinute[minute] += other.firstCriticalByMinute[minute];
+        }
+        for (int bucket = 0; bucket < SCORE_BUCKETS; bucket++) {
+            scores[bucket] += other.scores[bucket];
+        }
+        scoreSum += other.scoreSum;
+        maxScore = Math.max(maxScore, other.maxScore);
+        return this;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public long getLifetimes() {
+        return lifetimes;
+    }
+
+    public long getSurvivors() {
+        return survivors;
+    }
+
+    /**
+     * Returns the simulated time all lifetimes together took.
+     *
+     * @return the number of simulated hours
+     */
+    public double getSimulatedHours() {
+        return minutesSimulated / 60.0;
+    }
+
+    /**
+     * Returns the point of the survival curve after the given number of minutes.
+     *
+     * @param minute the number of minutes lived, from 0 to the length of the run
+     * @return the share of pets still alive after that many minutes
+     */
+    public double survivalAfter(int minute) {
+        long died = 0;
+        for (int m = 0; m < Math.min(minute, minutes); m++) {
+            died += deathsByMinute[m];
+        }
+        return lifetimes == 0 ? 0 : 1 - (double) died / lifetimes;
+    }
+
+    /**
+     * Returns the minute in which the given share of the pets had had a critical stat.
+     *
+     * @param share the share of the pets, between 0 and 1
+     * @return the minute, or -1 if fewer pets than that ever had a critical stat
+     */
+    public int firstCriticalPercentile(double share) {
+        return percentile(firstCriticalByMinute, share);
+    }
+
+    /**
+     * Returns the minute in which the given share of the pets had died.
+     *
+     * @param share the share of the pets, between 0 and 1
+     * @return the minute, or -1 if fewer pets than that died during the run
+     */
+    public int deathPercentile(double share) {
+        return percentile(deathsByMinute, share);
+    }
+
+    /**
+     * Returns the score the given share of the players stayed at or below. Scores below
+     * {@code 64 * SCORE_STEP} are exact; higher ones are rounded down by up to about 3%.
+     *
+     * @param share the share of the players, between 0 and 1
+     * @return the score
+     */
+    public long scorePercentile(double share) {
+        int bucket = percentile(scores, share);
+        return bucket < 0 ? maxScore : scoreBucketStart(bucket) * SCORE_STEP;
+    }
+
+    public double getMeanScore() {
+        return lifetimes == 0 ? 0 : (double) scoreSum / lifetimes;
+    }
+
+    public long getMaxScore() {
+        return maxScore;
+    }
+
+    /**
+     * Prints the survival curve, the time to the first critical stat and the score distribution.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%s: %d lifetimes of up to %s, %d survived%n",
+                typeName, lifetimes, formatMinutes(minutes), survivors);
+        out.print("  survival:");
+        for (int minute = 1; minute < minutes; minute *= 2) {
+            out.printf(Locale.ROOT, " %s %.1f%%", formatMinutes(minute), survivalAfter(minute) * 100);
+        }
+        out.printf(Locale.ROOT, " %s %.1f%%%n", formatMinutes(minutes), survivalAfter(minutes) * 100);
+        out.printf(Locale.ROOT, "  death: p10 %s, median %s, p90 %s%n",
+                formatMinute(deathPercentile(0.1)), formatMinute(deathPercentile(0.5)), formatMinute(deathPercentile(0.9)));
+        out.printf(Locale.ROOT, "  first critical stat: p10 %s, median %s, p90 %s, never %d%n",
+                formatMinute(firstCriticalPercentile(0.1)), formatMinute(firstCriticalPercentile(0.5)),
+                formatMinute(firstCriticalPercentile(0.9)), neverCritical);
+        out.printf(Locale.ROOT, "  score: mean %.1f, p10 %d, median %d, p90 %d, max %d%n",
+                getMeanScore(), scorePercentile(0.1), scorePercentile(0.5), scorePercentile(0.9), maxScore);
+    }
+
+    private int percentile(long[] histogram, double share) {
+        long target = (long) Math.ceil(share * lifetimes);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(1, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the histogram bucket of a score counted in steps.
+     */
+    static int scoreBucket(long steps) {
+        if (steps < EXACT_STEPS) {
+            return (int) steps;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(steps); // At least 6
+        int mantissa = (int) (steps >>> (exponent - 5)) & (SUB_BUCKETS - 1);
+        return EXACT_STEPS + (exponent - 6) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Returns the lowest score, in steps, that falls into the given bucket.
+     */
+    static long scoreBucketStart(int bucket) {
+        if (bucket < EXACT_STEPS) {
+            return bucket;
+        }
+        int exponent = 6 + (bucket - EXACT_STEPS) / SUB_BUCKETS;
+        int mantissa = (bucket - EXACT_STEPS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + mantissa) << (exponent - 5);
+    }
+
+    /**
+     * Formats a percentile minute as the time by which it was over, or "-" if it never came.
+     */
+    private static String formatMinute(int minute) {
+        return minute < 0 ? "-" : formatMinutes(minute + 1);
+    }
+
+    private static String formatMinutes(long minutes) {
+        return minutes < 60 ? minutes + "m" : minutes % 60 == 0 ? minutes / 60 + "h" : minutes / 60 + "h" + minutes % 60 + "m";
+    }
+}
@@ -0,0 +1,188 @@
+package balance;
+
+import logic.ManualClock;
+import logic.Pet;
+import logic.PetAction;
+import logic.PetSimulation;
+import logic.PetType;
+import logic.VitalStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@code BalancingHarness} class simulates whole pet lifetimes without a user interface, to see
+ * how the decay rates of the pet types and the penalties of {@link PetSimulation} play out.
+ *
+ * <p>Every lifetime starts like a new game and runs minute by minute on the game's own
+ * {@link Pet} and {@link PetSimulation}, with a {@link PlayerPolicy} choosing the player's actions
+ * and a {@link ManualClock} timing the pet's cooldowns. Lifetimes are spread over a fork-join pool;
+ * each task splits its own {@link SplittableRandom} for the tasks it forks, so a run with the same
+ * seed gives the same report on any number of threads.</p>
+ *
+ * <p>Run it with {@code BalancingHarness [lifetimes] [hours] [policy] [actions per minute] [seed]},
+ * where the policy is {@code neglect}, {@code scripted} or {@code random}.</p>
+ */
+public class BalancingHarness {
+
+    /**
+     * Number of lifetimes a single task simulates without splitting further.
+     */
+    private static final int GRAIN = 32;
+
+    /**
+     * Simulated time every lifetime starts at; only the differences matter to the cooldowns.
+     */
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private final ForkJoinPool pool;
+    private final PlayerPolicy policy;
+    private final int actionsPerMinute;
+    private final int hours;
+
+    /**
+     * Creates a harness.
+     *
+     * @param pool             the pool the lifetimes run on
+     * @param policy           the player's behaviour
+     * @param actionsPerMinute the most actions the policy may take between two decay ticks
+     * @param hours            the number of hours after which a surviving pet stops being simulated
+     */
+    public BalancingHarness(ForkJoinPool pool, PlayerPolicy policy, int actionsPerMinute, int hours) {
+        if (hours < 1) {
+            throw new IllegalArgumentException("A run needs at least one hour: " + hours);
+        }
+        this.pool = pool;
+        this.policy = policy;
+        this.actionsPerMinute = actionsPerMinute;
+        this.hours = hours;
+    }
+
+    /**
+     * Simulates the given number of lifetimes for every pet type.
+     *
+     * @param types     the pet types to compare
+     * @param lifetimes the number of lifetimes per type
+     * @param seed      the seed every random choice of the run is derived from
+     * @return one report per type name, in the order of the types
+     */
+    public Map<String, BalanceReport> run(List<PetType> types, int lifetimes, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, BalanceReport> reports = new LinkedHashMap<>();
+        for (PetType type : types) {
+            reports.put(type.getTypeName(), pool.invoke(new LifetimeTask(type, 0, lifetimes, random.split())));
+        }
+        return reports;
+    }
+
+    /**
+     * Simulates the lifetimes in [from, to) of one pet type, splitting the range until it is small enough.
+     */
+    private class LifetimeTask extends RecursiveTask<BalanceReport> {
+        private final PetType type;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        LifetimeTask(PetType type, int from, int to, SplittableRandom random) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected BalanceReport compute() {
+            if (to - from <= GRAIN) {
+                BalanceReport report = new BalanceReport(type.getTypeName(), hours * 60);
+                for (int i = from; i < to; i++) {
+                    simulateLifetime(type, random, report);
+                }
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            LifetimeTask left = new LifetimeTask(type, from, middle, random.split());
+            LifetimeTask right = new LifetimeTask(type, middle, to, random);
+            left.fork();
+            BalanceReport report = right.compute();
+            return report.merge(left.join());
+        }
+    }
+
+    /**
+     * Plays one pet from a new game until it dies or the run ends, and adds the outcome to the report.
+     */
+    void simulateLifetime(PetType type, SplittableRandom random, BalanceReport report) {
+        Pet pet = Pet.startNewGame("Simulated", type);
+        PetSimulation simulation = new PetSimulation(pet, new ManualClock(START_MILLIS));
+        SimulatedPlayer player = new SimulatedPlayer(simulation, random);
+
+        long minutes = hours * 60L;
+        long firstCritical = isCritical(pet) ? 0 : -1;
+        long died = -1;
+        long minute = 0;
+        while (minute < minutes) {
+            for (int i = 0; i < actionsPerMinute; i++) {
+                PetAction action = policy.nextAction(pet, minute, random);
+                if (action == null) {
+                    break; // Done until the next minute
+                }
+                player.perform(action);
+            }
+            simulation.advance(PetSimulation.DECAY_INTERVAL_MILLIS); // Moves the pet's clock along
+            if (firstCritical < 0 && isCritical(pet)) {
+                firstCritical = minute;
+            }
+            if (pet.isDead()) {
+                died = minute++;
+                break;
+            }
+            minute++;
+        }
+        report.add(minute, died, firstCritical, player.getScore());
+    }
+
+    /**
+     * Returns whether any stat is below the critical threshold {@link PetSimulation#tick()} penalises.
+     */
+    private static boolean isCritical(Pet pet) {
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        return stats.getHealth() < type.getMaxHealth() * 0.25
+                || stats.getSleep() < type.getMaxSleep() * 0.25
+                || stats.getFullness() < type.getMaxFullness() * 0.25
+                || stats.getHappiness() < type.getMaxHappiness() * 0.25;
+    }
+
+    public static void main(String[] args) {
+        int lifetimes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int hours = args.length > 1 ? Integer.parseInt(args[1]) : 24 * 7;
+        String policyName = args.length > 2 ? args[2] : "scripted";
+        int actionsPerMinute = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        PlayerPolicy policy = switch (policyName) {
+            case "neglect" -> PlayerPolicy.neglect();
+            case "scripted" -> PlayerPolicy.scripted(1);
+            case "random" -> PlayerPolicy.random(0.5);
+            default -> throw new IllegalArgumentException("Unknown policy: " + policyName);
+        };
+
+        BalancingHarness harness = new BalancingHarness(ForkJoinPool.commonPool(), policy, actionsPerMinute, hours);
+        long start = System.nanoTime();
+        Map<String, BalanceReport> reports = harness.run(List.of(PetType.starters()), lifetimes, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s policy, %d actions per minute, seed %d, %d threads%n",
+                policyName, actionsPerMinute, seed, ForkJoinPool.commonPool().getParallelism());
+        for (BalanceReport report : reports.values()) {
+            report.print(System.out);
+        }
+        double simulatedHours = reports.values().stream().mapToDouble(BalanceReport::getSimulatedHours).sum();
+        System.out.printf("Simulated %d lifetimes, %.0f hours, in %.1f s (%.0f simulated hours per second)%n",
+                (long) lifetimes * reports.size(), simulatedHours, seconds, simulatedHours / seconds);
+    }
+}
@@ -0,0 +1,89 @@
+package balance;
+
+import logic.Pet;
+import logic.PetAction;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@code PlayerPolicy} decides what a simulated player does with their pet. The balancing harness
+ * asks it for actions at the start of every simulated minute until it answers {@code null} or the
+ * harness's limit of actions per minute is reached.
+ *
+ * <p>Policies are shared by every worker thread, so they must not keep state of their own;
+ * anything random must come from the generator they are handed.</p>
+ */
+@FunctionalInterface
+public interface PlayerPolicy {
+
+    /**
+     * The actions a player can choose, in the order of the gameplay screen's buttons.
+     */
+    PetAction[] PLAYER_ACTIONS = {PetAction.SLEEP, PetAction.PLAY, PetAction.EXERCISE, PetAction.VET,
+            PetAction.FEED, PetAction.GIFT, PetAction.MINI_GAME};
+
+    /**
+     * Chooses the player's next action in the coming minute.
+     *
+     * @param pet    the pet, which the policy must not change
+     * @param minute the number of minutes the pet has lived
+     * @param random the worker's random generator
+     * @return the action to take, or {@code null} to leave the pet alone
+     */
+    PetAction nextAction(Pet pet, long minute, SplittableRandom random);
+
+    /**
+     * Returns a policy that never does anything, the baseline for how long a pet lasts on its own.
+     */
+    static PlayerPolicy neglect() {
+        return (pet, minute, random) -> null;
+    }
+
+    /**
+     * Returns a policy that checks on the pet at a fixed interval and looks after its most urgent need:
+     * health, then sleep, then food, then happiness. A pet that needs nothing gets a mini-game played for it.
+     *
+     * @param everyMinutes the number of minutes between two visits
+     */
+    static PlayerPolicy scripted(int everyMinutes) {
+        return (pet, minute, random) -> {
+            if (minute % everyMinutes != 0) {
+                return null;
+            }
+            if (pet.isSleeping()) {
+                return PetAction.MINI_GAME; // Nothing else can be done for a sleeping pet
+            }
+            if (isLow(pet.getVitalStats().getHealth(), pet.getType().getMaxHealth())) {
+                return PetAction.VET;
+            }
+            if (isLow(pet.getVitalStats().getSleep(), pet.getType().getMaxSleep())) {
+                return PetAction.SLEEP;
+            }
+            if (pet.isHungry() || isLow(pet.getVitalStats().getFullness(), pet.getType().getMaxFullness())) {
+                return SimulatedPlayer.hasFood(pet) ? PetAction.FEED : PetAction.MINI_GAME;
+            }
+            if (isLow(pet.getVitalStats().getHappiness(), pet.getType().getMaxHappiness())) {
+                return SimulatedPlayer.hasGift(pet) ? PetAction.GIFT : PetAction.PLAY;
+            }
+            return PetAction.MINI_GAME;
+        };
+    }
+
+    /**
+     * Returns a policy that is around for a random share of the minutes and then presses a random button.
+     *
+     * @param presence the chance of the player doing something in any given minute, between 0 and 1
+     */
+    static PlayerPolicy random(double presence) {
+        return (pet, minute, random) -> random.nextDouble() < presence
+                ? PLAYER_ACTIONS[random.nextInt(PLAYER_ACTIONS.length)]
+                : null;
+    }
+
+    /**
+     * Returns whether a stat is below half of its maximum.
+     */
+    private static boolean isLow(int value, int max) {
+        return value < max / 2.0;
+    }
+}
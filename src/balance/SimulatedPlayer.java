@@ -0,0 +1,136 @@
+package balance;
+
+import inventory.FoodItem;
+import inventory.GiftItem;
+import inventory.Inventory;
+import inventory.ItemCatalog;
+import logic.MathQuestion;
+import logic.Pet;
+import logic.PetAction;
+import logic.PetSimulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * The {@code SimulatedPlayer} class presses the gameplay screen's buttons for a balancing run.
+ * It follows the same rules as the screen: an angry or sleeping pet refuses what it refuses there,
+ * stats are kept within their limits after every action, and the score grows by the same points.
+ */
+public class SimulatedPlayer {
+
+    /**
+     * Points for feeding the pet or giving it a gift.
+     */
+    public static final int ITEM_SCORE = 5;
+
+    /**
+     * Points for a correct mini-game answer.
+     */
+    public static final int MINI_GAME_SCORE = 10;
+
+    /**
+     * Chance of a simulated player answering a mini-game question correctly.
+     */
+    public static final double MINI_GAME_ACCURACY = 0.8;
+
+    private final Pet pet;
+    private final PetSimulation simulation;
+    private final SplittableRandom random;
+    private long score = 0;
+
+    /**
+     * Creates a player for the pet of the given simulation.
+     *
+     * @param simulation the simulation of the player's pet
+     * @param random     the source of the mini-game answers and rewards
+     */
+    public SimulatedPlayer(PetSimulation simulation, SplittableRandom random) {
+        this.pet = simulation.getPet();
+        this.simulation = simulation;
+        this.random = random;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    /**
+     * Takes an action, unless the pet refuses it.
+     *
+     * @param action the button pressed
+     */
+    public void perform(PetAction action) {
+        boolean angry = pet.isAngry();
+        boolean sleeping = pet.isSleeping();
+        switch (action) {
+            case SLEEP -> {
+                if (!angry && !sleeping) {
+                    pet.goToBed();
+                }
+            }
+            case PLAY -> {
+                if (!sleeping) {
+                    pet.play(1);
+                }
+            }
+            case EXERCISE -> {
+                if (!angry && !sleeping) {
+                    pet.exercise(1, 1, 1);
+                }
+            }
+            case VET -> {
+                if (!angry && !sleeping) {
+                    pet.takeToVet();
+                }
+            }
+            case FEED -> {
+                int food = firstHeld(pet.getInventory(), true);
+                if (!angry && !sleeping && food >= 0 && pet.getInventory().remove(food, 1)) {
+                    pet.feed(((FoodItem) ItemCatalog.get(food)).getFullnessValue());
+                    score += ITEM_SCORE;
+                }
+            }
+            case GIFT -> {
+                int gift = firstHeld(pet.getInventory(), false);
+                if (!sleeping && gift >= 0 && pet.getInventory().remove(gift, 1)) {
+                    pet.giveGift(((GiftItem) ItemCatalog.get(gift)).getHappinessValue());
+                    score += ITEM_SCORE;
+                }
+            }
+            case MINI_GAME -> {
+                if (random.nextDouble() < MINI_GAME_ACCURACY) {
+                    score += MINI_GAME_SCORE;
+                    pet.getInventory().add(MathQuestion.nextReward(random), 1);
+                }
+            }
+            default -> throw new IllegalArgumentException("Not a player action: " + action);
+        }
+        simulation.enforceStatLimits();
+    }
+
+    /**
+     * Returns whether the pet's owner holds any food.
+     */
+    static boolean hasFood(Pet pet) {
+        return firstHeld(pet.getInventory(), true) >= 0;
+    }
+
+    /**
+     * Returns whether the pet's owner holds any gift.
+     */
+    static boolean hasGift(Pet pet) {
+        return firstHeld(pet.getInventory(), false) >= 0;
+    }
+
+    /**
+     * Returns the first food or gift in catalog order that the inventory holds, or -1 if there is none.
+     */
+    private static int firstHeld(Inventory inventory, boolean food) {
+        for (int id = 0; id < ItemCatalog.size(); id++) {
+            if (ItemCatalog.isFood(id) == food && inventory.getQuantity(id) > 0) {
+                return id;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,24 +1,106 @@
 package inventory;
-import java.util.Map;
-import java.util.HashMap;
+
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * The Inventory class represents the collection of items and their quantities
  * that a player owns in the game. It provides methods to add, remove, and
  * query items in the inventory.
+ *
+ * <p>Quantities are kept in an array indexed by {@link ItemCatalog} id, so adding,
+ * removing and querying items never allocates.</p>
  */
 
 public class Inventory {
 
-    private Map<Item, Integer> items;
+    private int[] counts;
+    private BitSet changes = new BitSet(); // Ids of the items whose quantity changed since the last takeChanges()
 
     /**
-     * Constructs an empty Inventory.
-     * Initializes the map to store items and their quantities.
+     * Constructs an empty Inventory with room for every item in the catalog.
      */
 
     public Inventory() {
-        items = new HashMap<>();
+        counts = new int[ItemCatalog.size()];
+    }
+
+    /**
+     * Adds a specified quantity of an item to the inventory.
+     *
+     * @param id The catalog id of the item.
+     * @param quantity The quantity of the item to be added.
+     * @throws IllegalArgumentException If the id is not in the catalog or the quantity is negative.
+     */
+
+    public void add(int id, int quantity) {
+        checkItem(id, quantity);
+        if (id >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(id + 1, ItemCatalog.size())); // Item registered after this inventory was created
+        }
+        counts[id] += quantity;
+        changes.set(id);
+    }
+
+    /**
+     * Removes a specified quantity of an item from the inventory.
+     * Nothing is removed if the inventory holds fewer items than requested.
+     *
+     * @param id The catalog id of the item.
+     * @param quantity The quantity of the item to be removed.
+     * @return True if the items were removed.
+     * @throws IllegalArgumentException If the id is not in the catalog or the quantity is negative.
+     */
+
+    public boolean remove(int id, int quantity) {
+        checkItem(id, quantity);
+        if (getQuantity(id) < quantity) {
+            return false;
+        }
+        counts[id] -= quantity;
+        changes.set(id);
+        return true;
+    }
+
+    /**
+     * Returns the quantity of an item in the inventory.
+     *
+     * @param id The catalog id of the item.
+     * @return The quantity of the item, 0 if there is none.
+     */
+
+    public int getQuantity(int id) {
+        return id >= 0 && id < counts.length ? counts[id] : 0;
+    }
+
+    /**
+     * Sets the quantity of an item in the inventory.
+     *
+     * @param id The catalog id of the item.
+     * @param quantity The new quantity.
+     * @throws IllegalArgumentException If the id is not in the catalog or the quantity is negative.
+     */
+
+    public void setQuantity(int id, int quantity) {
+        checkItem(id, quantity);
+        int held = getQuantity(id);
+        if (quantity > held) {
+            add(id, quantity - held);
+        } else {
+            remove(id, held - quantity);
+        }
+    }
+
+    /**
+     * Rejects ids the catalog does not know and negative quantities, which would corrupt the counts.
+     */
+    private static void checkItem(int id, int quantity) {
+        if (id < 0 || id >= ItemCatalog.size()) {
+            throw new IllegalArgumentException("Unknown item id: " + id);
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity of item " + id + " cannot be negative: " + quantity);
+        }
     }
 
     /**
@@ -27,25 +109,35 @@ public class Inventory {
      *
      * @param item The item to be added to the inventory.
      * @param quantity The quantity of the item to be added.
+     * @throws IllegalArgumentException If the item is not registered in the {@link ItemCatalog}.
      */
 
     public void addItem(Item item, int quantity) {
-        items.put(item, items.getOrDefault(item, 0) + quantity);
+        add(registeredId(item), quantity);
     }
 
     /**
      * Removes a specified quantity of an item from the inventory.
-     * If the quantity to be removed exceeds the current quantity, it will be adjusted accordingly.
+     * If the quantity to be removed exceeds the current quantity, nothing is removed.
      *
      * @param item The item to be removed from the inventory.
      * @param quantity The quantity of the item to be removed.
+     * @throws IllegalArgumentException If the item is not registered in the {@link ItemCatalog}.
      */
 
     public void removeItem(Item item, int quantity) {
-        int currentQuantity = items.getOrDefault(item, 0);
-        if (currentQuantity >= quantity) {
-            items.put(item, currentQuantity - quantity);
+        remove(registeredId(item), quantity);
+    }
+
+    /**
+     * Returns the catalog id of an item, which only registered items have.
+     */
+    private static int registeredId(Item item) {
+        int id = item.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Item " + item.getItemName() + " is not registered in the ItemCatalog");
         }
+        return id;
     }
 
     /**
@@ -57,7 +149,67 @@ public class Inventory {
      */
 
     public int getItemQuantity(Item item) {
-        return items.getOrDefault(item, 0);
+        return getQuantity(item.getId());
+    }
+
+    /**
+     * Returns the ids of the items whose quantity changed since the last call, and forgets them.
+     * The autosave uses this to write only the items that changed.
+     *
+     * @return the ids of the changed items, empty if none changed
+     */
+
+    public BitSet takeChanges() {
+        BitSet taken = changes;
+        changes = new BitSet();
+        return taken;
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns a separate inventory holding the same items.
+     *
+     * @return A copy of this inventory.
+     */
+
+    public Inventory copy() {
+        Inventory copy = new Inventory();
+        copy.counts = Arrays.copyOf(counts, Math.max(counts.length, copy.counts.length));
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Inventory)) {
+            return false;
+        }
+        int[] otherCounts = ((Inventory) other).counts;
+        int length = Math.max(counts.length, otherCounts.length);
+        for (int id = 0; id < length; id++) {
+            if (getQuantity(id) != ((Inventory) other).getQuantity(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int last = counts.length;
+        while (last > 0 && counts[last - 1] == 0) {
+            last--; // Trailing empty slots do not change the contents
+        }
+        return Arrays.hashCode(Arrays.copyOf(counts, last));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Inventory{");
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != 0) {
+                if (sb.length() > "Inventory{".length()) sb.append(", ");
+                sb.append(ItemCatalog.get(id).getItemName()).append('=').append(counts[id]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -9,6 +9,7 @@ package inventory;
 public abstract class Item {
     protected String name;
     protected String description;
+    private int id = -1; // Assigned by the ItemCatalog
 
     /**
      * Constructs an Item with the specified name and description.
@@ -41,4 +42,18 @@ public abstract class Item {
     public String getItemDescription() {
         return description;
     }
+
+    /**
+     * Returns the id the item was given by the {@link ItemCatalog}.
+     *
+     * @return The item's id, or -1 if the item has not been registered.
+     */
+
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,123 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The ItemCatalog class lists every item in the game and gives each one a dense int id,
+ * starting at 0. Inventories count items by id, and save files store the ids.
+ *
+ * <p>Ids are saved to disk, so existing items must never be reordered or removed;
+ * new items are only ever appended.</p>
+ */
+
+public final class ItemCatalog {
+
+    private static final List<Item> items = new CopyOnWriteArrayList<>();
+    private static final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    public static final int APPLE = register(new FoodItem("Apple", "A crunchy apple.", 2));
+    public static final int BANANA = register(new FoodItem("Banana", "A ripe banana.", 2));
+    public static final int CARROT = register(new FoodItem("Carrot", "A fresh carrot.", 2));
+    public static final int BALL = register(new GiftItem("Ball", "A bouncy ball.", 2));
+    public static final int TOY_MOUSE = register(new GiftItem("Toy Mouse", "A squeaky toy mouse.", 2));
+    public static final int PUZZLE = register(new GiftItem("Puzzle", "A treat puzzle.", 2));
+
+    private ItemCatalog() {
+    }
+
+    /**
+     * Adds an item to the catalog and gives it the next free id.
+     *
+     * @param item The item to add. Its name must not be in the catalog yet.
+     * @return The id given to the item.
+     */
+
+    public static synchronized int register(Item item) {
+        if (item.getId() >= 0 || idsByName.containsKey(item.getItemName())) {
+            throw new IllegalArgumentException("Item is already in the catalog: " + item.getItemName());
+        }
+        int id = items.size();
+        item.setId(id);
+        items.add(item);
+        idsByName.put(item.getItemName(), id);
+        return id;
+    }
+
+    /**
+     * Returns the number of items in the catalog. Ids run from 0 to one less than this.
+     *
+     * @return The number of items.
+     */
+
+    public static int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns the item with the given id.
+     *
+     * @param id The item id.
+     * @return The item.
+     */
+
+    public static Item get(int id) {
+        return items.get(id);
+    }
+
+    /**
+     * Returns the id of the item with the given name.
+     *
+     * @param name The item name, e.g. "Apple".
+     * @return The item's id, or -1 if no item has that name.
+     */
+
+    public static int idOf(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns true if the item with the given id is food.
+     *
+     * @param id The item id.
+     * @return True for food, false for gifts.
+     */
+
+    public static boolean isFood(int id) {
+        return items.get(id) instanceof FoodItem;
+    }
+
+    /**
+     * Returns the ids of all food items, in catalog order.
+     *
+     * @return The food item ids.
+     */
+
+    public static int[] foodIds() {
+        return idsOf(true);
+    }
+
+    /**
+     * Returns the ids of all gift items, in catalog order.
+     *
+     * @return The gift item ids.
+     */
+
+    public static int[] giftIds() {
+        return idsOf(false);
+    }
+
+    private static int[] idsOf(boolean food) {
+        List<Integer> ids = new ArrayList<>();
+        for (Item item : items) {
+            if ((item instanceof FoodItem) == food) {
+                ids.add(item.getId());
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
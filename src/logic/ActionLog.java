@@ -0,0 +1,571 @@
+package logic;
+
+import inventory.FoodItem;
+import inventory.GiftItem;
+import inventory.ItemCatalog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The {@code ActionLog} class performs every action on a pet and records it, together with every
+ * decay tick and sleep recovery step, in a compact binary event stream. Every few events a snapshot
+ * of the whole pet is written in between, so any point of the pet's history can be rebuilt by
+ * decoding the nearest snapshot and replaying only the events after it.
+ *
+ * <p>Replays are deterministic: each event carries the time it happened, and the replayed pet's
+ * {@link Pet#getClock() clock} is set to that time before the event is applied. Nothing random is
+ * replayed; a mini-game is recorded with the item it awarded.</p>
+ *
+ * <pre>
+ * int magic "PLOG" | byte version
+ * event:    byte action code | varlong time delta | one zigzag varint per argument
+ * snapshot: byte 0x7F | varlong time delta | varint length | length x byte {@link SaveFile#encode(Pet)} record
+ * </pre>
+ *
+ * Time deltas are zigzag encoded milliseconds since the previous record. A snapshot holds the pet
+ * as it was after all events before it. Opening a log writes a snapshot, so a log can be continued
+ * by a pet that was loaded from a save made in between.
+ */
+public class ActionLog {
+
+    /**
+     * Directory the gameplay screen keeps one log per session in.
+     */
+    public static final String DIRECTORY = "src/files/actions";
+
+    /**
+     * Magic number at the start of every action log ("PLOG").
+     */
+    public static final int MAGIC = 0x504C4F47;
+
+    /**
+     * Version of the log layout.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Number of events between two snapshots.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 500;
+
+    /**
+     * Number of session logs kept in {@link #DIRECTORY}; older ones are deleted when a session starts.
+     */
+    public static final int MAX_SESSION_LOGS = 20;
+
+    private static final int HEADER_SIZE = 5;
+    private static final byte SNAPSHOT = 0x7F;
+    private static final int MAX_ARGUMENTS = 3;
+
+    /**
+     * Where a snapshot is in the log and which point of the history it holds.
+     */
+    private static final class Snapshot {
+        private final long offset;
+        private final long eventIndex;
+        private final long time;
+
+        private Snapshot(long offset, long eventIndex, long time) {
+            this.offset = offset;
+            this.eventIndex = eventIndex;
+            this.time = time;
+        }
+    }
+
+    private final Path path;
+    private final Pet pet;
+    private final PetSimulation simulation;
+    private final int snapshotInterval;
+    private final List<Snapshot> snapshots = new ArrayList<>();
+    private FileChannel channel; // Open from the constructor until close
+    private long length; // Bytes of complete records in the file
+    private long eventCount;
+    private long lastTime; // Time of the last record, which the next delta starts from
+    private boolean recording = true;
+
+    /**
+     * Opens or creates the log at the given path for the pet of the given simulation,
+     * taking a snapshot every {@link #DEFAULT_SNAPSHOT_INTERVAL} events.
+     *
+     * @param path       the log file
+     * @param simulation the simulation of the pet whose actions are recorded
+     */
+    public ActionLog(Path path, PetSimulation simulation) {
+        this(path, simulation, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens or creates the log at the given path for the pet of the given simulation.
+     * A log that cannot be read is left alone; its actions are still performed, just not recorded.
+     *
+     * @param path             the log file
+     * @param simulation       the simulation of the pet whose actions are recorded
+     * @param snapshotInterval the number of events between two snapshots
+     */
+    public ActionLog(Path path, PetSimulation simulation, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        this.path = path;
+        this.pet = simulation.getPet();
+        this.simulation = simulation;
+        this.snapshotInterval = snapshotInterval;
+        try {
+            open();
+            appendSnapshot(pet.getClock().millis());
+        } catch (IOException e) {
+            System.err.println("Not recording actions, the action log cannot be opened: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Creates a new log for a game session in {@link #DIRECTORY}, named after the pet and the time.
+     * Only the newest {@link #MAX_SESSION_LOGS} logs are kept, this one included.
+     *
+     * @param simulation the simulation of the pet whose actions are recorded
+     * @return the new log
+     */
+    public static ActionLog forSession(PetSimulation simulation) {
+        Pet pet = simulation.getPet();
+        String name = pet.getName().replaceAll("[^A-Za-z0-9_-]", "_");
+        deleteOldLogs(Paths.get(DIRECTORY), MAX_SESSION_LOGS - 1);
+        return new ActionLog(Paths.get(DIRECTORY, name + "-" + pet.getClock().millis() + ".log"), simulation);
+    }
+
+    /**
+     * Deletes all but the most recently written logs in a directory.
+     *
+     * @param directory the directory of the logs, which may not exist
+     * @param keep      the number of logs to keep
+     */
+    static void deleteOldLogs(Path directory, int keep) {
+        List<Path> logs;
+        try (Stream<Path> files = Files.list(directory)) {
+            logs = files.filter(file -> file.getFileName().toString().endsWith(".log")).toList();
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.err.println("Error listing action logs: " + e.getMessage());
+            return;
+        }
+        if (logs.size() <= keep) {
+            return;
+        }
+        List<Path> newestFirst = new ArrayList<>(logs);
+        newestFirst.sort(Comparator.comparingLong(ActionLog::lastModified).reversed());
+        for (Path log : newestFirst.subList(keep, newestFirst.size())) {
+            try {
+                Files.deleteIfExists(log);
+            } catch (IOException e) {
+                System.err.println("Error deleting action log " + log + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0; // Gone or unreadable, so deleted first
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns whether actions are still written to the log. Writing stops after the first error.
+     *
+     * @return true if actions are recorded
+     */
+    public synchronized boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Returns the number of events in the log.
+     *
+     * @return the number of events, including those of earlier sessions in the same file
+     */
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Closes the log file. Actions are still performed afterwards, just not recorded,
+     * and the log can no longer be replayed.
+     */
+    public synchronized void close() {
+        recording = false;
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing action log: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Feeds the pet a food item from its inventory.
+     *
+     * @param itemId the catalog id of a food item
+     * @return false if there is none of the item left, in which case nothing happens
+     */
+    public boolean feed(int itemId) {
+        if (pet.getInventory().getQuantity(itemId) <= 0) {
+            return false;
+        }
+        record(PetAction.FEED, itemId, 0, 0);
+        return true;
+    }
+
+    /**
+     * Gives the pet a gift from its inventory.
+     *
+     * @param itemId the catalog id of a gift item
+     * @return false if there is none of the item left, in which case nothing happens
+     */
+    public boolean giveGift(int itemId) {
+        if (pet.getInventory().getQuantity(itemId) <= 0) {
+            return false;
+        }
+        record(PetAction.GIFT, itemId, 0, 0);
+        return true;
+    }
+
+    /**
+     * Plays with the pet, see {@link Pet#play(int)}.
+     *
+     * @param playValue the happiness gained
+     * @return the message to show the player
+     */
+    public String play(int playValue) {
+        return record(PetAction.PLAY, playValue, 0, 0);
+    }
+
+    /**
+     * Exercises the pet, see {@link Pet#exercise(int, int, int)}.
+     */
+    public void exercise(int healthValue, int sleepValue, int fullnessValue) {
+        record(PetAction.EXERCISE, healthValue, sleepValue, fullnessValue);
+    }
+
+    /**
+     * Takes the pet to the vet, see {@link Pet#takeToVet()}.
+     *
+     * @return the message to show the player
+     */
+    public String takeToVet() {
+        return record(PetAction.VET, 0, 0, 0);
+    }
+
+    /**
+     * Puts the pet to bed, see {@link Pet#goToBed()}.
+     */
+    public void goToBed() {
+        record(PetAction.SLEEP, 0, 0, 0);
+    }
+
+    /**
+     * Records the result of a mini-game question and adds the item won to the inventory.
+     *
+     * @param rewardItemId the catalog id of the item won, or -1 if the answer was wrong
+     */
+    public void miniGameResult(int rewardItemId) {
+        record(PetAction.MINI_GAME, rewardItemId, 0, 0);
+    }
+
+    /**
+     * Applies one decay tick, see {@link PetSimulation#tick()}.
+     */
+    public void tick() {
+        record(PetAction.TICK, 0, 0, 0);
+    }
+
+    /**
+     * Applies one sleep recovery step, see {@link PetSimulation#recoverSleep()}.
+     */
+    public void recoverSleep() {
+        record(PetAction.RECOVER_SLEEP, 0, 0, 0);
+    }
+
+    /**
+     * Rebuilds the pet as it was after the given number of events.
+     *
+     * @param events the number of events to apply, at most {@link #getEventCount()}
+     * @return a new pet, whose clock is stopped at the time of the last event applied
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized Pet replay(long events) throws IOException {
+        if (events < 0 || events > eventCount) {
+            throw new IllegalArgumentException("No point " + events + " in a log of " + eventCount + " events");
+        }
+        return rebuild(events, Long.MAX_VALUE);
+    }
+
+    /**
+     * Rebuilds the pet as it was at the given time, after every event that happened until then.
+     *
+     * @param time the point in the pet's history
+     * @return a new pet, whose clock is stopped at the time of the last event applied
+     * @throws IOException if the log cannot be read or starts after the given time
+     */
+    public synchronized Pet replayUntil(Instant time) throws IOException {
+        return rebuild(eventCount, time.toEpochMilli());
+    }
+
+    /**
+     * Records an action, then performs it on the live pet at the current time of its clock.
+     * The event is written before the action runs, so it is in the log even if a listener of the
+     * pet's events closes the log, as the gameplay screen does when the pet dies. The pet is held
+     * at that exact time while the action runs, so a replay sees the same time.
+     */
+    private synchronized String record(PetAction action, int first, int second, int third) {
+        Clock live = pet.getClock();
+        long time = live.millis();
+        int[] args = {first, second, third};
+        if (recording) {
+            try {
+                ByteBuffer record = ByteBuffer.allocate(1 + 10 + MAX_ARGUMENTS * 5);
+                record.put(action.getCode());
+                Varints.putVarLong(record, Varints.zigzag(time - lastTime));
+                for (int i = 0; i < action.getArgumentCount(); i++) {
+                    Varints.putVarLong(record, Varints.zigzag(args[i]));
+                }
+                append(record);
+                lastTime = time;
+                eventCount++;
+            } catch (IOException e) {
+                System.err.println("Error writing action log, no longer recording: " + e.getMessage());
+                recording = false;
+            }
+        }
+
+        String message;
+        pet.setClock(Clock.fixed(Instant.ofEpochMilli(time), live.getZone()));
+        try {
+            message = apply(action, args, pet, simulation);
+        } finally {
+            pet.setClock(live);
+        }
+
+        if (recording && eventCount % snapshotInterval == 0) {
+            try {
+                appendSnapshot(time); // Holds the pet as it is after the event
+            } catch (IOException e) {
+                System.err.println("Error writing action log, no longer recording: " + e.getMessage());
+                recording = false;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Applies an event to a pet. The live game and the replay both go through here,
+     * so they cannot drift apart.
+     *
+     * @return the message for the player, if the action has one
+     */
+    private static String apply(PetAction action, int[] args, Pet pet, PetSimulation simulation) {
+        String message = null;
+        switch (action) {
+            case FEED -> {
+                if (pet.getInventory().remove(args[0], 1)) {
+                    pet.feed(((FoodItem) ItemCatalog.get(args[0])).getFullnessValue());
+                }
+            }
+            case GIFT -> {
+                if (pet.getInventory().remove(args[0], 1)) {
+                    pet.giveGift(((GiftItem) ItemCatalog.get(args[0])).getHappinessValue());
+                }
+            }
+            case PLAY -> message = pet.play(args[0]);
+            case EXERCISE -> pet.exercise(args[0], args[1], args[2]);
+            case VET -> message = pet.takeToVet();
+            case SLEEP -> pet.goToBed();
+            case MINI_GAME -> {
+                if (args[0] >= 0) {
+                    pet.getInventory().add(args[0], 1);
+                }
+            }
+            case TICK -> simulation.tick();
+            case RECOVER_SLEEP -> simulation.recoverSleep();
+        }
+        if (action != PetAction.TICK && action != PetAction.RECOVER_SLEEP) {
+            simulation.enforceStatLimits(); // As the gameplay screen always did after an action
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the last snapshot before the requested point and applies the events after it.
+     */
+    private Pet rebuild(long maxEvents, long maxTime) throws IOException {
+        Snapshot start = null;
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.eventIndex <= maxEvents && snapshot.time <= maxTime) {
+                start = snapshot; // A later snapshot of the same point is the one that was continued from
+            }
+        }
+        if (start == null) {
+            throw new IOException("The action log has no snapshot that early");
+        }
+        if (channel == null) {
+            throw new IOException("The action log is closed");
+        }
+
+        try {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            in.position((int) start.offset);
+            in.get(); // Snapshot marker
+            Varints.getVarLong(in); // Time delta, already known from the scan
+            Pet replayed = decodeSnapshot(in);
+            ManualClock clock = new ManualClock(start.time); // Moved to the time of each event
+            replayed.setClock(clock);
+            PetSimulation replay = new PetSimulation(replayed);
+
+            long time = start.time;
+            long events = start.eventIndex;
+            int[] args = new int[MAX_ARGUMENTS];
+            while (events < maxEvents && in.hasRemaining()) {
+                byte code = in.get();
+                long eventTime = time + Varints.unzigzag(Varints.getVarLong(in));
+                if (code == SNAPSHOT) {
+                    in.position(in.position() + (int) Varints.getVarLong(in));
+                    time = eventTime;
+                    continue;
+                }
+                if (eventTime > maxTime) {
+                    break;
+                }
+                PetAction action = PetAction.fromCode(code);
+                if (action == null) {
+                    throw new IOException("Unknown action " + code + " in the action log");
+                }
+                for (int i = 0; i < action.getArgumentCount(); i++) {
+                    args[i] = (int) Varints.unzigzag(Varints.getVarLong(in));
+                }
+                time = eventTime;
+                clock.setMillis(time);
+                apply(action, args, replayed, replay);
+                events++;
+            }
+            replayed.setClock(Clock.fixed(Instant.ofEpochMilli(time), ZoneOffset.UTC));
+            return replayed;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Action log is damaged", e);
+        }
+    }
+
+    /**
+     * Opens the file for the session, reads the records already in it, cuts off a record torn
+     * by a crash, and writes the header of a new file.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put(VERSION);
+            header.flip();
+            channel.truncate(0);
+            write(header, 0);
+            length = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer in = ByteBuffer.allocate((int) fileSize);
+        while (in.hasRemaining() && channel.read(in, in.position()) >= 0) {
+            // Until the whole file is read
+        }
+        in.flip();
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            throw new IOException(path + " is not an action log");
+        }
+        length = HEADER_SIZE;
+        try {
+            while (in.hasRemaining()) {
+                byte code = in.get();
+                long time = lastTime + Varints.unzigzag(Varints.getVarLong(in));
+                if (code == SNAPSHOT) {
+                    int size = (int) Varints.getVarLong(in);
+                    if (size < 0 || size > in.remaining()) {
+                        break;
+                    }
+                    in.position(in.position() + size);
+                    snapshots.add(new Snapshot(length, eventCount, time));
+                } else {
+                    PetAction action = PetAction.fromCode(code);
+                    if (action == null) {
+                        break;
+                    }
+                    for (int i = 0; i < action.getArgumentCount(); i++) {
+                        Varints.getVarLong(in);
+                    }
+                    eventCount++;
+                }
+                lastTime = time;
+                length = in.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // A record cut short by a crash
+        }
+        if (length < fileSize) {
+            channel.truncate(length); // New records must follow the last complete one
+        }
+    }
+
+    private void appendSnapshot(long time) throws IOException {
+        byte[] encoded = SaveFile.encode(pet);
+        ByteBuffer record = ByteBuffer.allocate(1 + 10 + 5 + encoded.length);
+        record.put(SNAPSHOT);
+        Varints.putVarLong(record, Varints.zigzag(time - lastTime));
+        Varints.putVarLong(record, encoded.length);
+        record.put(encoded);
+        long offset = length;
+        append(record);
+        lastTime = time;
+        snapshots.add(new Snapshot(offset, eventCount, time));
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        record.flip();
+        int size = record.remaining();
+        write(record, length);
+        length += size;
+    }
+
+    private void write(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private static Pet decodeSnapshot(ByteBuffer in) throws IOException {
+        int size = (int) Varints.getVarLong(in);
+        ByteBuffer record = in.slice(in.position(), size);
+        in.position(in.position() + size);
+        return SaveFile.decode(record);
+    }
+}
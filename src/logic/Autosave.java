@@ -0,0 +1,483 @@
+package logic;
+
+import inventory.Inventory;
+import inventory.ItemCatalog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code Autosave} class keeps a journal of a pet next to the save slot it was loaded from or
+ * saved to, so a crash loses at most the few seconds since the last {@link #save()}.
+ *
+ * <p>The pet, its {@link VitalStatistics} and its {@link Inventory} mark what changes on them. Each
+ * save takes those marks and appends a delta with only the changed fields, a few bytes, or nothing
+ * at all if nothing changed. After {@link #DEFAULT_COMPACT_AFTER} deltas, or when the stats or the
+ * inventory were replaced, the journal is replaced by a single snapshot of the whole pet. Saves
+ * encode on the calling thread, which must own the pet, and write in the background.</p>
+ *
+ * <pre>
+ * int magic "PJRN" | byte version
+ * snapshot: byte 0x7F | varlong time delta | varint length | length x byte {@link SaveFile#encode(Pet)} record
+ * delta:    byte 0x01 | varlong time delta | varint field bits | one zigzag varint per field, in bit order
+ *           states field: varint of the {@link PetWorld} state bits
+ *           inventory field: varint count, count x (varint item id | zigzag varint quantity)
+ * </pre>
+ *
+ * Time deltas are zigzag encoded milliseconds of the pet's clock since the previous record; the time
+ * of the last record becomes the recovered pet's save time.
+ *
+ * <p>A journal is deleted when it is {@link #close() closed}, so one is only found on disk after
+ * the game ended without closing it. {@link SaveManager#loadSlot(int)} then prefers it over the slot
+ * if it is newer; a journal still open in this process is never loaded, so loading a slot always
+ * goes back to what the player saved by hand.</p>
+ */
+public class Autosave {
+
+    /**
+     * Directory holding one journal per save slot.
+     */
+    public static final String DIRECTORY = "src/files/autosave";
+
+    /**
+     * Magic number at the start of every journal ("PJRN").
+     */
+    public static final int MAGIC = 0x504A524E;
+
+    /**
+     * Version of the journal layout.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Time between two saves of the gameplay screen, in milliseconds.
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Number of deltas after which the journal is compacted, ten minutes of play at the default interval.
+     */
+    public static final int DEFAULT_COMPACT_AFTER = 120;
+
+    // Fields of a delta; the stats use the bits of VitalStatistics
+    static final int LAST_PLAY = 16;
+    static final int LAST_VET_VISIT = 32;
+    static final int STATES = 64;
+    static final int INVENTORY = 128;
+
+    private static final int HEADER_SIZE = 5;
+    private static final byte SNAPSHOT = 0x7F;
+    private static final byte DELTA = 0x01;
+
+    private static ExecutorService writer;
+    private static Thread exitHook;
+    private static final AtomicLong journalIds = new AtomicLong();
+    private static final Map<Path, Long> openJournals = new ConcurrentHashMap<>(); // By file, the id of the journal kept in it
+
+    private final Path path;
+    private final long id = journalIds.incrementAndGet();
+    private final Pet pet;
+    private final int compactAfter;
+    private final PetTransitionListener stateListener = (transition, changed) -> statesChanged = true;
+    private VitalStatistics stats; // The objects whose marks the deltas are made from
+    private Inventory inventory;
+    private boolean statesChanged;
+    private long lastTime; // Time of the last record, which the next delta starts from
+    private int deltaCount;
+    private boolean closed;
+    private volatile boolean broken; // A write failed, so the next save must be a snapshot
+    private volatile long bytesWritten;
+
+    /**
+     * Starts a journal for the given pet in the given file, replacing whatever the file held,
+     * and writes a snapshot of the pet as it is now.
+     *
+     * @param path         the journal file
+     * @param pet          the pet, owned by the thread that calls {@link #save()}
+     * @param compactAfter the number of deltas after which the journal is compacted
+     */
+    public Autosave(Path path, Pet pet, int compactAfter) {
+        if (compactAfter < 1) {
+            throw new IllegalArgumentException("Compaction interval must be positive: " + compactAfter);
+        }
+        this.path = path;
+        this.pet = pet;
+        this.compactAfter = compactAfter;
+        openJournals.put(path.toAbsolutePath().normalize(), id); // A newer journal of the same file takes over
+        deleteOpenJournalsOnExit();
+        pet.getStateMachine().addListener(stateListener);
+        writeSnapshot();
+    }
+
+    /**
+     * Starts the journal of a save slot in {@link #DIRECTORY}.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet, owned by the thread that calls {@link #save()}
+     * @return the new journal
+     */
+    public static Autosave forSlot(int slot, Pet pet) {
+        return new Autosave(slotFile(slot), pet, DEFAULT_COMPACT_AFTER);
+    }
+
+    /**
+     * Returns whether a journal of this process is kept in the given file.
+     *
+     * @param path the journal file
+     * @return true if the journal is open, so the file is no leftover of a crash
+     */
+    public static boolean isOpen(Path path) {
+        return openJournals.containsKey(path.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Returns the journal file of a save slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @return the journal file, which may not exist
+     */
+    public static Path slotFile(int slot) {
+        return Paths.get(DIRECTORY, "slot" + slot + ".journal");
+    }
+
+    /**
+     * Appends what changed since the last save, or replaces the journal with a snapshot when it is
+     * due for compaction. Does nothing if nothing changed.
+     *
+     * @return true if anything was written
+     */
+    public boolean save() {
+        if (closed) {
+            throw new IllegalStateException("The autosave of " + path + " is closed");
+        }
+        int petChanges = pet.takeChanges();
+        if (broken || (petChanges & Pet.REPLACED) != 0 || pet.getVitalStats() != stats
+                || pet.getInventory() != inventory) {
+            writeSnapshot();
+            return true;
+        }
+
+        int fields = stats.takeChanges();
+        if ((petChanges & Pet.PLAY_COOLDOWN) != 0) {
+            fields |= LAST_PLAY;
+        }
+        if ((petChanges & Pet.VET_COOLDOWN) != 0) {
+            fields |= LAST_VET_VISIT;
+        }
+        if (statesChanged) {
+            fields |= STATES;
+            statesChanged = false;
+        }
+        BitSet items = inventory.takeChanges();
+        if (!items.isEmpty()) {
+            fields |= INVENTORY;
+        }
+        if (fields == 0) {
+            return false;
+        }
+        if (deltaCount >= compactAfter) {
+            writeSnapshot(); // Holds this change too
+            return true;
+        }
+
+        long time = pet.getClock().millis();
+        ByteBuffer record = ByteBuffer.allocate(1 + 10 + 2 + 4 * 5 + 2 * 10 + 1 + 5 + items.cardinality() * 10);
+        record.put(DELTA);
+        Varints.putVarLong(record, Varints.zigzag(time - lastTime));
+        Varints.putVarLong(record, fields);
+        if ((fields & VitalStatistics.HEALTH) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(stats.getHealth()));
+        }
+        if ((fields & VitalStatistics.SLEEP) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(stats.getSleep()));
+        }
+        if ((fields & VitalStatistics.FULLNESS) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(stats.getFullness()));
+        }
+        if ((fields & VitalStatistics.HAPPINESS) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(stats.getHappiness()));
+        }
+        if ((fields & LAST_PLAY) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(pet.getLastPlay()));
+        }
+        if ((fields & LAST_VET_VISIT) != 0) {
+            Varints.putVarLong(record, Varints.zigzag(pet.getLastVetVisit()));
+        }
+        if ((fields & STATES) != 0) {
+            Varints.putVarLong(record, stateFlags(pet));
+        }
+        if ((fields & INVENTORY) != 0) {
+            Varints.putVarLong(record, items.cardinality());
+            for (int id = items.nextSetBit(0); id >= 0; id = items.nextSetBit(id + 1)) {
+                Varints.putVarLong(record, id);
+                Varints.putVarLong(record, Varints.zigzag(inventory.getQuantity(id)));
+            }
+        }
+        record.flip();
+        lastTime = time;
+        deltaCount++;
+        submit(() -> append(record));
+        return true;
+    }
+
+    /**
+     * Stops watching the pet and deletes the journal, waiting until it is gone. Called when the game
+     * ends cleanly or the pet was saved by hand, so the slot holds what the player wants to load.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pet.getStateMachine().removeListener(stateListener);
+        submit(() -> Files.deleteIfExists(path));
+        flush();
+        openJournals.remove(path.toAbsolutePath().normalize(), id); // Unless a newer journal took the file over
+    }
+
+    /**
+     * Returns the number of bytes written to the journal so far, snapshots included.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Rebuilds the pet from a journal: its last snapshot with every delta after it applied.
+     * A record torn by a crash is ignored.
+     *
+     * @param path the journal file
+     * @return the pet, saved at the time of the last record, or {@code null} if there is no journal
+     * @throws IOException if the file is not a journal or its snapshot cannot be decoded
+     */
+    public static Pet recover(Path path) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < HEADER_SIZE) {
+            return null; // Crashed before the header was written
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            throw new IOException(path + " is not an autosave journal");
+        }
+
+        Pet snapshot = null;
+        VitalStatistics stats = null;
+        Inventory inventory = null;
+        long lastPlay = 0;
+        long lastVetVisit = 0;
+        int flags = 0;
+        long time = 0;
+        try {
+            while (in.hasRemaining()) {
+                int start = in.position();
+                byte code = in.get();
+                long recordTime = time + Varints.unzigzag(Varints.getVarLong(in));
+                if (code == SNAPSHOT) {
+                    int size = (int) Varints.getVarLong(in);
+                    snapshot = SaveFile.decode(in.slice(in.position(), size));
+                    in.position(in.position() + size);
+                    stats = snapshot.getVitalStats();
+                    inventory = snapshot.getInventory();
+                    lastPlay = snapshot.getLastPlay();
+                    lastVetVisit = snapshot.getLastVetVisit();
+                    flags = stateFlags(snapshot);
+                } else if (code == DELTA && snapshot != null) {
+                    // Read the whole delta before applying it, so a torn one changes nothing
+                    int fields = (int) Varints.getVarLong(in);
+                    long[] values = new long[7];
+                    for (int bit = 0; bit < values.length; bit++) {
+                        if ((fields & (1 << bit)) != 0) {
+                            values[bit] = bit == 6 ? Varints.getVarLong(in) : Varints.unzigzag(Varints.getVarLong(in));
+                        }
+                    }
+                    int[] items = new int[(fields & INVENTORY) != 0 ? (int) Varints.getVarLong(in) * 2 : 0];
+                    for (int i = 0; i < items.length; i += 2) {
+                        items[i] = (int) Varints.getVarLong(in);
+                        items[i + 1] = (int) Varints.unzigzag(Varints.getVarLong(in));
+                    }
+
+                    if ((fields & VitalStatistics.HEALTH) != 0) {
+                        stats.setHealth((int) values[0]);
+                    }
+                    if ((fields & VitalStatistics.SLEEP) != 0) {
+                        stats.setSleep((int) values[1]);
+                    }
+                    if ((fields & VitalStatistics.FULLNESS) != 0) {
+                        stats.setFullness((int) values[2]);
+                    }
+                    if ((fields & VitalStatistics.HAPPINESS) != 0) {
+                        stats.setHappiness((int) values[3]);
+                    }
+                    if ((fields & LAST_PLAY) != 0) {
+                        lastPlay = values[4];
+                    }
+                    if ((fields & LAST_VET_VISIT) != 0) {
+                        lastVetVisit = values[5];
+                    }
+                    if ((fields & STATES) != 0) {
+                        flags = (int) values[6];
+                    }
+                    for (int i = 0; i < items.length; i += 2) {
+                        if (items[i] >= 0 && items[i] < ItemCatalog.size() && items[i + 1] >= 0) {
+                            inventory.setQuantity(items[i], items[i + 1]);
+                        }
+                    }
+                } else {
+                    in.position(start);
+                    break; // Not a record; the rest of the file was never completely written
+                }
+                time = recordTime;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // A record cut short by a crash
+        }
+        if (snapshot == null) {
+            return null;
+        }
+
+        Pet pet = new Pet(snapshot.getName(), snapshot.getType(), stats, lastPlay, lastVetVisit,
+                (flags & PetWorld.SLEEPING) != 0, (flags & PetWorld.HUNGRY) != 0,
+                (flags & PetWorld.ANGRY) != 0, (flags & PetWorld.DEAD) != 0);
+        pet.setInventory(inventory);
+        pet.setLastSaved(time);
+        pet.takeChanges(); // A recovered pet starts without changes, like a loaded one
+        stats.takeChanges();
+        inventory.takeChanges();
+        return pet;
+    }
+
+    /**
+     * Replaces the journal with a snapshot of the whole pet.
+     */
+    private void writeSnapshot() {
+        stats = pet.getVitalStats();
+        inventory = pet.getInventory();
+        stats.takeChanges(); // The snapshot holds everything
+        inventory.takeChanges();
+        pet.takeChanges();
+        statesChanged = false;
+
+        long time = pet.getClock().millis();
+        byte[] encoded = SaveFile.encode(pet);
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + 1 + 10 + 5 + encoded.length);
+        file.putInt(MAGIC).put(VERSION);
+        file.put(SNAPSHOT);
+        Varints.putVarLong(file, Varints.zigzag(time)); // The first record's delta starts from 0
+        Varints.putVarLong(file, encoded.length);
+        file.put(encoded);
+        byte[] contents = new byte[file.position()];
+        file.flip().get(contents);
+        lastTime = time;
+        deltaCount = 0;
+        broken = false;
+        submit(() -> {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            AtomicFiles.write(path, contents);
+            bytesWritten += contents.length;
+        });
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        int size = record.remaining();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+        bytesWritten += size;
+    }
+
+    /**
+     * Runs a write on the shared writer thread, after every write submitted before it.
+     */
+    private void submit(Write write) {
+        getWriter().execute(() -> {
+            try {
+                write.run();
+            } catch (IOException e) {
+                System.err.println("Autosave to " + path + " failed: " + e.getMessage());
+                broken = true;
+            }
+        });
+    }
+
+    /**
+     * Waits until every write submitted so far has finished.
+     */
+    void flush() {
+        Future<?> marker = getWriter().submit(() -> { });
+        try {
+            marker.get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Autosave to " + path + " did not finish: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes a normal exit of the process, such as closing the game window, delete the journals
+     * still open, as it ends the game cleanly. Only a crash leaves journals behind.
+     */
+    private static synchronized void deleteOpenJournalsOnExit() {
+        if (exitHook != null) {
+            return;
+        }
+        exitHook = new Thread(() -> {
+            Future<?> marker = getWriter().submit(() -> { });
+            try {
+                marker.get(10, TimeUnit.SECONDS); // Nothing may recreate a journal afterwards
+            } catch (Exception e) {
+                System.err.println("Autosave did not finish before exit: " + e.getMessage());
+            }
+            for (Path journal : openJournals.keySet()) {
+                try {
+                    Files.deleteIfExists(journal);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete " + journal + ": " + e.getMessage());
+                }
+            }
+        }, "autosave-exit");
+        Runtime.getRuntime().addShutdownHook(exitHook);
+    }
+
+    private static synchronized ExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "autosave-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static int stateFlags(Pet pet) {
+        return (pet.isSleeping() ? PetWorld.SLEEPING : 0) | (pet.isHungry() ? PetWorld.HUNGRY : 0)
+                | (pet.isAngry() ? PetWorld.ANGRY : 0) | (pet.isDead() ? PetWorld.DEAD : 0);
+    }
+}
@@ -0,0 +1,120 @@
+package logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The {@code GameEvents} class holds the game's Java Flight Recorder events.
+ *
+ * <p>An event costs next to nothing unless a recording is running, e.g. one started with
+ * {@code -XX:StartFlightRecording} or from the debug window of the main menu. Each event is
+ * recorded next to a {@link Metrics} histogram of the same measurement.</p>
+ */
+public final class GameEvents {
+
+    private static final String CATEGORY = "Virtual Pet";
+
+    private GameEvents() {
+    }
+
+    @Name("pet.DecayTick")
+    @Label("Decay Tick")
+    @Category({CATEGORY, "Simulation"})
+    @Description("One decay of the pet's stats on the gameplay screen")
+    public static final class DecayTick extends Event {
+        @Label("Pet")
+        public String pet;
+    }
+
+    @Name("pet.EdtStall")
+    @Label("Event Dispatch Thread Stall")
+    @Category({CATEGORY, "Simulation"})
+    @Description("A game loop frame that came much later than planned because the Event Dispatch Thread was busy")
+    public static final class EdtStall extends Event {
+        @Label("Stall")
+        @Description("How much later than planned the frame came")
+        @Timespan
+        public long stall;
+
+        @Label("Planned Frame Time")
+        @Timespan(Timespan.MILLISECONDS)
+        public long frame;
+    }
+
+    @Name("pet.SpriteLoad")
+    @Label("Sprite Load")
+    @Category({CATEGORY, "Images"})
+    @Description("Reading and decoding an image resource")
+    public static final class SpriteLoad extends Event {
+        @Label("Resource")
+        public String path;
+
+        @Label("Loaded")
+        public boolean loaded;
+    }
+
+    @Name("pet.SlotSave")
+    @Label("Slot Save")
+    @Category({CATEGORY, "Persistence"})
+    @Description("Writing a pet into a save slot and updating the slot index")
+    public static final class SlotSave extends Event {
+        @Label("Slot")
+        public int slot;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("pet.SlotLoad")
+    @Label("Slot Load")
+    @Category({CATEGORY, "Persistence"})
+    @Description("Reading and decoding the pet in a save slot")
+    public static final class SlotLoad extends Event {
+        @Label("Slot")
+        public int slot;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("pet.ParentalControlsLoad")
+    @Label("Parental Controls Load")
+    @Category({CATEGORY, "Persistence"})
+    @Description("Reading the parental controls settings")
+    public static final class ParentalControlsLoad extends Event {
+        @Label("File")
+        public String file;
+    }
+
+    @Name("pet.ParentalControlsSave")
+    @Label("Parental Controls Save")
+    @Category({CATEGORY, "Persistence"})
+    @Description("Writing the parental controls settings and handing them to the save service")
+    public static final class ParentalControlsSave extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("pet.DialogWait")
+    @Label("Dialog Wait")
+    @Category({CATEGORY, "User Interface"})
+    @Description("The time a modal dialog waited for the player")
+    public static final class DialogWait extends Event {
+        @Label("Kind")
+        public String kind;
+
+        @Label("Title")
+        public String title;
+    }
+}
@@ -0,0 +1,514 @@
+package logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code Leaderboard} class ranks the best score every player reached with each of their pets.
+ *
+ * <p>Sessions submit their score as it grows and once more when they end; only the best score of a
+ * pet counts. The best score of a pet is replaced by compare-and-set, and the number of pets at every
+ * score is counted in a Fenwick tree of atomic counters, whose pages are only allocated once a score
+ * needs them. The leaders are kept in a concurrent skip list that is trimmed to the top {@code K};
+ * only a score that enters it takes a short lock, so almost every submission takes none. The top of
+ * the board is read straight from the skip list and the rank of any pet is a sum over
+ * {@code log(maxScore)} counters, both in well under a millisecond with millions of pets. While
+ * submissions run concurrently, a rank may briefly count a pet that is moving up twice.</p>
+ *
+ * <p>Improved scores are appended to a log every few seconds. Once the log holds more records than
+ * the board has pets, and more than {@link #COMPACT_AFTER_RECORDS}, it is compacted into a snapshot
+ * of every best score, which replaces the old snapshot in one step. Opening the board reads the
+ * snapshot and replays the log on top.</p>
+ */
+public class Leaderboard {
+
+    /**
+     * A pet's best score.
+     */
+    public static final class Entry {
+        private final String player;
+        private final String pet;
+        private final long score;
+
+        Entry(String player, String pet, long score) {
+            this.player = player;
+            this.pet = pet;
+            this.score = score;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public String getPet() {
+            return pet;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return player + "/" + pet + ": " + score;
+        }
+    }
+
+    /**
+     * Directory holding the leaderboard unless told otherwise.
+     */
+    public static final String DIRECTORY = "src/files/leaderboard";
+
+    /**
+     * Number of leaders kept unless told otherwise.
+     */
+    public static final int DEFAULT_TOP = 100;
+
+    /**
+     * Scores told apart unless told otherwise. Higher scores share the rank of this score.
+     * The counters of a range of scores are only allocated once a pet reaches it.
+     */
+    public static final int DEFAULT_MAX_SCORE = 1 << 20;
+
+    static final String SNAPSHOT_FILE = "leaderboard.dat";
+    static final String LOG_FILE = "leaderboard.log";
+
+    /**
+     * The log is compacted once it holds more than this many records and more records than the board
+     * has pets, so the snapshot written by a compaction is never larger than the log it replaces.
+     */
+    static final int COMPACT_AFTER_RECORDS = 10_000;
+
+    private static final int SNAPSHOT_MAGIC = 0x4C425244; // "LBRD"
+    private static final int PAGE_BITS = 9; // 512 counters, 4 KB a page
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    private static final long FLUSH_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Best score first; equal scores in order of player and pet, so every pet has a place of its own.
+     */
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong((Entry entry) -> entry.score).reversed()
+            .thenComparing(entry -> entry.player)
+            .thenComparing(entry -> entry.pet);
+
+    /**
+     * A pet on the board and its best score, or -1 before the first one is recorded.
+     */
+    private static final class Standing {
+        private final String player;
+        private final String name;
+        private final AtomicLong best = new AtomicLong(-1);
+
+        Standing(String player, String name) {
+            this.player = player;
+            this.name = name;
+        }
+    }
+
+    private static Leaderboard instance;
+    private static CompletableFuture<Leaderboard> opening;
+
+    private final Path directory;
+    private final int top;
+    private final int maxScore;
+    private final ConcurrentHashMap<String, Standing> pets = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> leaders = new ConcurrentSkipListSet<>(ORDER);
+    private final AtomicInteger leaderCount = new AtomicInteger(); // The skip list counts its size in linear time
+    private final AtomicReferenceArray<AtomicLongArray> counts; // Pages of a Fenwick tree over the scores, 1-based
+    private final AtomicLong ranked = new AtomicLong();
+    private final Set<Standing> unsaved = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+    private int logRecords; // Guarded by this
+
+    /**
+     * Returns the game's leaderboard, opening it on first use. Scores are saved every few seconds
+     * and when the application exits.
+     *
+     * @return the shared leaderboard
+     * @throws IOException if the saved leaderboard cannot be read
+     */
+    public static synchronized Leaderboard getInstance() throws IOException {
+        if (instance == null) {
+            instance = open(Paths.get(DIRECTORY), DEFAULT_TOP, DEFAULT_MAX_SCORE, FLUSH_INTERVAL_MILLIS);
+            Leaderboard leaderboard = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(leaderboard::flush, "leaderboard-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the game's leaderboard like {@link #getInstance()}, but opens it on a background thread,
+     * so a screen can submit scores without waiting for the saved board to be read.
+     *
+     * @return the shared leaderboard once it is open; fails with an {@link UncheckedIOException}
+     *         if it cannot be read, in which case the next call tries again
+     */
+    public static synchronized CompletableFuture<Leaderboard> getInstanceAsync() {
+        if (opening == null || opening.isCompletedExceptionally()) {
+            opening = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return getInstance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return opening;
+    }
+
+    /**
+     * Opens the leaderboard saved in the given directory, or an empty one, and starts saving it
+     * every few seconds.
+     *
+     * @param directory           the directory holding the snapshot and the log
+     * @param top                 the number of leaders kept for {@link #getTop(int)}
+     * @param maxScore            the number of scores told apart; higher scores share the rank of this one
+     * @param flushIntervalMillis the time between two saves, in milliseconds
+     * @return the open leaderboard
+     * @throws IOException if the saved leaderboard cannot be read
+     */
+    public static Leaderboard open(Path directory, int top, int maxScore, long flushIntervalMillis) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(directory, top, maxScore);
+        leaderboard.flusher.scheduleWithFixedDelay(leaderboard::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        return leaderboard;
+    }
+
+    private Leaderboard(Path directory, int top, int maxScore) throws IOException {
+        if (top < 1 || maxScore < 1) {
+            throw new IllegalArgumentException("The board needs room for a leader and a score: " + top + ", " + maxScore);
+        }
+        this.directory = directory;
+        this.top = top;
+        this.maxScore = maxScore;
+        counts = new AtomicReferenceArray<>((maxScore >> PAGE_BITS) + 1);
+        load();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records a score a player reached with a pet. Safe to call from any number of threads at once.
+     *
+     * @param player the player
+     * @param pet    the pet's name
+     * @param score  the score, which is ignored unless it beats the pet's best score
+     * @return true if the score is the pet's new best score
+     */
+    public boolean submit(String player, String pet, long score) {
+        if (score < 0) {
+            throw new IllegalArgumentException("Scores cannot be negative: " + score);
+        }
+        Standing standing = pets.computeIfAbsent(key(player, pet), key -> new Standing(player, pet));
+        if (!improve(standing, score)) {
+            return false;
+        }
+        unsaved.add(standing); // After the new best, so the next save reads it
+        return true;
+    }
+
+    /**
+     * Returns a pet's best score.
+     *
+     * @param player the player
+     * @param pet    the pet's name
+     * @return the best score, or -1 if the pet has none
+     */
+    public long getScore(String player, String pet) {
+        Standing standing = pets.get(key(player, pet));
+        return standing == null ? -1 : standing.best.get();
+    }
+
+    /**
+     * Returns a pet's place on the board: one more than the number of pets with a better score,
+     * so pets with equal scores share a place.
+     *
+     * @param player the player
+     * @param pet    the pet's name
+     * @return the place, starting at 1, or 0 if the pet has no score
+     */
+    public long getRank(String player, String pet) {
+        long score = getScore(player, pet);
+        if (score < 0) {
+            return 0;
+        }
+        return Math.max(1, ranked.get() - countUpTo(bucket(score)) + 1);
+    }
+
+    /**
+     * Returns the best pets, best first.
+     *
+     * @param count the number of pets, at most the number of leaders kept
+     * @return up to {@code count} entries
+     */
+    public List<Entry> getTop(int count) {
+        if (count > top) {
+            throw new IllegalArgumentException("Only the top " + top + " are kept: " + count);
+        }
+        List<Entry> result = new ArrayList<>(Math.min(count, leaderCount.get()));
+        Iterator<Entry> iterator = leaders.iterator();
+        while (result.size() < count && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of pets with a score.
+     */
+    public long size() {
+        return ranked.get();
+    }
+
+    /**
+     * Saves every improved score now.
+     */
+    public synchronized void flush() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        List<Standing> written = new ArrayList<>();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            for (Iterator<Standing> iterator = unsaved.iterator(); iterator.hasNext(); ) {
+                Standing standing = iterator.next();
+                iterator.remove(); // Before reading the score, so a newer one stays unsaved
+                writeRecord(out, standing.player, standing.name, standing.best.get());
+                written.add(standing);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+        try {
+            if (logRecords + written.size() > Math.max(COMPACT_AFTER_RECORDS, pets.size())) {
+                compact();
+            } else {
+                Files.createDirectories(directory);
+                Files.write(directory.resolve(LOG_FILE), buffer.toByteArray(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                logRecords += written.size();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save the leaderboard: " + e.getMessage());
+            unsaved.addAll(written); // Retried at the next save
+        }
+    }
+
+    /**
+     * Saves every improved score and stops saving on its own. Scores submitted afterwards are not saved.
+     */
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Replaces the snapshot with every best score and empties the log. Called while holding the lock.
+     */
+    private void compact() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            List<Entry> snapshot = new ArrayList<>(pets.size());
+            for (Standing standing : pets.values()) {
+                long best = standing.best.get();
+                if (best >= 0) { // Unless its first score is still being recorded
+                    snapshot.add(new Entry(standing.player, standing.name, best));
+                }
+            }
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(snapshot.size());
+            for (Entry entry : snapshot) {
+                writeRecord(out, entry.player, entry.pet, entry.score);
+            }
+        }
+        Files.createDirectories(directory);
+        AtomicFiles.write(directory.resolve(SNAPSHOT_FILE), buffer.toByteArray());
+        Files.deleteIfExists(directory.resolve(LOG_FILE)); // Replaying it again would change nothing
+        logRecords = 0;
+    }
+
+    /**
+     * Reads the snapshot and replays the log, cutting off the log at the first record that cannot
+     * be read, which was torn by a crash or damaged.
+     */
+    private void load() throws IOException {
+        byte[] snapshot = readIfExists(directory.resolve(SNAPSHOT_FILE));
+        if (snapshot.length > 0) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a leaderboard snapshot: " + directory.resolve(SNAPSHOT_FILE));
+                }
+                for (int i = in.readInt(); i > 0; i--) {
+                    readRecord(in);
+                }
+            }
+        }
+
+        Path logFile = directory.resolve(LOG_FILE);
+        byte[] log = readIfExists(logFile);
+        int length = 0;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(log))) {
+            while (length < log.length) {
+                readRecord(in);
+                length = log.length - in.available();
+                logRecords++;
+            }
+        } catch (IOException e) {
+            System.err.println("Cutting off the leaderboard log at a damaged record: " + e);
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(length); // New records must follow the last complete one
+            }
+        }
+    }
+
+    private static byte[] readIfExists(Path file) throws IOException {
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return new byte[0];
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, String player, String pet, long score) throws IOException {
+        out.writeUTF(player);
+        out.writeUTF(pet);
+        out.writeLong(score);
+    }
+
+    private void readRecord(DataInputStream in) throws IOException {
+        String player = in.readUTF();
+        String pet = in.readUTF();
+        long score = in.readLong();
+        improve(pets.computeIfAbsent(key(player, pet), key -> new Standing(player, pet)), score);
+    }
+
+    /**
+     * Makes the score the pet's best if it beats the old one, and moves the pet on the board.
+     */
+    private boolean improve(Standing standing, long score) {
+        long old = standing.best.get();
+        while (score > old) {
+            if (standing.best.compareAndSet(old, score)) {
+                move(standing, old, score);
+                return true;
+            }
+            old = standing.best.get();
+        }
+        return false;
+    }
+
+    /**
+     * Moves a pet from its old best score to its new one. Only the thread that set the new best
+     * moves the pet, but newer scores of the same pet may be moved at the same time.
+     */
+    private void move(Standing standing, long old, long score) {
+        add(bucket(score), 1);
+        if (old < 0) {
+            ranked.incrementAndGet();
+        } else {
+            add(bucket(old), -1);
+            if (leaders.remove(new Entry(standing.player, standing.name, old))) {
+                leaderCount.decrementAndGet();
+            }
+        }
+
+        Entry entry = new Entry(standing.player, standing.name, score);
+        if (leaderCount.get() >= top && ORDER.compare(entry, lastLeader()) > 0) {
+            return; // Not among the leaders, like almost every score on a large board
+        }
+        synchronized (leaders) {
+            // Under the lock, so no stale score of a pet that moved on can push a leader out
+            if (leaders.add(entry)) {
+                leaderCount.incrementAndGet();
+            }
+            if (standing.best.get() != score && leaders.remove(entry)) {
+                leaderCount.decrementAndGet(); // A newer score was moved meanwhile and may have missed this one
+            }
+            while (leaderCount.get() > top && leaders.pollLast() != null) {
+                leaderCount.decrementAndGet();
+            }
+        }
+    }
+
+    private Entry lastLeader() {
+        try {
+            return leaders.last();
+        } catch (NoSuchElementException e) {
+            return new Entry("", "", -1); // Emptied meanwhile; below every score
+        }
+    }
+
+    private int bucket(long score) {
+        return (int) Math.min(score, maxScore - 1);
+    }
+
+    /**
+     * Adds to the number of pets with the score of the given bucket.
+     */
+    private void add(int bucket, long delta) {
+        for (int i = bucket + 1; i <= maxScore; i += i & -i) {
+            page(i).addAndGet(i & PAGE_MASK, delta);
+        }
+    }
+
+    /**
+     * Returns the page holding a counter of the tree, allocating it on first use.
+     */
+    private AtomicLongArray page(int index) {
+        AtomicLongArray page = counts.get(index >> PAGE_BITS);
+        if (page == null) {
+            page = new AtomicLongArray(PAGE_MASK + 1);
+            if (!counts.compareAndSet(index >> PAGE_BITS, null, page)) {
+                page = counts.get(index >> PAGE_BITS); // Allocated by another thread meanwhile
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the number of pets with a score in the given bucket or a lower one.
+     */
+    private long countUpTo(int bucket) {
+        long sum = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            AtomicLongArray page = counts.get(i >> PAGE_BITS);
+            if (page != null) { // No pet has counted in a page never allocated
+                sum += page.get(i & PAGE_MASK);
+            }
+        }
+        return sum;
+    }
+
+    private static String key(String player, String pet) {
+        return player.length() + ":" + player + pet; // The length keeps "ab"+"c" apart from "a"+"bc"
+    }
+}
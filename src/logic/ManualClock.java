@@ -0,0 +1,112 @@
+package logic;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * The {@code ManualClock} class is a clock that only moves when it is told to. Replays and
+ * simulations give it to a {@link Pet} so the pet's cooldowns follow simulated time instead of
+ * the wall clock.
+ */
+public class ManualClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile long millis;
+
+    /**
+     * Creates a clock in UTC standing at the given time.
+     *
+     * @param millis the time in milliseconds since the epoch
+     */
+    public ManualClock(long millis) {
+        this(millis, ZoneOffset.UTC);
+    }
+
+    /**
+     * Creates a clock in the given zone standing at the given time.
+     *
+     * @param millis the time in milliseconds since the epoch
+     * @param zone   the zone the clock reports
+     */
+    public ManualClock(long millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock to the given time, which may lie before its current time.
+     *
+     * @param millis the time in milliseconds since the epoch
+     */
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration the time to move forward by
+     */
+    public void advance(Duration duration) {
+        millis += duration.toMillis();
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns a view of this clock in the given zone. The view moves whenever this clock is moved.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ZonedView(this, zone);
+    }
+
+    /**
+     * A manual clock seen from another zone.
+     */
+    private static final class ZonedView extends Clock {
+        private final ManualClock source;
+        private final ZoneId zone;
+
+        ZonedView(ManualClock source, ZoneId zone) {
+            this.source = source;
+            this.zone = zone;
+        }
+
+        @Override
+        public long millis() {
+            return source.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return source.instant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new ZonedView(source, zone);
+        }
+    }
+}
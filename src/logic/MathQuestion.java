@@ -0,0 +1,63 @@
+package logic;
+
+import inventory.ItemCatalog;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code MathQuestion} class is a question of the math mini-game. Questions and rewards are
+ * drawn from a random generator the caller passes in, so a seeded generator repeats them exactly.
+ */
+public final class MathQuestion {
+
+    private static final char[] OPERATIONS = {'+', '-', '*'};
+
+    private final int left;
+    private final int right;
+    private final char operation;
+
+    private MathQuestion(int left, int right, char operation) {
+        this.left = left;
+        this.right = right;
+        this.operation = operation;
+    }
+
+    /**
+     * Draws a question about two numbers between 1 and 10.
+     *
+     * @param random the source of the numbers and the operation
+     * @return the new question
+     */
+    public static MathQuestion next(RandomGenerator random) {
+        int left = random.nextInt(10) + 1;
+        int right = random.nextInt(10) + 1;
+        return new MathQuestion(left, right, OPERATIONS[random.nextInt(OPERATIONS.length)]);
+    }
+
+    /**
+     * Draws the item a correct answer wins.
+     *
+     * @param random the source of the reward
+     * @return the catalog id of the item
+     */
+    public static int nextReward(RandomGenerator random) {
+        return random.nextInt(ItemCatalog.size());
+    }
+
+    /**
+     * Returns the question as it is asked, for example "What is 3 * 4?".
+     *
+     * @return the text of the question
+     */
+    public String getText() {
+        return "What is " + left + " " + operation + " " + right + "?";
+    }
+
+    public int getAnswer() {
+        return switch (operation) {
+            case '+' -> left + right;
+            case '-' -> left - right;
+            default -> left * right;
+        };
+    }
+}
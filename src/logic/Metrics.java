@@ -0,0 +1,259 @@
+package logic;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code Metrics} class is the game's in-process registry of counters and histograms.
+ *
+ * <p>Metrics are created on first use by name and live as long as the game. Recording is lock-free
+ * and cheap enough for the Event Dispatch Thread, so every timed place in the game records here
+ * next to its {@link GameEvents Flight Recorder event}: the events show single slow cases in a
+ * recording, the metrics summarise a whole session without one.</p>
+ *
+ * <p>The registry is printed by the debug window of the main menu, and on exit when the game is
+ * started with {@code -D}{@value #DUMP_ON_EXIT_PROPERTY}.</p>
+ */
+public final class Metrics {
+
+    /**
+     * System property that makes the game print every metric when it exits.
+     */
+    public static final String DUMP_ON_EXIT_PROPERTY = "metrics.dumpOnExit";
+
+    /**
+     * What a histogram's values measure, which decides how they are printed.
+     */
+    public enum Unit {
+        NANOSECONDS {
+            @Override
+            String format(double value) {
+                return String.format("%.3f ms", value / 1e6);
+            }
+        },
+        BYTES {
+            @Override
+            String format(double value) {
+                return String.format("%.0f B", value);
+            }
+        };
+
+        abstract String format(double value);
+    }
+
+    /**
+     * A number that only grows.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * The distribution of recorded values. Values are counted in buckets that grow with the value,
+     * {@value #SUB_BUCKETS} per power of two, so percentiles are accurate to about 6% at any scale
+     * while the histogram keeps a fixed size.
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final Unit unit;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(Unit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Records a value. Negative values are recorded as zero.
+         *
+         * @param value the value
+         */
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Records the time since a start taken from {@link System#nanoTime()}.
+         *
+         * @param startNanos the start
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public Unit getUnit() {
+            return unit;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) getSum() / n;
+        }
+
+        /**
+         * Returns the smallest value that at least the given share of the recorded values do not exceed,
+         * rounded down to its bucket.
+         *
+         * @param share the share, from 0 to 1; 0.5 for the median
+         * @return the value, or 0 if nothing was recorded
+         */
+        public long getPercentile(double share) {
+            if (share < 0 || share > 1) {
+                throw new IllegalArgumentException("Share must be between 0 and 1: " + share);
+            }
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i]; // A snapshot that agrees with itself, even while others record
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(share * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketStart(i), getMax());
+                }
+            }
+            return getMax();
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + mantissa;
+        }
+
+        static long bucketStart(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+            long mantissa = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return (SUB_BUCKETS + mantissa) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        @Override
+        public String toString() {
+            if (getCount() == 0) {
+                return "no values";
+            }
+            return String.format("n=%d mean=%s p50=%s p99=%s max=%s", getCount(), unit.format(getMean()),
+                    unit.format(getPercentile(0.5)), unit.format(getPercentile(0.99)), unit.format(getMax()));
+        }
+    }
+
+    private static Metrics instance;
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the shared registry, creating it on first use.
+     *
+     * @return the shared registry
+     */
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+            if (Boolean.getBoolean(DUMP_ON_EXIT_PROPERTY)) {
+                Metrics metrics = instance;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> metrics.dump(System.out), "metrics-dump"));
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates an empty registry. The game shares the one of {@link #getInstance()}.
+     */
+    public Metrics() {
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use.
+     *
+     * @param name the name
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it on first use.
+     *
+     * @param name the name
+     * @param unit what the values measure
+     * @return the histogram
+     * @throws IllegalArgumentException if the histogram already exists with another unit
+     */
+    public Histogram histogram(String name, Unit unit) {
+        Histogram histogram = histograms.computeIfAbsent(name, key -> new Histogram(unit));
+        if (histogram.getUnit() != unit) {
+            throw new IllegalArgumentException("Histogram " + name + " measures " + histogram.getUnit() + ", not " + unit);
+        }
+        return histogram;
+    }
+
+    /**
+     * Prints every counter and histogram, in order of name.
+     *
+     * @param out where to print
+     */
+    public void dump(PrintStream out) {
+        out.println("Metrics:");
+        for (Map.Entry<String, Counter> counter : counters.entrySet()) {
+            out.printf("  %-24s %d%n", counter.getKey(), counter.getValue().get());
+        }
+        for (Map.Entry<String, Histogram> histogram : histograms.entrySet()) {
+            out.printf("  %-24s %s%n", histogram.getKey(), histogram.getValue());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package logic;
+
+/**
+ * The {@code OfflineCatchUp} class brings a loaded pet up to date with the time that passed
+ * while the game was closed.
+ *
+ * <p>Replaying every missed decay tick would take time proportional to how long the pet was
+ * left alone. Instead, the decay is split into stretches during which every stat keeps the same
+ * classification (above the critical threshold, critical, or empty). Inside such a stretch every
+ * tick changes the stats by the same amount, so the whole stretch is applied in one step.
+ * Only the ticks where something changes (a stat turning critical, the pet getting hungry, angry,
+ * collapsing from exhaustion or dying) are run through {@link PetSimulation}, so the cost grows
+ * with the number of state transitions rather than with the elapsed time.</p>
+ */
+public final class OfflineCatchUp {
+
+    /**
+     * Number of sleep recovery steps that fit between two decay ticks.
+     */
+    private static final long RECOVERY_STEPS_PER_TICK =
+            (PetSimulation.DECAY_INTERVAL_MILLIS - 1) / PetSimulation.SLEEP_RECOVERY_INTERVAL_MILLIS;
+
+    private OfflineCatchUp() {
+    }
+
+    /**
+     * Applies the decay for the time between the pet's last save and the given time.
+     * Pets that have never been saved are left untouched.
+     *
+     * @param pet        the pet that was just loaded
+     * @param nowMillis  the current time of the pet's clock in milliseconds
+     * @return the number of decay ticks that were applied
+     */
+    public static long catchUp(Pet pet, long nowMillis) {
+        if (pet.getLastSaved() <= 0 || nowMillis <= pet.getLastSaved()) {
+            return 0;
+        }
+        return advance(pet, nowMillis - pet.getLastSaved());
+    }
+
+    /**
+     * Advances the pet by the given amount of time, with the same result as
+     * {@link PetSimulation#advance(long)} on a fresh simulation.
+     *
+     * @param pet           the pet to advance
+     * @param elapsedMillis the amount of time to advance, in milliseconds
+     * @return the number of decay ticks that were applied
+     */
+    public static long advance(Pet pet, long elapsedMillis) {
+        PetSimulation simulation = new PetSimulation(pet);
+        long ticks = elapsedMillis / PetSimulation.DECAY_INTERVAL_MILLIS;
+        long leftoverSteps = (elapsedMillis % PetSimulation.DECAY_INTERVAL_MILLIS) / PetSimulation.SLEEP_RECOVERY_INTERVAL_MILLIS;
+
+        // A pet saved while sleeping keeps recovering until the first tick
+        recover(simulation, ticks > 0 ? RECOVERY_STEPS_PER_TICK : leftoverSteps);
+
+        long remaining = ticks;
+        while (remaining > 0 && !pet.isDead()) {
+            // Run the tick that changes something through the real rules
+            simulation.tick();
+            remaining--;
+            recover(simulation, remaining > 0 ? RECOVERY_STEPS_PER_TICK : leftoverSteps);
+
+            // Then skip over every tick that only repeats the same change
+            long steady = Math.min(steadyTicks(pet), remaining);
+            if (steady > 0) {
+                applySteadyTicks(pet, steady);
+                remaining -= steady;
+            }
+        }
+        return ticks - remaining;
+    }
+
+    /**
+     * Applies up to the given number of sleep recovery steps while the pet is sleeping.
+     */
+    private static void recover(PetSimulation simulation, long maxSteps) {
+        Pet pet = simulation.getPet();
+        for (long i = 0; i < maxSteps && pet.isSleeping() && !pet.isDead(); i++) {
+            simulation.recoverSleep();
+        }
+    }
+
+    /**
+     * Counts the upcoming ticks during which no stat changes its classification,
+     * so every one of them changes the stats by the same amount.
+     *
+     * @param pet a pet whose state flags are up to date
+     * @return the number of ticks that can be applied in bulk
+     */
+    static long steadyTicks(Pet pet) {
+        if (pet.isDead() || pet.isSleeping()) {
+            return 0; // A sleeping pet decays differently and wakes up mid-stretch
+        }
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+
+        long firstChange = Long.MAX_VALUE;
+        firstChange = Math.min(firstChange, ticksUntilChange(stats.getSleep(), type.getSleepDecayRate(), type.getMaxSleep()));
+        firstChange = Math.min(firstChange, ticksUntilChange(stats.getFullness(), type.getFullnessDecayRate(), type.getMaxFullness()));
+        firstChange = Math.min(firstChange, ticksUntilChange(stats.getHappiness(), happinessDecay(pet), type.getMaxHappiness()));
+
+        int healthLoss = healthLossPerTick(pet);
+        if (healthLoss > 0) {
+            firstChange = Math.min(firstChange, ceilDiv(stats.getHealth(), healthLoss));
+        }
+        return firstChange == Long.MAX_VALUE ? Long.MAX_VALUE : firstChange - 1;
+    }
+
+    /**
+     * Applies the given number of steady ticks at once.
+     */
+    private static void applySteadyTicks(Pet pet, long ticks) {
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        int healthLoss = healthLossPerTick(pet);
+
+        stats.setSleep(decay(stats.getSleep(), type.getSleepDecayRate(), ticks));
+        stats.setFullness(decay(stats.getFullness(), type.getFullnessDecayRate(), ticks));
+        stats.setHappiness(decay(stats.getHappiness(), happinessDecay(pet), ticks));
+        stats.setHealth(decay(stats.getHealth(), healthLoss, ticks));
+    }
+
+    /**
+     * Returns how much happiness the pet loses per tick in its current state.
+     */
+    private static int happinessDecay(Pet pet) {
+        int rate = pet.getType().getHappinessDecayRate();
+        return pet.isHungry() ? rate * 2 : rate;
+    }
+
+    /**
+     * Returns how much health an awake pet loses per tick in its current state:
+     * one point per critical stat, plus the starvation penalty for an empty stomach.
+     */
+    private static int healthLossPerTick(Pet pet) {
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        int loss = 0;
+        if (isCritical(stats.getSleep(), type.getMaxSleep())) {
+            loss++;
+        }
+        if (stats.getFullness() <= 0) {
+            loss += PetSimulation.STARVATION_HEALTH_PENALTY;
+        } else if (isCritical(stats.getFullness(), type.getMaxFullness())) {
+            loss++;
+        }
+        if (isCritical(stats.getHappiness(), type.getMaxHappiness())) {
+            loss++;
+        }
+        return loss;
+    }
+
+    /**
+     * Returns the first tick on which a stat decaying at the given rate leaves its current classification,
+     * or {@link Long#MAX_VALUE} if it never does.
+     */
+    private static long ticksUntilChange(int value, int rate, int max) {
+        if (rate <= 0 || value <= 0) {
+            return Long.MAX_VALUE; // Not decaying, or already empty
+        }
+        double threshold = max * 0.25;
+        if (value >= threshold) {
+            // First tick on which the value drops below the critical threshold
+            return (long) Math.floor((value - threshold) / rate) + 1;
+        }
+        // First tick on which the value reaches zero
+        return ceilDiv(value, rate);
+    }
+
+    private static boolean isCritical(int value, int max) {
+        return value > 0 && value < max * 0.25;
+    }
+
+    private static int decay(int value, int rate, long ticks) {
+        if (value <= 0 || rate <= 0) {
+            return value;
+        }
+        return (int) Math.max(0, value - rate * ticks);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -1,18 +1,53 @@
 package logic;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.List;
 import java.time.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The logic.ParentalControls class provides methods to enable or disable various types
  * of parental control restrictions such as daily or weekly playtime limits,
  * time of day restrictions, and limiting playable days.
+ *
+ * <p>Whether the game is blocked is worked out together with the next instant the answer can
+ * change: the start or end of the blocked time of day, midnight, or the moment the running
+ * session uses up the daily or weekly limit. The answer is cached until then, or until a setting
+ * changes. Registered {@link BlockListener}s are woken up once, exactly at that instant, instead
+ * of polling.</p>
  */
 public class ParentalControls {
 
+    /**
+     * Receives a call when the game becomes blocked or playable again. Called on a background
+     * thread; Swing listeners must hop back to the Event Dispatch Thread themselves.
+     */
+    public interface BlockListener {
+        /**
+         * Called when the answer of {@link #isGameBlocked()} changes.
+         *
+         * @param blocked whether the game is now blocked
+         */
+        void onBlockChanged(boolean blocked);
+    }
+
+    /**
+     * The name of the playtime journal, in the same directory as the CSV file.
+     */
+    static final String JOURNAL_FILENAME = "playtime_journal.log";
+
+    private static final Metrics.Histogram LOAD_TIME = Metrics.getInstance().histogram("parental.load.time", Metrics.Unit.NANOSECONDS);
+    private static final Metrics.Histogram SAVE_TIME = Metrics.getInstance().histogram("parental.save.time", Metrics.Unit.NANOSECONDS);
+
     /**
      * Flag indicating whether daily playable time restrictions are enabled.
      */
@@ -64,34 +99,32 @@ public class ParentalControls {
     public Duration limitWeeklyPlaytime = Duration.ZERO;
 
     /**
-     * The total amount of playtime accumulated during the current day, represented as a {@code Duration}.
-     * Defaults to zero seconds.
+     * The journal that records every play session and keeps the daily, weekly and total playtime.
+     * It lives next to the CSV file and is shared by every {@code ParentalControls} using that file.
      */
-    private Duration currentDailyPlaytime = Duration.ZERO;
+    private final PlaytimeJournal journal;
 
     /**
-     * The total amount of playtime accumulated during the current week, represented as a {@code Duration}.
-     * Defaults to zero seconds.
+     * The CSV file the settings are loaded from and saved to.
      */
-    private Duration currentWeeklyPlaytime = Duration.ZERO;
+    private final String filename;
 
     /**
-     * The total amount of playtime across all sessions, represented as a {@code Duration}.
-     * Defaults to zero seconds.
+     * The clock that decides the time of day, the day of the week and the playtime.
      */
-    private Duration totalPlaytime = Duration.ZERO;
+    private final Clock clock;
 
     /**
-     * The total number of gameplay sessions that have occurred.
-     * Defaults to zero.
+     * The cached answer of {@link #isGameBlocked()}, valid before {@link #blockedUntil}
+     * and while the journal stays at {@link #blockedJournalVersion}.
      */
-    private int sessionCount = 0;
+    private boolean blocked;
+    private Instant blockedUntil = Instant.MIN;
+    private long blockedJournalVersion;
 
-    /**
-     * The timestamp representing the start time of the current gameplay session,
-     * represented as an {@code Instant}. Defaults to {@code null} until a session begins.
-     */
-    private Instant sessionStartTime;
+    private final List<BlockListener> blockListeners = new ArrayList<>();
+    private ScheduledFuture<?> wakeUp;
+    private static ScheduledExecutorService wakeUpScheduler;
 
 
 
@@ -102,7 +135,22 @@ public class ParentalControls {
      * @param filename The name of the CSV file.
      */
     public ParentalControls(String filename) {
+        this(filename, Clock.systemDefaultZone(), PlaytimeJournal.forFile(Paths.get(filename).resolveSibling(JOURNAL_FILENAME)));
+    }
+
+    /**
+     * Creates parental controls that read the time from the given clock and record playtime in the given journal.
+     *
+     * @param filename The name of the CSV file.
+     * @param clock    The clock that decides the time of day and the day of the week.
+     * @param journal  The journal recording the play sessions.
+     */
+    ParentalControls(String filename, Clock clock, PlaytimeJournal journal) {
+        this.filename = filename;
+        this.clock = clock;
+        this.journal = journal;
         startTracking();
+        SaveService.getInstance().flush(); // Settings saved moments ago may still be on their way to disk
         File file = new File(filename);
         if (file.exists() && file.length() > 0) {
             loadFromCSV(filename);
@@ -118,33 +166,28 @@ public class ParentalControls {
     }
 
     /**
-     * Starts tracking the session duration.
+     * Starts tracking the session duration. Does nothing if a session is already being tracked.
      */
     public void startTracking() {
-        sessionStartTime = Instant.now();
+        journal.startSession();
+        settingsChanged();
     }
 
     /**
-     * Stops tracking the session duration and updates current playtime and total playtime.
+     * Stops tracking the session duration and records the session in the playtime journal.
      */
     public void stopTracking() {
-        if (sessionStartTime != null) {
-            Duration sessionDuration = Duration.between(sessionStartTime, Instant.now());
-            currentDailyPlaytime = currentDailyPlaytime.plus(sessionDuration);
-            currentWeeklyPlaytime = currentWeeklyPlaytime.plus(sessionDuration);
-            totalPlaytime = totalPlaytime.plus(sessionDuration);
-            sessionCount++;
-            sessionStartTime = null; // Reset session start time
-        }
+        journal.endSession();
+        settingsChanged();
     }
 
     /**
-     * Gets the total amount of time played.
+     * Gets the total amount of time played, including the current session.
      *
      * @return The total playtime.
      */
     public Duration calculateTotalPlaytime() {
-        return totalPlaytime;
+        return journal.getTotalPlaytime();
     }
 
     /**
@@ -153,6 +196,7 @@ public class ParentalControls {
      * @return A string that represents the total playtime.
      */
     public String getTotalPlaytime() {
+        Duration totalPlaytime = calculateTotalPlaytime();
         return String.format("%02d:%02d.%02d", totalPlaytime.toHours(), totalPlaytime.toMinutesPart(), totalPlaytime.toSecondsPart());
     }
 
@@ -162,10 +206,7 @@ public class ParentalControls {
      * @return The average session length as a Duration object. Returns Duration.ZERO if no sessions have occurred.
      */
     public Duration calculateAverageSessionLength() {
-        if (sessionCount == 0) {
-            return Duration.ZERO;
-        }
-        return totalPlaytime.dividedBy(sessionCount);
+        return journal.getAverageSessionLength();
     }
 
     /**
@@ -174,7 +215,7 @@ public class ParentalControls {
      * @return The average session length as a String object. Returns 0:00 if no sessions have occurred.
      */
     public String returnAverageSessionLength() {
-        if (sessionCount == 0) {
+        if (journal.getSessionCount() == 0) {
             return "00:00.00";
         }
         Duration sessionLength = calculateAverageSessionLength();
@@ -183,11 +224,22 @@ public class ParentalControls {
 
     /**
      * Saves the current state of logic.ParentalControls to a CSV file.
+     * The file is written in the background by the {@link SaveService} and replaced atomically.
+     * The playtime columns are written for older versions of the game only; the playtime journal
+     * is what this version reads.
      *
      * @param filename The name of the CSV file.
      */
     public void saveToCSV(String filename) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        GameEvents.ParentalControlsSave event = new GameEvents.ParentalControlsSave();
+        event.begin();
+        long start = System.nanoTime();
+        Duration currentDailyPlaytime = journal.getDailyPlaytime();
+        Duration currentWeeklyPlaytime = journal.getWeeklyPlaytime();
+        Duration totalPlaytime = journal.getTotalPlaytime();
+        int sessionCount = journal.getSessionCount();
+        StringWriter contents = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(contents)) {
             // Save boolean flags
             writer.println(dailyPlayableTimeEnabled + "," + dailyTimeLimitEnabled + "," + weeklyTimeLimitEnabled + "," + limitPlayableDaysEnabled);
 
@@ -211,19 +263,44 @@ public class ParentalControls {
             // Save total playtime and session count
             writer.println(totalPlaytime.toHours() + ":" + totalPlaytime.toMinutesPart() + "." + totalPlaytime.toSecondsPart());
             writer.println(sessionCount);
-        } catch (IOException e) {
-            System.err.println("Error saving to CSV: " + e.getMessage());
         }
+        byte[] data = contents.toString().getBytes(StandardCharsets.UTF_8);
+        SaveService.getInstance().writeFile(Paths.get(filename), data, error -> {
+            if (error != null) {
+                System.err.println("Error saving to CSV: " + error.getMessage());
+            }
+        });
+        SAVE_TIME.recordSince(start);
+        event.file = filename;
+        event.bytes = data.length;
+        event.commit();
     }
 
 
     /**
      * Loads the logic.ParentalControls state from a CSV file.
+     * The playtime columns are only taken over if the playtime journal was just created,
+     * i.e. the first time this version of the game runs.
      *
      * @param filename The name of the CSV file.
      */
     public void loadFromCSV(String filename) {
+        GameEvents.ParentalControlsLoad event = new GameEvents.ParentalControlsLoad();
+        event.begin();
+        long start = System.nanoTime();
+        readCSV(filename);
+        LOAD_TIME.recordSince(start);
+        event.file = filename;
+        event.commit();
+    }
+
+    private void readCSV(String filename) {
         System.out.println("Reading csv");
+        SaveService.getInstance().flush();
+        Duration currentDailyPlaytime = Duration.ZERO;
+        Duration currentWeeklyPlaytime = Duration.ZERO;
+        Duration totalPlaytime = Duration.ZERO;
+        int sessionCount = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             // Load boolean flags
             String line = reader.readLine();
@@ -300,7 +377,11 @@ public class ParentalControls {
             }
         } catch (IOException e) {
             System.err.println("Error loading from CSV: " + e.getMessage());
+            return;
         }
+        Instant lastSaved = Instant.ofEpochMilli(new File(filename).lastModified());
+        journal.importTotals(lastSaved, currentDailyPlaytime, currentWeeklyPlaytime, totalPlaytime, sessionCount);
+        settingsChanged();
     }
 
 
@@ -311,7 +392,8 @@ public class ParentalControls {
      */
     public void enableDailyPlayableTime() {
         dailyPlayableTimeEnabled = true;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -319,7 +401,8 @@ public class ParentalControls {
      */
     public void disableDailyPlayableTime() {
         dailyPlayableTimeEnabled = false;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -327,7 +410,8 @@ public class ParentalControls {
      */
     public void enableDailyTimeLimit() {
         dailyTimeLimitEnabled = true;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -335,7 +419,8 @@ public class ParentalControls {
      */
     public void disableDailyTimeLimit() {
         dailyTimeLimitEnabled = false;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -343,7 +428,8 @@ public class ParentalControls {
      */
     public void enableWeeklyTimeLimit() {
         weeklyTimeLimitEnabled = true;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -351,7 +437,8 @@ public class ParentalControls {
      */
     public void disableWeeklyTimeLimit() {
         weeklyTimeLimitEnabled = false;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -359,7 +446,8 @@ public class ParentalControls {
      */
     public void enableLimitPlayableDays() {
         limitPlayableDaysEnabled = true;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     public boolean isDailyTimeLimitEnabled() {
@@ -377,7 +465,8 @@ public class ParentalControls {
      */
     public void disableLimitPlayableDays() {
         limitPlayableDaysEnabled = false;
-        saveToCSV("files/parental_controls.csv"); // Save the state immediately
+        settingsChanged();
+        saveToCSV(filename); // Save the state immediately
     }
 
     /**
@@ -389,6 +478,7 @@ public class ParentalControls {
     public void setTimeOfDayLimit(String startTime, String endTime) {
         limitTimeOfDayStart = LocalTime.parse(startTime);
         limitTimeOfDayEnd = LocalTime.parse(endTime);
+        settingsChanged();
     }
 
 
@@ -416,7 +506,7 @@ public class ParentalControls {
      * @return true if the current time is between the start and end time of the playable period, otherwise false.
      */
     public boolean checkTimeOfDayLimit() {
-        LocalTime currentTime = LocalTime.now();
+        LocalTime currentTime = LocalTime.now(clock);
         return (currentTime.isAfter(limitTimeOfDayStart) && currentTime.isBefore(limitTimeOfDayEnd));
     }
 
@@ -431,6 +521,7 @@ public class ParentalControls {
         int minutes = Integer.parseInt(parts[1]);
 
         limitDailyPlaytime = Duration.ofHours(hours).plusMinutes(minutes); // Create the Duration object
+        settingsChanged();
     }
 
     /**
@@ -444,6 +535,7 @@ public class ParentalControls {
         int minutes = Integer.parseInt(parts[1]);
 
         limitWeeklyPlaytime = Duration.ofHours(hours).plusMinutes(minutes); // Create the Duration object
+        settingsChanged();
     }
 
     /**
@@ -454,6 +546,7 @@ public class ParentalControls {
     public void enableLimitOnDay(String day) {
         day = day.toLowerCase().strip();
         limitedDays.put(day, true);
+        settingsChanged();
     }
 
     /**
@@ -464,51 +557,175 @@ public class ParentalControls {
     public void disableLimitOnDay(String day) {
         day = day.toLowerCase().strip();
         limitedDays.put(day, false);
+        settingsChanged();
     }
 
     /**
-     * Checks if the current daily playtime has exceeded the daily limit.
+     * Checks if the given date falls on a restricted day.
      *
-     * @return true if the current daily playtime exceeds the limit, otherwise false.
+     * @param currentDate The date to check.
+     * @return true if the day is restricted, otherwise false.
      */
-    private boolean isPastDailyLimit() {
-        return (limitDailyPlaytime.compareTo(currentDailyPlaytime) < 0);
+    private boolean isDayLimited(LocalDate currentDate) {
+        // Get the day of the week
+        DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
+        String currentDay = dayOfWeek.toString().charAt(0) + dayOfWeek.toString().substring(1);
+        currentDay = currentDay.toLowerCase();
+        return Boolean.TRUE.equals(limitedDays.get(currentDay));
     }
 
     /**
-     * Checks if the current weekly playtime has exceeded the weekly limit.
+     * Determines if the game is currently blocked based on the enabled limits.
+     * The answer is cached until the next instant it can change.
      *
-     * @return true if the current weekly playtime exceeds the limit, otherwise false.
+     * @return true if the game is blocked, otherwise false.
      */
-    private boolean isPastWeeklyLimit() {
-        return (limitWeeklyPlaytime.compareTo(currentWeeklyPlaytime) < 0);
+    public synchronized boolean isGameBlocked() {
+        Instant now = clock.instant();
+        if (now.isBefore(blockedUntil) && journal.getVersion() == blockedJournalVersion) {
+            return blocked;
+        }
+        evaluateBlock(now);
+        return blocked;
     }
 
     /**
-     * Checks if today is a restricted day.
+     * Returns the instant until which the cached answer of {@link #isGameBlocked()} holds.
      *
-     * @return true if today is restricted, otherwise false.
+     * @return the next instant the answer can change
      */
-    private boolean isDayLimited() {
-        LocalDate currentDate = LocalDate.now();
-        // Get the day of the week
-        DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
-        String currentDay = dayOfWeek.toString().charAt(0) + dayOfWeek.toString().substring(1);
-        currentDay = currentDay.toLowerCase();
-        return limitedDays.get(currentDay);
+    synchronized Instant getNextBlockChange() {
+        isGameBlocked();
+        return blockedUntil;
     }
 
     /**
-     * Determines if the game is currently playable based on the enabled limits.
+     * Works out whether the game is blocked at the given instant and the earliest instant
+     * the answer can change, and caches both.
+     */
+    private void evaluateBlock(Instant instant) {
+        blockedJournalVersion = journal.getVersion();
+        ZoneId zone = clock.getZone();
+        LocalDate today = instant.atZone(zone).toLocalDate();
+        // At midnight the day of the week changes and the daily and weekly playtime roll over
+        Instant next = today.plusDays(1).atStartOfDay(zone).toInstant();
+        boolean result = false;
+
+        // If current time is within a limited period, and limits are enabled, the game is blocked
+        if (dailyPlayableTimeEnabled && limitTimeOfDayStart != null && limitTimeOfDayEnd != null) {
+            LocalTime time = instant.atZone(zone).toLocalTime();
+            result = time.isAfter(limitTimeOfDayStart) && time.isBefore(limitTimeOfDayEnd);
+            Instant start = today.atTime(limitTimeOfDayStart).atZone(zone).toInstant().plusNanos(1); // The period starts just after its start time
+            Instant end = today.atTime(limitTimeOfDayEnd).atZone(zone).toInstant();
+            next = earliestAfter(instant, next, start, end);
+        }
+
+        // If daily or weekly limits are enabled, the game is blocked once the playtime passes them
+        boolean running = journal.isSessionRunning();
+        if (dailyTimeLimitEnabled) {
+            Duration left = limitDailyPlaytime.minus(journal.getDailyPlaytime());
+            result |= left.isNegative();
+            if (running && !left.isNegative()) {
+                next = earliestAfter(instant, next, instant.plus(left).plusMillis(1));
+            }
+        }
+        if (weeklyTimeLimitEnabled) {
+            Duration left = limitWeeklyPlaytime.minus(journal.getWeeklyPlaytime());
+            result |= left.isNegative();
+            if (running && !left.isNegative()) {
+                next = earliestAfter(instant, next, instant.plus(left).plusMillis(1));
+            }
+        }
+
+        // If the day is limited and the limit is enabled, the game is blocked
+        result |= limitPlayableDaysEnabled && isDayLimited(today);
+
+        boolean changed = result != blocked;
+        blocked = result;
+        blockedUntil = next;
+        scheduleWakeUp(instant);
+        if (changed) {
+            for (BlockListener listener : blockListeners) {
+                listener.onBlockChanged(result);
+            }
+        }
+    }
+
+    private static Instant earliestAfter(Instant now, Instant earliest, Instant... candidates) {
+        for (Instant candidate : candidates) {
+            if (candidate.isAfter(now) && candidate.isBefore(earliest)) {
+                earliest = candidate;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Registers a listener that is told when the game becomes blocked or playable again,
+     * for example when the daily limit runs out in the middle of a session.
+     *
+     * @param listener the listener to add
+     */
+    public synchronized void addBlockListener(BlockListener listener) {
+        blockListeners.add(listener);
+        isGameBlocked();
+        scheduleWakeUp(clock.instant());
+    }
+
+    /**
+     * Removes a previously registered listener.
      *
-     * @return true if the game is playable, otherwise false.
+     * @param listener the listener to remove
      */
-    public boolean isGameBlocked() {
-//        printInfo();
-        if (dailyPlayableTimeEnabled && checkTimeOfDayLimit()) return true;// If current time is within a limited period, and limits are enabled, return true
-        if (dailyTimeLimitEnabled && isPastDailyLimit()) return true; // If daily limits are reached and enabled, return true
-        if (weeklyTimeLimitEnabled && isPastWeeklyLimit()) return true; // If weekly limits are reached and enabled, return true
-        return isDayLimited() && limitPlayableDaysEnabled; // If day is limited and limit is enabled, return true, else false
+    public synchronized void removeBlockListener(BlockListener listener) {
+        blockListeners.remove(listener);
+        if (blockListeners.isEmpty() && wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+    }
+
+    /**
+     * Drops the cached answer after a setting changed, and tells the listeners right away if that changed it.
+     */
+    private synchronized void settingsChanged() {
+        blockedUntil = Instant.MIN;
+        if (!blockListeners.isEmpty()) {
+            evaluateBlock(clock.instant());
+        }
+    }
+
+    /**
+     * Replaces the pending wake-up with a single one at the next instant the answer can change.
+     */
+    private void scheduleWakeUp(Instant now) {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        if (blockListeners.isEmpty()) {
+            return;
+        }
+        long delay = Duration.between(now, blockedUntil).toMillis() + 1;
+        wakeUp = wakeUpScheduler().schedule(this::wakeUp, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-evaluates the limits when the answer may have changed, which also schedules the next wake-up.
+     */
+    private synchronized void wakeUp() {
+        evaluateBlock(clock.instant());
+    }
+
+    private static synchronized ScheduledExecutorService wakeUpScheduler() {
+        if (wakeUpScheduler == null) {
+            wakeUpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "parental-controls-wake-up");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return wakeUpScheduler;
     }
 
 
@@ -522,10 +739,13 @@ public class ParentalControls {
         System.out.println("limitTimeOfDayEnd: " + limitTimeOfDayEnd.toString());
         System.out.println("limitDailyPlaytime: " + limitDailyPlaytime.toHours() + ":" + limitDailyPlaytime.toMinutesPart()+ "." + limitDailyPlaytime.toSecondsPart());
         System.out.println("limitWeeklyPlaytime: " + limitWeeklyPlaytime.toHours() + ":" + limitWeeklyPlaytime.toMinutesPart()+ "." + limitWeeklyPlaytime.toSecondsPart());
+        Duration currentDailyPlaytime = journal.getDailyPlaytime();
+        Duration currentWeeklyPlaytime = journal.getWeeklyPlaytime();
+        Duration totalPlaytime = journal.getTotalPlaytime();
         System.out.println("currentDailyPlaytime: " + currentDailyPlaytime.toHours() + ":" + currentDailyPlaytime.toMinutesPart()+ "." + currentDailyPlaytime.toSecondsPart());
         System.out.println("currentWeeklyPlaytime: " + currentWeeklyPlaytime.toHours() + ":" + currentWeeklyPlaytime.toMinutesPart()+ "." + currentWeeklyPlaytime.toSecondsPart());
         System.out.println("totalPlaytime: " + totalPlaytime.toHours() + ":" + totalPlaytime.toMinutesPart() + "." + totalPlaytime.toSecondsPart());
-        System.out.println("sessionCount: " + sessionCount);
+        System.out.println("sessionCount: " + journal.getSessionCount());
         System.out.println("-------------------------------------------------------------------------------------");
     }
 
@@ -533,21 +753,20 @@ public class ParentalControls {
      * Reset the session count to 1 when the statistics have been reset
      */
     public void resetTracking() {
-        sessionCount = 1;
-        totalPlaytime = Duration.ofSeconds(1);
+        journal.reset(Duration.ofSeconds(1), 1);
+        settingsChanged();
     }
 
 
     public String resetPet(int slot) throws IOException {
-        String filePath = "files/slot" + slot + ".csv";
         try {
-            Pet loadedPet = SaveManager.loadPet(filePath);
+            Pet loadedPet = SaveManager.loadSlot(slot);
             if (loadedPet.isDead()) {
                 PetType type = loadedPet.getType();
                 VitalStatistics stats = new VitalStatistics(type.getMaxHealth(), type.getMaxSleep(), type.getMaxFullness(), type.getMaxHappiness());
                 loadedPet.setVitalStats(stats);
                 loadedPet.checkStates();
-                SaveManager.savePet(filePath, loadedPet);
+                SaveManager.saveSlot(slot, loadedPet);
                 return "Pet in slot " + slot + " has been revived!";
             }
         } catch (IOException e) {
@@ -1,22 +1,41 @@
 package logic;
+import inventory.Inventory;
+import inventory.ItemCatalog;
+
+import java.time.Clock;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import ui.GameplayScreen;
 
 public class Pet {
 
+    /**
+     * Bits of {@link #takeChanges()}: the play cooldown started, the vet cooldown started,
+     * or the stats or the inventory were replaced by other objects.
+     */
+    public static final int PLAY_COOLDOWN = 1;
+    public static final int VET_COOLDOWN = 2;
+    public static final int REPLACED = 4;
+
+    /**
+     * Time after playing before the pet can be played with again, in milliseconds of its {@link #getClock() clock}.
+     */
+    public static final long PLAY_COOLDOWN_MILLIS = 60000;
+
+    /**
+     * Time after a vet visit before the pet can visit the vet again, in milliseconds of its {@link #getClock() clock}.
+     */
+    public static final long VET_COOLDOWN_MILLIS = 60000;
+
     private String name;
     private int number;
     private PetType type;
     private VitalStatistics vitalStats;
     private long lastPlay;
     private long lastVetVisit;
-    private boolean isDead = false;
-    private boolean isAngry = false;
-    private boolean isSleeping = false;
-    private boolean isHungry = false;
+    private long lastSaved;
+    private final PetStateMachine stateMachine; // Owns the sleeping, hungry, angry and dead states
+    private Clock clock = Clock.systemUTC(); // Times the play and vet cooldowns
+    private int changes; // Changes since the last takeChanges(), for the autosave
 
     /**
      * Pet constructor
@@ -30,6 +49,29 @@ public class Pet {
                 type.getMaxFullness(),
                 type.getMaxHappiness()
         );
+        this.stateMachine = new PetStateMachine(this, false, false, false, false);
+    }
+
+    /**
+     * Creates the pet of a new game: every stat at half its maximum, and a few food items and gifts to start with.
+     *
+     * @param name the name of the new pet
+     * @param type the type of the new pet
+     * @return the new pet
+     */
+    public static Pet startNewGame(String name, PetType type) {
+        Pet pet = new Pet(name, type);
+        pet.setVitalStats(new VitalStatistics(type.getMaxHealth() / 2, type.getMaxSleep() / 2,
+                type.getMaxFullness() / 2, type.getMaxHappiness() / 2));
+
+        // Default inventory for a new game
+        pet.inventory.add(ItemCatalog.APPLE, 3);
+        pet.inventory.add(ItemCatalog.BANANA, 2);
+        pet.inventory.add(ItemCatalog.CARROT, 5);
+        pet.inventory.add(ItemCatalog.BALL, 1);
+        pet.inventory.add(ItemCatalog.TOY_MOUSE, 2);
+        pet.inventory.add(ItemCatalog.PUZZLE, 1);
+        return pet;
     }
 
     /**
@@ -51,10 +93,7 @@ public class Pet {
         this.vitalStats = vitalStats;
         this.lastPlay = lastPlay;
         this.lastVetVisit = lastVetVisit;
-        this.isSleeping = isSleeping;
-        this.isHungry = isHungry;
-        this.isAngry = isAngry;
-        this.isDead = isDead;
+        this.stateMachine = new PetStateMachine(this, isSleeping, isHungry, isAngry, isDead);
     }
 
     /**
@@ -66,8 +105,7 @@ public class Pet {
 
         // Increase the fullness by the difference between new and old fullness
         vitalStats.increaseFullness(newFullness - vitalStats.getFullness());
-
-
+        checkStates();
     }
 
     /**
@@ -79,7 +117,7 @@ public class Pet {
 
         // Increase the happiness by the difference between new happiness and current happiness
         vitalStats.increaseHappiness(newHappiness - vitalStats.getHappiness());
-
+        checkStates();
     }
 
     /**
@@ -91,7 +129,7 @@ public class Pet {
 
         // Increase sleep by the difference between max sleep and currentSleepValue to reach the max
         vitalStats.increaseSleep(type.getMaxSleep() - currentSleepValue);
-
+        checkStates();
     }
 
     /**
@@ -121,8 +159,8 @@ public class Pet {
 //    }
 
     public String play(int playValue) {
-        long currentTime = System.currentTimeMillis(); // Get the current time in milliseconds
-        long cooldownTime = 60000; // Cooldown period: 5 minutes in milliseconds
+        long currentTime = clock.millis(); // Get the current time in milliseconds
+        long cooldownTime = PLAY_COOLDOWN_MILLIS;
 
         // Check if the cooldown time is over
         if (currentTime - lastPlay >= cooldownTime) {
@@ -136,6 +174,8 @@ public class Pet {
 
             // Set the lastPlay time to the current time (start cooldown)
             lastPlay = currentTime;
+            changes |= PLAY_COOLDOWN;
+            checkStates();
 
             //System.out.println("Playing with your pet! Happiness increased.");
             return "You played with your pet!";
@@ -143,7 +183,6 @@ public class Pet {
         } else {
             // Calculate remaining cooldown time
             long remainingTime = (cooldownTime - (currentTime - lastPlay)) / 1000; // In seconds
-            System.out.println("Cooldown active! Please wait " + remainingTime + " seconds before playing again.");
             return "Cooldown active! Please wait " + remainingTime + " seconds before playing with you pet again.";
         }
     }
@@ -169,15 +208,15 @@ public class Pet {
 
         // Decrease the fullness value for the pet
         vitalStats.decreaseFullness(type.getMaxFullness() - newFullness);
-
+        checkStates();
     }
 
     /**
      * Method for taking pet to the vet and increase health to max value
      */
     public String takeToVet() {
-        long currentTime = System.currentTimeMillis(); // Get the current time in milliseconds
-        long cooldownTime = 60000; // Cooldown period: 5 minutes in milliseconds
+        long currentTime = clock.millis(); // Get the current time in milliseconds
+        long cooldownTime = VET_COOLDOWN_MILLIS;
 
         // Check if the cooldown time is over
         if (currentTime - lastVetVisit >= cooldownTime) {
@@ -187,6 +226,8 @@ public class Pet {
 
             // Set the lastVetVisit time to the current time (start cooldown)
             lastVetVisit = currentTime;
+            changes |= VET_COOLDOWN;
+            checkStates();
 
             return "Your pet visited the vet!";
         } else {
@@ -230,43 +271,39 @@ public class Pet {
 
     public void setVitalStats(VitalStatistics vitalStats) {
         this.vitalStats = vitalStats;
+        changes |= REPLACED;
     }
 
 
-    private Map<String, Integer> foodInventory = new HashMap<>();
-    private Map<String, Integer> giftInventory = new HashMap<>();
-
-    public Map<String, Integer> getFoodInventory() {
-        return foodInventory;
-    }
-
-    public void setFoodInventory(Map<String, Integer> foodInventory) {
-        this.foodInventory = foodInventory;
-    }
+    private Inventory inventory = new Inventory();
 
-    public Map<String, Integer> getGiftInventory() {
-        return giftInventory;
+    /**
+     * Returns the food and gifts the pet's owner holds.
+     */
+    public Inventory getInventory() {
+        return inventory;
     }
 
-    public void setGiftInventory(Map<String, Integer> giftInventory) {
-        this.giftInventory = giftInventory;
+    public void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+        changes |= REPLACED;
     }
 
 
 
     // Getters and setters for states
     public boolean isSleeping() {
-        return isSleeping;
+        return stateMachine.isAsleep();
     }
 
 
     public boolean isHungry() {
-        return isHungry;
+        return stateMachine.isHungry();
     }
 
 
     public boolean isAngry() {
-        return isAngry;
+        return stateMachine.isAngry();
     }
 
 
@@ -278,9 +315,36 @@ public class Pet {
         return lastPlay;
     }
 
+    /**
+     * Returns the time of the pet's {@link #getClock() clock} when it was last saved, or 0 if it has never been saved.
+     */
+    public long getLastSaved() {
+        return lastSaved;
+    }
+
+    public void setLastSaved(long lastSaved) {
+        this.lastSaved = lastSaved;
+    }
+
+
+    /**
+     * Returns the clock the play and vet cooldowns and the save times are taken from.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Replaces the clock the play and vet cooldowns and the save times are taken from, so a replay
+     * or a test decides what time it is. Pets use the system clock until told otherwise.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
 
     public boolean isDead() {
-        return isDead;
+        return stateMachine.isDead();
     }
 
     public String getName() {
@@ -291,35 +355,32 @@ public class Pet {
         return vitalStats;
     }
 
-    public void checkStates() {
-        // Dead state: health reaches 0
-        if (vitalStats.getHealth() <= 0) {
-            isDead = true;
-        } else {
-            isDead = false;
-        }
-
-        // Sleeping state: sleep reaches 0, or pet is actively sleeping
-        if (!isDead && vitalStats.getSleep() <= 0) {
-            isSleeping = true;
-        } else if (vitalStats.getSleep() >= type.getMaxSleep()) {
-            isSleeping = false;
-        }
+    /**
+     * Returns the state machine that owns this pet's states, for listening to its transitions.
+     */
+    public PetStateMachine getStateMachine() {
+        return stateMachine;
+    }
 
-        // Hungry state: fullness reaches critical threshold
-        if (!isDead && vitalStats.getFullness() < type.getMaxFullness() * 0.25) {
-            isHungry = true;
-        } else {
-            isHungry = false;
-        }
+    /**
+     * Returns what changed on the pet itself since the last call, as bits such as {@link #PLAY_COOLDOWN},
+     * and forgets it. Changes of the stats and the inventory are kept by those objects.
+     * The {@link Autosave} uses this to write only what changed.
+     *
+     * @return the bits of the changes, 0 if nothing changed
+     */
+    public int takeChanges() {
+        int taken = changes;
+        changes = 0;
+        return taken;
+    }
 
-        // Angry state: happiness reaches 0
-        if (!isDead && vitalStats.getHappiness() <= 0) {
-            isAngry = true;
-        } else if (vitalStats.getHappiness() >= type.getMaxHappiness() / 2) {
-            isAngry = false;
-        }
+    /**
+     * Updates the pet's states from its current stats and publishes any transitions.
+     * The actions on this class already do this after changing the stats; call it after
+     * changing the {@link VitalStatistics} directly.
+     */
+    public void checkStates() {
+        stateMachine.evaluate();
     }
 }
-
-
@@ -0,0 +1,97 @@
+package logic;
+
+/**
+ * The things that can happen to a pet, as recorded in an {@link ActionLog}.
+ * Each action has a code that is written to disk, so codes must never change or be reused.
+ */
+public enum PetAction {
+    /**
+     * The player fed the pet a food item. Argument: the item's catalog id.
+     */
+    FEED(1, 1),
+
+    /**
+     * The player gave the pet a gift. Argument: the item's catalog id.
+     */
+    GIFT(2, 1),
+
+    /**
+     * The player played with the pet. Argument: the play value.
+     */
+    PLAY(3, 1),
+
+    /**
+     * The player exercised the pet. Arguments: the health, sleep and fullness values.
+     */
+    EXERCISE(4, 3),
+
+    /**
+     * The player took the pet to the vet.
+     */
+    VET(5, 0),
+
+    /**
+     * The player put the pet to bed.
+     */
+    SLEEP(6, 0),
+
+    /**
+     * The player answered a mini-game question. Argument: the catalog id of the item won,
+     * or -1 for a wrong answer.
+     */
+    MINI_GAME(7, 1),
+
+    /**
+     * A decay tick of the {@link PetSimulation}.
+     */
+    TICK(8, 0),
+
+    /**
+     * A sleep recovery step of the {@link PetSimulation}.
+     */
+    RECOVER_SLEEP(9, 0);
+
+    private static final PetAction[] BY_CODE = new PetAction[16];
+
+    static {
+        for (PetAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final byte code;
+    private final int argumentCount;
+
+    PetAction(int code, int argumentCount) {
+        this.code = (byte) code;
+        this.argumentCount = argumentCount;
+    }
+
+    /**
+     * Returns the code this action is stored as.
+     *
+     * @return the action's code
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns how many int arguments are stored with this action.
+     *
+     * @return the number of arguments
+     */
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    /**
+     * Returns the action stored with the given code.
+     *
+     * @param code the stored code
+     * @return the action, or {@code null} if no action has that code
+     */
+    public static PetAction fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
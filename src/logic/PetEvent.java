@@ -0,0 +1,47 @@
+package logic;
+
+/**
+ * The events a {@link PetSimulation} publishes when the pet's state changes
+ * while time passes.
+ */
+public enum PetEvent {
+    /**
+     * The pet ran out of sleep and collapsed from exhaustion.
+     */
+    EXHAUSTED,
+
+    /**
+     * The pet's sleep is fully recovered and it woke up.
+     */
+    WOKE_UP,
+
+    /**
+     * The pet's fullness dropped below the critical threshold.
+     */
+    HUNGRY,
+
+    /**
+     * The pet's fullness is back above the critical threshold.
+     */
+    NO_LONGER_HUNGRY,
+
+    /**
+     * The pet's happiness reached zero and it refuses to cooperate.
+     */
+    ANGRY,
+
+    /**
+     * The pet's happiness recovered to half of its maximum.
+     */
+    CALMED_DOWN,
+
+    /**
+     * The pet's health reached zero.
+     */
+    DIED,
+
+    /**
+     * One or more vital statistics changed.
+     */
+    STATS_CHANGED
+}
@@ -0,0 +1,15 @@
+package logic;
+
+/**
+ * Receives the {@link PetEvent}s published by a {@link PetSimulation}.
+ */
+public interface PetEventListener {
+
+    /**
+     * Called once for every event the simulation publishes.
+     *
+     * @param event the event that occurred
+     * @param pet   the pet the event occurred on
+     */
+    void onPetEvent(PetEvent event, Pet pet);
+}
@@ -0,0 +1,51 @@
+package logic;
+
+/**
+ * The moods a pet can be shown in. Each mood has its own sprite, named after the pet type
+ * followed by the mood, for example {@code dogHungry.png}.
+ */
+public enum PetMood {
+    IDLE("Idle"),
+    ANGRY("Angry"),
+    HUNGRY("Hungry"),
+    SLEEP("Sleep"),
+    SICK("Sick"),
+    DEAD("Dead");
+
+    private final String spriteSuffix;
+
+    PetMood(String spriteSuffix) {
+        this.spriteSuffix = spriteSuffix;
+    }
+
+    /**
+     * Returns the part of the sprite name that follows the pet type.
+     *
+     * @return the sprite suffix, for example {@code "Hungry"}
+     */
+    public String getSpriteSuffix() {
+        return spriteSuffix;
+    }
+
+    /**
+     * Determines the mood the pet should be shown in. Death takes precedence over sleep,
+     * sleep over hunger, hunger over anger and anger over poor health.
+     *
+     * @param pet the pet
+     * @return the pet's current mood
+     */
+    public static PetMood of(Pet pet) {
+        if (pet.isDead()) {
+            return DEAD;
+        } else if (pet.isSleeping()) {
+            return SLEEP;
+        } else if (pet.isHungry()) {
+            return HUNGRY;
+        } else if (pet.isAngry()) {
+            return ANGRY;
+        } else if (pet.getVitalStats().getHealth() < pet.getType().getMaxHealth() * 0.25) {
+            return SICK;
+        }
+        return IDLE;
+    }
+}
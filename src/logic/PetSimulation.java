@@ -0,0 +1,350 @@
+package logic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code PetSimulation} class advances a {@link Pet} through time without any user interface.
+ * It owns the decay, exhaustion, hunger and anger rules that used to live in the gameplay screen,
+ * and publishes a {@link PetEvent} to its listeners whenever the pet's state changes.
+ *
+ * <p>State changes come from the pet's {@link PetStateMachine}. Those that happen during a tick
+ * or a sleep recovery step are published once the step is complete, so listeners see the final
+ * stats; those caused by actions on the pet are published right away.</p>
+ *
+ * <p>The simulation can be driven one step at a time by a timer, or fast-forwarded by a number
+ * of ticks or an arbitrary duration for balancing runs and headless hosting. A simulation created
+ * with a {@link ManualClock} moves the clock along with simulated time before every step, so the
+ * pet's cooldowns and save times follow simulated time and hours of play take milliseconds.</p>
+ */
+public class PetSimulation {
+
+    /**
+     * Simulated time between two decay ticks, in milliseconds.
+     */
+    public static final long DECAY_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Simulated time between two sleep recovery steps while the pet is sleeping, in milliseconds.
+     */
+    public static final long SLEEP_RECOVERY_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Amount of sleep recovered on every sleep recovery step.
+     */
+    public static final int SLEEP_RECOVERY_AMOUNT = 5;
+
+    /**
+     * Health lost when the pet collapses from exhaustion.
+     */
+    public static final int EXHAUSTION_HEALTH_PENALTY = 2;
+
+    /**
+     * Health lost on every tick the pet spends with an empty stomach.
+     */
+    public static final int STARVATION_HEALTH_PENALTY = 1;
+
+    private final Pet pet;
+    private final List<PetEventListener> listeners = new ArrayList<>();
+    private final PetTransitionListener transitionListener = (transition, p) -> onTransition(transition);
+
+    /**
+     * The pet's clock, moved along with simulated time, or null if the pet keeps its own clock.
+     */
+    private final ManualClock clock;
+
+    /**
+     * Time of the clock when the simulation was created, in milliseconds.
+     */
+    private final long clockStartMillis;
+
+    /**
+     * Transitions that happened during the current step, published once the step is complete.
+     */
+    private final List<PetTransition> stepTransitions = new ArrayList<>();
+
+    /**
+     * Whether a tick or sleep recovery step is in progress.
+     */
+    private boolean inStep = false;
+
+    /**
+     * Simulated time that has passed since the simulation was created, in milliseconds.
+     */
+    private long elapsedMillis = 0;
+
+    /**
+     * Simulated time at which the next decay tick is due.
+     */
+    private long nextDecayAt = DECAY_INTERVAL_MILLIS;
+
+    /**
+     * Simulated time at which the next sleep recovery step is due while the pet is sleeping.
+     */
+    private long nextRecoveryAt = SLEEP_RECOVERY_INTERVAL_MILLIS;
+
+    /**
+     * Creates a simulation for the given pet.
+     *
+     * @param pet the pet whose state will be advanced
+     */
+    public PetSimulation(Pet pet) {
+        this.pet = pet;
+        this.clock = null;
+        this.clockStartMillis = 0;
+    }
+
+    /**
+     * Creates a simulation for the given pet that times the pet with the given clock.
+     * {@link #advance(long)} keeps the clock at its current time plus the elapsed simulated time.
+     *
+     * @param pet   the pet whose state will be advanced
+     * @param clock the clock the pet is timed with from now on
+     */
+    public PetSimulation(Pet pet, ManualClock clock) {
+        this.pet = pet;
+        this.clock = clock;
+        this.clockStartMillis = clock.millis();
+        pet.setClock(clock);
+    }
+
+    /**
+     * Registers a listener that is notified of every event this simulation publishes.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(PetEventListener listener) {
+        if (listeners.isEmpty()) {
+            pet.getStateMachine().addListener(transitionListener);
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(PetEventListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            pet.getStateMachine().removeListener(transitionListener); // Nothing left to forward to
+        }
+    }
+
+    public Pet getPet() {
+        return pet;
+    }
+
+    /**
+     * Returns the simulated time that has passed through {@link #advance(long)}.
+     *
+     * @return the elapsed simulated time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Applies one decay tick to the pet's stats.
+     * A sleeping pet does not lose sleep and takes no health penalty for critical stats,
+     * but still gets hungrier and less happy.
+     */
+    public void tick() {
+        if (pet.isDead()) {
+            return;
+        }
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        beginStep();
+
+        int criticalStatsCount = 0;
+
+        // Handle sleep decay
+        if (!pet.isSleeping()) {
+            stats.decreaseSleep(type.getSleepDecayRate());
+            if (stats.getSleep() <= 0) {
+                stats.setSleep(0);
+                stats.decreaseHealth(EXHAUSTION_HEALTH_PENALTY); // Apply health penalty for exhaustion
+                pet.checkStates(); // The pet collapses before the rest of the tick
+            } else if (stats.getSleep() < type.getMaxSleep() * 0.25) {
+                criticalStatsCount++; // Sleep is critical
+            }
+        }
+
+        // Handle fullness decay
+        stats.decreaseFullness(type.getFullnessDecayRate());
+        if (stats.getFullness() <= 0) {
+            stats.setFullness(0);
+            stats.decreaseHealth(STARVATION_HEALTH_PENALTY); // Health decreases due to hunger
+            pet.checkStates(); // A starving pet loses happiness at the hungry rate right away
+        } else if (stats.getFullness() < type.getMaxFullness() * 0.25) {
+            criticalStatsCount++; // Fullness is critical
+        }
+
+        // Handle happiness decay
+        if (pet.isHungry()) {
+            stats.decreaseHappiness(type.getHappinessDecayRate() * 2); // Faster decay when hungry
+        } else {
+            stats.decreaseHappiness(type.getHappinessDecayRate());
+        }
+        if (stats.getHappiness() <= 0) {
+            stats.setHappiness(0);
+        } else if (stats.getHappiness() < type.getMaxHappiness() * 0.25) {
+            criticalStatsCount++; // Happiness is critical
+        }
+
+        // Apply health penalty based on the number of critical stats
+        if (criticalStatsCount > 0 && !pet.isSleeping()) {
+            stats.decreaseHealth(criticalStatsCount);
+        }
+
+        enforceStatLimits();
+        pet.checkStates();
+
+        endStep();
+    }
+
+    /**
+     * Applies the given number of decay ticks back to back.
+     * Stops early if the pet dies.
+     *
+     * @param ticks the number of ticks to apply
+     */
+    public void tick(long ticks) {
+        for (long i = 0; i < ticks && !pet.isDead(); i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Applies one sleep recovery step if the pet is sleeping.
+     * Publishes {@link PetEvent#WOKE_UP} once sleep is back at its maximum.
+     */
+    public void recoverSleep() {
+        if (pet.isDead() || !pet.isSleeping()) {
+            return;
+        }
+        VitalStatistics stats = pet.getVitalStats();
+        int maxSleep = pet.getType().getMaxSleep();
+        beginStep();
+
+        stats.increaseSleep(SLEEP_RECOVERY_AMOUNT);
+        if (stats.getSleep() >= maxSleep) {
+            stats.setSleep(maxSleep); // Cap sleep at maximum
+        }
+        pet.checkStates();
+
+        endStep();
+    }
+
+    /**
+     * Advances the simulation by the given duration, interleaving decay ticks and
+     * sleep recovery steps exactly as the real-time timers would.
+     *
+     * @param duration the amount of simulated time to advance
+     */
+    public void advance(Duration duration) {
+        advance(duration.toMillis());
+    }
+
+    /**
+     * Advances the simulation by the given number of milliseconds.
+     *
+     * @param millis the amount of simulated time to advance, in milliseconds
+     */
+    public void advance(long millis) {
+        long target = elapsedMillis + millis;
+        while (!pet.isDead()) {
+            boolean recovery = pet.isSleeping() && nextRecoveryAt < nextDecayAt;
+            long next = recovery ? nextRecoveryAt : nextDecayAt;
+            if (next > target) {
+                break;
+            }
+            elapsedMillis = next;
+            moveClock(); // Actions taken by listeners during the step see the step's time
+            if (recovery) {
+                recoverSleep();
+                nextRecoveryAt += SLEEP_RECOVERY_INTERVAL_MILLIS;
+            } else {
+                tick();
+                nextDecayAt += DECAY_INTERVAL_MILLIS;
+                if (pet.isSleeping()) {
+                    nextRecoveryAt = elapsedMillis + SLEEP_RECOVERY_INTERVAL_MILLIS; // Recovery resumes after the tick
+                }
+            }
+        }
+        elapsedMillis = target;
+        moveClock();
+    }
+
+    private void moveClock() {
+        if (clock != null) {
+            clock.setMillis(clockStartMillis + elapsedMillis);
+        }
+    }
+
+    /**
+     * Ensures that all pet stats are within their valid limits.
+     */
+    public void enforceStatLimits() {
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        stats.setHealth(Math.max(0, Math.min(stats.getHealth(), type.getMaxHealth())));
+        stats.setSleep(Math.max(0, Math.min(stats.getSleep(), type.getMaxSleep())));
+        stats.setFullness(Math.max(0, Math.min(stats.getFullness(), type.getMaxFullness())));
+        stats.setHappiness(Math.max(0, Math.min(stats.getHappiness(), type.getMaxHappiness())));
+    }
+
+    private void beginStep() {
+        inStep = true;
+        stepTransitions.clear();
+    }
+
+    /**
+     * Publishes the stat change and the transitions collected during the step.
+     * A pet that died only publishes its death.
+     */
+    private void endStep() {
+        inStep = false;
+        publish(PetEvent.STATS_CHANGED);
+        if (pet.isDead()) {
+            publish(PetEvent.DIED);
+            return;
+        }
+        for (int i = 0; i < stepTransitions.size(); i++) {
+            publishTransition(stepTransitions.get(i));
+        }
+    }
+
+    private void onTransition(PetTransition transition) {
+        if (inStep) {
+            stepTransitions.add(transition);
+        } else {
+            publishTransition(transition);
+        }
+    }
+
+    /**
+     * Publishes the event that corresponds to a state machine transition.
+     */
+    private void publishTransition(PetTransition transition) {
+        switch (transition) {
+            case FELL_ASLEEP -> publish(PetEvent.EXHAUSTED);
+            case WOKE_UP -> publish(PetEvent.WOKE_UP);
+            case GOT_HUNGRY -> publish(PetEvent.HUNGRY);
+            case FED -> publish(PetEvent.NO_LONGER_HUNGRY);
+            case GOT_ANGRY -> publish(PetEvent.ANGRY);
+            case CALMED_DOWN -> publish(PetEvent.CALMED_DOWN);
+            case DIED -> publish(PetEvent.DIED);
+            case REVIVED -> publish(PetEvent.STATS_CHANGED);
+        }
+    }
+
+    private void publish(PetEvent event) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onPetEvent(event, pet);
+        }
+    }
+}
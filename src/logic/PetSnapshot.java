@@ -0,0 +1,75 @@
+package logic;
+
+import inventory.Inventory;
+
+/**
+ * An immutable copy of a pet's state, taken so it can be saved on another thread
+ * while the game keeps changing the live pet.
+ */
+public final class PetSnapshot {
+
+    private final String name;
+    private final PetType type;
+    private final int health;
+    private final int sleep;
+    private final int fullness;
+    private final int happiness;
+    private final long lastPlay;
+    private final long lastVetVisit;
+    private final long lastSaved;
+    private final boolean sleeping;
+    private final boolean hungry;
+    private final boolean angry;
+    private final boolean dead;
+    private final Inventory inventory; // Private copy, never handed out
+
+    private PetSnapshot(Pet pet) {
+        VitalStatistics stats = pet.getVitalStats();
+        name = pet.getName();
+        type = pet.getType();
+        health = stats.getHealth();
+        sleep = stats.getSleep();
+        fullness = stats.getFullness();
+        happiness = stats.getHappiness();
+        lastPlay = pet.getLastPlay();
+        lastVetVisit = pet.getLastVetVisit();
+        lastSaved = pet.getLastSaved();
+        sleeping = pet.isSleeping();
+        hungry = pet.isHungry();
+        angry = pet.isAngry();
+        dead = pet.isDead();
+        inventory = pet.getInventory() == null ? new Inventory() : pet.getInventory().copy();
+    }
+
+    /**
+     * Takes a snapshot of the pet and stamps both the pet and the snapshot with the current time of the pet's clock as their save time.
+     *
+     * @param pet the live pet
+     * @return a snapshot that no longer changes with the pet
+     */
+    public static PetSnapshot forSave(Pet pet) {
+        pet.setLastSaved(pet.getClock().millis());
+        return new PetSnapshot(pet);
+    }
+
+    /**
+     * Creates a new, independent pet with the state captured in this snapshot.
+     *
+     * @return a fresh pet
+     */
+    public Pet toPet() {
+        Pet pet = new Pet(name, type, new VitalStatistics(health, sleep, fullness, happiness),
+                lastPlay, lastVetVisit, sleeping, hungry, angry, dead);
+        pet.setInventory(inventory.copy());
+        pet.setLastSaved(lastSaved);
+        return pet;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastSaved() {
+        return lastSaved;
+    }
+}
@@ -0,0 +1,16 @@
+package logic;
+
+/**
+ * The states a pet can be in. They come in pairs, one pair per aspect of the pet:
+ * awake or asleep, fed or hungry, calm or angry, alive or dead.
+ */
+public enum PetState {
+    AWAKE,
+    ASLEEP,
+    FED,
+    HUNGRY,
+    CALM,
+    ANGRY,
+    ALIVE,
+    DEAD
+}
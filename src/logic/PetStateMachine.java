@@ -0,0 +1,129 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code PetStateMachine} class owns a pet's states and derives them from its vital statistics.
+ *
+ * <p>The machine is evaluated once after every change to the stats. It updates all states
+ * together and then publishes a {@link PetTransition} for every state that actually changed,
+ * so listeners never have to compare flags themselves.</p>
+ */
+public class PetStateMachine {
+
+    private final Pet pet;
+    private final List<PetTransitionListener> listeners = new ArrayList<>();
+
+    private boolean asleep;
+    private boolean hungry;
+    private boolean angry;
+    private boolean dead;
+
+    /**
+     * Creates a state machine for the given pet, starting in the given states.
+     *
+     * @param pet    the pet whose stats decide the states
+     * @param asleep whether the pet starts asleep
+     * @param hungry whether the pet starts hungry
+     * @param angry  whether the pet starts angry
+     * @param dead   whether the pet starts dead
+     */
+    PetStateMachine(Pet pet, boolean asleep, boolean hungry, boolean angry, boolean dead) {
+        this.pet = pet;
+        this.asleep = asleep;
+        this.hungry = hungry;
+        this.angry = angry;
+        this.dead = dead;
+    }
+
+    /**
+     * Registers a listener that is notified of every transition.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(PetTransitionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(PetTransitionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isAsleep() {
+        return asleep;
+    }
+
+    public boolean isHungry() {
+        return hungry;
+    }
+
+    public boolean isAngry() {
+        return angry;
+    }
+
+    public boolean isDead() {
+        return dead;
+    }
+
+    /**
+     * Derives the states from the pet's current stats and publishes the transitions.
+     * Sleep and anger have hysteresis: a pet falls asleep at zero sleep but only wakes up
+     * fully rested, and gets angry at zero happiness but only calms down at half of it.
+     */
+    public void evaluate() {
+        VitalStatistics stats = pet.getVitalStats();
+        PetType type = pet.getType();
+        boolean wasAsleep = asleep;
+        boolean wasHungry = hungry;
+        boolean wasAngry = angry;
+        boolean wasDead = dead;
+
+        // Dead state: health reaches 0
+        dead = stats.getHealth() <= 0;
+
+        // Sleeping state: sleep reaches 0, or pet is actively sleeping
+        if (!dead && stats.getSleep() <= 0) {
+            asleep = true;
+        } else if (stats.getSleep() >= type.getMaxSleep()) {
+            asleep = false;
+        }
+
+        // Hungry state: fullness reaches critical threshold
+        hungry = !dead && stats.getFullness() < type.getMaxFullness() * 0.25;
+
+        // Angry state: happiness reaches 0
+        if (!dead && stats.getHappiness() <= 0) {
+            angry = true;
+        } else if (stats.getHappiness() >= type.getMaxHappiness() / 2) {
+            angry = false;
+        }
+
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (dead != wasDead) {
+            publish(dead ? PetTransition.DIED : PetTransition.REVIVED);
+        }
+        if (asleep != wasAsleep) {
+            publish(asleep ? PetTransition.FELL_ASLEEP : PetTransition.WOKE_UP);
+        }
+        if (hungry != wasHungry) {
+            publish(hungry ? PetTransition.GOT_HUNGRY : PetTransition.FED);
+        }
+        if (angry != wasAngry) {
+            publish(angry ? PetTransition.GOT_ANGRY : PetTransition.CALMED_DOWN);
+        }
+    }
+
+    private void publish(PetTransition transition) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onTransition(transition, pet);
+        }
+    }
+}
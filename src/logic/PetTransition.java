@@ -0,0 +1,31 @@
+package logic;
+
+/**
+ * The changes between {@link PetState}s that a {@link PetStateMachine} publishes.
+ */
+public enum PetTransition {
+    FELL_ASLEEP(PetState.AWAKE, PetState.ASLEEP),
+    WOKE_UP(PetState.ASLEEP, PetState.AWAKE),
+    GOT_HUNGRY(PetState.FED, PetState.HUNGRY),
+    FED(PetState.HUNGRY, PetState.FED),
+    GOT_ANGRY(PetState.CALM, PetState.ANGRY),
+    CALMED_DOWN(PetState.ANGRY, PetState.CALM),
+    DIED(PetState.ALIVE, PetState.DEAD),
+    REVIVED(PetState.DEAD, PetState.ALIVE);
+
+    private final PetState from;
+    private final PetState to;
+
+    PetTransition(PetState from, PetState to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public PetState getFrom() {
+        return from;
+    }
+
+    public PetState getTo() {
+        return to;
+    }
+}
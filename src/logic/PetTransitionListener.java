@@ -0,0 +1,15 @@
+package logic;
+
+/**
+ * Receives the {@link PetTransition}s published by a {@link PetStateMachine}.
+ */
+public interface PetTransitionListener {
+
+    /**
+     * Called once for every state change of the pet.
+     *
+     * @param transition the change that occurred
+     * @param pet        the pet whose state changed
+     */
+    void onTransition(PetTransition transition, Pet pet);
+}
@@ -63,4 +63,16 @@ public class PetType {
         return  healthDecayRate;
     }
 
+    /**
+     * Creates the pet types a new game can be started with, in the order they are offered.
+     * Every call returns new instances, so a balancing run can never change the game's own types.
+     */
+    public static PetType[] starters() {
+        return new PetType[]{
+                new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0),
+                new PetType("Sunny", 7, 5, 7, 6, 1, 1, 2, 0),
+                new PetType("Berry", 7, 7, 6, 5, 1, 2, 1, 0)
+        };
+    }
+
 }
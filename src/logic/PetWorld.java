@@ -0,0 +1,392 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code PetWorld} class stores a large population of pets in primitive arrays indexed by pet id,
+ * instead of one {@link Pet} object graph per pet. Every tick advances the whole population by one
+ * decay interval, splitting the arrays across a fork-join pool.
+ *
+ * <p>The rules are the same as {@link PetSimulation}: one call to {@link #tick()} leaves every pet in
+ * the state {@link PetSimulation#advance(long)} would reach after {@link PetSimulation#DECAY_INTERVAL_MILLIS}.
+ * {@link #getPet(int)} and {@link #setPet(int, Pet)} convert single pets to and from the object model
+ * so existing code can keep working with {@link Pet}. Inventories are not part of the world.</p>
+ */
+public class PetWorld {
+
+    /**
+     * Flag bit set while the pet is sleeping.
+     */
+    public static final int SLEEPING = 1;
+
+    /**
+     * Flag bit set while the pet is hungry.
+     */
+    public static final int HUNGRY = 1 << 1;
+
+    /**
+     * Flag bit set while the pet is angry.
+     */
+    public static final int ANGRY = 1 << 2;
+
+    /**
+     * Flag bit set once the pet is dead.
+     */
+    public static final int DEAD = 1 << 3;
+
+    /**
+     * Number of sleep recovery steps that fit between two decay ticks.
+     */
+    private static final int RECOVERY_STEPS_PER_TICK =
+            (int) ((PetSimulation.DECAY_INTERVAL_MILLIS - 1) / PetSimulation.SLEEP_RECOVERY_INTERVAL_MILLIS);
+
+    /**
+     * Number of pets a single fork-join task steps without splitting further.
+     */
+    private static final int GRAIN = 4096;
+
+    private final ForkJoinPool pool;
+    private int size = 0;
+
+    // Per-pet state, indexed by pet id
+    private String[] names;
+    private int[] typeIds;
+    private int[] health;
+    private int[] sleep;
+    private int[] fullness;
+    private int[] happiness;
+    private byte[] flags;
+    private long[] lastPlay;
+    private long[] lastVetVisit;
+
+    // Per-type parameters, indexed by type id
+    private final List<PetType> types = new ArrayList<>();
+    private final Map<PetType, Integer> typeIdsByType = new IdentityHashMap<>();
+    private int[] maxHealth = new int[0];
+    private int[] maxSleep = new int[0];
+    private int[] maxFullness = new int[0];
+    private int[] maxHappiness = new int[0];
+    private int[] sleepDecay = new int[0];
+    private int[] fullnessDecay = new int[0];
+    private int[] happinessDecay = new int[0];
+
+    /**
+     * Creates an empty world stepped on the common fork-join pool.
+     *
+     * @param initialCapacity the number of pets to reserve room for
+     */
+    public PetWorld(int initialCapacity) {
+        this(initialCapacity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an empty world stepped on the given fork-join pool.
+     *
+     * @param initialCapacity the number of pets to reserve room for
+     * @param pool            the pool the tick stepper runs on
+     */
+    public PetWorld(int initialCapacity, ForkJoinPool pool) {
+        this.pool = pool;
+        int capacity = Math.max(1, initialCapacity);
+        names = new String[capacity];
+        typeIds = new int[capacity];
+        health = new int[capacity];
+        sleep = new int[capacity];
+        fullness = new int[capacity];
+        happiness = new int[capacity];
+        flags = new byte[capacity];
+        lastPlay = new long[capacity];
+        lastVetVisit = new long[capacity];
+    }
+
+    /**
+     * Returns the number of pets in the world.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a copy of the given pet's state to the world.
+     *
+     * @param pet the pet to add
+     * @return the id of the new pet
+     */
+    public int addPet(Pet pet) {
+        if (size == health.length) {
+            grow();
+        }
+        int id = size++;
+        setPet(id, pet);
+        return id;
+    }
+
+    /**
+     * Overwrites the state of a pet with the state of the given pet.
+     *
+     * @param id  the id of the pet to overwrite
+     * @param pet the pet whose state is copied
+     */
+    public void setPet(int id, Pet pet) {
+        checkId(id);
+        VitalStatistics stats = pet.getVitalStats();
+        names[id] = pet.getName();
+        typeIds[id] = typeId(pet.getType());
+        health[id] = stats.getHealth();
+        sleep[id] = stats.getSleep();
+        fullness[id] = stats.getFullness();
+        happiness[id] = stats.getHappiness();
+        flags[id] = (byte) ((pet.isSleeping() ? SLEEPING : 0) | (pet.isHungry() ? HUNGRY : 0)
+                | (pet.isAngry() ? ANGRY : 0) | (pet.isDead() ? DEAD : 0));
+        lastPlay[id] = pet.getLastPlay();
+        lastVetVisit[id] = pet.getLastVetVisit();
+    }
+
+    /**
+     * Returns a {@link Pet} holding a copy of the given pet's current state.
+     * Changes to the returned pet are not written back until {@link #setPet(int, Pet)} is called.
+     *
+     * @param id the id of the pet
+     * @return a detached pet with the same stats, flags and cooldowns
+     */
+    public Pet getPet(int id) {
+        checkId(id);
+        int f = flags[id];
+        VitalStatistics stats = new VitalStatistics(health[id], sleep[id], fullness[id], happiness[id]);
+        return new Pet(names[id], types.get(typeIds[id]), stats, lastPlay[id], lastVetVisit[id],
+                (f & SLEEPING) != 0, (f & HUNGRY) != 0, (f & ANGRY) != 0, (f & DEAD) != 0);
+    }
+
+    // Primitive accessors for readers that do not need a full Pet
+    public int getHealth(int id) { return health[id]; }
+    public int getSleep(int id) { return sleep[id]; }
+    public int getFullness(int id) { return fullness[id]; }
+    public int getHappiness(int id) { return happiness[id]; }
+    public int getFlags(int id) { return flags[id]; }
+    public long getLastPlay(int id) { return lastPlay[id]; }
+    public long getLastVetVisit(int id) { return lastVetVisit[id]; }
+
+    public boolean isDead(int id) {
+        return (flags[id] & DEAD) != 0;
+    }
+
+    /**
+     * Advances every pet by one decay interval, in parallel.
+     */
+    public void tick() {
+        if (size <= GRAIN) {
+            stepRange(0, size);
+        } else {
+            pool.invoke(new StepTask(0, size));
+        }
+    }
+
+    /**
+     * Advances every pet by the given number of decay intervals.
+     *
+     * @param ticks the number of ticks to apply
+     */
+    public void tick(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Counts the pets that are still alive.
+     */
+    public int countAlive() {
+        int alive = 0;
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & DEAD) == 0) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * Splits the id range into fork-join tasks until each one is small enough to step directly.
+     */
+    private class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        StepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                stepRange(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new StepTask(from, middle), new StepTask(middle, to));
+            }
+        }
+    }
+
+    /**
+     * Advances the pets in [from, to) by one decay interval: any pending sleep recovery, then the decay tick.
+     */
+    private void stepRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((flags[i] & DEAD) != 0) {
+                continue;
+            }
+            int type = typeIds[i];
+            for (int step = 0; step < RECOVERY_STEPS_PER_TICK && (flags[i] & (SLEEPING | DEAD)) == SLEEPING; step++) {
+                recoverSleep(i, type);
+            }
+            decay(i, type);
+        }
+    }
+
+    /**
+     * Applies one sleep recovery step, following {@link PetSimulation#recoverSleep()}.
+     */
+    private void recoverSleep(int i, int type) {
+        sleep[i] += PetSimulation.SLEEP_RECOVERY_AMOUNT;
+        if (sleep[i] >= maxSleep[type]) {
+            sleep[i] = maxSleep[type]; // Cap sleep at maximum
+        }
+        checkStates(i, type);
+    }
+
+    /**
+     * Applies one decay tick, following {@link PetSimulation#tick()}.
+     */
+    private void decay(int i, int type) {
+        int criticalStatsCount = 0;
+
+        // Handle sleep decay
+        if ((flags[i] & SLEEPING) == 0) {
+            sleep[i] -= sleepDecay[type];
+            if (sleep[i] <= 0) {
+                sleep[i] = 0;
+                health[i] -= PetSimulation.EXHAUSTION_HEALTH_PENALTY;
+                checkStates(i, type);
+            } else if (sleep[i] < maxSleep[type] * 0.25) {
+                criticalStatsCount++;
+            }
+        }
+
+        // Handle fullness decay
+        fullness[i] -= fullnessDecay[type];
+        if (fullness[i] <= 0) {
+            fullness[i] = 0;
+            health[i] -= PetSimulation.STARVATION_HEALTH_PENALTY;
+            checkStates(i, type);
+        } else if (fullness[i] < maxFullness[type] * 0.25) {
+            criticalStatsCount++;
+        }
+
+        // Handle happiness decay, faster when hungry
+        happiness[i] -= (flags[i] & HUNGRY) != 0 ? happinessDecay[type] * 2 : happinessDecay[type];
+        if (happiness[i] <= 0) {
+            happiness[i] = 0;
+        } else if (happiness[i] < maxHappiness[type] * 0.25) {
+            criticalStatsCount++;
+        }
+
+        // Apply health penalty based on the number of critical stats
+        if (criticalStatsCount > 0 && (flags[i] & SLEEPING) == 0) {
+            health[i] -= criticalStatsCount;
+        }
+
+        // Keep stats within their limits
+        health[i] = Math.max(0, Math.min(health[i], maxHealth[type]));
+        sleep[i] = Math.max(0, Math.min(sleep[i], maxSleep[type]));
+        fullness[i] = Math.max(0, Math.min(fullness[i], maxFullness[type]));
+        happiness[i] = Math.max(0, Math.min(happiness[i], maxHappiness[type]));
+        checkStates(i, type);
+    }
+
+    /**
+     * Updates the state flags from the stats, following {@link PetStateMachine#evaluate()}.
+     */
+    private void checkStates(int i, int type) {
+        int f = flags[i];
+        boolean dead = health[i] <= 0;
+        f = dead ? f | DEAD : f & ~DEAD;
+
+        // Sleeping state: sleep reaches 0, or pet is actively sleeping
+        if (!dead && sleep[i] <= 0) {
+            f |= SLEEPING;
+        } else if (sleep[i] >= maxSleep[type]) {
+            f &= ~SLEEPING;
+        }
+
+        // Hungry state: fullness reaches critical threshold
+        if (!dead && fullness[i] < maxFullness[type] * 0.25) {
+            f |= HUNGRY;
+        } else {
+            f &= ~HUNGRY;
+        }
+
+        // Angry state: happiness reaches 0
+        if (!dead && happiness[i] <= 0) {
+            f |= ANGRY;
+        } else if (happiness[i] >= maxHappiness[type] / 2) {
+            f &= ~ANGRY;
+        }
+        flags[i] = (byte) f;
+    }
+
+    /**
+     * Returns the id of the given pet type, registering it on first use.
+     */
+    private int typeId(PetType type) {
+        Integer id = typeIdsByType.get(type);
+        if (id != null) {
+            return id;
+        }
+        int newId = types.size();
+        types.add(type);
+        typeIdsByType.put(type, newId);
+
+        int count = newId + 1;
+        maxHealth = Arrays.copyOf(maxHealth, count);
+        maxSleep = Arrays.copyOf(maxSleep, count);
+        maxFullness = Arrays.copyOf(maxFullness, count);
+        maxHappiness = Arrays.copyOf(maxHappiness, count);
+        sleepDecay = Arrays.copyOf(sleepDecay, count);
+        fullnessDecay = Arrays.copyOf(fullnessDecay, count);
+        happinessDecay = Arrays.copyOf(happinessDecay, count);
+        maxHealth[newId] = type.getMaxHealth();
+        maxSleep[newId] = type.getMaxSleep();
+        maxFullness[newId] = type.getMaxFullness();
+        maxHappiness[newId] = type.getMaxHappiness();
+        sleepDecay[newId] = type.getSleepDecayRate();
+        fullnessDecay[newId] = type.getFullnessDecayRate();
+        happinessDecay[newId] = type.getHappinessDecayRate();
+        return newId;
+    }
+
+    private void grow() {
+        int capacity = health.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        typeIds = Arrays.copyOf(typeIds, capacity);
+        health = Arrays.copyOf(health, capacity);
+        sleep = Arrays.copyOf(sleep, capacity);
+        fullness = Arrays.copyOf(fullness, capacity);
+        happiness = Arrays.copyOf(happiness, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        lastPlay = Arrays.copyOf(lastPlay, capacity);
+        lastVetVisit = Arrays.copyOf(lastVetVisit, capacity);
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No pet with id " + id);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PlaytimeJournal} class records play sessions in an append-only file and keeps
+ * the daily, weekly and total playtime as running sums.
+ *
+ * <p>A session adds a start record, a checkpoint record every minute while it runs and an end
+ * record. Each record updates the sums in constant time, so nothing is ever recomputed from the
+ * full history. When the journal is opened after a crash, a session without an end record counts
+ * up to its last checkpoint. Once the journal holds records from an earlier week, or grows too
+ * long, it is compacted into a single summary record.</p>
+ *
+ * <p>One record per line: {@code S,<millis>} starts a session, {@code C,<millis>} is a checkpoint,
+ * {@code E,<millis>} ends a session, and
+ * {@code A,<millis>,<epochDay>,<dailyMillis>,<weeklyMillis>,<totalMillis>,<sessions>}
+ * summarises every session before it. Days are counted in the clock's time zone and weeks
+ * start on Monday.</p>
+ */
+public class PlaytimeJournal {
+
+    /**
+     * How often a running session writes a checkpoint.
+     */
+    static final long CHECKPOINT_INTERVAL_SECONDS = 60;
+
+    /**
+     * The number of records after which the journal is compacted, about a week of checkpoints.
+     */
+    static final int COMPACT_AFTER_RECORDS = 10_000;
+
+    private static final Map<Path, PlaytimeJournal> shared = new HashMap<>();
+    private static ScheduledExecutorService checkpointer;
+
+    private final Path file;
+    private final Clock clock;
+
+    private LocalDate day;          // The day the daily sum belongs to
+    private long dailyMillis;
+    private long weeklyMillis;
+    private long totalMillis;
+    private int sessionCount;
+    private long sessionStart = -1; // -1 while no session is running
+    private long lastCheckpoint;
+    private int recordCount;
+    private boolean hasOlderWeeks;
+    private boolean fresh;          // The journal file did not exist and no session has ended since
+    private long version;           // Counts the changes that move the sums in a new direction
+
+    /**
+     * Returns the journal for the given file, opening it on first use. Every caller shares
+     * the same journal, which writes checkpoints on its own and ends the running session
+     * when the application exits.
+     *
+     * @param file the journal file
+     * @return the shared journal for the file
+     */
+    public static synchronized PlaytimeJournal forFile(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        PlaytimeJournal journal = shared.get(key);
+        if (journal == null) {
+            journal = new PlaytimeJournal(key, Clock.systemDefaultZone());
+            shared.put(key, journal);
+            if (checkpointer == null) {
+                startCheckpointer();
+            }
+        }
+        return journal;
+    }
+
+    private static void startCheckpointer() {
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "playtime-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleAtFixedRate(() -> {
+            for (PlaytimeJournal journal : sharedJournals()) {
+                journal.checkpoint();
+            }
+        }, CHECKPOINT_INTERVAL_SECONDS, CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (PlaytimeJournal journal : sharedJournals()) {
+                journal.endSession();
+            }
+        }, "playtime-shutdown"));
+    }
+
+    private static synchronized List<PlaytimeJournal> sharedJournals() {
+        return List.copyOf(shared.values());
+    }
+
+    /**
+     * Opens the journal in the given file and rebuilds the sums from its records.
+     *
+     * @param file  the journal file, created on the first record
+     * @param clock the clock that dates the records and decides the current day
+     */
+    PlaytimeJournal(Path file, Clock clock) {
+        this.file = file;
+        this.clock = clock;
+        this.day = dateOf(clock.millis());
+        replay();
+        if (hasOlderWeeks || recordCount >= COMPACT_AFTER_RECORDS) {
+            compact();
+        }
+    }
+
+    /**
+     * Starts a session. Does nothing if a session is already running.
+     */
+    public synchronized void startSession() {
+        if (sessionStart >= 0) {
+            return;
+        }
+        long now = clock.millis();
+        sessionStart = now;
+        lastCheckpoint = now;
+        version++;
+        append("S", now);
+    }
+
+    /**
+     * Records that the running session is still going, so a crash loses at most one checkpoint interval.
+     */
+    public synchronized void checkpoint() {
+        if (sessionStart < 0) {
+            return;
+        }
+        long now = clock.millis();
+        lastCheckpoint = now;
+        append("C", now);
+    }
+
+    /**
+     * Ends the running session and adds it to the sums. Does nothing if no session is running.
+     */
+    public synchronized void endSession() {
+        if (sessionStart < 0) {
+            return;
+        }
+        long now = clock.millis();
+        closeSession(now);
+        version++;
+        append("E", now);
+    }
+
+    /**
+     * Returns true while a session is running.
+     *
+     * @return true if a session has been started and not ended
+     */
+    public synchronized boolean isSessionRunning() {
+        return sessionStart >= 0;
+    }
+
+    /**
+     * Returns a number that changes whenever a session starts or ends or the sums are replaced.
+     * Between two changes the playtime only grows with the clock, if a session is running.
+     *
+     * @return the current version of the journal
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the time played today, including the running session.
+     *
+     * @return today's playtime
+     */
+    public synchronized Duration getDailyPlaytime() {
+        long now = clock.millis();
+        rollOver(dateOf(now));
+        return Duration.ofMillis(dailyMillis + runningSince(now, startOfDay(day)));
+    }
+
+    /**
+     * Returns the time played this week, including the running session.
+     *
+     * @return this week's playtime
+     */
+    public synchronized Duration getWeeklyPlaytime() {
+        long now = clock.millis();
+        rollOver(dateOf(now));
+        return Duration.ofMillis(weeklyMillis + runningSince(now, startOfWeek(day)));
+    }
+
+    /**
+     * Returns the time played across all sessions, including the running one.
+     *
+     * @return the total playtime
+     */
+    public synchronized Duration getTotalPlaytime() {
+        return Duration.ofMillis(totalMillis + runningSince(clock.millis(), Long.MIN_VALUE));
+    }
+
+    /**
+     * Returns the number of sessions that have ended.
+     *
+     * @return the number of ended sessions
+     */
+    public synchronized int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Returns the average length of the sessions that have ended.
+     *
+     * @return the average session length, or {@link Duration#ZERO} if no session has ended
+     */
+    public synchronized Duration getAverageSessionLength() {
+        if (sessionCount == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(totalMillis / sessionCount);
+    }
+
+    /**
+     * Replaces the total playtime and session count, for example when the statistics are reset.
+     * Today's and this week's playtime are kept, and a running session keeps running.
+     *
+     * @param total    the new total playtime of the ended sessions
+     * @param sessions the new number of ended sessions
+     */
+    public synchronized void reset(Duration total, int sessions) {
+        totalMillis = total.toMillis();
+        sessionCount = sessions;
+        version++;
+        compact();
+    }
+
+    /**
+     * Takes over the sums kept by an older version of the game, if this journal is new
+     * and no session has ended in it yet.
+     *
+     * @param asOf     when the sums were last updated; daily and weekly sums from an earlier day or week are dropped
+     * @param daily    the daily playtime
+     * @param weekly   the weekly playtime
+     * @param total    the total playtime
+     * @param sessions the number of sessions
+     * @return true if the sums were taken over, false if the journal already had its own
+     */
+    public synchronized boolean importTotals(Instant asOf, Duration daily, Duration weekly, Duration total, int sessions) {
+        if (!fresh) {
+            return false;
+        }
+        fresh = false;
+        day = dateOf(asOf.toEpochMilli());
+        dailyMillis = daily.toMillis();
+        weeklyMillis = weekly.toMillis();
+        totalMillis = total.toMillis();
+        sessionCount = sessions;
+        rollOver(dateOf(clock.millis()));
+        version++;
+        compact();
+        return true;
+    }
+
+    /**
+     * Rewrites the journal as a single summary record, followed by the running session if there is one.
+     */
+    synchronized void compact() {
+        StringBuilder contents = new StringBuilder();
+        contents.append("A,").append(clock.millis()).append(',').append(day.toEpochDay()).append(',')
+                .append(dailyMillis).append(',').append(weeklyMillis).append(',')
+                .append(totalMillis).append(',').append(sessionCount).append('\n');
+        recordCount = 1;
+        if (sessionStart >= 0) {
+            contents.append("S,").append(sessionStart).append('\n');
+            contents.append("C,").append(lastCheckpoint).append('\n');
+            recordCount += 2;
+        }
+        try {
+            AtomicFiles.write(file, contents.toString().getBytes(StandardCharsets.UTF_8));
+            hasOlderWeeks = false;
+            fresh = false;
+        } catch (IOException e) {
+            System.err.println("Error compacting playtime journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the sums from the records on disk and ends a session the last run left open.
+     */
+    private void replay() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            fresh = true;
+            return;
+        } catch (IOException e) {
+            System.err.println("Error reading playtime journal: " + e.getMessage());
+            return;
+        }
+
+        long weekStart = startOfWeek(day);
+        for (String line : lines) {
+            try {
+                long time = apply(line.split(","));
+                recordCount++;
+                if (time < weekStart) {
+                    hasOlderWeeks = true;
+                }
+            } catch (RuntimeException e) {
+                // A record cut short by a crash; everything before it still counts
+            }
+        }
+        if (sessionStart >= 0) {
+            long end = lastCheckpoint; // The game did not exit cleanly
+            closeSession(end);
+            append("E", end);
+        }
+        rollOver(dateOf(clock.millis()));
+    }
+
+    /**
+     * Applies a single record to the sums.
+     *
+     * @return the time of the record
+     */
+    private long apply(String[] record) {
+        long time = Long.parseLong(record[1]);
+        switch (record[0]) {
+            case "S":
+                if (sessionStart >= 0) {
+                    closeSession(lastCheckpoint); // Started again without ending the last session
+                }
+                sessionStart = time;
+                lastCheckpoint = time;
+                break;
+            case "C":
+                if (sessionStart >= 0) {
+                    lastCheckpoint = Math.max(lastCheckpoint, time);
+                }
+                break;
+            case "E":
+                if (sessionStart >= 0) {
+                    closeSession(time);
+                }
+                break;
+            case "A":
+                LocalDate summaryDay = LocalDate.ofEpochDay(Long.parseLong(record[2]));
+                long daily = Long.parseLong(record[3]);
+                long weekly = Long.parseLong(record[4]);
+                long total = Long.parseLong(record[5]);
+                int sessions = Integer.parseInt(record[6]);
+                day = summaryDay;
+                dailyMillis = daily;
+                weeklyMillis = weekly;
+                totalMillis = total;
+                sessionCount = sessions;
+                sessionStart = -1;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record: " + record[0]);
+        }
+        return time;
+    }
+
+    /**
+     * Adds the running session, ending at the given time, to the sums.
+     */
+    private void closeSession(long end) {
+        long start = sessionStart;
+        end = Math.max(start, end);
+        rollOver(dateOf(end));
+        totalMillis += end - start;
+        dailyMillis += Math.max(0, end - Math.max(start, startOfDay(day)));
+        weeklyMillis += Math.max(0, end - Math.max(start, startOfWeek(day)));
+        sessionCount++;
+        sessionStart = -1;
+        fresh = false;
+    }
+
+    /**
+     * Starts a new day, and a new week if the date is in one, once the date is after the current day.
+     */
+    private void rollOver(LocalDate date) {
+        if (!date.isAfter(day)) {
+            return;
+        }
+        if (!mondayOf(date).equals(mondayOf(day))) {
+            weeklyMillis = 0;
+        }
+        dailyMillis = 0;
+        day = date;
+    }
+
+    /**
+     * Returns how long the running session has been going since the given time.
+     */
+    private long runningSince(long now, long from) {
+        if (sessionStart < 0) {
+            return 0;
+        }
+        return Math.max(0, now - Math.max(sessionStart, from));
+    }
+
+    private void append(String type, long time) {
+        byte[] record = (type + "," + time + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing playtime journal: " + e.getMessage());
+            return;
+        }
+        if (++recordCount >= COMPACT_AFTER_RECORDS) {
+            compact();
+        }
+    }
+
+    private LocalDate dateOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(clock.getZone()).toLocalDate();
+    }
+
+    private long startOfDay(LocalDate date) {
+        return date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private long startOfWeek(LocalDate date) {
+        return startOfDay(mondayOf(date));
+    }
+
+    private static LocalDate mondayOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
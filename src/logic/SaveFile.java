@@ -0,0 +1,491 @@
+package logic;
+
+import inventory.Inventory;
+import inventory.ItemCatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code SaveFile} class stores every save slot in a single memory-mapped binary file.
+ *
+ * <p>The file starts with a fixed header followed by a table with one entry per slot.
+ * Each entry holds the offset, length and checksum of the slot's current record.
+ * Saving a slot appends a new record and then points the slot's entry at it, so the
+ * previous record stays readable until the new one is fully written. Loading a slot maps
+ * only the header and that slot's record.</p>
+ *
+ * <pre>
+ * header  int magic "PETS" | short format version | short slot count | long reserved
+ * table   slot count x (long offset | int length | int crc32)
+ * records byte record version | length-prefixed fields, see {@link #encode(Pet)}
+ * </pre>
+ */
+public class SaveFile {
+
+    /**
+     * Magic number at the start of every save file ("PETS").
+     */
+    public static final int MAGIC = 0x50455453;
+
+    /**
+     * Version of the header and slot table layout.
+     */
+    public static final short FORMAT_VERSION = 1;
+
+    /**
+     * Version of the pet records written by this class.
+     */
+    public static final byte RECORD_VERSION = 1;
+
+    /**
+     * Number of slots a new save file has room for.
+     */
+    public static final int DEFAULT_SLOT_COUNT = 64;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 16;
+
+    /**
+     * Unused bytes, left behind by overwritten records, that trigger a compaction.
+     */
+    private static final long COMPACTION_THRESHOLD = 64 * 1024;
+
+    /**
+     * File names of the legacy CSV saves, e.g. "slot2.csv".
+     */
+    private static final Pattern LEGACY_SLOT_FILE = Pattern.compile("slot(\\d+)\\.csv");
+
+    private final Path path;
+    private final int slotCount;
+
+    /**
+     * Opens the save file at the given path, creating it with room for
+     * {@link #DEFAULT_SLOT_COUNT} slots if it does not exist yet.
+     *
+     * @param path the location of the save file
+     * @throws IOException if the file cannot be created or is not a save file
+     */
+    public SaveFile(Path path) throws IOException {
+        this(path, DEFAULT_SLOT_COUNT);
+    }
+
+    /**
+     * Opens the save file at the given path, creating it with room for the given number of slots
+     * if it does not exist yet. An existing file keeps its own slot count.
+     *
+     * @param path      the location of the save file
+     * @param slotCount the number of slots of a newly created file
+     * @throws IOException if the file cannot be created or is not a save file
+     */
+    public SaveFile(Path path, int slotCount) throws IOException {
+        this.path = path;
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writeEmptyFile(path, slotCount);
+        }
+        this.slotCount = readSlotCount();
+    }
+
+    /**
+     * Returns the number of slots this file has room for. Slots are numbered from 1.
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Saves a pet into the given slot, replacing any pet saved there before.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet to save
+     * @throws IOException if the pet cannot be written
+     */
+    public synchronized void save(int slot, Pet pet) throws IOException {
+        pet.setLastSaved(pet.getClock().millis()); // Remember when the pet was left behind
+        write(slot, encode(pet));
+    }
+
+    /**
+     * Writes an already encoded record into the given slot.
+     *
+     * @param slot   the slot number, starting at 1
+     * @param record the encoded pet, as returned by {@link #encode(Pet)}
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void write(int slot, byte[] record) throws IOException {
+        checkSlot(slot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Append the record and make sure it is on disk before anything points at it
+            long offset = channel.size();
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, offset, record.length);
+            data.put(record);
+            data.force();
+
+            // Then switch the slot over to the new record
+            MappedByteBuffer entry = channel.map(FileChannel.MapMode.READ_WRITE, entryOffset(slot), ENTRY_SIZE);
+            entry.putLong(offset);
+            entry.putInt(record.length);
+            entry.putInt(checksum(record, 0, record.length));
+            entry.force();
+        }
+        if (unusedBytes() > COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Loads the pet saved in the given slot without reading any other slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @return the saved pet
+     * @throws IOException if the slot is empty, damaged or cannot be read
+     */
+    public synchronized Pet load(int slot) throws IOException {
+        return decode(read(slot));
+    }
+
+    /**
+     * Returns the raw record saved in the given slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @return a buffer positioned at the start of the record
+     * @throws IOException if the slot is empty, damaged or cannot be read
+     */
+    public synchronized ByteBuffer read(int slot) throws IOException {
+        checkSlot(slot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer entry = channel.map(FileChannel.MapMode.READ_ONLY, entryOffset(slot), ENTRY_SIZE);
+            long offset = entry.getLong();
+            int length = entry.getInt();
+            int crc = entry.getInt();
+            if (offset == 0) {
+                throw new IOException("No pet data found in slot " + slot);
+            }
+            MappedByteBuffer record = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            byte[] bytes = new byte[length];
+            record.get(bytes);
+            if (checksum(bytes, 0, length) != crc) {
+                throw new IOException("Save data in slot " + slot + " is damaged");
+            }
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+
+    /**
+     * Checks whether a pet has been saved in the given slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @return true if the slot holds a pet
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized boolean hasPet(int slot) throws IOException {
+        checkSlot(slot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, entryOffset(slot), ENTRY_SIZE).getLong() != 0;
+        }
+    }
+
+    /**
+     * Returns the checksum of the current record of every slot, read from the slot table alone.
+     * A checksum changes whenever a slot is saved, so it tells whether a copy of the slot's
+     * contents kept elsewhere is still up to date.
+     *
+     * @return the record checksums, indexed by slot number minus one; -1 for empty slots
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized long[] getRecordChecksums() throws IOException {
+        long[] checksums = new long[slotCount];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) slotCount * ENTRY_SIZE);
+            for (int i = 0; i < slotCount; i++) {
+                long offset = table.getLong();
+                table.getInt();
+                int crc = table.getInt();
+                checksums[i] = offset == 0 ? -1 : crc & 0xFFFFFFFFL;
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Imports the legacy {@code slot<N>.csv} saves from the given directory into slots that are still empty.
+     *
+     * @param directory the directory holding the CSV saves
+     * @return the number of slots that were imported
+     * @throws IOException if the save file cannot be written
+     */
+    public synchronized int importLegacySlots(Path directory) throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files == null) {
+            return 0;
+        }
+        int imported = 0;
+        for (File file : files) {
+            Matcher matcher = LEGACY_SLOT_FILE.matcher(file.getName());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int slot = Integer.parseInt(matcher.group(1));
+            if (slot < 1 || slot > slotCount || hasPet(slot)) {
+                continue;
+            }
+            try {
+                Pet pet = SaveManager.loadPet(file.getPath());
+                write(slot, encode(pet)); // Keep the original save time
+                imported++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Skipping unreadable save " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Rewrites the file with only the current record of every slot, then atomically replaces the old file.
+     *
+     * @throws IOException if the file cannot be rewritten
+     */
+    public synchronized void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        writeEmptyFile(temp, slotCount);
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer table = source.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) slotCount * ENTRY_SIZE);
+            MappedByteBuffer newTable = target.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE, (long) slotCount * ENTRY_SIZE);
+            for (int i = 0; i < slotCount; i++) {
+                long offset = table.getLong();
+                int length = table.getInt();
+                int crc = table.getInt();
+                long newOffset = 0;
+                if (offset != 0) {
+                    newOffset = target.size();
+                    target.map(FileChannel.MapMode.READ_WRITE, newOffset, length)
+                            .put(source.map(FileChannel.MapMode.READ_ONLY, offset, length));
+                }
+                newTable.putLong(newOffset);
+                newTable.putInt(offset != 0 ? length : 0);
+                newTable.putInt(offset != 0 ? crc : 0);
+            }
+            target.force(true);
+        }
+        AtomicFiles.replace(temp, path);
+    }
+
+    /**
+     * Encodes a pet into a binary record. Strings are written as a varint length followed by UTF-8 bytes,
+     * so a name of any length can be saved.
+     *
+     * <pre>
+     * byte version | str typeName | 8 x int type limits and rates | str name
+     * 4 x int stats | long lastPlay | long lastVetVisit | long lastSaved | byte flags
+     * int count, count x (short item id | int quantity)   inventory, by {@link ItemCatalog} id
+     * </pre>
+     *
+     * @param pet the pet to encode
+     * @return the encoded record
+     */
+    public static byte[] encode(Pet pet) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            PetType type = pet.getType();
+            VitalStatistics stats = pet.getVitalStats();
+
+            out.writeByte(RECORD_VERSION);
+            writeString(out, type.getTypeName());
+            out.writeInt(type.getMaxHealth());
+            out.writeInt(type.getMaxSleep());
+            out.writeInt(type.getMaxFullness());
+            out.writeInt(type.getMaxHappiness());
+            out.writeInt(type.getFullnessDecayRate());
+            out.writeInt(type.getSleepDecayRate());
+            out.writeInt(type.getHappinessDecayRate());
+            out.writeInt(type.getHealthDecayRate());
+
+            writeString(out, pet.getName());
+            out.writeInt(stats.getHealth());
+            out.writeInt(stats.getSleep());
+            out.writeInt(stats.getFullness());
+            out.writeInt(stats.getHappiness());
+            out.writeLong(pet.getLastPlay());
+            out.writeLong(pet.getLastVetVisit());
+            out.writeLong(pet.getLastSaved());
+            out.writeByte((pet.isSleeping() ? PetWorld.SLEEPING : 0) | (pet.isHungry() ? PetWorld.HUNGRY : 0)
+                    | (pet.isAngry() ? PetWorld.ANGRY : 0) | (pet.isDead() ? PetWorld.DEAD : 0));
+
+            writeInventory(out, pet.getInventory());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e); // Cannot happen with a byte array
+        }
+    }
+
+    /**
+     * Decodes a pet from a binary record written by {@link #encode(Pet)}.
+     *
+     * @param in a buffer positioned at the start of the record
+     * @return the decoded pet
+     * @throws IOException if the record has an unknown version or is truncated
+     */
+    public static Pet decode(ByteBuffer in) throws IOException {
+        try {
+            byte version = in.get();
+            if (version != RECORD_VERSION) {
+                throw new IOException("Unsupported save record version " + version);
+            }
+            PetType type = new PetType(readString(in), in.getInt(), in.getInt(), in.getInt(), in.getInt(),
+                    in.getInt(), in.getInt(), in.getInt(), in.getInt());
+
+            String name = readString(in);
+            VitalStatistics stats = new VitalStatistics(in.getInt(), in.getInt(), in.getInt(), in.getInt());
+            long lastPlay = in.getLong();
+            long lastVetVisit = in.getLong();
+            long lastSaved = in.getLong();
+            int flags = in.get();
+
+            Pet pet = new Pet(name, type, stats, lastPlay, lastVetVisit, (flags & PetWorld.SLEEPING) != 0,
+                    (flags & PetWorld.HUNGRY) != 0, (flags & PetWorld.ANGRY) != 0, (flags & PetWorld.DEAD) != 0);
+            Inventory inventory = new Inventory();
+            readInventory(in, inventory);
+            pet.setInventory(inventory);
+            pet.setLastSaved(lastSaved);
+            return pet;
+        } catch (RuntimeException e) {
+            throw new IOException("Save record is truncated or damaged", e);
+        }
+    }
+
+    private static void writeInventory(DataOutputStream out, Inventory inventory) throws IOException {
+        int count = 0;
+        for (int id = 0; inventory != null && id < ItemCatalog.size(); id++) {
+            if (inventory.getQuantity(id) != 0) {
+                count++;
+            }
+        }
+        out.writeInt(count);
+        for (int id = 0; count > 0 && id < ItemCatalog.size(); id++) {
+            int quantity = inventory.getQuantity(id);
+            if (quantity != 0) {
+                out.writeShort(id);
+                out.writeInt(quantity);
+            }
+        }
+    }
+
+    private static void readInventory(ByteBuffer in, Inventory inventory) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            int id = Short.toUnsignedInt(in.getShort());
+            int quantity = in.getInt();
+            if (id < ItemCatalog.size()) {
+                inventory.add(id, quantity);
+            } else {
+                System.err.println("Unknown inventory item id: " + id); // Saved by a newer version of the game
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        Varints.writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = Varints.getVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("String of " + length + " bytes runs past the record");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a header and an empty slot table to the given path.
+     */
+    private static void writeEmptyFile(Path target, int slotCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * ENTRY_SIZE);
+            header.putInt(MAGIC);
+            header.putShort(FORMAT_VERSION);
+            header.putShort((short) slotCount);
+            header.putLong(0);
+            header.force();
+        }
+    }
+
+    /**
+     * Validates the header and returns the number of slots in the file.
+     */
+    private int readSlotCount() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a save file: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a save file: " + path);
+            }
+            short version = header.getShort();
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Save file " + path + " has unsupported version " + version);
+            }
+            return Short.toUnsignedInt(header.getShort());
+        }
+    }
+
+    /**
+     * Returns the number of bytes taken up by records no slot points at anymore.
+     */
+    private long unusedBytes() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long tableEnd = HEADER_SIZE + (long) slotCount * ENTRY_SIZE;
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, tableEnd - HEADER_SIZE);
+            long used = tableEnd;
+            for (int i = 0; i < slotCount; i++) {
+                table.getLong();
+                used += table.getInt();
+                table.getInt();
+            }
+            return channel.size() - used;
+        }
+    }
+
+    private static long entryOffset(int slot) {
+        return HEADER_SIZE + (long) (slot - 1) * ENTRY_SIZE;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 1 || slot > slotCount) {
+            throw new IllegalArgumentException("Slot must be between 1 and " + slotCount + ": " + slot);
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of the given bytes, as stored in the slot table.
+     */
+    static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
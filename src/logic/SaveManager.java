@@ -1,24 +1,177 @@
 package logic;
 
+import inventory.Inventory;
+import inventory.ItemCatalog;
+
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
- * The {@code SaveManager} class provides methods to save and load the state of a pet
- * to and from a CSV file. It handles serialization and deserialization of pet data,
- * including pet type, vital statistics, and status flags.
+ * The {@code SaveManager} class provides methods to save and load the state of a pet.
+ * Game slots are kept in a single binary {@link SaveFile}; the CSV methods read and write
+ * the legacy one-pet-per-file format, which is imported into the slot file on first use.
  */
 public class SaveManager {
 
+    /**
+     * Directory holding the game's save data, including the legacy {@code slot<N>.csv} files.
+     */
+    public static final String SAVE_DIRECTORY = "src/files";
+
+    /**
+     * Binary file holding every save slot.
+     */
+    public static final String SLOT_FILE = SAVE_DIRECTORY + "/saves.dat";
+
+    /**
+     * Small file summarising every saved slot, so slot lists never decode the pets.
+     */
+    public static final String SLOT_INDEX_FILE = SAVE_DIRECTORY + "/slots.idx";
+
+    private static SaveFile slotFile;
+    private static SlotIndex slotIndex;
+
     /**
      * The CSV header used when writing pet data to a file.
      */
     private static final String CSV_HEADER = "typeName,maxHealth,maxSleep,maxFullness,maxHappiness," +
             "fullnessDecayRate,sleepDecayRate,happinessDecayRate,healthDecayRate,name,type,vitalStats," +
             "lastPlay,lastVetVisit,isSleeping,isHungry,isAngry,isDead,health,sleep,fullness,happiness," +
-            "foodInventory,giftInventory";
+            "foodInventory,giftInventory,lastSaved";
+
+    private static final Metrics.Histogram SLOT_SAVE_TIME = Metrics.getInstance().histogram("save.slot.time", Metrics.Unit.NANOSECONDS);
+    private static final Metrics.Histogram SLOT_SAVE_SIZE = Metrics.getInstance().histogram("save.slot.size", Metrics.Unit.BYTES);
+    private static final Metrics.Histogram SLOT_LOAD_TIME = Metrics.getInstance().histogram("load.slot.time", Metrics.Unit.NANOSECONDS);
+
+
+    /**
+     * Returns the shared slot file, creating it and importing the legacy CSV slots on first use.
+     *
+     * @return the slot file
+     * @throws IOException if the slot file cannot be opened
+     */
+    public static synchronized SaveFile getSlotFile() throws IOException {
+        if (slotFile == null) {
+            Path path = Paths.get(SLOT_FILE);
+            boolean isNew = !path.toFile().exists();
+            slotFile = new SaveFile(path);
+            if (isNew) {
+                slotFile.importLegacySlots(Paths.get(SAVE_DIRECTORY));
+            }
+        }
+        return slotFile;
+    }
+
+    /**
+     * Returns the shared slot index, building it from the slot file on first use.
+     *
+     * @return the slot index
+     * @throws IOException if the slot file cannot be read or the index cannot be written
+     */
+    public static synchronized SlotIndex getSlotIndex() throws IOException {
+        if (slotIndex == null) {
+            slotIndex = new SlotIndex(Paths.get(SLOT_INDEX_FILE), getSlotFile());
+            SaveService saves = SaveService.getInstance();
+            for (int slot : saves.getUnwrittenSlots()) {
+                Pet pet = saves.getUnwrittenSlot(slot);
+                if (pet != null) {
+                    slotIndex.updateUnwritten(slot, pet); // Still on its way to disk
+                }
+            }
+        }
+        return slotIndex;
+    }
+
+    /**
+     * Shows a pet handed over to the {@link SaveService} in the slot index before it is written,
+     * or stops showing it after its write failed. Does nothing while the index is not open yet;
+     * opening it picks up the slots still being written.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet being saved, or {@code null} if its write failed
+     */
+    static synchronized void indexUnwritten(int slot, Pet pet) {
+        if (slotIndex != null) {
+            slotIndex.updateUnwritten(slot, pet);
+        }
+    }
 
+    /**
+     * Saves a pet into a game slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet to save
+     * @throws IOException if the slot cannot be written
+     */
+    public static void saveSlot(int slot, Pet pet) throws IOException {
+        pet.setLastSaved(pet.getClock().millis()); // Remember when the pet was left behind
+        writeSlot(slot, pet);
+    }
+
+    /**
+     * Writes a pet into a game slot as it is, keeping its save time, and updates the slot index.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet to save
+     * @throws IOException if the slot or the index cannot be written
+     */
+    static void writeSlot(int slot, Pet pet) throws IOException {
+        GameEvents.SlotSave event = new GameEvents.SlotSave();
+        event.begin();
+        long start = System.nanoTime();
+        byte[] record = SaveFile.encode(pet);
+        getSlotFile().write(slot, record);
+        getSlotIndex().update(slot, SaveFile.checksum(record, 0, record.length), pet);
+        SLOT_SAVE_TIME.recordSince(start);
+        SLOT_SAVE_SIZE.record(record.length);
+        event.slot = slot;
+        event.bytes = record.length;
+        event.commit();
+    }
+
+    /**
+     * Loads the pet saved in a game slot. If the game crashed while the pet was played, its
+     * {@link Autosave} journal is left behind; when that is newer than the save, the pet is rebuilt
+     * from the journal instead. Journals still kept by this process are ignored. A save that was
+     * handed to the {@link SaveService} but is not on disk yet is served from memory, so loading
+     * never waits for a write.
+     *
+     * @param slot the slot number, starting at 1
+     * @return the saved pet
+     * @throws IOException if the slot is empty or cannot be read
+     */
+    public static Pet loadSlot(int slot) throws IOException {
+        Pet unwritten = SaveService.getInstance().getUnwrittenSlot(slot);
+        if (unwritten != null) {
+            return unwritten; // Saved moments ago and still on its way to disk
+        }
+        GameEvents.SlotLoad event = new GameEvents.SlotLoad();
+        event.begin();
+        long start = System.nanoTime();
+        ByteBuffer record = getSlotFile().read(slot);
+        event.bytes = record.remaining();
+        Pet pet = SaveFile.decode(record);
+        SLOT_LOAD_TIME.recordSince(start);
+        event.slot = slot;
+        event.commit();
+
+        Path journal = Autosave.slotFile(slot);
+        if (Autosave.isOpen(journal)) {
+            return pet; // Played right now; the player wants the saved pet back
+        }
+        try {
+            Pet autosaved = Autosave.recover(journal);
+            if (autosaved != null && autosaved.getLastSaved() > pet.getLastSaved()) {
+                return autosaved;
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring the autosave of slot " + slot + ": " + e.getMessage());
+        }
+        return pet;
+    }
 
     /**
      * Saves a single pet's state to a CSV file.
@@ -28,21 +181,11 @@ public class SaveManager {
      * @throws IOException if an I/O error occurs during writing to the file
      */
     public static void savePet(String filePath, Pet pet) throws IOException {
-        // Ensure the parent directory exists
-        File file = new File(filePath);
-        File parentDir = file.getParentFile();
-        if (parentDir != null && !parentDir.exists()) {
-            parentDir.mkdirs(); // Create the directory
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            // Write the CSV header
-            writer.write(CSV_HEADER);
-            writer.newLine();
+        pet.setLastSaved(pet.getClock().millis()); // Remember when the pet was left behind
 
-            // Write the pet's data
-            writer.write(formatPetData(pet));
-        }
+        // Write the CSV header and the pet's data, replacing the old file in one step
+        String contents = CSV_HEADER + System.lineSeparator() + formatPetData(pet);
+        AtomicFiles.write(Paths.get(filePath), contents.getBytes(StandardCharsets.UTF_8));
     }
 
 
@@ -62,7 +205,7 @@ public class SaveManager {
             // Read the pet data (assumes single pet per file)
             String line = reader.readLine();
             if (line != null) {
-                String[] data = line.split(",");
+                String[] data = line.split(",", -1); // Keep trailing empty inventories
                 return parsePetData(data);
             }
         }
@@ -79,9 +222,9 @@ public class SaveManager {
         PetType type = pet.getType();
         VitalStatistics stats = pet.getVitalStats();
 
-        // Serialize inventories to a string
-        String foodInventory = serializeInventory(pet.getFoodInventory());
-        String giftInventory = serializeInventory(pet.getGiftInventory());
+        // Serialize inventories to a string, food and gifts in their own columns
+        String foodInventory = serializeInventory(pet.getInventory(), true);
+        String giftInventory = serializeInventory(pet.getInventory(), false);
 
         return String.join(",",
                 type.getTypeName(),
@@ -107,19 +250,23 @@ public class SaveManager {
                 String.valueOf(stats.getFullness()),
                 String.valueOf(stats.getHappiness()),
                 foodInventory, // Serialized food inventory
-                giftInventory  // Serialized gift inventory
+                giftInventory, // Serialized gift inventory
+                String.valueOf(pet.getLastSaved())
         );
     }
 
-    // Helper method to serialize inventory
-    private static String serializeInventory(Map<String, Integer> inventory) {
-        if (inventory == null || inventory.isEmpty()) {
-            return ""; // Return empty string for empty or null inventories
+    // Helper method to serialize the food or gift part of an inventory as "name:count" pairs
+    private static String serializeInventory(Inventory inventory, boolean food) {
+        if (inventory == null) {
+            return ""; // Return empty string for missing inventories
         }
         StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
-            if (sb.length() > 0) sb.append(";");
-            sb.append(entry.getKey()).append(":").append(entry.getValue());
+        for (int id = 0; id < ItemCatalog.size(); id++) {
+            int quantity = inventory.getQuantity(id);
+            if (quantity != 0 && ItemCatalog.isFood(id) == food) {
+                if (sb.length() > 0) sb.append(";");
+                sb.append(ItemCatalog.get(id).getItemName()).append(":").append(quantity);
+            }
         }
         return sb.toString();
     }
@@ -164,8 +311,12 @@ public class SaveManager {
         boolean isDead = Boolean.parseBoolean(data[17]);
 
         // Deserialize inventories
-        Map<String, Integer> foodInventory = deserializeInventory(data[22]);
-        Map<String, Integer> giftInventory = deserializeInventory(data[23]);
+        Inventory inventory = new Inventory();
+        deserializeInventory(data[22], inventory);
+        deserializeInventory(data[23], inventory);
+
+        // Older saves have no save time
+        long lastSaved = data.length > 24 ? Long.parseLong(data[24]) : 0;
 
         // Create PetType and VitalStatistics
         PetType type = new PetType(typeName, maxHealth, maxSleep, maxFullness, maxHappiness,
@@ -175,29 +326,32 @@ public class SaveManager {
 
         // Create and return Pet object
         Pet pet = new Pet(petName, type, vitalStats, lastPlay, lastVetVisit, isSleeping, isHungry, isAngry, isDead);
-        pet.setFoodInventory(foodInventory);
-        pet.setGiftInventory(giftInventory);
+        pet.setInventory(inventory);
+        pet.setLastSaved(lastSaved);
 
         return pet;
     }
 
 
-    private static Map<String, Integer> deserializeInventory(String inventoryData) {
-        Map<String, Integer> inventory = new HashMap<>();
+    private static void deserializeInventory(String inventoryData, Inventory inventory) {
         if (inventoryData != null && !inventoryData.isEmpty()) {
             String[] items = inventoryData.split(";");
             for (String item : items) {
                 try {
                     String[] parts = item.split(":");
                     if (parts.length == 2) {
-                        inventory.put(parts[0], Integer.parseInt(parts[1]));
+                        int id = ItemCatalog.idOf(parts[0]);
+                        if (id < 0) {
+                            System.err.println("Unknown inventory item: " + parts[0]);
+                            continue;
+                        }
+                        inventory.add(id, Integer.parseInt(parts[1]));
                     }
-                } catch (NumberFormatException e) {
+                } catch (IllegalArgumentException e) { // Not a number, or a negative quantity
                     System.err.println("Error parsing inventory item: " + item);
                 }
             }
         }
-        return inventory; // Return an empty map if no data
     }
 
 
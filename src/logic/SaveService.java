@@ -0,0 +1,272 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The {@code SaveService} class writes save data on a background worker thread so the game
+ * never waits for the disk.
+ *
+ * <p>Callers hand over an immutable snapshot of what should be written. Requests for the same
+ * target are coalesced: if a slot is saved again before the worker got to the previous request,
+ * only the newest snapshot is written and every caller is notified. Writes are crash-safe:
+ * slots go through {@link SaveFile}, other files through {@link AtomicFiles}.
+ * The shared instance flushes pending writes when the application exits.</p>
+ *
+ * <p>A slot that was handed over but not written yet can be read back from memory with
+ * {@link #getUnwrittenSlot(int)}, so loading a slot never has to wait for the disk.</p>
+ */
+public class SaveService {
+
+    /**
+     * Receives the outcome of a save request. Called on the worker thread; Swing callers
+     * must hop back to the Event Dispatch Thread themselves.
+     */
+    public interface Callback {
+        /**
+         * Called once the data has been written, or the write failed.
+         *
+         * @param error the failure, or {@code null} if the data was written
+         */
+        void onComplete(IOException error);
+    }
+
+    /**
+     * A single write performed on the worker thread.
+     */
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * A write that is waiting for the worker, with everyone waiting for it.
+     */
+    private static class PendingWrite {
+        private Write write;
+        private final List<Callback> callbacks = new ArrayList<>();
+    }
+
+    /**
+     * How long exiting the application waits for pending writes.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static SaveService instance;
+
+    private volatile Thread workerThread; // Set once the worker has started
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-worker");
+        thread.setDaemon(true);
+        workerThread = thread;
+        return thread;
+    });
+    private final Map<String, PendingWrite> pending = new HashMap<>();
+    private final Map<Integer, PetSnapshot> unwrittenSlots = new HashMap<>(); // Newest snapshot of every slot not on disk yet
+    private int running = 0; // Writes taken from the pending map that have not finished yet
+
+    /**
+     * Returns the shared save service, creating it on first use.
+     *
+     * @return the shared save service
+     */
+    public static synchronized SaveService getInstance() {
+        if (instance == null) {
+            instance = new SaveService();
+            instance.flushOnExit();
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a save service. Unlike the shared instance, it does not flush on exit.
+     */
+    public SaveService() {
+    }
+
+    /**
+     * Makes exiting the application wait for the pending writes, up to a timeout.
+     */
+    private void flushOnExit() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "save-flush"));
+    }
+
+    /**
+     * Saves the pet into a game slot in the background. The pet is copied before this method
+     * returns, so it can keep changing while the save is written.
+     *
+     * @param slot     the slot number, starting at 1
+     * @param pet      the live pet
+     * @param callback notified once the slot has been written, may be {@code null}
+     */
+    public void saveSlot(int slot, Pet pet, Callback callback) {
+        PetSnapshot snapshot = PetSnapshot.forSave(pet);
+        synchronized (this) {
+            unwrittenSlots.put(slot, snapshot);
+        }
+        SaveManager.indexUnwritten(slot, snapshot.toPet()); // Slot lists show the save right away
+        submit("slot:" + slot, () -> {
+            boolean written = false;
+            try {
+                SaveManager.writeSlot(slot, snapshot.toPet());
+                written = true;
+            } finally {
+                boolean newest;
+                synchronized (this) {
+                    newest = unwrittenSlots.remove(slot, snapshot); // Unless a newer save is already waiting
+                }
+                if (!written && newest) {
+                    SaveManager.indexUnwritten(slot, null);
+                }
+            }
+        }, callback);
+    }
+
+    /**
+     * Returns the slots handed over to be saved whose writes have not finished yet.
+     *
+     * @return the slot numbers
+     */
+    public synchronized List<Integer> getUnwrittenSlots() {
+        return new ArrayList<>(unwrittenSlots.keySet());
+    }
+
+    /**
+     * Returns the newest pet handed over to be saved into a slot whose write has not finished yet.
+     *
+     * @param slot the slot number, starting at 1
+     * @return a new copy of the pet, or {@code null} if the slot file is up to date
+     */
+    public Pet getUnwrittenSlot(int slot) {
+        PetSnapshot snapshot;
+        synchronized (this) {
+            snapshot = unwrittenSlots.get(slot);
+        }
+        return snapshot == null ? null : snapshot.toPet();
+    }
+
+    /**
+     * Replaces a file with the given contents in the background.
+     *
+     * @param path     the file to replace
+     * @param contents the new contents, which must not be modified afterwards
+     * @param callback notified once the file has been written, may be {@code null}
+     */
+    public void writeFile(Path path, byte[] contents, Callback callback) {
+        submit("file:" + path.toAbsolutePath().normalize(), () -> AtomicFiles.write(path, contents), callback);
+    }
+
+    /**
+     * Waits until every write requested so far has finished.
+     *
+     * @throws IllegalStateException if called on the worker thread, for example from a callback
+     */
+    public void flush() {
+        try {
+            flush(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits up to the given time until every write requested so far has finished.
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of the timeout
+     * @return true if every write finished in time
+     * @throws InterruptedException if the waiting thread is interrupted
+     * @throws IllegalStateException if called on the worker thread, for example from a callback
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        if (Thread.currentThread() == workerThread) {
+            // The marker below would wait behind the caller's own task for ever
+            throw new IllegalStateException("Cannot flush the save service from its own worker thread");
+        }
+        synchronized (this) {
+            if (pending.isEmpty() && running == 0) {
+                return true;
+            }
+        }
+        // The worker runs tasks in order, so once this marker runs every earlier write is done
+        Future<?> marker = worker.submit(() -> { });
+        try {
+            marker.get(timeout, unit);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Queues a write for the given target, or replaces the write already waiting for it.
+     */
+    private void submit(String target, Write write, Callback callback) {
+        synchronized (this) {
+            PendingWrite waiting = pending.get(target);
+            if (waiting != null) {
+                waiting.write = write; // Only the newest data needs to reach the disk
+                if (callback != null) {
+                    waiting.callbacks.add(callback);
+                }
+                return;
+            }
+            PendingWrite request = new PendingWrite();
+            request.write = write;
+            if (callback != null) {
+                request.callbacks.add(callback);
+            }
+            pending.put(target, request);
+        }
+        worker.execute(() -> runPending(target));
+    }
+
+    /**
+     * Runs the newest write waiting for the target and notifies everyone who asked for it.
+     */
+    private void runPending(String target) {
+        PendingWrite request;
+        synchronized (this) {
+            request = pending.remove(target);
+            if (request == null) {
+                return;
+            }
+            running++;
+        }
+        IOException error = null;
+        try {
+            request.write.run();
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new IOException(e);
+        }
+        if (error != null && request.callbacks.isEmpty()) {
+            System.err.println("Failed to write " + target + ": " + error.getMessage());
+        }
+        try {
+            for (Callback callback : request.callbacks) {
+                callback.onComplete(error);
+            }
+        } finally {
+            synchronized (this) {
+                running--;
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package logic;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code SaveStore} class keeps the saved pets of many players, each player with any number of slots.
+ *
+ * <p>Every pet is saved in a file of its own. The files are spread over {@value #SHARDS} subdirectories
+ * by a hash of the player id, so no directory grows too large. Pets in use stay decoded in a bounded
+ * cache that drops the least recently used pet when it is full, so players who keep playing never wait
+ * for the disk while players who left do not hold on to memory.</p>
+ *
+ * <p>Changes are written behind: {@link #put} and {@link #markDirty} take a copy of the pet and the
+ * copies are handed to a {@link SaveService} at a fixed interval, when their pet is dropped from the
+ * cache, and on {@link #flush()}. A pet read back before its copy reached the disk is decoded from
+ * the copy, so a reader always sees the newest save.</p>
+ *
+ * <p>Pets returned by the store are live: callers that change one call {@link #markDirty} afterwards,
+ * and must not change it concurrently from several threads.</p>
+ */
+public class SaveStore {
+
+    /**
+     * Receives the pets dropped from the cache. Called on the thread that caused the eviction,
+     * after any unsaved changes of the pet have been handed to the writer.
+     */
+    public interface EvictionListener {
+        /**
+         * Called once a pet has left the cache.
+         *
+         * @param playerId the pet's player
+         * @param slot     the pet's slot
+         * @param pet      the pet, which the store no longer holds
+         */
+        void evicted(String playerId, int slot, Pet pet);
+    }
+
+    /**
+     * A copy of a pet to be handed to the writer.
+     */
+    private static class Write {
+        private final Path file;
+        private final byte[] bytes;
+
+        Write(Path file, byte[] bytes) {
+            this.file = file;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Directory holding the players' saves unless told otherwise.
+     */
+    public static final String DIRECTORY = "src/files/players";
+
+    /**
+     * Number of subdirectories the save files are spread over.
+     */
+    public static final int SHARDS = 256;
+
+    /**
+     * A pet in the cache, with the newest copy that has not been handed to the writer yet.
+     */
+    private static class Entry {
+        private final String playerId;
+        private final int slot;
+        private final Pet pet;
+        private byte[] unsaved; // Encoded pet waiting for the next write-behind, or null if clean
+
+        Entry(String playerId, int slot, Pet pet) {
+            this.playerId = playerId;
+            this.slot = slot;
+            this.pet = pet;
+        }
+    }
+
+    private final Path root;
+    private final int capacity;
+    private final SaveService writer;
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true); // In order of last use
+    private final Map<Path, byte[]> unwritten = new ConcurrentHashMap<>(); // Handed to the writer, not yet on disk
+    private final Map<Path, byte[]> failed = new ConcurrentHashMap<>(); // Writes to retry at the next write-behind
+    private final Set<Path> createdShards = ConcurrentHashMap.newKeySet(); // Shard directories known to exist
+    private final List<EvictionListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    private SaveStore(Path root, int capacity, SaveService writer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache needs room for at least one pet: " + capacity);
+        }
+        this.root = root;
+        this.capacity = capacity;
+        this.writer = writer;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-store-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a store writing through the shared {@link SaveService}.
+     *
+     * @param root                the directory holding the shard directories
+     * @param capacity            the most pets kept decoded at once
+     * @param flushIntervalMillis the time between two write-behinds, in milliseconds
+     * @return the store, with its write-behind running
+     */
+    public static SaveStore open(Path root, int capacity, long flushIntervalMillis) {
+        return open(root, capacity, flushIntervalMillis, SaveService.getInstance());
+    }
+
+    /**
+     * Opens a store writing through the given save service.
+     *
+     * @param root                the directory holding the shard directories
+     * @param capacity            the most pets kept decoded at once
+     * @param flushIntervalMillis the time between two write-behinds, in milliseconds
+     * @param writer              the service writing the files
+     * @return the store, with its write-behind running
+     */
+    public static SaveStore open(Path root, int capacity, long flushIntervalMillis, SaveService writer) {
+        SaveStore store = new SaveStore(root, capacity, writer);
+        store.flusher.scheduleWithFixedDelay(store::writeBehind, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    public void addEvictionListener(EvictionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeEvictionListener(EvictionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a player's pet, see {@link #get(String, int)}.
+     */
+    public Pet get(Player player, int slot) throws IOException {
+        return get(player.getPlayerName(), slot);
+    }
+
+    /**
+     * Returns the pet a player saved in a slot, from the cache or else from disk.
+     *
+     * @param playerId the player
+     * @param slot     the slot
+     * @return the live pet
+     * @throws IOException if nothing is saved in the slot or the save cannot be read
+     */
+    public Pet get(String playerId, int slot) throws IOException {
+        String key = key(playerId, slot);
+        synchronized (this) {
+            Entry entry = cache.get(key);
+            if (entry != null) {
+                hits.increment();
+                return entry.pet;
+            }
+        }
+        misses.increment();
+
+        // Decode outside the lock, so a slow disk only holds up this player
+        Path file = path(playerId, slot);
+        byte[] bytes = unwritten.get(file);
+        if (bytes == null) {
+            if (!Files.exists(file)) {
+                throw new IOException("No pet saved for " + playerId + " in slot " + slot);
+            }
+            bytes = Files.readAllBytes(file);
+        }
+        Pet pet = SaveFile.decode(ByteBuffer.wrap(bytes));
+
+        List<Entry> evicted = new ArrayList<>();
+        List<Write> writes = new ArrayList<>();
+        synchronized (this) {
+            Entry raced = cache.get(key);
+            if (raced != null) {
+                return raced.pet; // Another thread loaded it meanwhile
+            }
+            cache.put(key, new Entry(playerId, slot, pet));
+            trim(evicted, writes);
+        }
+        handOver(writes);
+        notifyEvicted(evicted);
+        return pet;
+    }
+
+    /**
+     * Returns whether a pet is saved in a player's slot, in the cache, on its way to disk or on disk.
+     *
+     * @param playerId the player
+     * @param slot     the slot
+     * @return true if {@link #get(String, int)} would find a pet
+     */
+    public boolean contains(String playerId, int slot) {
+        synchronized (this) {
+            if (cache.containsKey(key(playerId, slot))) {
+                return true;
+            }
+        }
+        Path file = path(playerId, slot);
+        return unwritten.containsKey(file) || Files.exists(file);
+    }
+
+    /**
+     * Saves a player's pet, see {@link #put(String, int, Pet)}.
+     */
+    public void put(Player player, int slot, Pet pet) {
+        put(player.getPlayerName(), slot, pet);
+    }
+
+    /**
+     * Saves a pet in a player's slot, replacing whatever was there. The pet is copied before this
+     * method returns and written at the next write-behind; it stays in the cache as the live pet.
+     *
+     * @param playerId the player
+     * @param slot     the slot
+     * @param pet      the pet
+     */
+    public void put(String playerId, int slot, Pet pet) {
+        Entry entry = new Entry(playerId, slot, pet);
+        entry.unsaved = SaveFile.encode(pet);
+        List<Entry> evicted = new ArrayList<>();
+        List<Write> writes = new ArrayList<>();
+        synchronized (this) {
+            cache.put(key(playerId, slot), entry);
+            trim(evicted, writes);
+        }
+        handOver(writes);
+        notifyEvicted(evicted);
+    }
+
+    /**
+     * Records that a player's cached pet changed, see {@link #markDirty(String, int)}.
+     */
+    public boolean markDirty(Player player, int slot) {
+        return markDirty(player.getPlayerName(), slot);
+    }
+
+    /**
+     * Records that the cached pet in a slot changed, so it is written at the next write-behind.
+     * Does nothing if the pet is no longer cached.
+     *
+     * @param playerId the player
+     * @param slot     the slot
+     * @return false if the pet was not in the cache, in which case it must be {@link #put} again
+     */
+    public boolean markDirty(String playerId, int slot) {
+        Entry entry;
+        synchronized (this) {
+            entry = cache.get(key(playerId, slot));
+        }
+        if (entry == null) {
+            return false;
+        }
+        byte[] bytes = SaveFile.encode(entry.pet); // Copied on the caller's thread, which owns the pet
+        synchronized (this) {
+            entry.unsaved = bytes;
+        }
+        return true;
+    }
+
+    /**
+     * Writes every unsaved change and waits until the writer has put it on disk.
+     */
+    public void flush() {
+        writeBehind();
+        writer.flush();
+    }
+
+    /**
+     * Writes every unsaved change and stops the write-behind. The store must not be used afterwards.
+     */
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Returns the lookups answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the lookups that had to read a save.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the pets dropped from the cache to make room.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the save files written.
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public synchronized int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the file a player's slot is saved in: {@code <root>/<shard>/<player>.<slot>.pet}, where the
+     * shard is two hex digits of a hash of the player id and the player id is escaped for file names.
+     *
+     * @param playerId the player
+     * @param slot     the slot
+     * @return the file, which may not exist
+     */
+    public Path path(String playerId, int slot) {
+        int hash = playerId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b; // Spread similar ids over all shards
+        hash ^= hash >>> 16;
+        String shard = String.format("%02x", hash & (SHARDS - 1));
+        String name = URLEncoder.encode(playerId, StandardCharsets.UTF_8)
+                .replace(".", "%2E").replace("*", "%2A"); // Never "." or "..", and valid on every file system
+        return root.resolve(shard).resolve(name + "." + slot + ".pet");
+    }
+
+    private static String key(String playerId, int slot) {
+        return slot + "/" + playerId;
+    }
+
+    /**
+     * Drops the least recently used pets until the cache fits its capacity, and collects their unsaved
+     * changes to be handed to the writer once the lock is released. Called while holding the lock.
+     */
+    private void trim(List<Entry> evicted, List<Write> writes) {
+        Iterator<Entry> eldest = cache.values().iterator();
+        while (cache.size() > capacity) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            evictions.increment();
+            takeUnsaved(entry, writes);
+            evicted.add(entry);
+        }
+    }
+
+    private void notifyEvicted(List<Entry> evicted) {
+        for (Entry entry : evicted) {
+            for (EvictionListener listener : listeners) {
+                listener.evicted(entry.playerId, entry.slot, entry.pet);
+            }
+        }
+    }
+
+    /**
+     * Hands every unsaved change to the writer, and retries the writes that failed before.
+     */
+    private void writeBehind() {
+        List<Write> writes = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : cache.values()) {
+                takeUnsaved(entry, writes);
+            }
+        }
+        handOver(writes);
+        for (Map.Entry<Path, byte[]> retry : failed.entrySet()) {
+            if (failed.remove(retry.getKey(), retry.getValue())) {
+                writeFile(retry.getKey(), retry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Takes an entry's unsaved change, if any, to be written. Called while holding the lock; the
+     * copy is readable from memory right away, while the file is only touched by {@link #handOver}.
+     */
+    private void takeUnsaved(Entry entry, List<Write> writes) {
+        if (entry.unsaved != null) {
+            Path file = path(entry.playerId, entry.slot);
+            unwritten.put(file, entry.unsaved); // Readers see the newest copy until it is on disk
+            writes.add(new Write(file, entry.unsaved));
+            entry.unsaved = null;
+        }
+    }
+
+    /**
+     * Hands the collected writes to the writer. Called without holding the lock.
+     */
+    private void handOver(List<Write> writes) {
+        for (Write write : writes) {
+            writeFile(write.file, write.bytes);
+        }
+    }
+
+    private void writeFile(Path file, byte[] bytes) {
+        Path shard = file.getParent();
+        if (!createdShards.contains(shard)) {
+            try {
+                Files.createDirectories(shard);
+                createdShards.add(shard);
+            } catch (IOException e) {
+                System.err.println("Failed to create save directory " + shard + ": " + e.getMessage());
+                failed.put(file, bytes);
+                return;
+            }
+        }
+        synchronized (unwritten) {
+            // Copies of the same file may be handed over from several threads; only the newest may reach the writer last
+            if (unwritten.get(file) != bytes) {
+                return;
+            }
+            writer.writeFile(file, bytes, error -> {
+                if (error == null) {
+                    unwritten.remove(file, bytes); // Unless a newer copy is already waiting
+                    writes.increment();
+                } else {
+                    System.err.println("Failed to write " + file + ": " + error.getMessage());
+                    failed.put(file, bytes); // Stays readable from memory until a retry succeeds
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@code SlotIndex} class keeps a short summary of every saved slot in a small file of its own,
+ * so screens can list the slots without decoding a single pet.
+ *
+ * <p>Each entry remembers the checksum of the slot record it was made from. When the index is
+ * opened it is compared against the slot table of the {@link SaveFile}: slots saved without the
+ * index noticing, for example by an older version of the game or right before a crash, are
+ * summarised again, and only those slots are decoded.</p>
+ *
+ * <p>A save that was handed to the {@link SaveService} is shown right away through
+ * {@link #updateUnwritten(int, Pet)}. Such entries are only kept in memory, and the entry made
+ * by {@link #update(int, int, Pet)} takes their place once the record is on disk.</p>
+ *
+ * <pre>
+ * int magic "SIDX" | byte version | int count
+ * count x (short slot | int crc32 | UTF name | UTF type name | long lastSaved | boolean dead | UTF mood)
+ * </pre>
+ */
+public class SlotIndex {
+
+    /**
+     * Magic number at the start of every index file ("SIDX").
+     */
+    public static final int MAGIC = 0x53494458;
+
+    /**
+     * Version of the index layout.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * The summary of one saved slot.
+     */
+    public static final class Entry {
+        private final int slot;
+        private final int checksum;
+        private final String name;
+        private final String typeName;
+        private final long lastSaved;
+        private final boolean dead;
+        private final PetMood mood;
+
+        private Entry(int slot, int checksum, String name, String typeName, long lastSaved, boolean dead, PetMood mood) {
+            this.slot = slot;
+            this.checksum = checksum;
+            this.name = name;
+            this.typeName = typeName;
+            this.lastSaved = lastSaved;
+            this.dead = dead;
+            this.mood = mood;
+        }
+
+        private static Entry of(int slot, int checksum, Pet pet) {
+            return new Entry(slot, checksum, pet.getName(), pet.getType().getTypeName(),
+                    pet.getLastSaved(), pet.isDead(), PetMood.of(pet));
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        /**
+         * Returns when the pet was saved.
+         *
+         * @return the save time in milliseconds since the epoch
+         */
+        public long getLastSaved() {
+            return lastSaved;
+        }
+
+        public boolean isDead() {
+            return dead;
+        }
+
+        /**
+         * Returns the mood the pet was saved in, which picks the sprite used as its thumbnail.
+         *
+         * @return the pet's mood when it was saved
+         */
+        public PetMood getMood() {
+            return mood;
+        }
+    }
+
+    private final Path path;
+    private final Map<Integer, Entry> entries = new TreeMap<>();
+    private final Map<Integer, Entry> unwritten = new HashMap<>(); // Saves not on disk yet, never written to the index file
+
+    /**
+     * Opens the index at the given path and brings it up to date with the save file.
+     *
+     * @param path     the location of the index file
+     * @param saveFile the save file the index summarises
+     * @throws IOException if the save file cannot be read or the index cannot be written
+     */
+    public SlotIndex(Path path, SaveFile saveFile) throws IOException {
+        this.path = path;
+        read();
+        if (synchronize(saveFile)) {
+            write();
+        }
+    }
+
+    /**
+     * Returns the summary of the given slot.
+     *
+     * @param slot the slot number, starting at 1
+     * @return the summary, or {@code null} if the slot is empty
+     */
+    public synchronized Entry get(int slot) {
+        Entry entry = unwritten.get(slot);
+        return entry != null ? entry : entries.get(slot);
+    }
+
+    /**
+     * Returns the summaries of every saved slot, ordered by slot number.
+     *
+     * @return the summaries of the saved slots
+     */
+    public synchronized List<Entry> getEntries() {
+        if (unwritten.isEmpty()) {
+            return new ArrayList<>(entries.values());
+        }
+        Map<Integer, Entry> merged = new TreeMap<>(entries);
+        merged.putAll(unwritten);
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Records that a pet was just saved into a slot.
+     *
+     * @param slot     the slot number, starting at 1
+     * @param checksum the checksum of the record written to the save file
+     * @param pet      the pet that was saved
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void update(int slot, int checksum, Pet pet) throws IOException {
+        entries.put(slot, Entry.of(slot, checksum, pet));
+        Entry waiting = unwritten.get(slot);
+        if (waiting != null && waiting.lastSaved <= pet.getLastSaved()) {
+            unwritten.remove(slot); // Otherwise a newer save is still on its way
+        }
+        write();
+    }
+
+    /**
+     * Shows a pet that was handed over to be saved into a slot before its record is written.
+     *
+     * @param slot the slot number, starting at 1
+     * @param pet  the pet being saved, or {@code null} to stop showing it because its write failed
+     */
+    public synchronized void updateUnwritten(int slot, Pet pet) {
+        if (pet == null) {
+            unwritten.remove(slot);
+        } else {
+            unwritten.put(slot, Entry.of(slot, 0, pet));
+        }
+    }
+
+    /**
+     * Summarises again every slot whose record changed since its entry was made, and drops
+     * entries of slots that are empty now.
+     *
+     * @return true if any entry changed
+     */
+    private boolean synchronize(SaveFile saveFile) throws IOException {
+        long[] checksums = saveFile.getRecordChecksums();
+        boolean changed = entries.keySet().removeIf(slot -> slot > checksums.length || checksums[slot - 1] < 0);
+        for (int slot = 1; slot <= checksums.length; slot++) {
+            if (checksums[slot - 1] < 0) {
+                continue;
+            }
+            int checksum = (int) checksums[slot - 1];
+            Entry entry = entries.get(slot);
+            if (entry != null && entry.checksum == checksum) {
+                continue;
+            }
+            try {
+                entries.put(slot, Entry.of(slot, checksum, saveFile.load(slot)));
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable slot " + slot + " in the slot index: " + e.getMessage());
+                entries.remove(slot);
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void read() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return; // Built from the save file
+        } catch (IOException e) {
+            System.err.println("Rebuilding unreadable slot index: " + e.getMessage());
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int slot = in.readShort();
+                int checksum = in.readInt();
+                String name = in.readUTF();
+                String typeName = in.readUTF();
+                long lastSaved = in.readLong();
+                boolean dead = in.readBoolean();
+                PetMood mood = PetMood.valueOf(in.readUTF());
+                entries.put(slot, new Entry(slot, checksum, name, typeName, lastSaved, dead, mood));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Rebuilding damaged slot index: " + e);
+            entries.clear();
+        }
+    }
+
+    private void write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            out.writeShort(entry.slot);
+            out.writeInt(entry.checksum);
+            out.writeUTF(entry.name);
+            out.writeUTF(entry.typeName);
+            out.writeLong(entry.lastSaved);
+            out.writeBoolean(entry.dead);
+            out.writeUTF(entry.mood.name());
+        }
+        out.flush();
+        AtomicFiles.write(path, bytes.toByteArray());
+    }
+}
@@ -2,10 +2,19 @@ package logic;
 
 public class VitalStatistics {
 
+    /**
+     * Bits of {@link #takeChanges()}, one for every stat.
+     */
+    public static final int HEALTH = 1;
+    public static final int SLEEP = 2;
+    public static final int FULLNESS = 4;
+    public static final int HAPPINESS = 8;
+
     private int health;
     private int sleep;
     private int fullness;
     private int happiness;
+    private int changes; // Stats changed since the last takeChanges()
 
 
     /**
@@ -24,6 +33,7 @@ public class VitalStatistics {
      */
     public void increaseHealth(int value) {
         health += value;
+        changes |= HEALTH;
     }
 
 
@@ -32,6 +42,7 @@ public class VitalStatistics {
      */
     public void decreaseHealth(int value) {
         health -= value;
+        changes |= HEALTH;
     }
 
 
@@ -40,6 +51,7 @@ public class VitalStatistics {
      */
     public void increaseSleep(int value) {
         sleep += value;
+        changes |= SLEEP;
     }
 
 
@@ -48,6 +60,7 @@ public class VitalStatistics {
      */
     public void decreaseSleep(int value) {
         sleep -= value;
+        changes |= SLEEP;
     }
 
 
@@ -56,6 +69,7 @@ public class VitalStatistics {
      */
     public void increaseFullness(int value) {
         fullness += value;
+        changes |= FULLNESS;
     }
 
 
@@ -64,6 +78,7 @@ public class VitalStatistics {
      */
     public void decreaseFullness(int value) {
         fullness -= value;
+        changes |= FULLNESS;
     }
 
     /**
@@ -71,6 +86,7 @@ public class VitalStatistics {
      */
     public void increaseHappiness(int value) {
         happiness += value;
+        changes |= HAPPINESS;
     }
 
 
@@ -79,6 +95,7 @@ public class VitalStatistics {
      */
     public void decreaseHappiness(int value) {
         happiness -= value;
+        changes |= HAPPINESS;
     }
 
 
@@ -104,19 +121,34 @@ public class VitalStatistics {
     // Add setter methods
     public void setHealth(int health) {
         this.health = health;
+        changes |= HEALTH;
     }
 
     public void setSleep(int sleep) {
         this.sleep = sleep;
+        changes |= SLEEP;
     }
 
     public void setFullness(int fullness) {
         this.fullness = fullness;
+        changes |= FULLNESS;
     }
 
     public void setHappiness(int happiness) {
         this.happiness = happiness;
+        changes |= HAPPINESS;
     }
 
-
+    /**
+     * Returns the stats changed since the last call, as bits such as {@link #HEALTH}, and forgets them.
+     * Setting a stat counts as a change even if its value stays the same.
+     * The {@link Autosave} uses this to write only the stats that changed.
+     *
+     * @return the bits of the changed stats, 0 if none changed
+     */
+    public int takeChanges() {
+        int taken = changes;
+        changes = 0;
+        return taken;
+    }
 }
@@ -0,0 +1,275 @@
+package server;
+
+import inventory.FoodItem;
+import inventory.GiftItem;
+import inventory.Item;
+import inventory.ItemCatalog;
+import logic.ManualClock;
+import logic.Pet;
+import logic.PetMood;
+import logic.PetSimulation;
+import logic.VitalStatistics;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * The {@code HostedPet} class is one pet living on the {@link PetServer}, together with its simulation
+ * and the clock its cooldowns are measured on.
+ *
+ * <p>Actions follow the rules of the gameplay screen: an angry or sleeping pet refuses what it refuses
+ * there, with the same messages, and stats are kept within their limits afterwards. Every action and
+ * every simulation tick holds the pet's lock, so concurrent requests for the same pet are applied one
+ * after the other while different pets never wait for each other. The lock is a {@link ReentrantLock}
+ * rather than {@code synchronized} so a virtual thread waiting for it does not pin its carrier thread.</p>
+ */
+public class HostedPet {
+
+    private final String id;
+    private final Pet pet;
+    private final PetSimulation simulation;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Hosts a pet, taking over its clock.
+     *
+     * @param id        the id the pet is addressed by
+     * @param pet       the pet
+     * @param nowMillis the time the pet's clock starts at
+     */
+    HostedPet(String id, Pet pet, long nowMillis) {
+        this.id = id;
+        this.pet = pet;
+        this.simulation = new PetSimulation(pet, new ManualClock(nowMillis));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns whether this is the host of the given pet.
+     */
+    boolean hosts(Pet pet) {
+        return this.pet == pet;
+    }
+
+    /**
+     * Advances the pet's simulation and clock. Called by the server's tick.
+     *
+     * @param millis the simulated time to advance by
+     */
+    void advance(long millis) {
+        lock.lock();
+        try {
+            simulation.advance(millis); // A dead pet's clock still moves on
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds the pet a food item from its inventory.
+     *
+     * @param itemName the name of the food, or {@code null} for the first food held
+     * @return the message to show the player
+     * @throws IllegalArgumentException if the item is not a food
+     * @throws IllegalStateException    if the pet refuses or none of the food is left
+     */
+    public String feed(String itemName) {
+        lock.lock();
+        try {
+            checkAlive();
+            if (pet.isAngry()) {
+                throw new IllegalStateException("Your pet is angry and refuses to eat!");
+            }
+            if (pet.isSleeping()) {
+                throw new IllegalStateException("Your pet is sleeping and cannot eat right now!");
+            }
+            int itemId = resolveItem(itemName, true);
+            Item item = ItemCatalog.get(itemId);
+            if (!pet.getInventory().remove(itemId, 1)) {
+                throw new IllegalStateException("You don't have any " + item.getItemName() + " left!");
+            }
+            pet.feed(((FoodItem) item).getFullnessValue());
+            simulation.enforceStatLimits();
+            return "You fed your pet a " + item.getItemName() + "!";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the pet a gift from its inventory.
+     *
+     * @param itemName the name of the gift, or {@code null} for the first gift held
+     * @return the message to show the player
+     * @throws IllegalArgumentException if the item is not a gift
+     * @throws IllegalStateException    if the pet refuses or none of the gift is left
+     */
+    public String giveGift(String itemName) {
+        lock.lock();
+        try {
+            checkAlive();
+            if (pet.isSleeping()) {
+                throw new IllegalStateException("Your pet is sleeping and cannot receive gifts right now!");
+            }
+            int itemId = resolveItem(itemName, false);
+            Item item = ItemCatalog.get(itemId);
+            if (!pet.getInventory().remove(itemId, 1)) {
+                throw new IllegalStateException("You don't have any " + item.getItemName() + " left!");
+            }
+            pet.giveGift(((GiftItem) item).getHappinessValue());
+            simulation.enforceStatLimits();
+            return "You gave your pet a " + item.getItemName() + "!";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Plays with the pet.
+     *
+     * @return the message to show the player
+     * @throws IllegalStateException if the pet is sleeping
+     */
+    public String play() {
+        lock.lock();
+        try {
+            checkAlive();
+            if (pet.isSleeping()) {
+                throw new IllegalStateException("Your pet is sleeping and cannot play right now!");
+            }
+            String message = pet.play(1);
+            simulation.enforceStatLimits();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the pet to the vet.
+     *
+     * @return the message to show the player
+     * @throws IllegalStateException if the pet refuses
+     */
+    public String takeToVet() {
+        lock.lock();
+        try {
+            checkAlive();
+            if (pet.isAngry()) {
+                throw new IllegalStateException("Your pet is angry and refuses to go to the vet!");
+            }
+            if (pet.isSleeping()) {
+                throw new IllegalStateException("Your pet is sleeping and cannot go to the vet right now!");
+            }
+            String message = pet.takeToVet();
+            simulation.enforceStatLimits();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the pet to bed.
+     *
+     * @return the message to show the player
+     * @throws IllegalStateException if the pet refuses or is already sleeping
+     */
+    public String goToBed() {
+        lock.lock();
+        try {
+            checkAlive();
+            if (pet.isAngry()) {
+                throw new IllegalStateException("Your pet is angry and refuses to sleep!");
+            }
+            if (pet.isSleeping()) {
+                throw new IllegalStateException("Your pet is already sleeping!");
+            }
+            pet.goToBed();
+            simulation.enforceStatLimits();
+            return "Your pet is now well-rested!";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action on the pet while holding its lock, for reading or saving a consistent state.
+     *
+     * @param action the action, given the pet
+     * @param <T>    the type of the action's result
+     * @return the action's result
+     */
+    public <T> T withPet(Function<Pet, T> action) {
+        lock.lock();
+        try {
+            return action.apply(pet);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Describes the pet's current state as a JSON object.
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        return withPet(pet -> {
+            VitalStatistics stats = pet.getVitalStats();
+            StringBuilder json = new StringBuilder("{");
+            Json.field(json, "id", id).append(',');
+            Json.field(json, "name", pet.getName()).append(',');
+            Json.field(json, "type", pet.getType().getTypeName()).append(',');
+            Json.field(json, "mood", PetMood.of(pet).name()).append(',');
+            Json.field(json, "health", stats.getHealth()).append(',');
+            Json.field(json, "sleep", stats.getSleep()).append(',');
+            Json.field(json, "fullness", stats.getFullness()).append(',');
+            Json.field(json, "happiness", stats.getHappiness()).append(',');
+            Json.field(json, "sleeping", pet.isSleeping()).append(',');
+            Json.field(json, "hungry", pet.isHungry()).append(',');
+            Json.field(json, "angry", pet.isAngry()).append(',');
+            Json.field(json, "dead", pet.isDead()).append(",\"inventory\":{");
+            boolean first = true;
+            for (int itemId = 0; itemId < ItemCatalog.size(); itemId++) {
+                int quantity = pet.getInventory().getQuantity(itemId);
+                if (quantity > 0) {
+                    if (!first) {
+                        json.append(',');
+                    }
+                    Json.field(json, ItemCatalog.get(itemId).getItemName(), quantity);
+                    first = false;
+                }
+            }
+            return json.append("}}").toString();
+        });
+    }
+
+    private void checkAlive() {
+        if (pet.isDead()) {
+            throw new IllegalStateException("Your pet has died. Game over!");
+        }
+    }
+
+    /**
+     * Returns the catalog id of the named food or gift, or of the first one the pet's owner holds.
+     */
+    private int resolveItem(String itemName, boolean food) {
+        if (itemName == null) {
+            for (int itemId = 0; itemId < ItemCatalog.size(); itemId++) {
+                if (ItemCatalog.isFood(itemId) == food && pet.getInventory().getQuantity(itemId) > 0) {
+                    return itemId;
+                }
+            }
+            throw new IllegalStateException(food ? "You don't have any food left!" : "You don't have any gifts left!");
+        }
+        int itemId = ItemCatalog.idOf(itemName);
+        if (itemId < 0 || ItemCatalog.isFood(itemId) != food) {
+            throw new IllegalArgumentException("Not a " + (food ? "food" : "gift") + ": " + itemName);
+        }
+        return itemId;
+    }
+}
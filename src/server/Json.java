@@ -0,0 +1,54 @@
+package server;
+
+/**
+ * Writes the few JSON shapes the {@link PetServer} answers with, without a JSON library.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static StringBuilder field(StringBuilder json, String name, String value) {
+        return string(string(json, name).append(':'), value);
+    }
+
+    static StringBuilder field(StringBuilder json, String name, long value) {
+        return string(json, name).append(':').append(value);
+    }
+
+    static StringBuilder field(StringBuilder json, String name, boolean value) {
+        return string(json, name).append(':').append(value);
+    }
+
+    /**
+     * Returns an object with a single text field.
+     */
+    static String object(String name, String value) {
+        return field(new StringBuilder("{"), name, value).append('}').toString();
+    }
+
+    /**
+     * Appends a string literal, escaping quotes, backslashes and control characters.
+     */
+    static StringBuilder string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
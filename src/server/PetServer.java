@@ -0,0 +1,418 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import inventory.Inventory;
+import logic.OfflineCatchUp;
+import logic.Pet;
+import logic.PetType;
+import logic.SaveStore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code PetServer} class hosts pets for many players without a user interface. It runs the pets
+ * on the {@code logic} package and answers requests over the JDK's built-in HTTP server:
+ *
+ * <ul>
+ *     <li>{@code POST /pets?id=..&name=..&type=..} adopts a new pet of a starter type</li>
+ *     <li>{@code GET /pets/{id}} describes a pet</li>
+ *     <li>{@code POST /pets/{id}/feed}, {@code /gift} (both with an optional {@code item=..}),
+ *     {@code /play}, {@code /vet} and {@code /sleep} act on a pet</li>
+ *     <li>{@code POST /pets/{id}/save} saves a pet</li>
+ * </ul>
+ *
+ * <p>Every request runs on a virtual thread of its own when the Java runtime has them, and on a
+ * pooled platform thread otherwise. A single scheduler thread advances every pet by a configurable
+ * amount of simulated time at a configurable real-time interval. Requests for the same pet are
+ * applied one after the other, see {@link HostedPet}.</p>
+ *
+ * <p>Pets are kept in a {@link SaveStore}: one file each, spread over shard directories. Only the
+ * most recently used pets stay in memory and are ticked; a pet dropped from the store's cache is
+ * written behind and, when it is asked for again, loaded and caught up with the time it was away.
+ * Every action records the pet's state with the store, so a dropped pet loses nothing.
+ * Answers are JSON; refused actions answer {@code 409} with the gameplay screen's message.</p>
+ */
+public class PetServer {
+
+    /**
+     * Port the server listens on unless told otherwise.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Directory the hosted pets are saved in unless told otherwise.
+     */
+    public static final String SAVE_DIRECTORY = "src/files/server";
+
+    /**
+     * Most pets kept in memory unless told otherwise.
+     */
+    public static final int DEFAULT_CACHED_PETS = 10_000;
+
+    /**
+     * Real time between two writes of the changed pets, in milliseconds.
+     */
+    public static final long WRITE_BEHIND_MILLIS = 5_000;
+
+    /**
+     * The store's slot every hosted pet is kept in; the pet id is the store's player id.
+     */
+    private static final int SLOT = 1;
+
+    /**
+     * Pet ids are used as file names, so they are kept to a safe set of characters.
+     */
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final HttpServer http;
+    private final ExecutorService requests;
+    private final boolean virtualThreads;
+    private final ScheduledExecutorService ticker;
+    private final SaveStore store;
+    private final long tickMillis;
+    private final long simulatedMillisPerTick;
+    private final Map<String, HostedPet> pets = new ConcurrentHashMap<>(); // The pets in the store's cache
+    /**
+     * The server's simulated time: the wall clock when the server was created, moved on by
+     * {@code simulatedMillisPerTick} every tick. The clocks of the hosted pets, and so every time
+     * saved with a pet, are on this time base, whatever the speed of the simulation.
+     */
+    private final AtomicLong simulatedNow = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Creates a stopped server.
+     *
+     * @param address                the address to listen on; port 0 picks a free port
+     * @param saveDirectory          the directory pets are saved in
+     * @param tickMillis             the real time between two simulation ticks, in milliseconds
+     * @param simulatedMillisPerTick the simulated time every tick advances the pets by, in milliseconds
+     * @throws IOException if the address cannot be bound
+     */
+    public PetServer(InetSocketAddress address, Path saveDirectory, long tickMillis, long simulatedMillisPerTick) throws IOException {
+        this(address, saveDirectory, tickMillis, simulatedMillisPerTick, DEFAULT_CACHED_PETS);
+    }
+
+    /**
+     * Creates a stopped server that keeps at most the given number of pets in memory.
+     *
+     * @param address                the address to listen on; port 0 picks a free port
+     * @param saveDirectory          the directory pets are saved in
+     * @param tickMillis             the real time between two simulation ticks, in milliseconds
+     * @param simulatedMillisPerTick the simulated time every tick advances the pets by, in milliseconds
+     * @param cachedPets             the most pets kept in memory and ticked
+     * @throws IOException if the address cannot be bound
+     */
+    public PetServer(InetSocketAddress address, Path saveDirectory, long tickMillis, long simulatedMillisPerTick,
+                     int cachedPets) throws IOException {
+        if (tickMillis <= 0 || simulatedMillisPerTick < 0) {
+            throw new IllegalArgumentException("Invalid tick: " + tickMillis + " ms every " + simulatedMillisPerTick + " ms");
+        }
+        this.tickMillis = tickMillis;
+        this.simulatedMillisPerTick = simulatedMillisPerTick;
+
+        store = SaveStore.open(saveDirectory, cachedPets, WRITE_BEHIND_MILLIS);
+        Map<String, HostedPet> hosted = pets;
+        // A pet dropped from the cache stops being ticked; unless it was hosted again meanwhile
+        store.addEvictionListener((id, slot, pet) -> hosted.computeIfPresent(id, (key, h) -> h.hosts(pet) ? null : h));
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        requests = virtualThreads ? virtual : Executors.newCachedThreadPool(daemonThreads("pet-server-request"));
+        ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("pet-server-tick"));
+
+        http = HttpServer.create(address, 0);
+        http.createContext("/pets", this::handle);
+        http.setExecutor(requests);
+    }
+
+    /**
+     * Starts answering requests and ticking the pets.
+     */
+    public void start() {
+        http.start();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops answering requests, waiting up to a second for those in progress, and saves every pet.
+     */
+    public void stop() {
+        http.stop(1);
+        ticker.shutdownNow();
+        requests.shutdown();
+        for (HostedPet pet : pets.values()) {
+            save(pet);
+        }
+        store.close(); // Waits until every pet is on disk
+    }
+
+    /**
+     * Returns the port the server listens on, useful when it was created with port 0.
+     */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of pets in memory, which the server ticks.
+     */
+    int getHostedCount() {
+        return pets.size();
+    }
+
+    /**
+     * Returns whether requests run on virtual threads, which needs Java 21 or later.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Advances every hosted pet by one tick.
+     */
+    void tick() {
+        simulatedNow.addAndGet(simulatedMillisPerTick);
+        for (HostedPet pet : pets.values()) {
+            try {
+                pet.advance(simulatedMillisPerTick);
+            } catch (RuntimeException e) {
+                // One broken pet must not stop the ticks of all others
+                System.err.println("Failed to tick pet " + pet.getId() + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Adopts a new pet.
+     *
+     * @param id       the id to address the pet by
+     * @param name     the pet's name
+     * @param typeName the name of a starter pet type, in any case
+     * @return the new pet
+     * @throws IllegalArgumentException if the id, name or type is not valid
+     * @throws IllegalStateException    if a pet with the id already exists
+     */
+    HostedPet adopt(String id, String name, String typeName) {
+        checkId(id);
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("A pet needs a name");
+        }
+        PetType type = null;
+        for (PetType starter : PetType.starters()) {
+            if (starter.getTypeName().equalsIgnoreCase(typeName)) {
+                type = starter;
+            }
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown pet type: " + typeName);
+        }
+        if (pets.containsKey(id) || store.contains(id, SLOT)) {
+            throw new IllegalStateException("A pet with id " + id + " already exists");
+        }
+        HostedPet pet = new HostedPet(id, Pet.startNewGame(name.strip(), type), simulatedNow.get());
+        if (pets.putIfAbsent(id, pet) != null) {
+            throw new IllegalStateException("A pet with id " + id + " already exists");
+        }
+        save(pet);
+        return pet;
+    }
+
+    /**
+     * Returns a hosted pet, loading it from its save file if it is not in memory.
+     *
+     * @param id the pet's id
+     * @return the pet
+     * @throws NoSuchElementException if there is no such pet
+     */
+    HostedPet find(String id) {
+        checkId(id);
+        HostedPet hosted = pets.get(id);
+        if (hosted != null) {
+            return hosted;
+        }
+        if (!store.contains(id, SLOT)) {
+            throw new NoSuchElementException("No pet with id " + id);
+        }
+        Pet pet;
+        try {
+            pet = store.get(id, SLOT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load pet " + id, e);
+        }
+        // Saved on the simulated time of this or an earlier run; a clock never goes back behind it
+        long now = Math.max(simulatedNow.get(), pet.getLastSaved());
+        HostedPet loaded = new HostedPet(id, pet, now);
+        hosted = pets.putIfAbsent(id, loaded);
+        if (hosted != null) {
+            return hosted; // Another request loaded it first and caught it up
+        }
+        loaded.withPet(p -> {
+            if (p.getInventory() == null) {
+                p.setInventory(new Inventory());
+            }
+            return OfflineCatchUp.catchUp(p, now); // The pet kept living while it was away
+        });
+        return loaded;
+    }
+
+    /**
+     * Records a pet's current state with the store, which writes it to disk at its next write-behind.
+     *
+     * @param pet the pet to save
+     */
+    void save(HostedPet pet) {
+        pet.withPet(p -> {
+            p.setLastSaved(p.getClock().millis()); // Remember when the pet was left behind, on its own clock
+            // Copied under the pet's lock, so the copy never sees half a tick
+            if (!store.markDirty(pet.getId(), SLOT)) {
+                store.put(pet.getId(), SLOT, p); // Dropped from the cache meanwhile
+                pets.putIfAbsent(pet.getId(), pet);
+            }
+            return null;
+        });
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid pet id: " + id);
+        }
+    }
+
+    /**
+     * Answers a request below {@code /pets}.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            try {
+                if (path.length == 2) {
+                    requireMethod(method, "POST");
+                    HostedPet pet = adopt(query.get("id"), query.get("name"), query.get("type"));
+                    respond(exchange, 201, pet.toJson());
+                } else if (path.length == 3) {
+                    requireMethod(method, "GET");
+                    respond(exchange, 200, find(path[2]).toJson());
+                } else if (path.length == 4) {
+                    requireMethod(method, "POST");
+                    HostedPet pet = find(path[2]);
+                    String message = switch (path[3]) {
+                        case "feed" -> pet.feed(query.get("item"));
+                        case "gift" -> pet.giveGift(query.get("item"));
+                        case "play" -> pet.play();
+                        case "vet" -> pet.takeToVet();
+                        case "sleep" -> pet.goToBed();
+                        case "save" -> "Your pet has been saved.";
+                        default -> throw new NoSuchElementException("Unknown action: " + path[3]);
+                    };
+                    save(pet); // Every action is kept, even if the pet is dropped from memory
+                    StringBuilder json = Json.field(new StringBuilder("{"), "message", message);
+                    respond(exchange, 200, json.append(",\"pet\":").append(pet.toJson()).append('}').toString());
+                } else {
+                    throw new NoSuchElementException("Not found: " + exchange.getRequestURI().getPath());
+                }
+            } catch (UnsupportedOperationException e) {
+                respond(exchange, 405, Json.object("error", e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, Json.object("error", e.getMessage()));
+            } catch (NoSuchElementException e) {
+                respond(exchange, 404, Json.object("error", e.getMessage()));
+            } catch (IllegalStateException e) {
+                respond(exchange, 409, Json.object("error", e.getMessage()));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to answer " + method + " " + exchange.getRequestURI() + ": " + e);
+                respond(exchange, 500, Json.object("error", "Internal error"));
+            }
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new UnsupportedOperationException(method + " not allowed, use " + expected);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * Returns an executor that starts a virtual thread per task, or {@code null} before Java 21.
+     * Looked up by reflection so the server still builds and runs on older runtimes.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     * Arguments: {@code [port] [tick millis] [simulated millis per tick]}.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long tickMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        long simulatedMillisPerTick = args.length > 2 ? Long.parseLong(args[2]) : tickMillis;
+
+        PetServer server = new PetServer(new InetSocketAddress(port), Paths.get(SAVE_DIRECTORY), tickMillis, simulatedMillisPerTick);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "pet-server-shutdown"));
+        server.start();
+        System.out.println("Pet server listening on port " + server.getPort()
+                + (server.usesVirtualThreads() ? " with virtual threads" : " with a thread pool"));
+        // The HTTP server's dispatcher thread keeps the process alive
+    }
+}
@@ -24,7 +24,7 @@ public class AdvancedLimitsScreen extends JFrame {
         setResizable(false);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/advancedParentalControls.png")).getImage();
+        backgroundImage = ImageCache.get("advancedParentalControls.png");
 
         // Create main panel with custom painting for background
         JPanel panel = new JPanel() {
@@ -36,8 +36,8 @@ public class AdvancedLimitsScreen extends JFrame {
         };
         panel.setLayout(null);  // Use absolute positioning for a static layout
 
-        // Initialize logic.logic.ParentalControls instance
-        parentalControls = new ParentalControls("files/parental_controls.csv");
+        // Share the main menu's parental controls, so changed limits apply right away
+        parentalControls = MainMenu.getInstance().getParentalControls();
 
         // Limit Playable Days Section
         JPanel daysPanel = createSectionPanel("", 40, 140, 150, 250);
@@ -173,7 +173,7 @@ public class AdvancedLimitsScreen extends JFrame {
                 parentalControls.setTotalDailyPlaytimeLimit(timeText);
                 parentalControls.saveToCSV("files/parental_controls.csv");
             } else {
-                JOptionPane.showMessageDialog(this, "Please enter time in HH:mm format", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                Dialogs.showMessage(this, "Please enter time in HH:mm format", "Invalid Input", JOptionPane.ERROR_MESSAGE);
             }
         });
 
@@ -195,7 +195,7 @@ public class AdvancedLimitsScreen extends JFrame {
                 parentalControls.setTotalWeeklyPlaytimeLimit(timeText);
                 parentalControls.saveToCSV("files/parental_controls.csv");
             } else {
-                JOptionPane.showMessageDialog(this, "Please enter time in HH:mm format", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                Dialogs.showMessage(this, "Please enter time in HH:mm format", "Invalid Input", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
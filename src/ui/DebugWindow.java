@@ -0,0 +1,112 @@
+package ui;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import javax.swing.*;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import logic.Metrics;
+
+/**
+ * The {@code DebugWindow} shows the game's {@link Metrics} and the startup phases, and starts and stops
+ * Flight Recorder recordings that include the game's own events. It is opened from the main menu with
+ * {@code Ctrl+Shift+D} and is not meant for players.
+ */
+class DebugWindow extends JDialog {
+
+    /**
+     * Directory the recordings are saved in.
+     */
+    static final String RECORDING_DIRECTORY = "src/files/recordings";
+
+    private final JTextArea text = new JTextArea(24, 72);
+    private final JButton recordButton = new JButton("Start recording");
+    private Recording recording; // Running recording, or null
+
+    /**
+     * Creates the debug window.
+     *
+     * @param owner the window it belongs to
+     */
+    DebugWindow(Frame owner) {
+        super(owner, "Debug", false);
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        JButton printButton = new JButton("Print to console");
+        printButton.addActionListener(e -> Metrics.getInstance().dump(System.out));
+        recordButton.addActionListener(e -> toggleRecording());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(printButton);
+        buttonPanel.add(recordButton);
+
+        setLayout(new BorderLayout());
+        add(new JScrollPane(text), BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+        pack();
+        setLocationRelativeTo(owner);
+        refresh();
+    }
+
+    /**
+     * Shows the current value of every metric.
+     */
+    void refresh() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            out.println("Startup:");
+            for (Map.Entry<String, Long> phase : Preloader.getPhaseMillis().entrySet()) {
+                out.printf("  %-24s %d ms%n", phase.getKey(), phase.getValue());
+            }
+            Metrics.getInstance().dump(out);
+        }
+        text.setText(buffer.toString(StandardCharsets.UTF_8));
+        text.setCaretPosition(0);
+    }
+
+    /**
+     * Starts a recording with the JDK's default settings, or stops the running one and saves it.
+     */
+    private void toggleRecording() {
+        try {
+            if (recording == null) {
+                recording = new Recording(Configuration.getConfiguration("default"));
+                recording.setName("Virtual Pet");
+                recording.start();
+                recordButton.setText("Stop recording");
+                return;
+            }
+            Path directory = Paths.get(RECORDING_DIRECTORY);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("pet-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+            recording.stop();
+            recording.dump(file);
+            recording.close();
+            recording = null;
+            recordButton.setText("Start recording");
+            Dialogs.showMessage(this, "Recording saved to " + file.toAbsolutePath());
+        } catch (IOException | ParseException | IllegalStateException e) {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+            recordButton.setText("Start recording");
+            Dialogs.showMessage(this, "Recording failed: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
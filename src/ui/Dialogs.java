@@ -0,0 +1,83 @@
+package ui;
+
+import java.awt.*;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+import logic.GameEvents;
+import logic.Metrics;
+
+/**
+ * Shows the game's modal dialogs and measures how long each one waits for the player.
+ *
+ * <p>A modal dialog keeps the Event Dispatch Thread in its own event loop, so the game loop still runs
+ * behind it, but the code that opened it waits. Every wait is recorded as a
+ * {@link GameEvents.DialogWait} event and in the {@code dialog.wait.time} histogram.</p>
+ */
+final class Dialogs {
+
+    private static final Metrics.Histogram WAIT_TIME = Metrics.getInstance().histogram("dialog.wait.time", Metrics.Unit.NANOSECONDS);
+
+    private Dialogs() {
+    }
+
+    /**
+     * Shows a message, see {@link JOptionPane#showMessageDialog(Component, Object)}.
+     */
+    static void showMessage(Component parent, Object message) {
+        timed("message", null, () -> {
+            JOptionPane.showMessageDialog(parent, message);
+            return null;
+        });
+    }
+
+    /**
+     * Shows a message, see {@link JOptionPane#showMessageDialog(Component, Object, String, int)}.
+     */
+    static void showMessage(Component parent, Object message, String title, int messageType) {
+        timed("message", title, () -> {
+            JOptionPane.showMessageDialog(parent, message, title, messageType);
+            return null;
+        });
+    }
+
+    /**
+     * Asks a question, see {@link JOptionPane#showConfirmDialog(Component, Object, String, int)}.
+     */
+    static int showConfirm(Component parent, Object message, String title, int optionType) {
+        return timed("confirm", title, () -> JOptionPane.showConfirmDialog(parent, message, title, optionType));
+    }
+
+    /**
+     * Asks for a text, see {@link JOptionPane#showInputDialog(Component, Object, String, int)}.
+     */
+    static String showInput(Component parent, Object message, String title, int messageType) {
+        return timed("input", title, () -> JOptionPane.showInputDialog(parent, message, title, messageType));
+    }
+
+    /**
+     * Shows a modal dialog of the game's own and waits until it is closed.
+     *
+     * @param dialog the dialog, which must be modal
+     */
+    static void show(JDialog dialog) {
+        timed("dialog", dialog.getTitle(), () -> {
+            dialog.setVisible(true);
+            return null;
+        });
+    }
+
+    private static <T> T timed(String kind, String title, Supplier<T> dialog) {
+        GameEvents.DialogWait event = new GameEvents.DialogWait();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return dialog.get();
+        } finally {
+            WAIT_TIME.recordSince(start);
+            event.kind = kind;
+            event.title = title;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package ui;
+
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import javax.swing.*;
+
+import logic.GameEvents;
+import logic.Metrics;
+
+/**
+ * The {@code GameLoop} class drives everything periodic on a screen from a single Swing timer.
+ *
+ * <p>Every frame the loop turns the real time that passed, scaled by its speed, into fixed
+ * simulation steps of {@link #STEP_MILLIS}. Each registered system runs on the steps that match
+ * its period, so a system sees the same number of updates at any frame rate. After the steps,
+ * the renderer draws the frame, told how far simulated time has got towards the next step.</p>
+ *
+ * <p>Systems and the renderer run on the Event Dispatch Thread and may touch Swing components.
+ * The loop measures how regular its frames are and how much of the thread's time it uses;
+ * see {@link #getFrameStats()}. A frame that comes more than {@link #STALL_MILLIS} late is recorded
+ * as a {@link GameEvents.EdtStall} event, as something held up the Event Dispatch Thread.</p>
+ *
+ * <p>The timer only runs while the loop is started, not paused, and its screen is showing, so a
+ * paused or hidden game costs the Event Dispatch Thread nothing.</p>
+ *
+ * <p>Frames are timed with {@link System#nanoTime()} unless the loop is given another time source.
+ * Headless tests give it a {@link logic.ManualClock} and run the frames themselves instead of
+ * starting the timer, so the loop sees exactly the time the test moved the clock by.</p>
+ */
+public class GameLoop {
+
+    /**
+     * Simulated time advanced by one fixed step, in milliseconds. Every system's period is a multiple of it.
+     */
+    public static final long STEP_MILLIS = 100;
+
+    /**
+     * Most steps run in a single frame. Time beyond that is dropped, so a stalled thread
+     * does not have to catch up with a burst of steps afterwards.
+     */
+    public static final int MAX_STEPS_PER_FRAME = 600;
+
+    /**
+     * How late a frame has to be to count as a stall of the Event Dispatch Thread, in milliseconds.
+     */
+    public static final long STALL_MILLIS = 100;
+
+    /**
+     * Real time over which the frame statistics are collected.
+     */
+    private static final long STATS_WINDOW_NANOS = 1_000_000_000L;
+
+    private static final Metrics.Histogram FRAME_INTERVAL = Metrics.getInstance().histogram("loop.frame.interval", Metrics.Unit.NANOSECONDS);
+    private static final Metrics.Histogram FRAME_TIME = Metrics.getInstance().histogram("loop.frame.time", Metrics.Unit.NANOSECONDS);
+    private static final Metrics.Counter STALLS = Metrics.getInstance().counter("loop.stalls");
+
+    /**
+     * Draws a frame.
+     */
+    public interface Renderer {
+        /**
+         * Draws the current state.
+         *
+         * @param alpha how far simulated time is between the last step and the next, from 0 to 1,
+         *              for interpolating motion
+         */
+        void render(double alpha);
+    }
+
+    /**
+     * A periodic behaviour registered with the loop.
+     */
+    public final class GameSystem {
+        private final String name;
+        private final long periodMillis;
+        private final Runnable update;
+        private boolean enabled = true;
+        private long nextDueAt;
+        private long busyNanos = 0;
+
+        private GameSystem(String name, long periodMillis, Runnable update) {
+            this.name = name;
+            this.periodMillis = periodMillis;
+            this.update = update;
+            this.nextDueAt = simulatedMillis + periodMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Starts or stops the system. A system that is started again waits a whole period
+         * before its next update, as a restarted timer would.
+         *
+         * @param enabled whether the system should run
+         */
+        public void setEnabled(boolean enabled) {
+            if (enabled && !this.enabled) {
+                nextDueAt = simulatedMillis + periodMillis;
+            }
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the thread time this system's updates took so far.
+         *
+         * @return the time spent in the updates, in nanoseconds
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        /**
+         * Removes the system from the loop for good.
+         */
+        public void cancel() {
+            systems.remove(this);
+        }
+    }
+
+    /**
+     * How regular the frames were over the last statistics window.
+     */
+    public static final class FrameStats {
+        private final int frames;
+        private final double meanJitterMillis;
+        private final double maxJitterMillis;
+        private final double busyShare;
+        private final long droppedMillis;
+
+        private FrameStats(int frames, double meanJitterMillis, double maxJitterMillis, double busyShare, long droppedMillis) {
+            this.frames = frames;
+            this.meanJitterMillis = meanJitterMillis;
+            this.maxJitterMillis = maxJitterMillis;
+            this.busyShare = busyShare;
+            this.droppedMillis = droppedMillis;
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        /**
+         * Returns the mean difference between the planned and the actual time between two frames.
+         */
+        public double getMeanJitterMillis() {
+            return meanJitterMillis;
+        }
+
+        public double getMaxJitterMillis() {
+            return maxJitterMillis;
+        }
+
+        /**
+         * Returns the share of the real time the loop's steps and rendering kept the Event Dispatch Thread busy.
+         *
+         * @return the share, from 0 to 1
+         */
+        public double getBusyShare() {
+            return busyShare;
+        }
+
+        /**
+         * Returns the simulated time dropped because a frame would have needed more than
+         * {@link #MAX_STEPS_PER_FRAME} steps.
+         */
+        public long getDroppedMillis() {
+            return droppedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d frames, jitter %.1f ms (max %.1f ms), busy %.1f%%, dropped %d ms",
+                    frames, meanJitterMillis, maxJitterMillis, busyShare * 100, droppedMillis);
+        }
+    }
+
+    private final int frameMillis;
+    private final LongSupplier nanoTime; // Real time in the game, a manual clock in headless runs
+    private final Timer timer;
+    private final List<GameSystem> systems = new CopyOnWriteArrayList<>(); // Systems may cancel themselves during a step
+    private Renderer renderer;
+    private Component screen; // Frames only run while it is showing, if set
+    private boolean started = false; // Between start() and stop()
+    private boolean paused = false;
+    private double speed = 1;
+
+    private long simulatedMillis = 0;
+    private double accumulatedMillis = 0; // Simulated time not yet turned into steps
+    private long lastFrameNanos = -1;
+
+    // Statistics of the current window
+    private long windowStartNanos = -1;
+    private int windowFrames = 0;
+    private double windowJitterSum = 0;
+    private double windowJitterMax = 0;
+    private long windowBusyNanos = 0;
+    private long windowDroppedMillis = 0;
+    private FrameStats frameStats = new FrameStats(0, 0, 0, 0, 0);
+
+    /**
+     * Creates a stopped loop whose frames are timed with {@link System#nanoTime()}.
+     *
+     * @param frameMillis the planned real time between two frames, in milliseconds
+     */
+    public GameLoop(int frameMillis) {
+        this(frameMillis, System::nanoTime);
+    }
+
+    /**
+     * Creates a stopped loop whose frames are timed with the given time source, for example
+     * a {@link logic.ManualClock} that a test moves forward.
+     *
+     * @param frameMillis the planned time between two frames, in milliseconds
+     * @param nanoTime    returns the current time in nanoseconds; only differences matter
+     */
+    public GameLoop(int frameMillis, LongSupplier nanoTime) {
+        this.frameMillis = frameMillis;
+        this.nanoTime = nanoTime;
+        timer = new Timer(frameMillis, e -> frame());
+        timer.setCoalesce(true); // A late frame is not followed by a queue of missed ones
+    }
+
+    /**
+     * Registers a periodic behaviour. Must be called on the Event Dispatch Thread.
+     *
+     * @param name         a name for the frame statistics and debugging
+     * @param periodMillis the simulated time between two updates, a multiple of {@link #STEP_MILLIS}
+     * @param update       the update to run
+     * @return the registered system, enabled
+     */
+    public GameSystem register(String name, long periodMillis, Runnable update) {
+        if (periodMillis <= 0 || periodMillis % STEP_MILLIS != 0) {
+            throw new IllegalArgumentException("Period of " + name + " is not a multiple of " + STEP_MILLIS + " ms: " + periodMillis);
+        }
+        GameSystem system = new GameSystem(name, periodMillis, update);
+        systems.add(system);
+        return system;
+    }
+
+    public List<GameSystem> getSystems() {
+        return List.copyOf(systems);
+    }
+
+    public void setRenderer(Renderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Stops the frames while the given component is not showing, for example while the screen
+     * it belongs to is hidden, and starts them again once it shows. Must be called on the Event
+     * Dispatch Thread.
+     *
+     * @param screen the component the loop draws on
+     */
+    public void runWhileShowing(Component screen) {
+        this.screen = screen;
+        screen.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updateTimer();
+            }
+        });
+        updateTimer();
+    }
+
+    /**
+     * Starts the frames. The first frame only sets the clock; simulated time starts counting from it.
+     */
+    public void start() {
+        started = true;
+        updateTimer();
+    }
+
+    /**
+     * Stops the frames. Nothing runs until {@link #start()} is called again.
+     */
+    public void stop() {
+        started = false;
+        timer.stop();
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    /**
+     * Stops simulated time and the frames, after drawing the current state once more.
+     */
+    public void pause() {
+        paused = true;
+        if (timer.isRunning() && renderer != null) {
+            renderer.render(0);
+        }
+        updateTimer();
+    }
+
+    /**
+     * Lets simulated time run again from where it was paused, without catching up on the pause.
+     */
+    public void resume() {
+        paused = false;
+        updateTimer();
+    }
+
+    /**
+     * Runs the timer exactly while the loop is started, not paused and its screen is showing.
+     * A restarted timer's first frame only sets the clock, so time spent stopped is not caught up on.
+     */
+    private void updateTimer() {
+        boolean run = started && !paused && (screen == null || screen.isShowing());
+        if (run && !timer.isRunning()) {
+            lastFrameNanos = -1;
+            timer.start();
+        } else if (!run) {
+            timer.stop();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Sets how fast simulated time runs compared to real time.
+     *
+     * @param speed the multiplier, for example 2 for double speed
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Returns the simulated time the steps have covered.
+     *
+     * @return the simulated time in milliseconds
+     */
+    public long getSimulatedMillis() {
+        return simulatedMillis;
+    }
+
+    /**
+     * Returns the statistics of the last complete window of about a second.
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Runs one frame at the current time of the loop's time source.
+     */
+    void frame() {
+        frame(nanoTime.getAsLong());
+    }
+
+    /**
+     * Runs one frame: the steps that are due, then the renderer.
+     *
+     * @param nowNanos the current time of the loop's time source
+     */
+    void frame(long nowNanos) {
+        long frameStart = System.nanoTime(); // The frame's cost is always measured in real time
+        boolean first = lastFrameNanos < 0;
+        if (first) {
+            lastFrameNanos = nowNanos;
+            windowStartNanos = nowNanos;
+        }
+        long intervalNanos = nowNanos - lastFrameNanos;
+        lastFrameNanos = nowNanos;
+        if (!first) {
+            double jitter = Math.abs(intervalNanos / 1e6 - frameMillis);
+            windowJitterSum += jitter;
+            windowJitterMax = Math.max(windowJitterMax, jitter);
+            FRAME_INTERVAL.record(intervalNanos);
+            long lateNanos = intervalNanos - frameMillis * 1_000_000L;
+            if (lateNanos > STALL_MILLIS * 1_000_000L) {
+                STALLS.increment();
+                GameEvents.EdtStall event = new GameEvents.EdtStall();
+                event.stall = lateNanos;
+                event.frame = frameMillis;
+                event.commit();
+            }
+        }
+
+        if (!paused) {
+            accumulatedMillis += intervalNanos / 1e6 * speed;
+            int steps = 0;
+            while (accumulatedMillis >= STEP_MILLIS) {
+                if (steps == MAX_STEPS_PER_FRAME) {
+                    long dropped = (long) accumulatedMillis / STEP_MILLIS * STEP_MILLIS;
+                    windowDroppedMillis += dropped;
+                    accumulatedMillis -= dropped;
+                    break;
+                }
+                step();
+                accumulatedMillis -= STEP_MILLIS;
+                steps++;
+            }
+        }
+        if (renderer != null) {
+            renderer.render(paused ? 0 : accumulatedMillis / STEP_MILLIS);
+        }
+
+        windowFrames++;
+        long busyNanos = System.nanoTime() - frameStart;
+        windowBusyNanos += busyNanos;
+        FRAME_TIME.record(busyNanos);
+        long windowNanos = nowNanos - windowStartNanos;
+        if (windowNanos >= STATS_WINDOW_NANOS) {
+            frameStats = new FrameStats(windowFrames, windowJitterSum / windowFrames, windowJitterMax,
+                    Math.min(1, (double) windowBusyNanos / windowNanos), windowDroppedMillis);
+            windowStartNanos = nowNanos;
+            windowFrames = 0;
+            windowJitterSum = 0;
+            windowJitterMax = 0;
+            windowBusyNanos = 0;
+            windowDroppedMillis = 0;
+        }
+    }
+
+    /**
+     * Advances simulated time by one step and runs every enabled system that is due.
+     */
+    private void step() {
+        simulatedMillis += STEP_MILLIS;
+        for (GameSystem system : systems) {
+            if (system.enabled && system.nextDueAt <= simulatedMillis) {
+                system.nextDueAt += system.periodMillis;
+                long start = System.nanoTime();
+                system.update.run();
+                system.busyNanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
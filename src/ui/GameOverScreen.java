@@ -17,7 +17,7 @@ public class GameOverScreen extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/gameOver.png")).getImage();
+        backgroundImage = ImageCache.get("gameOver.png");
 
         // Set up the layout and buttons
         JPanel mainPanel = new JPanel() {
@@ -1,30 +1,50 @@
 package ui;
 
 import java.awt.*;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 import javax.swing.*;
 
+import inventory.FoodItem;
+import inventory.Inventory;
+import inventory.Item;
+import inventory.ItemCatalog;
+import logic.ActionLog;
+import logic.Autosave;
+import logic.GameEvents;
+import logic.Leaderboard;
+import logic.MathQuestion;
+import logic.Metrics;
+import logic.ParentalControls;
 import logic.Pet;
+import logic.PetEvent;
+import logic.PetMood;
+import logic.PetSimulation;
 import logic.PetType;
 import logic.SaveManager;
 import logic.VitalStatistics;
 
 public class GameplayScreen extends JFrame {
+    private static final int FRAME_MILLIS = 33; // About 30 frames a second
+    private static final String PLAYER = System.getProperty("user.name", "player"); // The leaderboard's name for this player
+    private static final Metrics.Histogram DECAY_TIME = Metrics.getInstance().histogram("decay.tick.time", Metrics.Unit.NANOSECONDS);
     private Image backgroundImage;
-    private Map<String, Integer> foodInventory;
-    private Map<String, Integer> giftInventory;
+    private Inventory inventory; // The food and gifts the player holds, shared with the pet
     VitalStatistics stats;
-    JPanel statsPanel;
-    JLabel petSpriteLabel; // JLabel for the pet sprite
+    StatsPanel statsPanel;
+    PetCanvas petCanvas; // Draws the background and the pet sprite
     Pet pet;
-    private Timer decayTimer;
-    private int decayInterval = 60000;
-    private Timer spriteMovementTimer; // Timer for the sprite movement
-    private boolean movingUp = true; // Direction of movement
+    private PetSimulation simulation; // Applies decay and sleep recovery to the pet
+    private ActionLog actions; // Performs and records everything that happens to the pet, for replays
+    private RandomGenerator random = new Random(); // Draws the mini-game questions and rewards
+    private GameLoop loop; // Runs decay, sleep recovery and the sprite animation from one timer
+    private GameLoop.GameSystem sleepRecovery; // Enabled while the pet sleeps
+    private Autosave autosave; // Journals the pet next to its save slot, null until the pet has a slot
+    private int saveSlot; // The slot the pet was loaded from or last saved to, 0 if none
 
-    private String currentSpritePath = "/resources/dogIdle.png"; // Default sprite path
+    private Map<PetMood, Icon> sprites; // Preloaded sprites for every mood of this pet type
+    private PetMood currentMood; // Mood whose sprite is currently shown
 
     // Declare buttons as instance variables
     JButton sleepButton;
@@ -37,15 +57,13 @@ public class GameplayScreen extends JFrame {
     JButton exitButton;
     JButton saveLoadButton;
     JButton miniGame;
-    private Timer sleepRecoveryTimer; // Timer for faster sleep recovery
+    ToastPanel toastPanel; // Non-blocking notifications, so timers never wait on a dialog
+    private ParentalControls.BlockListener blockListener; // Ends the game as soon as a parental limit applies
 
     // Score label
     JLabel scoreLabel;
     int score = 0; // Initial score
 
-    // List all possible items (Foods and gift)
-    private String[] possibleItems = {"Apple", "Banana", "Carrot", "Ball", "Toy Mouse", "Puzzle"};
-
     /**
      * Constructor for loading an existing pet.
      * Initializes the gameplay screen with the provided pet's state and stats.
@@ -55,25 +73,27 @@ public class GameplayScreen extends JFrame {
     public GameplayScreen(Pet pet) {
         this.pet = pet;
         this.stats = pet.getVitalStats();
+        this.simulation = new PetSimulation(pet);
+        simulation.addListener((event, p) -> handlePetEvent(event));
 
-        // Safely load food and gift inventories or initialize them if null
-        foodInventory = pet.getFoodInventory() != null ? pet.getFoodInventory() : new HashMap<>();
-        giftInventory = pet.getGiftInventory() != null ? pet.getGiftInventory() : new HashMap<>();
+        // Safely load the inventory or initialize it if null
+        if (pet.getInventory() == null) {
+            pet.setInventory(new Inventory());
+        }
+        inventory = pet.getInventory();
+        actions = ActionLog.forSession(simulation);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/gameScreen.png")).getImage();
+        backgroundImage = ImageCache.get("gameScreen.png");
 
         setTitle("Gameplay Screen");
         setSize(800, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        // Initialize the decay timer
-        decayTimer = new Timer(decayInterval, e -> applyDecay(pet.getType()));
-        decayTimer.start();
-
         // Initialize UI components
         initializeUI();
+        startGameLoop();
     }
 
     /**
@@ -84,64 +104,36 @@ public class GameplayScreen extends JFrame {
      * @param petType the type of the new pet.
      */
     public GameplayScreen(String petName, PetType petType) {
-        // Initialize the VitalStatistics object with half stats
-        int initialHealth = petType.getMaxHealth() / 2;
-        int initialSleep = petType.getMaxSleep() / 2;
-        int initialFullness = petType.getMaxFullness() / 2;
-        int initialHappiness = petType.getMaxHappiness() / 2;
-
-        VitalStatistics stats = new VitalStatistics(initialHealth, initialSleep, initialFullness, initialHappiness);
-
-        // Initialize the Pet object
-        Pet pet = new Pet(petName, petType);
-        pet.setVitalStats(stats);
-
-        // Default inventories for a new game
-        foodInventory = new HashMap<>();
-        foodInventory.put("Apple", 3);
-        foodInventory.put("Banana", 2);
-        foodInventory.put("Carrot", 5);
-
-        giftInventory = new HashMap<>();
-        giftInventory.put("Ball", 1);
-        giftInventory.put("Toy Mouse", 2);
-        giftInventory.put("Puzzle", 1);
-
-        // Set inventories in the pet object
-        pet.setFoodInventory(foodInventory);
-        pet.setGiftInventory(giftInventory);
+        // Half stats and the default inventory for a new game
+        Pet pet = Pet.startNewGame(petName, petType);
+        inventory = pet.getInventory();
 
         // Assign pet and stats
         this.pet = pet;
         this.stats = pet.getVitalStats();
+        this.simulation = new PetSimulation(pet);
+        simulation.addListener((event, p) -> handlePetEvent(event));
+        actions = ActionLog.forSession(simulation);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/gameScreen.png")).getImage();
+        backgroundImage = ImageCache.get("gameScreen.png");
 
         setTitle("Gameplay Screen");
         setSize(800, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        // Initialize the decay timer
-        decayTimer = new Timer(decayInterval, e -> applyDecay(pet.getType()));
-        decayTimer.start();
-
         // Initialize UI components
         initializeUI();
+        startGameLoop();
     }
 
     private void initializeUI() {
-        // Main panel with background image
-        JPanel mainPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-            }
-        };
-        mainPanel.setLayout(null);
-        setupSpriteMovement();
+        // Main panel drawing the background image and the pet sprite; the sprite is centred within
+        // the blank part of the screen
+        petCanvas = new PetCanvas(backgroundImage, new Rectangle(200, 100, 400, 300));
+        JPanel mainPanel = petCanvas;
+        sprites = SpriteCache.getSprites(pet.getType().getTypeName()); // Decode every mood sprite up front
 
         // Display welcome message
         JLabel welcomeLabel = new JLabel("Welcome, " + pet.getName() + " (" + pet.getType().getTypeName() + ")!");
@@ -150,14 +142,8 @@ public class GameplayScreen extends JFrame {
         welcomeLabel.setFont(new Font("Arial", Font.BOLD, 16));
         mainPanel.add(welcomeLabel);
 
-        // Pet sprite label for displaying the pet image
-        petSpriteLabel = new JLabel();
-        petSpriteLabel.setBounds(200, 100, 400, 300); // Adjust these values to fit within the blank part of the screen
-        petSpriteLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        mainPanel.add(petSpriteLabel);
-
         // Set the initial pet sprite image
-        updatePetSprite(currentSpritePath);
+        updatePetSpriteBasedOnMood();
         // "Exit" Button
         exitButton = createInvisibleButton(19, 16, 80, 42);
         exitButton.addActionListener(e -> handleExit());
@@ -169,11 +155,10 @@ public class GameplayScreen extends JFrame {
         mainPanel.add(saveLoadButton);
 
         // Stats Panel for health bars
-        statsPanel = new JPanel(null);
+        statsPanel = new StatsPanel();
         statsPanel.setBounds(500, 440, 300, 160);
-        statsPanel.setOpaque(false);
 
-        // Add individual stat rows using dynamic values
+        // Fill in the stat rows using dynamic values
         refreshStatsPanel();
 
         // Add stats panel to the main panel
@@ -183,18 +168,16 @@ public class GameplayScreen extends JFrame {
         sleepButton = createInvisibleButton(63, 455, 160, 35);
         sleepButton.addActionListener(e -> {
             if (pet.isAngry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is angry and refuses to sleep!");
+                Dialogs.showMessage(this, "Your pet is angry and refuses to sleep!");
                 return;
             }
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is already sleeping!");
+                Dialogs.showMessage(this, "Your pet is already sleeping!");
                 return;
             }
-            pet.goToBed();
-            pet.checkStates();
-            enforceStatLimits();
+            actions.goToBed();
             refreshStatsPanel();
-            JOptionPane.showMessageDialog(this, "Your pet is now well-rested!");
+            Dialogs.showMessage(this, "Your pet is now well-rested!");
         });
         mainPanel.add(sleepButton);
 
@@ -202,12 +185,10 @@ public class GameplayScreen extends JFrame {
         playButton = createInvisibleButton(255, 505, 80, 35);
         playButton.addActionListener(e -> {
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is sleeping and cannot play right now!");
+                Dialogs.showMessage(this, "Your pet is sleeping and cannot play right now!");
                 return;
             }
-            JOptionPane.showMessageDialog(this,pet.play(1));
-            pet.checkStates();
-            enforceStatLimits();
+            Dialogs.showMessage(this, actions.play(1));
             refreshStatsPanel();
         });
         mainPanel.add(playButton);
@@ -216,18 +197,16 @@ public class GameplayScreen extends JFrame {
         exerciseButton = createInvisibleButton(338, 505, 120, 35);
         exerciseButton.addActionListener(e -> {
             if (pet.isAngry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is angry and refuses to exercise!");
+                Dialogs.showMessage(this, "Your pet is angry and refuses to exercise!");
                 return;
             }
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is sleeping and cannot exercise right now!");
+                Dialogs.showMessage(this, "Your pet is sleeping and cannot exercise right now!");
                 return;
             }
-            pet.exercise(1, 1, 1);
-            pet.checkStates();
-            enforceStatLimits();
+            actions.exercise(1, 1, 1);
             refreshStatsPanel();
-            JOptionPane.showMessageDialog(this, "You exercised your pet!");
+            Dialogs.showMessage(this, "You exercised your pet!");
         });
         mainPanel.add(exerciseButton);
 
@@ -235,16 +214,14 @@ public class GameplayScreen extends JFrame {
         vetButton = createInvisibleButton(63, 505, 190, 35);
         vetButton.addActionListener(e -> {
             if (pet.isAngry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is angry and refuses to go to the vet!");
+                Dialogs.showMessage(this, "Your pet is angry and refuses to go to the vet!");
                 return;
             }
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is sleeping and cannot go to the vet right now!");
+                Dialogs.showMessage(this, "Your pet is sleeping and cannot go to the vet right now!");
                 return;
             }
-            JOptionPane.showMessageDialog(this, pet.takeToVet());
-            pet.checkStates();
-            enforceStatLimits();
+            Dialogs.showMessage(this, actions.takeToVet());
             refreshStatsPanel();
         });
         mainPanel.add(vetButton);
@@ -253,11 +230,11 @@ public class GameplayScreen extends JFrame {
         feedButton = createInvisibleButton(220, 455, 100, 35);
         feedButton.addActionListener(e -> {
             if (pet.isAngry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is angry and refuses to eat!");
+                Dialogs.showMessage(this, "Your pet is angry and refuses to eat!");
                 return;
             }
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is sleeping and cannot eat right now!");
+                Dialogs.showMessage(this, "Your pet is sleeping and cannot eat right now!");
                 return;
             }
             openFeedPopup();
@@ -268,7 +245,7 @@ public class GameplayScreen extends JFrame {
         giveGiftButton = createInvisibleButton(330, 450, 135, 35);
         giveGiftButton.addActionListener(e -> {
             if (pet.isSleeping()) {
-                JOptionPane.showMessageDialog(this, "Your pet is sleeping and cannot receive gifts right now!");
+                Dialogs.showMessage(this, "Your pet is sleeping and cannot receive gifts right now!");
                 return;
             }
             openGiveGiftPopup();
@@ -293,125 +270,127 @@ public class GameplayScreen extends JFrame {
         miniGame.addActionListener(e -> handleMathQuestion()); // Handle click
         mainPanel.add(miniGame); // Add to panel
 
+        // Toasts for the pet's state changes, drawn above everything else
+        toastPanel = new ToastPanel();
+        toastPanel.setBounds(200, 65, 400, 36);
+        mainPanel.add(toastPanel);
+        mainPanel.setComponentZOrder(toastPanel, 0);
+
         // Add the main panel to the frame
         setContentPane(mainPanel);
 
-    }
-    /**
-     * Updates the pet sprite with the specified image path.
-     *
-     * @param imagePath the relative path to the sprite image.
-     */
-    private void updatePetSprite(String imagePath) {
-        try {
-            java.net.URL imageURL = getClass().getResource(imagePath);
-            if (imageURL == null) {
-                throw new Exception("Sprite not found: " + imagePath);
+        // Parental controls wake us up the moment a limit applies, no polling needed
+        blockListener = blocked -> {
+            if (blocked) {
+                SwingUtilities.invokeLater(this::handlePlaytimeOver);
             }
-            ImageIcon icon = new ImageIcon(imageURL);
-            petSpriteLabel.setIcon(icon);
-        } catch (Exception e) {
-            System.err.println("Failed to load sprite: " + imagePath + " - " + e.getMessage());
-            petSpriteLabel.setIcon(new ImageIcon(getClass().getResource("/resources/defaultIdle.png")));
-        }
-    }
+        };
+        MainMenu.getInstance().getParentalControls().addBlockListener(blockListener);
 
+    }
     /**
      * Handles the "Exit" button action.
      * Stops all timers and transitions to the main menu.
      */
     private void handleExit() {
-        int confirm = JOptionPane.showConfirmDialog(this,
+        int confirm = Dialogs.showConfirm(this,
                 "Are you sure you want to exit to the main menu?", "Exit Confirmation", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
             stopAllTimers(); // Stop all active timers
-            decayTimer.stop(); // Stop the decay timer
             this.setVisible(false); // Hide the GameplayScreen
             MainMenu.getInstance().setVisible(true); // Show the MainMenu
         }
     }
     /**
-     * Stops all active timers in the gameplay screen.
+     * Ends the game when a parental limit starts to apply, for example when the daily playtime runs out.
+     * Stops all timers and transitions to the main menu.
+     */
+    private void handlePlaytimeOver() {
+        if (!isVisible()) {
+            return; // Already left the game
+        }
+        stopAllTimers(); // Stop all active timers
+        this.setVisible(false); // Hide the GameplayScreen
+        MainMenu mainMenu = MainMenu.getInstance();
+        mainMenu.setVisible(true); // Show the MainMenu
+        Dialogs.showMessage(mainMenu, "Playtime is over for now. Ask a parent for more time!",
+                "Access Denied", JOptionPane.WARNING_MESSAGE);
+    }
+
+    /**
+     * Stops the game loop and everything else that would keep running after the screen is left.
      */
     private void stopAllTimers() {
-        if (decayTimer != null && decayTimer.isRunning()) {
-            decayTimer.stop();
+        if (loop != null) {
+            loop.stop();
+        }
+        recordScore(); // The final score of the session
+        closeAutosave();
+        actions.close();
+        if (toastPanel != null) {
+            toastPanel.clear(); // Drop notifications that would outlive the screen
         }
-        if (spriteMovementTimer != null && spriteMovementTimer.isRunning()) {
-            spriteMovementTimer.stop();
+        if (blockListener != null) {
+            MainMenu.getInstance().getParentalControls().removeBlockListener(blockListener);
+            blockListener = null;
         }
     }
 
     /**
      * Handles the "Save/Load" button action.
-     * Transitions to the Save/Load screen while passing the current pet's state.
+     * Pauses the game and transitions to the Save/Load screen while passing the current pet's state.
      */
     private void handleSaveLoad() {
-        stopAllTimers(); // Stop all active timers
+        loop.stop(); // Nothing happens to the pet while it is being saved
         this.setVisible(false); // Hide the GameplayScreen
         SaveLoadGameScreen saveLoadGameScreen = new SaveLoadGameScreen(pet, this); // Pass the current pet and GameplayScreen
         saveLoadGameScreen.setVisible(true); // Show the SaveLoadGameScreen
     }
+
+    /**
+     * Shows the screen again after the Save/Load screen and carries on where the game was paused.
+     */
+    public void resumeGame() {
+        this.setVisible(true);
+        loop.start();
+    }
+
     /**
-     * Creates a row in the stats panel with aligned labels and stat circles.
+     * Starts a new autosave journal of the pet next to the given save slot, after the pet was loaded
+     * from it or saved to it by hand. The previous journal is deleted, as the slot now holds the pet.
      *
-     * @param labelText   the label text for the stat.
-     * @param statValue   the current value of the stat.
-     * @param maxStatValue the maximum value of the stat.
-     * @param yPosition   the vertical position of the row.
-     * @param isWarning   whether the stat is in a warning state.
-     * @return a JPanel representing the stat row.
-     */
-    private JPanel createAlignedStatRow(String labelText, int statValue, int maxStatValue, int yPosition, boolean isWarning) {
-        int redCircles = statValue; // Number of filled circles
-        int whiteCircles = maxStatValue - statValue; // Number of unfilled circles
-
-        JPanel rowPanel = new JPanel(null);
-        rowPanel.setBounds(0, yPosition, 300, 30);
-        rowPanel.setOpaque(false);
-
-        JLabel label = new JLabel(labelText);
-        label.setBounds(0, 5, 80, 20);
-        label.setFont(new Font("Arial", Font.BOLD, 14));
-
-        // Change color based on warning status
-        if (isWarning) {
-            label.setForeground(Color.RED); // Warning: Red text
-        } else {
-            label.setForeground(Color.BLACK); // Normal: Black text
-        }
-        rowPanel.add(label);
-
-        int xOffset = 85; // Starting position for circles
-        for (int i = 0; i < redCircles; i++) {
-            JLabel circle = createCircle(Color.RED);
-            circle.setBounds(xOffset, 5, 20, 20);
-            rowPanel.add(circle);
-            xOffset += 25;
-        }
+     * @param slot the slot the pet was loaded from or saved to
+     */
+    public void setSaveSlot(int slot) {
+        closeAutosave();
+        saveSlot = slot;
+        autosave = Autosave.forSlot(slot, pet);
+    }
 
-        for (int i = 0; i < whiteCircles; i++) {
-            JLabel circle = createCircle(Color.WHITE);
-            circle.setBounds(xOffset, 5, 20, 20);
-            rowPanel.add(circle);
-            xOffset += 25;
+    /**
+     * Appends what changed on the pet to the autosave journal, if the pet has a slot.
+     */
+    private void autosave() {
+        if (autosave != null) {
+            autosave.save();
         }
+    }
 
-        return rowPanel;
+    /**
+     * Deletes the autosave journal, as the game is left cleanly.
+     */
+    private void closeAutosave() {
+        if (autosave != null) {
+            autosave.close();
+            autosave = null;
+        }
     }
 
     /**
-     * Creates a circle label for displaying a stat.
-     *
-     * @param color the color of the circle.
-     * @return a JLabel representing the circle.
+     * Returns the loop that runs this screen's periodic updates, for pausing it or changing its speed.
      */
-    private JLabel createCircle(Color color) {
-        JLabel circle = new JLabel();
-        circle.setOpaque(true);
-        circle.setBackground(color); // Circle color
-        circle.setBorder(BorderFactory.createLineBorder(Color.BLACK)); // Add black border
-        return circle;
+    public GameLoop getGameLoop() {
+        return loop;
     }
 
     /**
@@ -437,7 +416,7 @@ public class GameplayScreen extends JFrame {
      * Opens a custom popup for selecting food to feed the pet.
      */
     private void openFeedPopup() {
-        openItemPopup("Select Food", foodInventory,
+        openItemPopup("Select Food", ItemCatalog.foodIds(),
                 "You fed your pet:");
     }
 
@@ -445,7 +424,7 @@ public class GameplayScreen extends JFrame {
      * Opens a custom popup for selecting a gift to give to the pet.
      */
     private void openGiveGiftPopup() {
-        openItemPopup("Select Gift", giftInventory,
+        openItemPopup("Select Gift", ItemCatalog.giftIds(),
                 "You gave your pet:");
     }
 
@@ -464,11 +443,10 @@ public class GameplayScreen extends JFrame {
         inventoryDialog.add(titleLabel, BorderLayout.NORTH);
 
         DefaultListModel<String> inventoryListModel = new DefaultListModel<>();
-        for (Map.Entry<String, Integer> entry : foodInventory.entrySet()) {
-            inventoryListModel.addElement(entry.getValue() + "x " + entry.getKey());
-        }
-        for (Map.Entry<String, Integer> entry : giftInventory.entrySet()) {
-            inventoryListModel.addElement(entry.getValue() + "x " + entry.getKey());
+        for (int id = 0; id < ItemCatalog.size(); id++) {
+            if (inventory.getQuantity(id) > 0) {
+                inventoryListModel.addElement(inventory.getQuantity(id) + "x " + ItemCatalog.get(id).getItemName());
+            }
         }
         JList<String> inventoryList = new JList<>(inventoryListModel);
         inventoryList.setFont(new Font("Arial", Font.PLAIN, 14));
@@ -480,17 +458,17 @@ public class GameplayScreen extends JFrame {
         buttonPanel.add(closeButton);
         inventoryDialog.add(buttonPanel, BorderLayout.SOUTH);
 
-        inventoryDialog.setVisible(true);
+        Dialogs.show(inventoryDialog);
     }
 
     /**
      * Generalized method for opening a popup to select an item from the inventory.
      *
      * @param title         the title of the popup.
-     * @param inventory     the map of items in the inventory.
+     * @param itemIds       the catalog ids of the items that can be selected.
      * @param actionMessage the message to display upon selecting an item.
      */
-    private void openItemPopup(String title, Map<String, Integer> inventory, String actionMessage) {
+    private void openItemPopup(String title, int[] itemIds, String actionMessage) {
         JDialog itemDialog = new JDialog(this, title, true);
         itemDialog.setSize(300, 300);
         itemDialog.setLocationRelativeTo(this);
@@ -502,8 +480,12 @@ public class GameplayScreen extends JFrame {
         itemDialog.add(instructionLabel, BorderLayout.NORTH);
 
         DefaultListModel<String> itemListModel = new DefaultListModel<>();
-        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
-            itemListModel.addElement(entry.getValue() + "x " + entry.getKey());
+        int[] listedIds = new int[itemIds.length]; // Item id of every row in the list
+        for (int id : itemIds) {
+            if (inventory.getQuantity(id) > 0) {
+                listedIds[itemListModel.size()] = id;
+                itemListModel.addElement(inventory.getQuantity(id) + "x " + ItemCatalog.get(id).getItemName());
+            }
         }
         JList<String> itemList = new JList<>(itemListModel);
         itemList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -515,13 +497,12 @@ public class GameplayScreen extends JFrame {
         JButton cancelButton = new JButton("Cancel");
 
         selectButton.addActionListener(e -> {
-            String selectedItem = itemList.getSelectedValue();
-            if (selectedItem != null) {
-                String itemName = selectedItem.split(" ", 2)[1];
-                performAction(inventory, itemName, actionMessage);
+            int selectedIndex = itemList.getSelectedIndex();
+            if (selectedIndex >= 0) {
+                performAction(listedIds[selectedIndex], actionMessage);
                 itemDialog.dispose();
             } else {
-                JOptionPane.showMessageDialog(itemDialog, "Please select an item.");
+                Dialogs.showMessage(itemDialog, "Please select an item.");
             }
         });
 
@@ -531,203 +512,101 @@ public class GameplayScreen extends JFrame {
         buttonPanel.add(cancelButton);
         itemDialog.add(buttonPanel, BorderLayout.SOUTH);
 
-        itemDialog.setVisible(true);
+        Dialogs.show(itemDialog);
     }
 
     /**
      * Performs an action (e.g., feeding or giving a gift) with the selected item.
      *
-     * @param inventory     the map of items in the inventory.
-     * @param itemName      the name of the selected item.
+     * @param itemId        the catalog id of the selected item.
      * @param actionMessage the message to display after performing the action.
      */
-    private void performAction(Map<String, Integer> inventory, String itemName, String actionMessage) {
-        if (inventory.containsKey(itemName)) {
-            int quantity = inventory.get(itemName);
-            if (quantity > 0) {
-                inventory.put(itemName, quantity - 1); // Decrease item count
-                JOptionPane.showMessageDialog(this, actionMessage + " " + itemName + "!");
-
-                // Update stats based on the action
-                if (actionMessage.contains("fed")) {
-                    pet.feed(2); // Feeding increases fullness
-                    updateScore(5); // Increase score for feeding
-                } else if (actionMessage.contains("gave your pet")) {
-                    pet.giveGift(2); // Giving gifts increases happiness
-                    updateScore(5); // Increase score for feeding
-                }
-
-                // Update the pet's inventory
-                pet.setFoodInventory(foodInventory);
-                pet.setGiftInventory(giftInventory);
-
-                // ** Fix: Ensure pet's states are updated after modifying stats **
-                pet.checkStates(); // Update the pet's states based on new stats
-
-                // ** Fix: Check if pet is no longer angry and display a message **
-                if (!pet.isAngry() && actionMessage.contains("gave your pet")) {
-                    JOptionPane.showMessageDialog(this, "Your pet is no longer angry!");
-                }
-
-                // Ensure the stats are updated and the UI reflects the changes
-                enforceStatLimits();
-                refreshStatsPanel();
-            } else {
-                JOptionPane.showMessageDialog(this, "You don't have any " + itemName + " left!");
-            }
+    private void performAction(int itemId, String actionMessage) {
+        Item item = ItemCatalog.get(itemId);
+
+        // Feeding increases fullness and gifts increase happiness; both use up the item
+        boolean used = item instanceof FoodItem ? actions.feed(itemId) : actions.giveGift(itemId);
+        if (!used) {
+            Dialogs.showMessage(this, "You don't have any " + item.getItemName() + " left!");
+            return;
         }
-    }
-
-    /**
-     * Ensures that all pet stats are within their valid limits.
-     */
-    private void enforceStatLimits() {
-        stats.setHealth(Math.min(stats.getHealth(), pet.getType().getMaxHealth()));
-        stats.setSleep(Math.min(stats.getSleep(), pet.getType().getMaxSleep()));
-        stats.setFullness(Math.min(stats.getFullness(), pet.getType().getMaxFullness()));
-        stats.setHappiness(Math.min(stats.getHappiness(), pet.getType().getMaxHappiness()));
+        Dialogs.showMessage(this, actionMessage + " " + item.getItemName() + "!");
+        updateScore(5); // Increase score for feeding or giving a gift
 
-        // Ensure stats do not fall below 0
-        stats.setHealth(Math.max(stats.getHealth(), 0));
-        stats.setSleep(Math.max(stats.getSleep(), 0));
-        stats.setFullness(Math.max(stats.getFullness(), 0));
-        stats.setHappiness(Math.max(stats.getHappiness(), 0));
+        // Feeding and gifts update the pet's states themselves; the simulation reports any change
+        refreshStatsPanel();
     }
+
     /**
      * Refreshes the stats panel to reflect the current state of the pet's stats.
      */
     private void refreshStatsPanel() {
-        statsPanel.removeAll(); // Clear all components in the stats panel
-
-        statsPanel.add(createAlignedStatRow(
-                "Health:",
-                stats.getHealth(),
-                pet.getType().getMaxHealth(),
-                0,
-                stats.getHealth() < pet.getType().getMaxHealth() * 0.25
-        ));
-        statsPanel.add(createAlignedStatRow(
-                "Sleep:",
-                stats.getSleep(),
-                pet.getType().getMaxSleep(),
-                30,
-                stats.getSleep() < pet.getType().getMaxSleep() * 0.25
-        ));
-        statsPanel.add(createAlignedStatRow(
-                "Fullness:",
-                stats.getFullness(),
-                pet.getType().getMaxFullness(),
-                60,
-                stats.getFullness() < pet.getType().getMaxFullness() * 0.25
-        ));
-        statsPanel.add(createAlignedStatRow(
-                "Happiness:",
-                stats.getHappiness(),
-                pet.getType().getMaxHappiness(),
-                90,
-                stats.getHappiness() < pet.getType().getMaxHappiness() * 0.25
-        ));
-
-        statsPanel.revalidate(); // Refresh the layout of the panel
-        statsPanel.repaint();    // Repaint the panel to display updated stat rows
+        statsPanel.refresh(stats, pet.getType()); // Repaints only the rows that changed
 
         updatePetSpriteBasedOnMood(); // Update the sprite based on the pet's current mood
     }
 
     /**
      * Updates the pet sprite based on its current mood and stats.
+     * The canvas's sprite is only replaced when the mood actually changed.
      */
     private void updatePetSpriteBasedOnMood() {
-        currentSpritePath = determineMoodSprite(); // Determine the correct sprite path
-        updatePetSprite(currentSpritePath); // Update the JLabel with the new sprite
+        PetMood mood = PetMood.of(pet);
+        if (mood == currentMood) {
+            return; // The right sprite is already showing
+        }
+        currentMood = mood;
+        Icon sprite = sprites.get(mood);
+        if (sprite == null) {
+            System.err.println("No sprite for " + pet.getType().getTypeName() + " in mood " + mood);
+        }
+        petCanvas.setSprite(sprite == null ? null : ((ImageIcon) sprite).getImage());
     }
     /**
      * Applies decay to the pet's stats over time.
-     *
-     * @param petType the type of the pet, which determines decay rates.
+     * The decay rules live in {@link PetSimulation}; this screen only reacts to its events.
      */
-    private void applyDecay(PetType petType) {
+    private void applyDecay() {
         if (!this.isVisible()) {
             return; // Prevent decay logic from running if the screen is exited
         }
 
-        int criticalStatsCount = 0;
-
-        // Handle sleep decay
-        if (pet.isSleeping()) {
-            if (sleepRecoveryTimer == null || !sleepRecoveryTimer.isRunning()) {
-                startSleepRecoveryTimer(); // Start sleep recovery timer
-            }
-        } else {
-            stats.decreaseSleep(petType.getSleepDecayRate());
-            if (stats.getSleep() <= 0) {
-                stats.setSleep(0);
-                stats.decreaseHealth(2); // Apply health penalty for exhaustion
-                pet.checkStates();
-                JOptionPane.showMessageDialog(this, "Your pet has fallen asleep due to exhaustion.");
-                disableInteraction(); // Disable interactions
-                startSleepRecoveryTimer(); // Start sleep recovery
-            } else if (stats.getSleep() < pet.getType().getMaxSleep() * 0.25) {
-                criticalStatsCount++; // Sleep is critical
-            }
-        }
-
-        // Handle fullness decay
-        stats.decreaseFullness(petType.getFullnessDecayRate());
-        if (stats.getFullness() <= 0) {
-            stats.setFullness(0);
-            stats.decreaseHealth(1); // Health decreases due to hunger
-            pet.checkStates();
-            if (!pet.isHungry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is hungry!");
-            }
-        } else {
-            if (pet.isHungry() && stats.getFullness() >= pet.getType().getMaxFullness() * 0.25) {
-                pet.checkStates();
-                JOptionPane.showMessageDialog(this, "Your pet is no longer hungry.");
-            }
-            if (stats.getFullness() < pet.getType().getMaxFullness() * 0.25) {
-                criticalStatsCount++; // Fullness is critical
-            }
+        // A sleeping pet recovers on its own schedule
+        if (pet.isSleeping() && !sleepRecovery.isEnabled()) {
+            startSleepRecovery();
         }
+        GameEvents.DecayTick event = new GameEvents.DecayTick();
+        event.begin();
+        long start = System.nanoTime();
+        actions.tick(); // Includes the screen's updates for the events the tick publishes
+        DECAY_TIME.recordSince(start);
+        event.pet = pet.getName();
+        event.commit();
+    }
 
-        // Handle happiness decay
-        if (pet.isHungry()) {
-            stats.decreaseHappiness(petType.getHappinessDecayRate() * 2); // Faster decay when hungry
-        } else {
-            stats.decreaseHappiness(petType.getHappinessDecayRate());
-        }
-        if (stats.getHappiness() <= 0) {
-            stats.setHappiness(0);
-            pet.checkStates();
-            if (pet.isAngry()) {
-                JOptionPane.showMessageDialog(this, "Your pet is angry and refuses to cooperate!");
-            }
-        } else {
-            if (pet.isAngry() && stats.getHappiness() >= pet.getType().getMaxHappiness() / 2) {
-                pet.checkStates();
-                JOptionPane.showMessageDialog(this, "Your pet has calmed down.");
+    /**
+     * Updates the screen in response to an event published by the pet simulation.
+     *
+     * @param event the event that occurred.
+     */
+    private void handlePetEvent(PetEvent event) {
+        switch (event) {
+            case EXHAUSTED -> {
+                toastPanel.show("Your pet has fallen asleep due to exhaustion.", NotificationQueue.Priority.HIGH);
+                disableInteraction(); // Disable interactions
+                startSleepRecovery(); // Start sleep recovery
             }
-            if (stats.getHappiness() < pet.getType().getMaxHappiness() * 0.25) {
-                criticalStatsCount++; // Happiness is critical
+            case WOKE_UP -> {
+                stopSleepRecovery(); // Stop recovering
+                toastPanel.show("Your pet has woken up and is ready to play!", NotificationQueue.Priority.NORMAL);
+                enableInteraction(); // Re-enable all buttons
             }
-        }
-
-        // Apply health penalty based on the number of critical stats
-        if (criticalStatsCount > 0 && !pet.isSleeping()) {
-            stats.decreaseHealth(criticalStatsCount);
-        }
-
-        // Update UI
-        enforceStatLimits();
-        pet.setVitalStats(stats);
-        pet.checkStates();
-        refreshStatsPanel();
-
-        // Handle death if health drops to or below 0
-        if (stats.getHealth() <= 0) {
-            pet.checkStates();
-            handleDeath();
+            case HUNGRY -> toastPanel.show("Your pet is hungry!", NotificationQueue.Priority.HIGH);
+            case NO_LONGER_HUNGRY -> toastPanel.show("Your pet is no longer hungry.", NotificationQueue.Priority.NORMAL);
+            case ANGRY -> toastPanel.show("Your pet is angry and refuses to cooperate!", NotificationQueue.Priority.HIGH);
+            case CALMED_DOWN -> toastPanel.show("Your pet has calmed down.", NotificationQueue.Priority.NORMAL);
+            case STATS_CHANGED -> refreshStatsPanel();
+            case DIED -> SwingUtilities.invokeLater(this::handleDeath); // After the action that killed the pet has finished
         }
     }
 
@@ -737,8 +616,11 @@ public class GameplayScreen extends JFrame {
      * Stops all timers and transitions to the Game Over screen.
      */
     private void handleDeath() {
+        if (!isVisible()) {
+            return; // Already left the game
+        }
         stopAllTimers(); // Stop all active timers
-        JOptionPane.showMessageDialog(this, "Your pet has died. Game over!");
+        Dialogs.showMessage(this, "Your pet has died. Game over!");
 
         // Transition to the Game Over screen
         this.setVisible(false); // Hide the GameplayScreen
@@ -746,60 +628,22 @@ public class GameplayScreen extends JFrame {
     }
 
     /**
-     * Determines the appropriate sprite for the pet based on its mood and stats.
-     *
-     * @return the relative path to the mood sprite.
-     */
-    private String determineMoodSprite() {
-        String petType = pet.getType().getTypeName().toLowerCase(); // Retrieve pet type name
-        String basePath = "/resources/";
-        String moodSprite;
-
-        if (pet.isDead()) {
-            moodSprite = basePath + petType + "Dead.png";
-        } else if (pet.isSleeping()) {
-            moodSprite = basePath + petType + "Sleep.png";
-        } else if (pet.isHungry()) {
-            moodSprite = basePath + petType + "Hungry.png";
-        } else if (pet.isAngry()) {
-            moodSprite = basePath + petType + "Angry.png";
-        } else if (stats.getHealth() < pet.getType().getMaxHealth() * 0.25) {
-            moodSprite = basePath + petType + "Sick.png";
-        } else {
-            moodSprite = basePath + petType + "Idle.png";
-        }
-
-        return moodSprite;
-    }
-    /**
-     * Sets up the pet sprite's movement animation.
+     * Creates the game loop, registers every periodic behaviour of the screen with it and starts it.
      */
-    private void setupSpriteMovement() {
-        spriteMovementTimer = new Timer(300, e -> {
-            if (!this.isVisible()) {
-                return; // Skip updates if the screen is not visible
-            }
-            // Determine the mood sprite dynamically
-            currentSpritePath = determineMoodSprite(); // Ensure the sprite path is up to date
-            updatePetSprite(currentSpritePath); // Dynamically update the sprite
-
-            // Get the current position of the sprite
-            int currentY = petSpriteLabel.getY();
-
-            // Move up or down by 1 pixel
-            if (movingUp) {
-                petSpriteLabel.setLocation(petSpriteLabel.getX(), currentY - 1);
-                movingUp = false; // Immediately switch direction
-            } else {
-                petSpriteLabel.setLocation(petSpriteLabel.getX(), currentY + 1);
-                movingUp = true; // Immediately switch direction
-            }
-
-            // Repaint the label to reflect the new position and sprite
-            petSpriteLabel.repaint();
+    private void startGameLoop() {
+        loop = new GameLoop(FRAME_MILLIS);
+        loop.register("decay", PetSimulation.DECAY_INTERVAL_MILLIS, this::applyDecay);
+        // Increment sleep every second while the pet sleeps; the simulation reports when the pet wakes up
+        sleepRecovery = loop.register("sleep-recovery", PetSimulation.SLEEP_RECOVERY_INTERVAL_MILLIS, actions::recoverSleep);
+        sleepRecovery.setEnabled(false);
+        loop.register("sprite-motion", GameLoop.STEP_MILLIS, () -> petCanvas.step(loop.getSimulatedMillis()));
+        loop.register("autosave", Autosave.DEFAULT_INTERVAL_MILLIS, this::autosave); // Appends only what changed
+        loop.setRenderer(alpha -> {
+            updatePetSpriteBasedOnMood(); // Swap the sprite as soon as the mood changes
+            petCanvas.render(alpha); // Repaints only the area the sprite moved across
         });
-
-        spriteMovementTimer.start(); // Start the timer
+        loop.runWhileShowing(this); // No frames while the screen is hidden
+        loop.start();
     }
 
     /**
@@ -831,37 +675,20 @@ public class GameplayScreen extends JFrame {
         saveLoadButton.setEnabled(true);
     }
     /**
-     * Starts the timer for recovering the pet's sleep stat.
+     * Starts recovering the pet's sleep stat.
      */
-    private void startSleepRecoveryTimer() {
-        if (sleepRecoveryTimer != null && sleepRecoveryTimer.isRunning()) {
-            JOptionPane.showMessageDialog(this, "Your pet is asleep!");
-            return; // Timer is already running
+    private void startSleepRecovery() {
+        if (sleepRecovery.isEnabled()) {
+            toastPanel.show("Your pet is asleep!", NotificationQueue.Priority.LOW);
+            return; // Already recovering
         }
-
-        sleepRecoveryTimer = new Timer(1000, e -> { // Increment sleep every 1 second
-            stats.increaseSleep(5); // Adjust the increment as needed for faster recovery
-            pet.checkStates();
-            refreshStatsPanel(); // Update UI
-
-            // Check if sleep has reached the maximum
-            if (stats.getSleep() >= pet.getType().getMaxSleep()) {
-                stats.setSleep(pet.getType().getMaxSleep()); // Cap sleep at maximum
-                pet.checkStates();
-                stopSleepRecoveryTimer(); // Stop the timer
-                JOptionPane.showMessageDialog(this, "Your pet has woken up and is ready to play!");
-                enableInteraction(); // Re-enable all buttons
-            }
-        });
-        sleepRecoveryTimer.start(); // Start the timer
+        sleepRecovery.setEnabled(true);
     }
     /**
-     * Stops the sleep recovery timer.
+     * Stops recovering the pet's sleep stat.
      */
-    private void stopSleepRecoveryTimer() {
-        if (sleepRecoveryTimer != null && sleepRecoveryTimer.isRunning()) {
-            sleepRecoveryTimer.stop(); // Stop the timer
-        }
+    private void stopSleepRecovery() {
+        sleepRecovery.setEnabled(false);
     }
 
     /**
@@ -872,6 +699,36 @@ public class GameplayScreen extends JFrame {
     public void updateScore(int increment) {
         score += increment; // Increment the score
         scoreLabel.setText("Score: " + score); // Update the label
+        recordScore(); // Ranked as it grows, so a crash keeps it
+    }
+
+    /**
+     * Submits the score of this session to the leaderboard, where the pet's best score counts.
+     * The leaderboard is opened in the background, so the game never waits for it to be read.
+     */
+    private void recordScore() {
+        if (score == 0) {
+            return;
+        }
+        String name = pet.getName();
+        int points = score;
+        Leaderboard.getInstanceAsync().whenComplete((leaderboard, error) -> {
+            if (error != null) {
+                System.err.println("Failed to open the leaderboard: " + error.getMessage());
+            } else {
+                leaderboard.submit(PLAYER, name, points);
+            }
+        });
+    }
+
+    /**
+     * Replaces the random generator the mini-game questions and rewards are drawn from,
+     * so a seeded generator asks the same questions again.
+     *
+     * @param random the new source of questions and rewards.
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
     }
 
     /**
@@ -879,26 +736,14 @@ public class GameplayScreen extends JFrame {
      * Presents a math question to the player and rewards them for correct answers.
      */
     private void handleMathQuestion() {
-        // Generate two random numbers for the math question
-        int num1 = (int) (Math.random() * 10) + 1; // Random number between 1 and 10
-        int num2 = (int) (Math.random() * 10) + 1;
-
-        // Randomly choose an operation (+, -, *)
-        String[] operations = {"+", "-", "*"};
-        String operation = operations[(int) (Math.random() * operations.length)];
-
-        // Calculate the correct answer
-        int correctAnswer = switch (operation) {
-            case "+" -> num1 + num2;
-            case "-" -> num1 - num2;
-            case "*" -> num1 * num2;
-            default -> 0;
-        };
+        // Draw two numbers between 1 and 10 and an operation (+, -, *)
+        MathQuestion question = MathQuestion.next(random);
+        int correctAnswer = question.getAnswer();
 
         // Show the math question in a JOptionPane and get the user's answer
-        String userInput = JOptionPane.showInputDialog(
+        String userInput = Dialogs.showInput(
                 this,
-                "What is " + num1 + " " + operation + " " + num2 + "?",
+                question.getText(),
                 "Math Question",
                 JOptionPane.QUESTION_MESSAGE
         );
@@ -908,14 +753,15 @@ public class GameplayScreen extends JFrame {
             try {
                 int userAnswer = Integer.parseInt(userInput);
                 if (userAnswer == correctAnswer) {
-                    JOptionPane.showMessageDialog(this, "Correct! +10 points!");
+                    Dialogs.showMessage(this, "Correct! +10 points!");
                     updateScore(10); // Increase the score
                     addRandomItemToInventory(); // Add a random item to the inventory
                 } else {
-                    JOptionPane.showMessageDialog(this, "Incorrect! The correct answer was " + correctAnswer + ".");
+                    actions.miniGameResult(-1); // Recorded so a replay shows the question was answered
+                    Dialogs.showMessage(this, "Incorrect! The correct answer was " + correctAnswer + ".");
                 }
             } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "Invalid input. Please enter a number.");
+                Dialogs.showMessage(this, "Invalid input. Please enter a number.");
             }
         }
     }
@@ -924,32 +770,27 @@ public class GameplayScreen extends JFrame {
      * Adds a random item to the inventory as a reward for completing a task.
      */
     private void addRandomItemToInventory() {
-        // Select a random item from the list
-        String randomItem = possibleItems[(int) (Math.random() * possibleItems.length)];
-
-        // Determine whether it's food or a gift (you can customize this logic)
-        if (randomItem.equals("Apple") || randomItem.equals("Banana") || randomItem.equals("Carrot")) {
-            // Add to food inventory
-            foodInventory.put(randomItem, foodInventory.getOrDefault(randomItem, 0) + 1);
-        } else {
-            // Add to gift inventory
-            giftInventory.put(randomItem, giftInventory.getOrDefault(randomItem, 0) + 1);
-        }
+        // Select a random item from the catalog
+        int randomItem = MathQuestion.nextReward(random);
+        actions.miniGameResult(randomItem);
 
         // Notify the user
-        JOptionPane.showMessageDialog(this, "You received a " + randomItem + "!");
+        Dialogs.showMessage(this, "You received a " + ItemCatalog.get(randomItem).getItemName() + "!");
     }
 
 
 
     @Override
     public void dispose() {
-        // Stop the timers when the GameplayScreen is closed
-        if (decayTimer != null) {
-            decayTimer.stop();
+        // Stop the game loop when the GameplayScreen is closed
+        if (loop != null) {
+            loop.stop();
         }
-        if (spriteMovementTimer != null) {
-            spriteMovementTimer.stop();
+        closeAutosave();
+        actions.close(); // The log file stays open for the whole session
+        if (blockListener != null) {
+            MainMenu.getInstance().getParentalControls().removeBlockListener(blockListener);
+            blockListener = null;
         }
         super.dispose();
     }
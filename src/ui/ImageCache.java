@@ -0,0 +1,61 @@
+package ui;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code ImageCache} class holds every image of the {@code resources} directory that was decoded
+ * so far, shared by all screens.
+ *
+ * <p>The {@link Preloader} decodes the images on background threads while the splash screen shows;
+ * a screen asking for an image that is still being decoded waits for that decode instead of starting
+ * another. Images are converted to the screen's format by {@link SpriteCache#loadImage(String)}.</p>
+ */
+public final class ImageCache {
+
+    private static final Map<String, CompletableFuture<Image>> images = new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    /**
+     * Returns an image, decoding it on the calling thread if nobody has started yet.
+     *
+     * @param name the file name within the {@code resources} directory, for example {@code "homeScreen.png"}
+     * @return the image, or {@code null} if it does not exist or cannot be decoded
+     */
+    public static Image get(String name) {
+        return load(name, Runnable::run).join();
+    }
+
+    /**
+     * Starts decoding an image on the given executor, unless it is already decoded or being decoded.
+     *
+     * @param name     the file name within the {@code resources} directory
+     * @param executor the executor to decode on
+     * @return the image once it is decoded; {@code null} if it does not exist or cannot be decoded
+     */
+    static CompletableFuture<Image> load(String name, Executor executor) {
+        CompletableFuture<Image> image = images.get(name);
+        if (image != null) {
+            return image;
+        }
+        CompletableFuture<Image> decoding = new CompletableFuture<>();
+        image = images.putIfAbsent(name, decoding);
+        if (image != null) {
+            return image; // Another thread got there first
+        }
+        executor.execute(() -> {
+            try {
+                decoding.complete(SpriteCache.loadImage(SpriteCache.RESOURCE_DIRECTORY + name));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to decode image: " + name + " - " + e.getMessage());
+                decoding.complete(null);
+            }
+        });
+        return decoding;
+    }
+}
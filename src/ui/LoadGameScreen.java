@@ -1,14 +1,24 @@
 package ui;
 
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.IOException;
+import java.util.List;
 import javax.swing.*;
 import logic.Pet;
 import logic.SaveManager;
+import logic.SlotIndex;
 
 public class LoadGameScreen extends JFrame {
+    /**
+     * Number of slots drawn as buttons on the background image. Pets in further slots are listed below them.
+     */
+    private static final int DRAWN_SLOTS = 3;
+
     private Image backgroundImage;
     private MainMenu mainMenu;
+    private SlotIndex slotIndex; // Summaries of the saved slots, null if they could not be read
 
     /**
      * Constructor for initializing the LoadGameScreen.
@@ -25,7 +35,7 @@ public class LoadGameScreen extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/loadScreen.png")).getImage();
+        backgroundImage = ImageCache.get("loadScreen.png");
 
         // Main panel to display the background image
         JPanel panel = new JPanel() {
@@ -37,27 +47,54 @@ public class LoadGameScreen extends JFrame {
         };
         panel.setLayout(null);  // Use absolute positioning for buttons
 
-        // Create invisible buttons for save slots
-        JButton slot1Button = createInvisibleButton(220, 170, 160, 25);
-        JButton slot2Button = createInvisibleButton(220, 210, 160, 25);
-        JButton slot3Button = createInvisibleButton(220, 250, 160, 25);
+        // The slot list is drawn from the slot index alone; no pet is decoded until one is picked
+        try {
+            slotIndex = SaveManager.getSlotIndex();
+        } catch (IOException e) {
+            System.err.println("Failed to read the slot index: " + e.getMessage());
+        }
+
+        // Create invisible buttons for the drawn save slots, each with a summary of its pet
+        for (int slot = 1; slot <= DRAWN_SLOTS; slot++) {
+            int y = 170 + (slot - 1) * 40;
+            int chosenSlot = slot;
+            JButton slotButton = createInvisibleButton(220, y, 160, 25);
+            slotButton.addActionListener(e -> loadGameSlot(chosenSlot));
+            panel.add(slotButton);
+
+            JLabel summary = new JLabel();
+            summary.setBounds(390, y - 3, 200, 30);
+            SlotSummaries.show(summary, slotIndex == null ? null : slotIndex.get(slot));
+            panel.add(summary);
+        }
+
+        // Pets saved in further slots are listed below the drawn ones
+        List<SlotIndex.Entry> moreSlots = slotIndex == null ? List.of()
+                : slotIndex.getEntries().stream().filter(entry -> entry.getSlot() > DRAWN_SLOTS).toList();
+        if (!moreSlots.isEmpty()) {
+            JList<SlotIndex.Entry> slotList = new JList<>(moreSlots.toArray(new SlotIndex.Entry[0]));
+            slotList.setCellRenderer(new SlotSummaries.Renderer());
+            slotList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            slotList.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    SlotIndex.Entry entry = slotList.getSelectedValue();
+                    if (e.getClickCount() == 2 && entry != null) {
+                        loadGameSlot(entry.getSlot());
+                    }
+                }
+            });
+            JScrollPane scrollPane = new JScrollPane(slotList);
+            scrollPane.setBounds(150, 295, 300, 80);
+            panel.add(scrollPane);
+        }
 
         // Create an invisible "Back" button
         JButton backButton = createInvisibleButton(10, 380, 80, 30);
-
-        // Add action listeners to buttons
-        slot1Button.addActionListener(e -> loadGameSlot(1));
-        slot2Button.addActionListener(e -> loadGameSlot(2));
-        slot3Button.addActionListener(e -> loadGameSlot(3));
         backButton.addActionListener(e -> {
             dispose();  // Close the Load Game screen
             mainMenu.setVisible(true);  // Show the main menu
         });
-
-        // Add buttons to the panel
-        panel.add(slot1Button);
-        panel.add(slot2Button);
-        panel.add(slot3Button);
         panel.add(backButton);
 
         // Add the panel to the frame
@@ -90,19 +127,23 @@ public class LoadGameScreen extends JFrame {
      * @param slot the save slot number to load the game from.
      */
     private void loadGameSlot(int slot) {
-        String filePath = "src/files/slot" + slot + ".csv";
+        if (slotIndex != null && slotIndex.get(slot) == null) {
+            Dialogs.showMessage(this, "Save slot " + slot + " is empty.", "Load Game", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         try {
-            // Load the pet data using SaveManager
-            Pet loadedPet = SaveManager.loadPet(filePath);
+            // Load the pet data from the slot
+            Pet loadedPet = SlotLoader.load(this, slot); // Caught up with the time it spent alone
 
             // Transition to GameplayScreen with the loaded pet
             GameplayScreen gameplayScreen = new GameplayScreen(loadedPet);
+            gameplayScreen.setSaveSlot(slot); // Autosaved next to the slot from now on
             gameplayScreen.setVisible(true);
 
             // Close the LoadGameScreen
             dispose();
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Failed to load save slot " + slot + ": " + e.getMessage(),
+            Dialogs.showMessage(this, "Failed to load save slot " + slot + ": " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -4,20 +4,38 @@ import logic.ParentalControls;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 
 public class MainMenu extends JFrame {
+    /**
+     * The CSV file the parental controls are loaded from and saved to.
+     */
+    static final String PARENTAL_CONTROLS_FILE = "files/parental_controls.csv";
+
     private static MainMenu mainMenuInstance;
     private Image backgroundImage;
     private static ParentalControlsScreen parentalControlsScreenInstance;
     private static TutorialScreen tutorialScreenInstance;  // Define tutorialScreenInstance
     private ParentalControls parentalControls;
+    private DebugWindow debugWindow; // Created the first time it is opened
 
     /**
      * Constructor for initializing the MainMenu.
      * Sets up the main menu UI with buttons for navigation and background image.
      */
     public MainMenu() {
-        parentalControls = new ParentalControls("files/parental_controls.csv");
+        this(new ParentalControls(PARENTAL_CONTROLS_FILE));
+    }
+
+    /**
+     * Constructor for initializing the MainMenu with parental controls that were already loaded.
+     *
+     * @param parentalControls the parental controls that decide whether the game may be played.
+     */
+    public MainMenu(ParentalControls parentalControls) {
+        this.parentalControls = parentalControls;
 
         setTitle("Virtual Pet Game");
         setSize(400, 600);
@@ -25,7 +43,7 @@ public class MainMenu extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/homeScreen.png")).getImage();
+        backgroundImage = ImageCache.get("homeScreen.png");
 
         // Set up layout and buttons
         JPanel mainPanel = new JPanel() {
@@ -57,11 +75,32 @@ public class MainMenu extends JFrame {
         setupButton(parentalControlsButton, this::showParentalControls);
         setupButton(exitButton, () -> {
             parentalControls.stopTracking();        // Call parental controls method
-            parentalControls.saveToCSV("files/parental_controls.csv");
+            parentalControls.saveToCSV(PARENTAL_CONTROLS_FILE);
             System.exit(0);                  // Exit the application
         });
 
         setContentPane(mainPanel);
+
+        // Hidden shortcut to the metrics and recordings, for finding out where time goes
+        mainPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(
+                KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "debug");
+        mainPanel.getActionMap().put("debug", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showDebugWindow();
+            }
+        });
+    }
+
+    /**
+     * Shows the debug window with the game's metrics, up to date.
+     */
+    void showDebugWindow() {
+        if (debugWindow == null) {
+            debugWindow = new DebugWindow(this);
+        }
+        debugWindow.refresh();
+        debugWindow.setVisible(true);
     }
 
     /**
@@ -101,7 +140,7 @@ public class MainMenu extends JFrame {
      */
     private void startNewGame() {
         if (parentalControls.isGameBlocked()) {
-            JOptionPane.showMessageDialog(this, "You are not allowed to start a new game at this time.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            Dialogs.showMessage(this, "You are not allowed to start a new game at this time.", "Access Denied", JOptionPane.WARNING_MESSAGE);
             return;
         }
         NewGameScreen newGameScreen = new NewGameScreen(this);
@@ -115,7 +154,7 @@ public class MainMenu extends JFrame {
      */
     private void loadGame() {
         if (parentalControls.isGameBlocked()) {
-            JOptionPane.showMessageDialog(this, "You are not allowed to load a game at this time.", "Access Denied", JOptionPane.WARNING_MESSAGE);
+            Dialogs.showMessage(this, "You are not allowed to load a game at this time.", "Access Denied", JOptionPane.WARNING_MESSAGE);
             return;
         }
         LoadGameScreen loadGameScreen = new LoadGameScreen(this);
@@ -146,6 +185,15 @@ public class MainMenu extends JFrame {
         button.addActionListener(e -> action.run());
     }
 
+    /**
+     * Returns the parental controls that decide whether the game may be played.
+     *
+     * @return the parental controls of the main menu.
+     */
+    public ParentalControls getParentalControls() {
+        return parentalControls;
+    }
+
     /**
      * Retrieves the singleton instance of the MainMenu.
      * Ensures only one instance of the main menu is created.
@@ -159,6 +207,20 @@ public class MainMenu extends JFrame {
         return mainMenuInstance;
     }
 
+    /**
+     * Retrieves the singleton instance of the MainMenu, creating it with the given parental controls
+     * if it does not exist yet.
+     *
+     * @param parentalControls the parental controls to use if the instance is created.
+     * @return the singleton instance of MainMenu.
+     */
+    public static MainMenu getInstance(ParentalControls parentalControls) {
+        if (mainMenuInstance == null) {
+            mainMenuInstance = new MainMenu(parentalControls);
+        }
+        return mainMenuInstance;
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             MainMenu.getInstance().setVisible(true);
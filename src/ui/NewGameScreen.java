@@ -25,7 +25,7 @@ public class NewGameScreen extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/newGameScreen.png")).getImage();
+        backgroundImage = ImageCache.get("newGameScreen.png");
 
         // Main panel to display the background image
         JPanel panel = new JPanel() {
@@ -38,10 +38,7 @@ public class NewGameScreen extends JFrame {
         panel.setLayout(null); // Use absolute positioning
 
         // Initialize pet types
-        petTypes = new PetType[3];
-        petTypes[0] = new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0);
-        petTypes[1] = new PetType("Sunny", 7, 5, 7, 6, 1, 1, 2, 0);
-        petTypes[2] = new PetType("Berry", 7, 7, 6, 5, 1, 2, 1, 0);
+        petTypes = PetType.starters();
 
         // Create invisible buttons for selecting pets
         JButton pet1Button = createInvisibleButton(100, 120, 100, 25); // Position and size for Pet 1
@@ -73,9 +70,9 @@ public class NewGameScreen extends JFrame {
             // Check if pet is selected and name is provided
             String petName = nameField.getText().trim();
             if (selectedPetType == null) {
-                JOptionPane.showMessageDialog(this, "Please select a pet!");
+                Dialogs.showMessage(this, "Please select a pet!");
             } else if (petName.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Please enter a name for your pet!");
+                Dialogs.showMessage(this, "Please enter a name for your pet!");
             } else {
                 // Open GameplayScreen and pass the selected pet details
                 GameplayScreen gameplayScreen = new GameplayScreen(petName, selectedPetType);
@@ -122,6 +119,6 @@ public class NewGameScreen extends JFrame {
      */
     private void selectPet(int petIndex) {
         selectedPetType = petTypes[petIndex]; // Store the selected PetType
-        JOptionPane.showMessageDialog(this, selectedPetType.getTypeName() + " selected!");
+        Dialogs.showMessage(this, selectedPetType.getTypeName() + " selected!");
     }
 }
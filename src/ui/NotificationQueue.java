@@ -0,0 +1,208 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code NotificationQueue} class holds the messages waiting to be shown as toasts.
+ *
+ * <p>The queue is bounded: when it is full, the message that would be shown last makes room
+ * for a more important one, and a message that is less important than everything waiting
+ * is dropped. A message that is already waiting or showing is not queued again; its count
+ * goes up instead. Messages are shown by priority, then in the order they arrived.</p>
+ */
+public class NotificationQueue {
+
+    /**
+     * How important a notification is. More important notifications are shown first and stay longer.
+     */
+    public enum Priority {
+        LOW(2000),
+        NORMAL(3000),
+        HIGH(5000);
+
+        private final int displayMillis;
+
+        Priority(int displayMillis) {
+            this.displayMillis = displayMillis;
+        }
+
+        /**
+         * Returns how long a notification of this priority stays on screen.
+         *
+         * @return the display time in milliseconds
+         */
+        public int getDisplayMillis() {
+            return displayMillis;
+        }
+    }
+
+    /**
+     * A message waiting in the queue or on screen.
+     */
+    public static final class Notification {
+        private final String message;
+        private final long sequence;
+        private Priority priority;
+        private int count = 1;
+
+        private Notification(String message, Priority priority, long sequence) {
+            this.message = message;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Returns how many times this message was posted while it was waiting or showing.
+         *
+         * @return the number of times the message was posted
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns true if this notification should be shown before the other one.
+         */
+        private boolean ranksBefore(Notification other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority) > 0;
+            }
+            return sequence < other.sequence;
+        }
+    }
+
+    private final int capacity;
+    private final List<Notification> waiting = new ArrayList<>();
+    private Notification current;
+    private long nextSequence = 0;
+    private long dropped = 0;
+
+    /**
+     * Creates a queue that holds at most the given number of waiting messages.
+     *
+     * @param capacity the maximum number of waiting messages, not counting the one on screen
+     */
+    public NotificationQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Posts a message. A message that is already waiting or showing is merged into the existing
+     * notification, which keeps the higher of the two priorities.
+     *
+     * @param message  the text to show
+     * @param priority how important the message is
+     * @return the notification holding the message, or {@code null} if the queue was full of more important messages
+     */
+    public Notification offer(String message, Priority priority) {
+        Notification existing = find(message);
+        if (existing != null) {
+            existing.count++;
+            if (priority.compareTo(existing.priority) > 0) {
+                existing.priority = priority;
+            }
+            return existing;
+        }
+
+        Notification notification = new Notification(message, priority, nextSequence++);
+        if (waiting.size() >= capacity) {
+            Notification last = last();
+            if (!notification.ranksBefore(last)) {
+                dropped++;
+                return null; // Everything waiting is more important
+            }
+            waiting.remove(last);
+            dropped++;
+        }
+        waiting.add(notification);
+        return notification;
+    }
+
+    /**
+     * Takes the most important waiting message and makes it the one on screen.
+     *
+     * @return the notification to show, or {@code null} if nothing is waiting
+     */
+    public Notification next() {
+        Notification first = null;
+        for (Notification notification : waiting) {
+            if (first == null || notification.ranksBefore(first)) {
+                first = notification;
+            }
+        }
+        waiting.remove(first);
+        current = first;
+        return first;
+    }
+
+    /**
+     * Returns the notification on screen.
+     *
+     * @return the notification on screen, or {@code null} if none is showing
+     */
+    public Notification getCurrent() {
+        return current;
+    }
+
+    /**
+     * Removes the notification on screen.
+     */
+    public void dismissCurrent() {
+        current = null;
+    }
+
+    /**
+     * Returns the number of messages waiting to be shown.
+     *
+     * @return the number of waiting messages
+     */
+    public int size() {
+        return waiting.size();
+    }
+
+    /**
+     * Returns how many messages were dropped because the queue was full.
+     *
+     * @return the number of dropped messages
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    private Notification find(String message) {
+        if (current != null && current.message.equals(message)) {
+            return current;
+        }
+        for (Notification notification : waiting) {
+            if (notification.message.equals(message)) {
+                return notification;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the waiting notification that would be shown last.
+     */
+    private Notification last() {
+        Notification last = null;
+        for (Notification notification : waiting) {
+            if (last == null || last.ranksBefore(notification)) {
+                last = notification;
+            }
+        }
+        return last;
+    }
+}
@@ -25,7 +25,7 @@ public class ParentalControlsPasswordScreen extends JFrame {
         setResizable(false);  // Disable resizing to keep layout static
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/parentalControllsPasswordScreen.png")).getImage();
+        backgroundImage = ImageCache.get("parentalControllsPasswordScreen.png");
 
         // Create main panel with custom painting for background
         JPanel panel = new JPanel() {
@@ -53,7 +53,7 @@ public class ParentalControlsPasswordScreen extends JFrame {
                 this.setVisible(false);  // Hide password screen
                 ParentalControlsScreen.getInstance().setVisible(true);  // Open main parental controls screen
             } else {
-                JOptionPane.showMessageDialog(this, "Incorrect Password", "Error", JOptionPane.ERROR_MESSAGE);
+                Dialogs.showMessage(this, "Incorrect Password", "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
         panel.add(enterButton);
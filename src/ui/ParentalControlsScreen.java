@@ -12,7 +12,7 @@ public class ParentalControlsScreen extends JFrame {
     private static ParentalControlsScreen parentalControlsScreenInstance;
     private static AdvancedLimitsScreen advancedLimitsScreenInstance;
 
-    private ParentalControls parentalControls = new ParentalControls("files/parental_controls.csv");
+    private ParentalControls parentalControls = MainMenu.getInstance().getParentalControls(); // Shared, so changed limits apply right away
 
     private Image backgroundImage;
     private JLabel totalPlayTimeLabel;
@@ -34,7 +34,7 @@ public class ParentalControlsScreen extends JFrame {
         setResizable(false);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/parentalControls.png")).getImage();
+        backgroundImage = ImageCache.get("parentalControls.png");
 
         // Create main panel with custom painting for background
         JPanel mainPanel = new JPanel() {
@@ -147,7 +147,7 @@ public class ParentalControlsScreen extends JFrame {
             parentalControls.saveToCSV("files/parental_controls.csv");
             totalPlayTimeLabel.setText("Total: " + parentalControls.getTotalPlaytime());
             avgPlayTimeLabel.setText("Avg: " + parentalControls.returnAverageSessionLength());
-            JOptionPane.showMessageDialog(this, "Play statistics reset.");
+            Dialogs.showMessage(this, "Play statistics reset.");
             parentalControls.startTracking();
             parentalControls.saveToCSV("files/parental_controls.csv");
         });
@@ -269,9 +269,9 @@ public class ParentalControlsScreen extends JFrame {
     private void handleRevivePet(int petId) {
         try {
             String message = parentalControls.resetPet(petId); // Replace with your method to revive the pet
-            JOptionPane.showMessageDialog(this, message);
+            Dialogs.showMessage(this, message);
         } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error reviving Pet " + petId + ": " + ex.getMessage(),
+            Dialogs.showMessage(this, "Error reviving Pet " + petId + ": " + ex.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -0,0 +1,186 @@
+package ui;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import javax.swing.*;
+
+/**
+ * The {@code PetCanvas} class draws the gameplay screen's background and the pet sprite itself,
+ * and holds the screen's buttons and labels on top of them.
+ *
+ * <p>The background is scaled once into a back buffer in the screen's format and copied from there,
+ * so a frame never scales the full image again. The sprite bobs gently up and down: its position is
+ * worked out for every fixed step of the {@link GameLoop} and interpolated between the last two steps
+ * when a frame is rendered, so the motion is smooth and runs at the same pace at any frame rate.
+ * Only the area the sprite left and the area it moved to are repainted.</p>
+ */
+public class PetCanvas extends JPanel {
+
+    /**
+     * Simulated time of one full up-and-down movement of the sprite, in milliseconds.
+     */
+    public static final long BOB_PERIOD_MILLIS = 1_200;
+
+    /**
+     * Distance the sprite moves up and down from its resting position, in pixels.
+     */
+    public static final double BOB_AMPLITUDE = 1.5;
+
+    private final Image background;
+    private final Rectangle spriteArea; // The sprite is centred in this area
+    private BufferedImage backBuffer; // The background scaled to the canvas
+    private Image sprite;
+
+    private double previousOffset = 0; // Vertical offset of the sprite at the step before the last
+    private double currentOffset = 0; // Vertical offset of the sprite at the last step
+    private double drawnOffset = 0; // Offset of the sprite in the last rendered frame
+    private Rectangle drawnBounds = null; // Area the sprite covered in the last rendered frame
+
+    /**
+     * Creates a canvas without a layout manager, so components are placed by their bounds.
+     *
+     * @param background the image scaled over the whole canvas
+     * @param spriteArea the area the sprite is centred in when at rest
+     */
+    public PetCanvas(Image background, Rectangle spriteArea) {
+        super(null);
+        this.background = background;
+        this.spriteArea = new Rectangle(spriteArea);
+        setOpaque(true);
+    }
+
+    /**
+     * Replaces the sprite, repainting its area if it changed.
+     *
+     * @param sprite the new sprite, or {@code null} to show none
+     */
+    public void setSprite(Image sprite) {
+        if (sprite == this.sprite) {
+            return;
+        }
+        this.sprite = sprite;
+        repaintSprite(drawnOffset);
+    }
+
+    public Image getSprite() {
+        return sprite;
+    }
+
+    /**
+     * Moves the sprite to its position at the given simulated time. Called on every step of the game loop.
+     *
+     * @param simulatedMillis the loop's simulated time
+     */
+    public void step(long simulatedMillis) {
+        previousOffset = currentOffset;
+        currentOffset = -BOB_AMPLITUDE * Math.sin(2 * Math.PI * (simulatedMillis % BOB_PERIOD_MILLIS) / BOB_PERIOD_MILLIS);
+    }
+
+    /**
+     * Places the sprite between its positions at the last two steps and repaints it if it moved.
+     *
+     * @param alpha how far simulated time is between the last step and the next, from 0 to 1
+     */
+    public void render(double alpha) {
+        double offset = previousOffset + (currentOffset - previousOffset) * alpha;
+        if (offset != drawnOffset) {
+            repaintSprite(offset);
+        }
+    }
+
+    /**
+     * Returns the vertical offset of the sprite from its resting position in the last rendered frame.
+     *
+     * @return the offset in pixels, negative when the sprite is above its resting position
+     */
+    public double getSpriteOffset() {
+        return drawnOffset;
+    }
+
+    /**
+     * Returns the area the sprite covered in the last rendered frame, rounded out to whole pixels.
+     *
+     * @return the area, or {@code null} if no sprite has been placed yet
+     */
+    public Rectangle getSpriteBounds() {
+        return drawnBounds == null ? null : new Rectangle(drawnBounds);
+    }
+
+    /**
+     * Moves the sprite to a new offset and repaints the area it left together with the area it now covers.
+     */
+    private void repaintSprite(double offset) {
+        Rectangle bounds = spriteBounds(offset);
+        Rectangle dirty = drawnBounds == null ? bounds : bounds == null ? drawnBounds
+                : bounds.union(drawnBounds);
+        drawnOffset = offset;
+        drawnBounds = bounds;
+        if (dirty != null) {
+            repaint(dirty);
+        }
+    }
+
+    /**
+     * Returns the whole pixels the sprite covers at the given offset, or {@code null} without a sprite.
+     */
+    private Rectangle spriteBounds(double offset) {
+        if (sprite == null) {
+            return null;
+        }
+        int width = sprite.getWidth(null);
+        int height = sprite.getHeight(null);
+        double x = spriteX(width);
+        double y = spriteY(height, offset);
+        // Bilinear filtering at a fractional position touches one more pixel on each side
+        int left = (int) Math.floor(x);
+        int top = (int) Math.floor(y);
+        return new Rectangle(left, top, (int) Math.ceil(x + width) - left + 1, (int) Math.ceil(y + height) - top + 1);
+    }
+
+    private double spriteX(int width) {
+        return spriteArea.x + (spriteArea.width - width) / 2.0;
+    }
+
+    private double spriteY(int height, double offset) {
+        return spriteArea.y + (spriteArea.height - height) / 2.0 + offset;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // The clip limits the copy to the repainted area
+        g.drawImage(backBuffer(), 0, 0, null);
+
+        if (sprite != null) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            int width = sprite.getWidth(null);
+            int height = sprite.getHeight(null);
+            g2.drawImage(sprite, AffineTransform.getTranslateInstance(spriteX(width), spriteY(height, drawnOffset)), null);
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Returns the background scaled to the canvas, scaling it again only when the canvas was resized.
+     */
+    private BufferedImage backBuffer() {
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+            GraphicsConfiguration configuration = getGraphicsConfiguration();
+            backBuffer = configuration != null
+                    ? configuration.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = backBuffer.createGraphics();
+            g.setColor(getBackground());
+            g.fillRect(0, 0, width, height);
+            if (background != null) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(background, 0, 0, width, height, null);
+            }
+            g.dispose();
+        }
+        return backBuffer;
+    }
+}
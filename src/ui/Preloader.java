@@ -0,0 +1,159 @@
+package ui;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.*;
+
+import logic.ParentalControls;
+import logic.PetMood;
+import logic.PetType;
+
+/**
+ * The {@code Preloader} class starts the game. It shows a small splash window, decodes the screen
+ * backgrounds and the starter pets' sprites into the {@link ImageCache} and loads the parental
+ * controls, all in parallel on background threads, and opens the main menu once everything is ready.
+ *
+ * <p>Screens opened afterwards find their images already decoded. The time every phase took is
+ * printed when the main menu opens and kept for {@link #getPhaseMillis()}.</p>
+ */
+public final class Preloader {
+
+    /**
+     * The backgrounds of the screens, in the order they are usually opened.
+     */
+    static final List<String> SCREEN_IMAGES = List.of(
+            "homeScreen.png", "newGameScreen.png", "loadScreen.png", "gameScreen.png", "Load_Save.png",
+            "tutorialScreen.png", "gameOver.png", "parentalControllsPasswordScreen.png",
+            "parentalControls.png", "advancedParentalControls.png");
+
+    private static final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final long startNanos = System.nanoTime();
+    private final ExecutorService pool;
+    private final List<String> report = Collections.synchronizedList(new ArrayList<>());
+    private JWindow splash;
+
+    private Preloader() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "preloader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shows the splash window, loads everything in the background and then opens the main menu.
+     * May be called from any thread; returns at once.
+     */
+    public static void launch() {
+        new Preloader().start();
+    }
+
+    /**
+     * Returns how long each startup phase took, in the order the phases finished.
+     *
+     * @return the duration of every finished phase in milliseconds, by phase name
+     */
+    public static Map<String, Long> getPhaseMillis() {
+        synchronized (phaseMillis) {
+            return new LinkedHashMap<>(phaseMillis);
+        }
+    }
+
+    private void start() {
+        SwingUtilities.invokeLater(this::showSplash);
+
+        List<CompletableFuture<Image>> screens = new ArrayList<>();
+        for (String name : SCREEN_IMAGES) {
+            screens.add(ImageCache.load(name, pool));
+        }
+        CompletableFuture<Void> screensLoaded = CompletableFuture.allOf(screens.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> phaseDone("screen images", startNanos));
+
+        List<CompletableFuture<Image>> sprites = new ArrayList<>();
+        for (PetType type : PetType.starters()) {
+            for (PetMood mood : PetMood.values()) {
+                sprites.add(ImageCache.load(SpriteCache.spriteFileName(type.getTypeName(), mood), pool));
+            }
+        }
+        CompletableFuture<Void> spritesLoaded = CompletableFuture.allOf(sprites.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> {
+                    for (PetType type : PetType.starters()) {
+                        SpriteCache.getSprites(type.getTypeName()); // Only wraps the decoded images
+                    }
+                    phaseDone("sprites", startNanos);
+                });
+
+        CompletableFuture<ParentalControls> controlsLoaded = CompletableFuture
+                .supplyAsync(() -> new ParentalControls(MainMenu.PARENTAL_CONTROLS_FILE), pool)
+                .handle((controls, error) -> {
+                    if (error != null) {
+                        System.err.println("Failed to preload parental controls: " + error.getMessage());
+                        return null; // The main menu loads them itself
+                    }
+                    phaseDone("parental controls", startNanos);
+                    return controls;
+                });
+
+        CompletableFuture.allOf(screensLoaded, spritesLoaded, controlsLoaded).whenComplete((ignored, error) -> {
+            pool.shutdown();
+            SwingUtilities.invokeLater(() -> showMainMenu(controlsLoaded.join()));
+        });
+    }
+
+    /**
+     * Shows a window with the game's name and a busy indicator. Runs on the Event Dispatch Thread.
+     */
+    private void showSplash() {
+        splash = new JWindow();
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Color.DARK_GRAY), BorderFactory.createEmptyBorder(20, 20, 20, 20)));
+        JLabel title = new JLabel("Virtual Pet Game", SwingConstants.CENTER);
+        title.setFont(new Font("Arial", Font.BOLD, 18));
+        panel.add(title, BorderLayout.CENTER);
+        JProgressBar progress = new JProgressBar();
+        progress.setIndeterminate(true);
+        panel.add(progress, BorderLayout.SOUTH);
+        splash.setContentPane(panel);
+        splash.setSize(280, 110);
+        splash.setLocationRelativeTo(null);
+        splash.setVisible(true);
+    }
+
+    /**
+     * Builds and shows the main menu and closes the splash window. Runs on the Event Dispatch Thread.
+     *
+     * @param parentalControls the preloaded parental controls, or {@code null} if they failed to load
+     */
+    private void showMainMenu(ParentalControls parentalControls) {
+        long menuStart = System.nanoTime();
+        MainMenu menu = parentalControls != null ? MainMenu.getInstance(parentalControls) : MainMenu.getInstance();
+        menu.setVisible(true);
+        phaseDone("main menu", menuStart);
+        if (splash != null) {
+            splash.dispose();
+            splash = null;
+        }
+        System.out.println("Started in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms: " + String.join(", ", report));
+    }
+
+    /**
+     * Records the end of a phase that started at the given time.
+     */
+    private void phaseDone(String phase, long phaseStartNanos) {
+        long millis = (System.nanoTime() - phaseStartNanos) / 1_000_000;
+        long doneAt = (System.nanoTime() - startNanos) / 1_000_000;
+        phaseMillis.put(phase, millis);
+        report.add(phase + " " + millis + " ms (done at " + doneAt + " ms)");
+    }
+}
@@ -6,12 +6,18 @@ import javax.swing.*;
 import logic.Pet;
 import logic.PetType;
 import logic.SaveManager;
+import logic.SaveService;
+import logic.SlotIndex;
 import logic.VitalStatistics;
 
 public class SaveLoadGameScreen extends JFrame {
+    private static final int SLOT_COUNT = 3; // Slots drawn on the background image
+
     private Image backgroundImage;
     private Pet pet;
     private GameplayScreen parentGameplayScreen;
+    private SlotIndex slotIndex; // Summaries of the saved slots, null if they could not be read
+    private final JLabel[] slotSummaries = new JLabel[SLOT_COUNT];
 
     /**
      * Constructor for initializing the SaveLoadGameScreen.
@@ -30,7 +36,7 @@ public class SaveLoadGameScreen extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the background image
-        backgroundImage = new ImageIcon(getClass().getResource("/resources/Load_Save.png")).getImage();
+        backgroundImage = ImageCache.get("Load_Save.png");
 
         // Initialize UI components
         initializeUI();
@@ -62,7 +68,7 @@ public class SaveLoadGameScreen extends JFrame {
         JButton backButton = createInvisibleButton(10, 380, 80, 30); // Position bottom-left
         backButton.addActionListener(e -> {
             this.setVisible(false); // Hide the SaveLoadGameScreen
-            parentGameplayScreen.setVisible(true); // Show the GameplayScreen
+            parentGameplayScreen.resumeGame(); // Show the GameplayScreen and carry on playing
         });
 
         // Add action listeners for Save slots
@@ -84,6 +90,20 @@ public class SaveLoadGameScreen extends JFrame {
         panel.add(loadSlot3);
         panel.add(backButton);
 
+        // Show what each slot holds next to its load button, read from the slot index alone
+        int[] slotY = {185, 230, 270};
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slotSummaries[i] = new JLabel();
+            slotSummaries[i].setBounds(480, slotY[i], 115, 30);
+            panel.add(slotSummaries[i]);
+        }
+        try {
+            slotIndex = SaveManager.getSlotIndex();
+        } catch (IOException e) {
+            System.err.println("Failed to read the slot index: " + e.getMessage());
+        }
+        refreshSlotSummaries();
+
         // Add the panel to the frame
         setContentPane(panel);
     }
@@ -107,20 +127,34 @@ public class SaveLoadGameScreen extends JFrame {
         return button;
     }
 
+    /**
+     * Shows the summary of every slot from the slot index.
+     */
+    private void refreshSlotSummaries() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            SlotSummaries.show(slotSummaries[i], slotIndex == null ? null : slotIndex.get(i + 1));
+        }
+    }
+
     /**
      * Saves the current game state to a specified slot.
+     * The pet is copied right away and written in the background, so the game does not wait for the disk.
      *
      * @param slot the slot number where the game will be saved.
      */
     private void saveGame(int slot) {
-        String filePath = "src/files/slot" + slot + ".csv";
-        try {
-            SaveManager.savePet(filePath, pet);
-            JOptionPane.showMessageDialog(this, "Game saved in Slot " + slot + "!", "Save Game", JOptionPane.INFORMATION_MESSAGE);
-        } catch (IOException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to save game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        SaveService.getInstance().saveSlot(slot, pet, error -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                refreshSlotSummaries(); // The index was updated together with the slot
+                Dialogs.showMessage(this, "Game saved in Slot " + slot + "!", "Save Game", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                error.printStackTrace();
+                Dialogs.showMessage(this, "Failed to save game: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+        refreshSlotSummaries(); // The index shows the save before it reaches the disk
+        // Autosaved next to the slot from now on; set right away, as a load may replace the screen before the write ends
+        parentGameplayScreen.setSaveSlot(slot);
     }
 
     /**
@@ -129,10 +163,13 @@ public class SaveLoadGameScreen extends JFrame {
      * @param slot the slot number from which the game will be loaded.
      */
     private void loadGame(int slot) {
-        String filePath = "src/files/slot" + slot + ".csv";
+        if (slotIndex != null && slotIndex.get(slot) == null) {
+            Dialogs.showMessage(this, "Save slot " + slot + " is empty.", "Load Game", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         try {
-            Pet loadedPet = SaveManager.loadPet(filePath);
-            JOptionPane.showMessageDialog(this, "Game loaded from Slot " + slot + "!", "Load Game", JOptionPane.INFORMATION_MESSAGE);
+            Pet loadedPet = SlotLoader.load(this, slot); // Caught up with the time it spent alone
+            Dialogs.showMessage(this, "Game loaded from Slot " + slot + "!", "Load Game", JOptionPane.INFORMATION_MESSAGE);
 
             // Close the SaveLoadGameScreen
             this.setVisible(false);
@@ -142,11 +179,12 @@ public class SaveLoadGameScreen extends JFrame {
 
             // Create a new GameplayScreen with the loaded pet
             GameplayScreen gameplayScreen = new GameplayScreen(loadedPet);
+            gameplayScreen.setSaveSlot(slot); // Autosaved next to the slot from now on
             gameplayScreen.setVisible(true);
 
         } catch (IOException e) {
             e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            Dialogs.showMessage(this, "Failed to load game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -0,0 +1,37 @@
+package ui;
+
+import java.awt.*;
+import java.io.IOException;
+
+import logic.OfflineCatchUp;
+import logic.Pet;
+import logic.SaveManager;
+
+/**
+ * The {@code SlotLoader} class loads a pet from a save slot for the screens that start a game from one,
+ * so they all bring the pet up to date and tell the player about it in the same way.
+ */
+final class SlotLoader {
+
+    private SlotLoader() {
+    }
+
+    /**
+     * Loads the pet in a slot and applies the decay for the time it spent alone since it was saved.
+     * Tells the player if the pet died meanwhile.
+     *
+     * @param parent the screen the slot was picked on, for the message
+     * @param slot   the slot number, starting at 1
+     * @return the loaded pet
+     * @throws IOException if the slot cannot be read
+     */
+    static Pet load(Component parent, int slot) throws IOException {
+        Pet loadedPet = SaveManager.loadSlot(slot);
+        boolean wasDead = loadedPet.isDead();
+        OfflineCatchUp.catchUp(loadedPet, loadedPet.getClock().millis());
+        if (!wasDead && loadedPet.isDead()) {
+            Dialogs.showMessage(parent, "Your pet passed away while you were gone.");
+        }
+        return loadedPet;
+    }
+}
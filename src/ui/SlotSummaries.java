@@ -0,0 +1,70 @@
+package ui;
+
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import javax.swing.*;
+
+import logic.SlotIndex;
+
+/**
+ * The {@code SlotSummaries} class shows what is saved in a slot, using only the {@link SlotIndex}.
+ * No pet is decoded until the player actually picks a slot.
+ */
+final class SlotSummaries {
+
+    private static final int THUMBNAIL_SIZE = 24;
+    private static final DateTimeFormatter SAVED_AT = DateTimeFormatter.ofPattern("d MMM, HH:mm").withZone(ZoneId.systemDefault());
+    private static final Font FONT = new Font("Arial", Font.PLAIN, 12);
+
+    private SlotSummaries() {
+    }
+
+    /**
+     * Shows the summary of a slot in a label: a thumbnail of the pet and its name.
+     *
+     * @param label the label to fill in
+     * @param entry the slot's summary, or {@code null} for an empty slot
+     */
+    static void show(JLabel label, SlotIndex.Entry entry) {
+        label.setFont(FONT);
+        if (entry == null) {
+            label.setIcon(null);
+            label.setText("Empty");
+            label.setToolTipText(null);
+            return;
+        }
+        label.setIcon(SpriteCache.getThumbnail(entry.getTypeName(), entry.getMood(), THUMBNAIL_SIZE));
+        label.setText(entry.getName() + (entry.isDead() ? " (passed away)" : ""));
+        label.setToolTipText(describe(entry));
+    }
+
+    /**
+     * Describes a saved slot in a single line, e.g. "Slot 2: Rex the Dog, saved 3 Mar, 14:05".
+     *
+     * @param entry the slot's summary
+     * @return the description
+     */
+    static String describe(SlotIndex.Entry entry) {
+        return "Slot " + entry.getSlot() + ": " + entry.getName() + " the " + entry.getTypeName()
+                + (entry.isDead() ? " (passed away)" : "")
+                + ", saved " + SAVED_AT.format(Instant.ofEpochMilli(entry.getLastSaved()));
+    }
+
+    /**
+     * Renders slot summaries in a list, with the pet's thumbnail next to the description.
+     */
+    static class Renderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            SlotIndex.Entry entry = (SlotIndex.Entry) value;
+            label.setFont(FONT);
+            label.setIcon(SpriteCache.getThumbnail(entry.getTypeName(), entry.getMood(), THUMBNAIL_SIZE));
+            label.setText(describe(entry));
+            return label;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import javax.swing.*;
+
+import logic.GameEvents;
+import logic.Metrics;
+import logic.PetMood;
+
+/**
+ * The {@code SpriteCache} class decodes the pet sprites once and keeps them in memory.
+ *
+ * <p>All mood sprites of a pet type are loaded together the first time the type is requested,
+ * through the shared {@link ImageCache}, and converted into images compatible with the screen,
+ * so drawing them needs no conversion.
+ * Moods without a sprite of their own fall back to the type's idle sprite.</p>
+ */
+public final class SpriteCache {
+
+    static final String RESOURCE_DIRECTORY = "/resources/";
+
+    private static final Metrics.Histogram LOAD_TIME = Metrics.getInstance().histogram("image.load.time", Metrics.Unit.NANOSECONDS);
+
+    private static final Map<String, Map<PetMood, Icon>> spritesByType = new ConcurrentHashMap<>();
+    private static final Map<String, Icon> thumbnails = new ConcurrentHashMap<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Returns the sprites of every mood for the given pet type, loading them on first use.
+     *
+     * @param typeName the pet type name, for example {@code "Dog"}
+     * @return the sprite for every mood; moods without any usable image are missing
+     */
+    public static Map<PetMood, Icon> getSprites(String typeName) {
+        return spritesByType.computeIfAbsent(typeName.toLowerCase(), SpriteCache::loadSprites);
+    }
+
+    /**
+     * Returns the sprite for a pet type in the given mood.
+     *
+     * @param typeName the pet type name
+     * @param mood     the mood
+     * @return the sprite, or {@code null} if the type has no sprites at all
+     */
+    public static Icon getSprite(String typeName, PetMood mood) {
+        return getSprites(typeName).get(mood);
+    }
+
+    /**
+     * Returns a small copy of the sprite for a pet type in the given mood, scaled once and cached.
+     *
+     * @param typeName the pet type name
+     * @param mood     the mood
+     * @param size     the width and height of the thumbnail in pixels
+     * @return the thumbnail, or {@code null} if the type has no sprites at all
+     */
+    public static Icon getThumbnail(String typeName, PetMood mood, int size) {
+        String key = typeName.toLowerCase() + "/" + mood + "/" + size;
+        Icon thumbnail = thumbnails.get(key);
+        if (thumbnail == null) {
+            Icon sprite = getSprite(typeName, mood);
+            if (sprite == null) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(((ImageIcon) sprite).getImage(), 0, 0, size, size, null);
+            g.dispose();
+            thumbnail = new ImageIcon(image);
+            thumbnails.put(key, thumbnail);
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Returns the file name of the sprite for a pet type in the given mood, which may not exist.
+     *
+     * @param typeName the pet type name
+     * @param mood     the mood
+     * @return the file name within the {@code resources} directory
+     */
+    static String spriteFileName(String typeName, PetMood mood) {
+        return typeName.toLowerCase() + mood.getSpriteSuffix() + ".png";
+    }
+
+    private static Map<PetMood, Icon> loadSprites(String prefix) {
+        Map<PetMood, Icon> sprites = new EnumMap<>(PetMood.class);
+        for (PetMood mood : PetMood.values()) {
+            Image image = ImageCache.get(spriteFileName(prefix, mood)); // Already decoded if the preloader ran
+            if (image != null) {
+                sprites.put(mood, new ImageIcon(image));
+            }
+        }
+        // Not every pet has a sprite for every mood
+        Icon idle = sprites.get(PetMood.IDLE);
+        if (idle != null) {
+            for (PetMood mood : PetMood.values()) {
+                sprites.putIfAbsent(mood, idle);
+            }
+        }
+        return Collections.unmodifiableMap(sprites);
+    }
+
+    /**
+     * Decodes an image from the classpath and converts it to the screen's preferred format.
+     * Every load is recorded as a {@link GameEvents.SpriteLoad} event.
+     *
+     * @param path the resource path of the image
+     * @return the image, or {@code null} if it does not exist or cannot be decoded
+     */
+    static Image loadImage(String path) {
+        GameEvents.SpriteLoad event = new GameEvents.SpriteLoad();
+        event.begin();
+        long start = System.nanoTime();
+        Image image = readImage(path);
+        LOAD_TIME.recordSince(start);
+        event.path = path;
+        event.loaded = image != null;
+        event.commit();
+        return image;
+    }
+
+    private static Image readImage(String path) {
+        try (InputStream in = SpriteCache.class.getResourceAsStream(path)) {
+            if (in == null) {
+                return null;
+            }
+            BufferedImage image = ImageIO.read(in);
+            return image == null ? null : toCompatibleImage(image);
+        } catch (IOException e) {
+            System.err.println("Failed to load image: " + path + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return image;
+        }
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (image.getColorModel().equals(configuration.getColorModel(image.getTransparency()))) {
+            return image; // Already in the screen's format
+        }
+        BufferedImage compatible = configuration.createCompatibleImage(
+                image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+}
@@ -0,0 +1,160 @@
+package ui;
+
+import java.awt.*;
+import javax.swing.*;
+
+import logic.PetType;
+import logic.VitalStatistics;
+
+/**
+ * The {@code StatsPanel} class shows the pet's four vital statistics as rows of circles.
+ *
+ * <p>The rows are created once and updated in place. When a value or its warning state changes,
+ * only the circles and label that look different are repainted. The panel counts its refreshes,
+ * the repaints they request and the time they take so the work done on the Event Dispatch Thread
+ * can be checked.</p>
+ */
+public class StatsPanel extends JPanel {
+
+    private static final int ROW_HEIGHT = 30;
+
+    private final StatRow healthRow = new StatRow("Health:", 0);
+    private final StatRow sleepRow = new StatRow("Sleep:", ROW_HEIGHT);
+    private final StatRow fullnessRow = new StatRow("Fullness:", ROW_HEIGHT * 2);
+    private final StatRow happinessRow = new StatRow("Happiness:", ROW_HEIGHT * 3);
+
+    private long refreshCount = 0;
+    private long repaintCount = 0;
+    private long refreshNanos = 0;
+
+    /**
+     * Creates the panel with its four rows.
+     */
+    public StatsPanel() {
+        super(null);
+        setOpaque(false);
+        add(healthRow);
+        add(sleepRow);
+        add(fullnessRow);
+        add(happinessRow);
+    }
+
+    /**
+     * Updates the rows to show the given statistics. A stat is drawn as a warning when it is
+     * below a quarter of its maximum.
+     *
+     * @param stats the pet's current statistics
+     * @param type  the pet's type, which provides the maximum of every statistic
+     */
+    public void refresh(VitalStatistics stats, PetType type) {
+        long start = System.nanoTime();
+        healthRow.update(stats.getHealth(), type.getMaxHealth());
+        sleepRow.update(stats.getSleep(), type.getMaxSleep());
+        fullnessRow.update(stats.getFullness(), type.getMaxFullness());
+        happinessRow.update(stats.getHappiness(), type.getMaxHappiness());
+        refreshNanos += System.nanoTime() - start;
+        refreshCount++;
+    }
+
+    /**
+     * Returns how many times the panel has been refreshed.
+     *
+     * @return the number of refreshes
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * Returns how many repaints the refreshes have requested. A refresh that changes nothing requests none.
+     *
+     * @return the number of repaint requests
+     */
+    public long getRepaintCount() {
+        return repaintCount;
+    }
+
+    /**
+     * Returns the average time a refresh took, in microseconds.
+     *
+     * @return the average refresh time, or 0 if the panel has not been refreshed
+     */
+    public double getAverageRefreshMicros() {
+        return refreshCount == 0 ? 0 : refreshNanos / 1000.0 / refreshCount;
+    }
+
+    /**
+     * One labelled row of circles, painted directly instead of with a label per circle.
+     */
+    private class StatRow extends JComponent {
+        private static final int LABEL_WIDTH = 80;
+        private static final int CIRCLE_X = 85;
+        private static final int CIRCLE_Y = 5;
+        private static final int CIRCLE_SIZE = 20;
+        private static final int CIRCLE_SPACING = 25;
+        private final Font font = new Font("Arial", Font.BOLD, 14);
+
+        private final String labelText;
+        private int value = -1;
+        private int max = -1;
+        private boolean warning;
+
+        StatRow(String labelText, int y) {
+            this.labelText = labelText;
+            setBounds(0, y, 300, ROW_HEIGHT);
+        }
+
+        /**
+         * Stores the new value and repaints only the part of the row that changed.
+         */
+        void update(int newValue, int newMax) {
+            boolean newWarning = newValue < newMax * 0.25;
+            if (newMax != max) {
+                // A different pet type changes the number of circles, so the whole row is redrawn
+                value = newValue;
+                max = newMax;
+                warning = newWarning;
+                requestRepaint(0, 0, getWidth(), getHeight());
+                return;
+            }
+            if (newWarning != warning) {
+                warning = newWarning;
+                requestRepaint(0, 0, LABEL_WIDTH, getHeight());
+            }
+            if (newValue != value) {
+                // Only the circles between the old and the new value change colour
+                int from = Math.max(0, Math.min(value, newValue));
+                int to = Math.min(max, Math.max(value, newValue));
+                value = newValue;
+                if (to > from) {
+                    int x = CIRCLE_X + from * CIRCLE_SPACING;
+                    requestRepaint(x, CIRCLE_Y, (to - from) * CIRCLE_SPACING, CIRCLE_SIZE + 1);
+                }
+            }
+        }
+
+        private void requestRepaint(int x, int y, int width, int height) {
+            repaintCount++;
+            repaint(x, y, width, height);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            g.setFont(font);
+            g.setColor(warning ? Color.RED : Color.BLACK); // Warning: red text
+            g.drawString(labelText, 0, CIRCLE_Y + g.getFontMetrics().getAscent());
+
+            Rectangle clip = g.getClipBounds();
+            int x = CIRCLE_X;
+            for (int i = 0; i < max; i++) {
+                if (clip == null || (x + CIRCLE_SIZE >= clip.x && x <= clip.x + clip.width)) {
+                    g.setColor(i < value ? Color.RED : Color.WHITE);
+                    g.fillRect(x, CIRCLE_Y, CIRCLE_SIZE, CIRCLE_SIZE);
+                    g.setColor(Color.BLACK);
+                    g.drawRect(x, CIRCLE_Y, CIRCLE_SIZE - 1, CIRCLE_SIZE - 1);
+                }
+                x += CIRCLE_SPACING;
+            }
+        }
+    }
+}
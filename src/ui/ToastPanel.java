@@ -0,0 +1,120 @@
+package ui;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.*;
+
+/**
+ * The {@code ToastPanel} class shows notifications as small banners that disappear on their own.
+ *
+ * <p>Unlike a message dialog, showing a toast never blocks: timers keep running and the game
+ * keeps reacting while the message is on screen. Messages are taken one at a time from a
+ * {@link NotificationQueue}; clicking a toast dismisses it early.</p>
+ */
+public class ToastPanel extends JComponent {
+
+    private static final int QUEUE_CAPACITY = 8;
+    private static final int ARC = 16;
+
+    private final NotificationQueue queue = new NotificationQueue(QUEUE_CAPACITY);
+    private final Timer dismissTimer;
+    private final Font font = new Font("Arial", Font.BOLD, 14);
+
+    /**
+     * Creates an empty toast panel. It is hidden until a message is shown.
+     */
+    public ToastPanel() {
+        setOpaque(false);
+        setVisible(false);
+        dismissTimer = new Timer(0, e -> showNext());
+        dismissTimer.setRepeats(false);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showNext(); // Dismiss the toast early
+            }
+        });
+    }
+
+    /**
+     * Shows a message as soon as the more important ones before it have been shown.
+     * Must be called on the Event Dispatch Thread.
+     *
+     * @param message  the text to show
+     * @param priority how important the message is
+     */
+    public void show(String message, NotificationQueue.Priority priority) {
+        NotificationQueue.Notification notification = queue.offer(message, priority);
+        if (queue.getCurrent() == null) {
+            showNext();
+        } else if (notification == queue.getCurrent()) {
+            startDismissTimer(notification); // The same message again: keep it on screen longer
+            repaint();
+        }
+    }
+
+    /**
+     * Removes every waiting message and hides the toast on screen.
+     */
+    public void clear() {
+        dismissTimer.stop();
+        while (queue.next() != null) {
+            // Drain the waiting messages
+        }
+        queue.dismissCurrent();
+        setVisible(false);
+    }
+
+    /**
+     * Returns the queue holding the waiting messages.
+     *
+     * @return the notification queue
+     */
+    public NotificationQueue getQueue() {
+        return queue;
+    }
+
+    private void showNext() {
+        NotificationQueue.Notification notification = queue.next();
+        if (notification == null) {
+            dismissTimer.stop();
+            setVisible(false);
+            return;
+        }
+        startDismissTimer(notification);
+        setVisible(true);
+        repaint();
+    }
+
+    private void startDismissTimer(NotificationQueue.Notification notification) {
+        dismissTimer.setInitialDelay(notification.getPriority().getDisplayMillis());
+        dismissTimer.restart();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        NotificationQueue.Notification notification = queue.getCurrent();
+        if (notification == null) {
+            return;
+        }
+        String text = notification.getMessage();
+        if (notification.getCount() > 1) {
+            text += " (x" + notification.getCount() + ")";
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(notification.getPriority() == NotificationQueue.Priority.HIGH
+                ? new Color(170, 30, 30, 220) : new Color(40, 40, 40, 200));
+        g2.fillRoundRect(0, 0, getWidth() - 1, getHeight() - 1, ARC, ARC);
+
+        g2.setFont(font);
+        g2.setColor(Color.WHITE);
+        FontMetrics metrics = g2.getFontMetrics();
+        int x = (getWidth() - metrics.stringWidth(text)) / 2;
+        int y = (getHeight() - metrics.getHeight()) / 2 + metrics.getAscent();
+        g2.drawString(text, x, y);
+        g2.dispose();
+    }
+}
@@ -22,7 +22,7 @@ public class TutorialScreen extends JFrame {
         setLocationRelativeTo(null);
 
         // Load the tutorial image
-        tutorialImage = new ImageIcon(getClass().getResource("/resources/tutorialScreen.png")).getImage();
+        tutorialImage = ImageCache.get("tutorialScreen.png");
 
         // Main panel to display the tutorial image
         JPanel panel = new JPanel() {
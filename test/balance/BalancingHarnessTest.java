@@ -0,0 +1,75 @@
+package balance;
+
+import logic.PetType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BalancingHarness} and {@link BalanceReport} classes.
+ */
+public class BalancingHarnessTest {
+
+    private static String print(Map<String, BalanceReport> reports) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        reports.values().forEach(report -> report.print(out));
+        out.flush();
+        return bytes.toString();
+    }
+
+    /**
+     * The same seed gives the same report, however many threads the lifetimes are spread over
+     */
+    @Test
+    public void testSameSeedSameReportOnAnyPool() {
+        List<PetType> types = List.of(PetType.starters());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            String first = print(new BalancingHarness(single, PlayerPolicy.random(0.5), 3, 2).run(types, 500, 7));
+            String second = print(new BalancingHarness(several, PlayerPolicy.random(0.5), 3, 2).run(types, 500, 7));
+            assertEquals(first, second);
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    /**
+     * A neglected pet dies on its own and its player scores nothing
+     */
+    @Test
+    public void testNeglectedPetsDie() {
+        PetType type = new PetType("Slow", 10, 10, 10, 10, 1, 1, 1, 0);
+        BalanceReport report = new BalancingHarness(ForkJoinPool.commonPool(), PlayerPolicy.neglect(), 1, 24)
+                .run(List.of(type), 100, 1).get("Slow");
+
+        assertEquals(100, report.getLifetimes());
+        assertEquals(0, report.getSurvivors());
+        assertEquals(0, report.getMaxScore());
+        assertEquals(report.deathPercentile(0.1), report.deathPercentile(0.9), "Without a player every lifetime is the same");
+        assertTrue(report.firstCriticalPercentile(0.5) < report.deathPercentile(0.5));
+        assertEquals(1.0, report.survivalAfter(report.deathPercentile(0.5)));
+        assertEquals(0.0, report.survivalAfter(report.deathPercentile(0.5) + 1));
+    }
+
+    /**
+     * Scores are exact in the low buckets and rounded down by at most about 3% above them
+     */
+    @Test
+    public void testScoreBuckets() {
+        for (long steps : new long[]{0, 1, 63, 64, 65, 100, 1_000, 123_456_789, Long.MAX_VALUE / 2}) {
+            long start = BalanceReport.scoreBucketStart(BalanceReport.scoreBucket(steps));
+            assertTrue(start <= steps);
+            assertTrue(steps - start <= steps / 32, "Bucket of " + steps + " starts at " + start);
+        }
+        assertEquals(63, BalanceReport.scoreBucketStart(BalanceReport.scoreBucket(63)));
+    }
+}
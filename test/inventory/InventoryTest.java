@@ -0,0 +1,98 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Inventory} and {@link ItemCatalog} classes.
+ */
+public class InventoryTest {
+
+    /**
+     * Items are counted by their catalog id and never go below zero
+     */
+    @Test
+    public void testAddAndRemove() {
+        Inventory inventory = new Inventory();
+        inventory.add(ItemCatalog.APPLE, 2);
+        inventory.addItem(ItemCatalog.get(ItemCatalog.BALL), 1);
+
+        assertEquals(2, inventory.getQuantity(ItemCatalog.APPLE));
+        assertEquals(1, inventory.getItemQuantity(ItemCatalog.get(ItemCatalog.BALL)));
+        assertTrue(inventory.remove(ItemCatalog.APPLE, 2));
+        assertFalse(inventory.remove(ItemCatalog.APPLE, 1), "Nothing is left to remove");
+        assertEquals(0, inventory.getQuantity(ItemCatalog.APPLE));
+        assertEquals(0, inventory.getQuantity(-1), "Unknown ids hold nothing");
+    }
+
+    /**
+     * An item that was never registered in the catalog is rejected by name
+     */
+    @Test
+    public void testUnregisteredItem() {
+        Inventory inventory = new Inventory();
+        Item stone = new GiftItem("Stone", "Not in the catalog.", 1);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> inventory.addItem(stone, 1));
+        assertTrue(error.getMessage().contains("Stone"));
+        assertThrows(IllegalArgumentException.class, () -> inventory.removeItem(stone, 0));
+        assertThrows(IllegalArgumentException.class, () -> inventory.add(-1, 1));
+        assertEquals(0, inventory.getItemQuantity(stone));
+    }
+
+    /**
+     * Ids outside the catalog and negative quantities are rejected instead of corrupting the counts
+     */
+    @Test
+    public void testInvalidIdsAndQuantities() {
+        Inventory inventory = new Inventory();
+        inventory.add(ItemCatalog.APPLE, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> inventory.remove(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> inventory.add(ItemCatalog.size(), 1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.remove(ItemCatalog.size(), 1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.add(ItemCatalog.APPLE, -3));
+        assertThrows(IllegalArgumentException.class, () -> inventory.remove(ItemCatalog.APPLE, -5));
+        assertThrows(IllegalArgumentException.class, () -> inventory.setQuantity(ItemCatalog.APPLE, -1));
+        assertEquals(2, inventory.getQuantity(ItemCatalog.APPLE), "Nothing changed");
+
+        inventory.setQuantity(ItemCatalog.APPLE, 1);
+        assertEquals(1, inventory.getQuantity(ItemCatalog.APPLE));
+        inventory.setQuantity(ItemCatalog.APPLE, 4);
+        assertEquals(4, inventory.getQuantity(ItemCatalog.APPLE));
+    }
+
+    /**
+     * Items registered after an inventory was created can still be added to it,
+     * and empty slots do not make two inventories different
+     */
+    @Test
+    public void testLateRegisteredItemsAndEquality() {
+        Inventory inventory = new Inventory();
+        Inventory copy = inventory.copy();
+        int id = ItemCatalog.register(new FoodItem("Test Cookie", "A cookie for the tests.", 2));
+
+        inventory.add(id, 4);
+        assertEquals(4, inventory.getQuantity(id));
+        assertEquals(id, ItemCatalog.idOf("Test Cookie"));
+        assertTrue(ItemCatalog.isFood(id));
+        assertNotEquals(copy, inventory);
+
+        inventory.remove(id, 4);
+        assertEquals(copy, inventory);
+        assertEquals(copy.hashCode(), inventory.hashCode());
+    }
+
+    /**
+     * Names are looked up in the catalog and cannot be registered twice
+     */
+    @Test
+    public void testCatalogLookup() {
+        assertEquals(ItemCatalog.TOY_MOUSE, ItemCatalog.idOf("Toy Mouse"));
+        assertEquals(-1, ItemCatalog.idOf("Bone"));
+        assertFalse(ItemCatalog.isFood(ItemCatalog.PUZZLE));
+        assertThrows(IllegalArgumentException.class,
+                () -> ItemCatalog.register(new GiftItem("Ball", "Another ball.", 2)));
+    }
+}
@@ -0,0 +1,224 @@
+package logic;
+
+import inventory.ItemCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ActionLog} class and the replays it makes.
+ */
+public class ActionLogTest {
+
+    private static final Instant START = Instant.parse("2024-01-10T10:00:00Z");
+
+    @TempDir
+    Path directory;
+    private Path file;
+    private ManualClock clock;
+    private Pet pet;
+    private PetSimulation simulation;
+
+    /**
+     * Creates a log file name in a temporary directory and a pet on a manual clock
+     */
+    @BeforeEach
+    public void setUp() {
+        file = directory.resolve("actions.log");
+        clock = new ManualClock(START.toEpochMilli());
+        pet = createPet();
+        simulation = new PetSimulation(pet);
+    }
+
+    private Pet createPet() {
+        Pet pet = new Pet("Buddy", new PetType("Brock", 10, 10, 10, 10, 1, 1, 1, 0));
+        pet.setVitalStats(new VitalStatistics(5, 5, 5, 5));
+        pet.getInventory().add(ItemCatalog.APPLE, 2);
+        pet.getInventory().add(ItemCatalog.BALL, 1);
+        pet.setClock(clock);
+        return pet;
+    }
+
+    /**
+     * Performs a mix of actions and ticks, remembering the encoded pet after every event
+     */
+    private List<byte[]> playSession(ActionLog log) {
+        List<byte[]> states = new ArrayList<>();
+        states.add(SaveFile.encode(pet));
+        Runnable[] steps = {
+                () -> log.feed(ItemCatalog.APPLE),
+                () -> log.play(2),
+                () -> log.play(2), // Still cooling down
+                log::tick,
+                () -> log.giveGift(ItemCatalog.BALL),
+                () -> log.exercise(1, 1, 1),
+                () -> log.miniGameResult(ItemCatalog.PUZZLE),
+                () -> log.takeToVet(),
+                log::tick,
+                log::goToBed,
+                log::recoverSleep,
+                () -> log.play(2), // The cooldown is over by now
+        };
+        for (Runnable step : steps) {
+            step.run();
+            states.add(SaveFile.encode(pet));
+            clock.advance(Duration.ofSeconds(20));
+        }
+        return states;
+    }
+
+    /**
+     * Every point of the history is rebuilt exactly, whichever snapshot it starts from
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testReplayRebuildsEveryPoint() throws IOException {
+        ActionLog log = new ActionLog(file, simulation, 5);
+        List<byte[]> states = playSession(log);
+
+        assertEquals(states.size() - 1, log.getEventCount());
+        for (int events = 0; events < states.size(); events++) {
+            assertArrayEquals(states.get(events), SaveFile.encode(log.replay(events)), "After " + events + " events");
+        }
+        assertEquals(1, pet.getInventory().getQuantity(ItemCatalog.PUZZLE));
+        log.close();
+    }
+
+    /**
+     * A replay up to a time applies every event that happened until then,
+     * and stops the pet's clock at the last of them
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testReplayUntilTime() throws IOException {
+        ActionLog log = new ActionLog(file, simulation, 5);
+        List<byte[]> states = playSession(log);
+
+        Pet replayed = log.replayUntil(START.plusSeconds(70)); // Events at 0, 20, 40 and 60 seconds
+        assertArrayEquals(states.get(4), SaveFile.encode(replayed));
+        assertEquals(START.plusSeconds(60), replayed.getClock().instant());
+        log.close();
+    }
+
+    /**
+     * A record torn by a crash is cut off, and a reopened log continues with a snapshot of the current pet
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testReopenAfterCrash() throws IOException {
+        ActionLog crashed = new ActionLog(file, simulation, 100);
+        crashed.tick();
+        crashed.tick();
+        crashed.close();
+        Files.write(file, new byte[]{PetAction.EXERCISE.getCode(), 0x02}, StandardOpenOption.APPEND);
+
+        pet.getInventory().add(ItemCatalog.CARROT, 3); // Changed outside the log, e.g. by loading a save
+        byte[] reopened = SaveFile.encode(pet);
+        ActionLog log = new ActionLog(file, simulation, 100);
+        assertTrue(log.isRecording());
+        assertEquals(2, log.getEventCount());
+        log.feed(ItemCatalog.CARROT);
+
+        assertArrayEquals(reopened, SaveFile.encode(log.replay(2)), "The later snapshot of the same point wins");
+        assertArrayEquals(SaveFile.encode(pet), SaveFile.encode(log.replay(3)));
+        assertFalse(log.feed(ItemCatalog.PUZZLE), "Nothing happens without the item");
+        assertEquals(3, log.getEventCount());
+        log.close();
+    }
+
+    /**
+     * A closed log still performs actions, but no longer records or replays them
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testClose() throws IOException {
+        ActionLog log = new ActionLog(file, simulation, 100);
+        log.tick();
+        log.close();
+        long size = Files.size(file);
+
+        assertTrue(log.feed(ItemCatalog.APPLE));
+        assertEquals(1, pet.getInventory().getQuantity(ItemCatalog.APPLE));
+        assertFalse(log.isRecording());
+        assertEquals(size, Files.size(file));
+        assertThrows(IOException.class, () -> log.replay(1));
+    }
+
+    /**
+     * Only the most recently written session logs are kept
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testDeleteOldLogs() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            Path log = Files.write(directory.resolve("Buddy-" + i + ".log"), new byte[1]);
+            Files.setLastModifiedTime(log, FileTime.fromMillis(START.toEpochMilli() + i * 1000L));
+        }
+        Path other = Files.write(directory.resolve("notes.txt"), new byte[1]);
+
+        ActionLog.deleteOldLogs(directory, 2);
+        assertFalse(Files.exists(directory.resolve("Buddy-0.log")));
+        assertFalse(Files.exists(directory.resolve("Buddy-1.log")));
+        assertTrue(Files.exists(directory.resolve("Buddy-2.log")));
+        assertTrue(Files.exists(directory.resolve("Buddy-3.log")));
+        assertTrue(Files.exists(other), "Only logs are deleted");
+
+        ActionLog.deleteOldLogs(directory.resolve("missing"), 2); // Nothing to do
+    }
+
+    /**
+     * The event that kills the pet is in the log even though the log is closed when the pet dies,
+     * as the gameplay screen does
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testFatalEventIsRecorded() throws IOException {
+        pet.setVitalStats(new VitalStatistics(1, 1, 1, 1));
+        ActionLog log = new ActionLog(file, simulation, 100);
+        simulation.addListener((event, p) -> {
+            if (event == PetEvent.DIED) {
+                log.close();
+            }
+        });
+        Instant deathTime = clock.instant();
+        while (!pet.isDead()) {
+            deathTime = clock.instant();
+            log.tick();
+            clock.advance(Duration.ofSeconds(20));
+        }
+        assertFalse(log.isRecording());
+
+        ActionLog reopened = new ActionLog(file, new PetSimulation(createPet()), 100); // Snapshots a live pet, later
+        assertTrue(reopened.replayUntil(deathTime).isDead(), "The replay ends with the pet dead");
+        reopened.close();
+    }
+
+    /**
+     * The same seed asks the same questions
+     */
+    @Test
+    public void testSeededMathQuestions() {
+        Random first = new Random(42);
+        Random second = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            MathQuestion question = MathQuestion.next(first);
+            MathQuestion again = MathQuestion.next(second);
+            assertEquals(question.getText(), again.getText());
+            assertEquals(question.getAnswer(), again.getAnswer());
+            assertEquals(MathQuestion.nextReward(first), MathQuestion.nextReward(second));
+        }
+    }
+}
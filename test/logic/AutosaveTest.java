@@ -0,0 +1,158 @@
+package logic;
+
+import inventory.ItemCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link Autosave} class
+ */
+public class AutosaveTest {
+
+    @TempDir
+    Path directory;
+    private Path journal;
+    private ManualClock clock;
+    private Pet pet;
+
+    /**
+     * Creates a new game's pet on a manual clock and a journal path in a temporary directory
+     */
+    @BeforeEach
+    public void setUp() {
+        journal = directory.resolve("slot1.journal");
+        clock = new ManualClock(1_000_000);
+        pet = Pet.startNewGame("Rex", PetType.starters()[0]);
+        pet.setClock(clock);
+    }
+
+    /**
+     * Only what changed is appended, and the journal rebuilds the pet as it was at the last save
+     */
+    @Test
+    public void testDeltasRebuildThePet() throws IOException {
+        Autosave autosave = new Autosave(journal, pet, 100);
+        clock.advance(Duration.ofSeconds(5));
+        assertFalse(autosave.save(), "Nothing changed");
+
+        pet.getVitalStats().decreaseSleep(3);
+        pet.getInventory().remove(ItemCatalog.APPLE, 1);
+        clock.advance(Duration.ofSeconds(5));
+        assertTrue(autosave.save());
+        pet.play(10);
+        pet.getVitalStats().setFullness(0);
+        pet.checkStates(); // Now hungry
+        clock.advance(Duration.ofSeconds(5));
+        assertTrue(autosave.save());
+        autosave.flush(); // The game crashes here
+
+        long snapshotSize = SaveFile.encode(pet).length;
+        assertTrue(Files.size(journal) < snapshotSize + 60, "Two deltas should take a few bytes: " + Files.size(journal));
+        assertEquals(Files.size(journal), autosave.getBytesWritten());
+
+        Pet recovered = Autosave.recover(journal);
+        assertEquals(pet.getVitalStats().getSleep(), recovered.getVitalStats().getSleep());
+        assertEquals(pet.getVitalStats().getHappiness(), recovered.getVitalStats().getHappiness());
+        assertEquals(0, recovered.getVitalStats().getFullness());
+        assertTrue(recovered.isHungry());
+        assertEquals(pet.getLastPlay(), recovered.getLastPlay());
+        assertEquals(pet.getInventory(), recovered.getInventory());
+        assertEquals(clock.millis(), recovered.getLastSaved(), "The pet was saved at the last record");
+    }
+
+    /**
+     * After enough deltas the journal is a single snapshot again
+     */
+    @Test
+    public void testJournalIsCompacted() throws IOException {
+        Autosave autosave = new Autosave(journal, pet, 3);
+        autosave.flush();
+        long snapshotOnly = Files.size(journal);
+
+        autosave = new Autosave(journal, pet, 3);
+        for (int i = 0; i < 3; i++) {
+            pet.getVitalStats().decreaseHappiness(1);
+            clock.advance(Duration.ofSeconds(5));
+            autosave.save();
+        }
+        autosave.flush();
+        assertTrue(Files.size(journal) > snapshotOnly);
+
+        autosave = new Autosave(journal, pet, 3);
+        for (int i = 0; i < 4; i++) {
+            pet.getVitalStats().decreaseHappiness(1);
+            clock.advance(Duration.ofSeconds(5));
+            autosave.save(); // The fourth save compacts
+        }
+        autosave.flush();
+        assertEquals(snapshotOnly, Files.size(journal));
+        assertEquals(pet.getVitalStats().getHappiness(), Autosave.recover(journal).getVitalStats().getHappiness());
+
+        pet.setInventory(pet.getInventory().copy());
+        autosave = new Autosave(journal, pet, 3);
+        pet.setVitalStats(new VitalStatistics(1, 2, 3, 4));
+        assertTrue(autosave.save()); // Replaced stats are written as a snapshot
+        autosave.flush();
+        assertEquals(1, Autosave.recover(journal).getVitalStats().getHealth());
+    }
+
+    /**
+     * A delta torn by a crash is ignored, and a missing journal recovers nothing
+     */
+    @Test
+    public void testTornDeltaIsIgnored() throws IOException {
+        assertNull(Autosave.recover(journal));
+
+        Autosave autosave = new Autosave(journal, pet, 100);
+        pet.getVitalStats().setHealth(7);
+        clock.advance(Duration.ofSeconds(5));
+        autosave.save();
+        autosave.flush();
+        Files.write(journal, new byte[]{1, (byte) 0x90}, StandardOpenOption.APPEND);
+
+        Pet recovered = Autosave.recover(journal);
+        assertEquals(7, recovered.getVitalStats().getHealth());
+        assertEquals(clock.millis(), recovered.getLastSaved());
+
+        Files.write(journal, new byte[]{0, 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> Autosave.recover(journal));
+    }
+
+    /**
+     * A journal is open until it is closed, and a closed journal is deleted
+     */
+    @Test
+    public void testCloseDeletesTheJournal() {
+        Autosave autosave = new Autosave(journal, pet, 100);
+        autosave.flush();
+        assertTrue(Files.exists(journal));
+        assertTrue(Autosave.isOpen(journal));
+
+        autosave.close();
+        assertFalse(Files.exists(journal));
+        assertFalse(Autosave.isOpen(journal), "A journal found now is left over from a crash");
+        assertThrows(IllegalStateException.class, autosave::save);
+    }
+
+    /**
+     * Closing a journal whose file a newer journal took over leaves the newer one open
+     */
+    @Test
+    public void testNewerJournalStaysOpen() {
+        Autosave older = new Autosave(journal, pet, 100);
+        Autosave newer = new Autosave(journal, pet, 100);
+        older.close();
+        assertTrue(Autosave.isOpen(journal));
+        newer.close();
+        assertFalse(Autosave.isOpen(journal));
+    }
+}
@@ -0,0 +1,83 @@
+package logic;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plays a pet without a user interface on a {@link ManualClock}. The pet lives in the same
+ * {@link PetSimulation} as on the gameplay screen, and a scripted player acts on it at fixed
+ * intervals of simulated time. Time only passes when the harness advances it, and the simulation
+ * jumps straight from one decay tick to the next, so hours of play take milliseconds.
+ */
+class GameHarness {
+
+    /**
+     * Time the clock starts at; only the differences matter to the cooldowns.
+     */
+    static final long START_MILLIS = 1_700_000_000_000L;
+
+    private final ManualClock clock = new ManualClock(START_MILLIS);
+    private final Pet pet;
+    private final PetSimulation simulation;
+    private final Map<PetEvent, Integer> events = new EnumMap<>(PetEvent.class);
+
+    /**
+     * Takes over the pet's clock and counts the events its simulation publishes.
+     *
+     * @param pet the pet to play
+     */
+    GameHarness(Pet pet) {
+        this.pet = pet;
+        this.simulation = new PetSimulation(pet, clock);
+        simulation.addListener((event, p) -> events.merge(event, 1, Integer::sum));
+    }
+
+    Pet getPet() {
+        return pet;
+    }
+
+    ManualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the simulated time played so far.
+     */
+    Duration getElapsed() {
+        return Duration.ofMillis(simulation.getElapsedMillis());
+    }
+
+    /**
+     * Returns how many times the simulation published the given event.
+     */
+    int count(PetEvent event) {
+        return events.getOrDefault(event, 0);
+    }
+
+    /**
+     * Lets time pass without the player doing anything.
+     *
+     * @param duration the simulated time to advance by
+     */
+    void advance(Duration duration) {
+        simulation.advance(duration);
+    }
+
+    /**
+     * Plays for the given time, letting the player act at the start of every interval.
+     * Stops early if the pet dies.
+     *
+     * @param duration the simulated time to play for
+     * @param every    the simulated time between two turns of the player
+     * @param player   the player's turn
+     */
+    void play(Duration duration, Duration every, Consumer<Pet> player) {
+        long end = simulation.getElapsedMillis() + duration.toMillis();
+        while (simulation.getElapsedMillis() < end && !pet.isDead()) {
+            player.accept(pet);
+            simulation.advance(Math.min(every.toMillis(), end - simulation.getElapsedMillis()));
+        }
+    }
+}
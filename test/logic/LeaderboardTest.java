@@ -0,0 +1,211 @@
+package logic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link Leaderboard} class
+ */
+public class LeaderboardTest {
+
+    @TempDir
+    Path directory;
+    private Leaderboard leaderboard;
+
+    /**
+     * Opens a board keeping three leaders in a temporary directory, which only saves when flushed
+     * @throws IOException if an I/O error occurs
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        leaderboard = open();
+    }
+
+    /**
+     * Closes the board
+     * @throws IOException if an I/O error occurs
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        leaderboard.close();
+    }
+
+    private Leaderboard open() throws IOException {
+        return Leaderboard.open(directory, 3, 1000, 3_600_000);
+    }
+
+    private static List<String> names(List<Leaderboard.Entry> entries) {
+        List<String> names = new ArrayList<>();
+        for (Leaderboard.Entry entry : entries) {
+            names.add(entry.getPet());
+        }
+        return names;
+    }
+
+    /**
+     * Only a pet's best score counts, and the board keeps the best pets in order
+     */
+    @Test
+    public void testTopAndRank() {
+        assertTrue(leaderboard.submit("alice", "Rex", 50));
+        assertTrue(leaderboard.submit("alice", "Rex", 80));
+        assertFalse(leaderboard.submit("alice", "Rex", 60), "A lower score is not a new best");
+        leaderboard.submit("bob", "Spot", 90);
+        leaderboard.submit("carol", "Fluffy", 80);
+        leaderboard.submit("dave", "Nibbles", 10);
+
+        assertEquals(List.of("Spot", "Rex", "Fluffy"), names(leaderboard.getTop(3)));
+        assertEquals(List.of("Spot"), names(leaderboard.getTop(1)));
+        assertEquals(80, leaderboard.getScore("alice", "Rex"));
+        assertEquals(1, leaderboard.getRank("bob", "Spot"));
+        assertEquals(2, leaderboard.getRank("alice", "Rex"));
+        assertEquals(2, leaderboard.getRank("carol", "Fluffy"), "Equal scores share a place");
+        assertEquals(4, leaderboard.getRank("dave", "Nibbles"), "Pets below the leaders are ranked too");
+        assertEquals(0, leaderboard.getRank("erin", "Rex"));
+        assertEquals(4, leaderboard.size());
+
+        leaderboard.submit("dave", "Nibbles", 95);
+        assertEquals(List.of("Nibbles", "Spot", "Rex"), names(leaderboard.getTop(3)));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getTop(4));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.submit("erin", "Rex", -1));
+    }
+
+    /**
+     * Scores submitted from many threads at once end up exactly like scores submitted one by one
+     */
+    @Test
+    public void testConcurrentSubmissions() throws Exception {
+        int pets = 200;
+        long[] best = new long[pets];
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long seed = t;
+                sessions.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 20_000; i++) {
+                        int pet = random.nextInt(pets);
+                        long score = random.nextInt(2000); // Some above the highest score told apart
+                        leaderboard.submit("player", "pet" + pet, score);
+                        synchronized (best) {
+                            best[pet] = Math.max(best[pet], score);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Integer[] order = new Integer[pets];
+        for (int i = 0; i < pets; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer pet) -> best[pet]).reversed()
+                .thenComparing(pet -> "pet" + pet));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expected.add("pet" + order[i]);
+        }
+        assertEquals(expected, names(leaderboard.getTop(3)));
+        for (int pet = 0; pet < pets; pet++) {
+            long better = 0;
+            for (long other : best) {
+                if (Math.min(other, 999) > Math.min(best[pet], 999)) {
+                    better++;
+                }
+            }
+            assertEquals(better + 1, leaderboard.getRank("player", "pet" + pet), "Rank of pet" + pet);
+        }
+    }
+
+    /**
+     * Scores survive a restart, through the log and through a compacted snapshot
+     */
+    @Test
+    public void testScoresArePersistent() throws IOException {
+        leaderboard.submit("alice", "Rex", 50);
+        leaderboard.submit("bob", "Spot", 70);
+        leaderboard.flush();
+        assertTrue(Files.exists(directory.resolve(Leaderboard.LOG_FILE)));
+        leaderboard.submit("alice", "Rex", 90);
+        leaderboard.close();
+
+        leaderboard = open();
+        assertEquals(90, leaderboard.getScore("alice", "Rex"));
+        assertEquals(List.of("Rex", "Spot"), names(leaderboard.getTop(3)));
+
+        for (int i = 0; i < Leaderboard.COMPACT_AFTER_RECORDS; i++) {
+            leaderboard.submit("player" + i, "Pet", i % 1000);
+        }
+        leaderboard.flush();
+        assertTrue(Files.exists(directory.resolve(Leaderboard.SNAPSHOT_FILE)));
+        assertFalse(Files.exists(directory.resolve(Leaderboard.LOG_FILE)), "The log is compacted into the snapshot");
+        leaderboard.close();
+
+        leaderboard = open();
+        assertEquals(Leaderboard.COMPACT_AFTER_RECORDS + 2, leaderboard.size());
+        assertEquals(999, leaderboard.getScore("player999", "Pet"));
+        assertEquals(90, leaderboard.getScore("alice", "Rex"));
+    }
+
+    /**
+     * A record torn by a crash is cut off, and records appended afterwards are read again
+     */
+    @Test
+    public void testTornLogRecordIsCutOff() throws IOException {
+        leaderboard.submit("alice", "Rex", 50);
+        leaderboard.close();
+        Files.write(directory.resolve(Leaderboard.LOG_FILE), new byte[]{0, 5, 'b'}, StandardOpenOption.APPEND);
+
+        leaderboard = open();
+        assertEquals(50, leaderboard.getScore("alice", "Rex"));
+        leaderboard.submit("bob", "Spot", 70);
+        leaderboard.close();
+
+        leaderboard = open();
+        assertEquals(70, leaderboard.getScore("bob", "Spot"));
+        assertEquals(2, leaderboard.size());
+    }
+
+    /**
+     * A log record that cannot be decoded is cut off like a torn one
+     */
+    @Test
+    public void testDamagedLogRecordIsCutOff() throws IOException {
+        leaderboard.submit("alice", "Rex", 50);
+        leaderboard.close();
+        byte[] badName = {0, 2, (byte) 0xC0, 0x41}; // Not modified UTF-8
+        Files.write(directory.resolve(Leaderboard.LOG_FILE), badName, StandardOpenOption.APPEND);
+
+        leaderboard = open();
+        assertEquals(50, leaderboard.getScore("alice", "Rex"));
+        leaderboard.submit("bob", "Spot", 70);
+        leaderboard.close();
+
+        leaderboard = open();
+        assertEquals(70, leaderboard.getScore("bob", "Spot"));
+        assertEquals(2, leaderboard.size());
+    }
+}
@@ -0,0 +1,33 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ManualClock} class.
+ */
+public class ManualClockTest {
+
+    /**
+     * A clock in another zone keeps following the manual clock it was made from
+     */
+    @Test
+    public void testWithZoneFollowsTheClock() {
+        ManualClock clock = new ManualClock(1_000_000);
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        Clock zoned = clock.withZone(berlin).withZone(berlin);
+        assertEquals(berlin, zoned.getZone());
+        assertEquals(ZoneOffset.UTC, clock.getZone(), "The manual clock keeps its own zone");
+
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(1_300_000, zoned.millis(), "The view moves with the clock");
+        clock.setMillis(42);
+        assertEquals(42, zoned.instant().toEpochMilli());
+    }
+}
@@ -0,0 +1,118 @@
+package logic;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link Metrics} and {@link GameEvents} classes
+ */
+public class MetricsTest {
+
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Counters and histograms are created once per name
+     */
+    @Test
+    public void testMetricsAreSharedByName() {
+        metrics.counter("stalls").increment();
+        metrics.counter("stalls").add(2);
+        assertEquals(3, metrics.counter("stalls").get());
+
+        Metrics.Histogram histogram = metrics.histogram("save", Metrics.Unit.BYTES);
+        assertSame(histogram, metrics.histogram("save", Metrics.Unit.BYTES));
+        assertThrows(IllegalArgumentException.class, () -> metrics.histogram("save", Metrics.Unit.NANOSECONDS));
+    }
+
+    /**
+     * Percentiles are within the bucket accuracy, at small and large scales
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        Metrics.Histogram histogram = metrics.histogram("time", Metrics.Unit.NANOSECONDS);
+        assertEquals(0, histogram.getPercentile(0.5), "An empty histogram has no values");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 1e-9);
+        assertEquals(500_000, histogram.getPercentile(0.5), 500_000 * 0.07);
+        assertEquals(990_000, histogram.getPercentile(0.99), 990_000 * 0.07);
+        assertEquals(1000, histogram.getPercentile(0), 1000 * 0.07);
+        assertEquals(1_000_000, histogram.getPercentile(1), 1_000_000 * 0.07);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentile(0), "Negative values count as zero");
+    }
+
+    /**
+     * Every value falls in a bucket that starts at or below it and the next bucket starts above it
+     */
+    @Test
+    public void testBucketsCoverEveryValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = Metrics.Histogram.bucket(value);
+            assertTrue(Metrics.Histogram.bucketStart(bucket) <= value, "Bucket of " + value);
+            if (value < Long.MAX_VALUE / 2) {
+                assertTrue(Metrics.Histogram.bucketStart(bucket + 1) > value, "Next bucket of " + value);
+            }
+        }
+    }
+
+    /**
+     * The dump lists every metric by name
+     */
+    @Test
+    public void testDump() {
+        metrics.counter("loop.stalls").increment();
+        metrics.histogram("save.slot.size", Metrics.Unit.BYTES).record(412);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        metrics.dump(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String dump = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(dump.contains("loop.stalls"), dump);
+        assertTrue(dump.contains("n=1 mean=412 B"), dump);
+    }
+
+    /**
+     * The game's events show up in a Flight Recorder recording with their fields
+     */
+    @Test
+    public void testEventsAreRecorded() throws IOException {
+        Path file = Files.createTempFile("test_metrics", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(GameEvents.SlotSave.class);
+            recording.start();
+            GameEvents.SlotSave event = new GameEvents.SlotSave();
+            event.begin();
+            event.slot = 2;
+            event.bytes = 412;
+            event.commit();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent saved = events.stream()
+                    .filter(recorded -> recorded.getEventType().getName().equals("pet.SlotSave"))
+                    .findFirst().orElseThrow();
+            assertEquals(2, saved.getInt("slot"));
+            assertEquals(412, saved.getLong("bytes"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
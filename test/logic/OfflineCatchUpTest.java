@@ -0,0 +1,109 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the {@link OfflineCatchUp} class
+ * Verifies that catching up in bulk gives the same pet as replaying every tick
+ */
+class OfflineCatchUpTest {
+
+    /**
+     * Creates a pet with the given type and stats and all flags derived from the stats
+     */
+    private Pet createPet(PetType type, int health, int sleep, int fullness, int happiness) {
+        Pet pet = new Pet("Buddy", type, new VitalStatistics(health, sleep, fullness, happiness), 0, 0, false, false, false, false);
+        pet.checkStates();
+        return pet;
+    }
+
+    private void assertSamePet(Pet expected, Pet actual, String scenario) {
+        assertEquals(expected.getVitalStats().getHealth(), actual.getVitalStats().getHealth(), "Health should match for " + scenario);
+        assertEquals(expected.getVitalStats().getSleep(), actual.getVitalStats().getSleep(), "Sleep should match for " + scenario);
+        assertEquals(expected.getVitalStats().getFullness(), actual.getVitalStats().getFullness(), "Fullness should match for " + scenario);
+        assertEquals(expected.getVitalStats().getHappiness(), actual.getVitalStats().getHappiness(), "Happiness should match for " + scenario);
+        assertEquals(expected.isSleeping(), actual.isSleeping(), "Sleeping should match for " + scenario);
+        assertEquals(expected.isHungry(), actual.isHungry(), "Hungry should match for " + scenario);
+        assertEquals(expected.isAngry(), actual.isAngry(), "Angry should match for " + scenario);
+        assertEquals(expected.isDead(), actual.isDead(), "Dead should match for " + scenario);
+    }
+
+    /**
+     * Random pet types, stats and absence lengths all produce the same result as a full replay
+     */
+    @Test
+    void testMatchesFullReplay() {
+        Random random = new Random(2212);
+        for (int i = 0; i < 500; i++) {
+            int maxHealth = 5 + random.nextInt(60);
+            int maxSleep = 5 + random.nextInt(60);
+            int maxFullness = 5 + random.nextInt(60);
+            int maxHappiness = 5 + random.nextInt(60);
+            PetType type = new PetType("Random", maxHealth, maxSleep, maxFullness, maxHappiness,
+                    random.nextInt(3), random.nextInt(3), random.nextInt(3), 0);
+
+            int health = 1 + random.nextInt(maxHealth);
+            int sleep = 1 + random.nextInt(maxSleep);
+            int fullness = random.nextInt(maxFullness + 1);
+            int happiness = random.nextInt(maxHappiness + 1);
+            long elapsed = (long) random.nextInt(600) * 61_500 + random.nextInt(60_000);
+            String scenario = type.getMaxHealth() + "/" + type.getMaxSleep() + "/" + type.getMaxFullness() + "/"
+                    + type.getMaxHappiness() + " after " + elapsed + "ms";
+
+            Pet replayed = createPet(type, health, sleep, fullness, happiness);
+            new PetSimulation(replayed).advance(elapsed);
+
+            Pet caughtUp = createPet(type, health, sleep, fullness, happiness);
+            OfflineCatchUp.advance(caughtUp, elapsed);
+
+            assertSamePet(replayed, caughtUp, scenario);
+        }
+    }
+
+    /**
+     * A slot abandoned for years is caught up without replaying every tick
+     */
+    @Test
+    void testLongAbsenceIsInstant() {
+        PetType type = new PetType("Sunny", 1000, 1000, 1000, 1000, 0, 0, 0, 0);
+        Pet pet = createPet(type, 1000, 1000, 1000, 1000);
+        pet.setLastSaved(1000);
+
+        long start = System.nanoTime();
+        long ticks = OfflineCatchUp.catchUp(pet, 1000 + Duration.ofDays(3650).toMillis());
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(Duration.ofDays(3650).toMinutes(), ticks, "Every missed minute should count as a tick");
+        assertFalse(pet.isDead(), "A pet that does not decay should survive");
+        assertTrue(elapsedNanos < Duration.ofMillis(100).toNanos(), "Catching up should not replay every tick");
+    }
+
+    /**
+     * A neglected pet dies while the game is closed
+     */
+    @Test
+    void testNeglectedPetDiesWhileAway() {
+        PetType type = new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0);
+        Pet pet = createPet(type, 7, 6, 5, 7);
+        pet.setLastSaved(1000);
+
+        OfflineCatchUp.catchUp(pet, 1000 + Duration.ofDays(7).toMillis());
+        assertTrue(pet.isDead(), "Pet should not survive a week without care");
+    }
+
+    /**
+     * Pets that were never saved are left untouched
+     */
+    @Test
+    void testNeverSavedPetIsUntouched() {
+        PetType type = new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0);
+        Pet pet = createPet(type, 7, 6, 5, 7);
+        assertEquals(0, OfflineCatchUp.catchUp(pet, System.currentTimeMillis()), "No ticks should be applied");
+        assertEquals(6, pet.getVitalStats().getSleep(), "Sleep should be unchanged");
+    }
+}
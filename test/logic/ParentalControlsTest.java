@@ -0,0 +1,135 @@
+package logic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the limits of the {@link ParentalControls} class and the instants their answer changes.
+ */
+public class ParentalControlsTest {
+
+    /**
+     * Wednesday 2024-01-10, 10:00 UTC
+     */
+    private static final Instant WEDNESDAY_MORNING = Instant.parse("2024-01-10T10:00:00Z");
+
+    @TempDir
+    Path directory;
+    private ManualClock clock;
+
+    /**
+     * Starts the clock on Wednesday morning
+     */
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(WEDNESDAY_MORNING.toEpochMilli());
+    }
+
+    /**
+     * Waits for the settings to be written
+     */
+    @AfterEach
+    public void tearDown() {
+        SaveService.getInstance().flush();
+    }
+
+    private ParentalControls createControls(Clock clock) {
+        PlaytimeJournal journal = new PlaytimeJournal(directory.resolve(ParentalControls.JOURNAL_FILENAME), clock);
+        return new ParentalControls(directory.resolve("parental_controls.csv").toString(), clock, journal);
+    }
+
+    /**
+     * The blocked time of day starts just after its start time and ends at its end time
+     */
+    @Test
+    public void testTimeOfDayChangesAtItsBounds() {
+        ParentalControls controls = createControls(clock);
+        controls.setTimeOfDayLimit("12:00", "14:00");
+        controls.enableDailyPlayableTime();
+
+        assertFalse(controls.isGameBlocked());
+        assertEquals(Instant.parse("2024-01-10T12:00:00.000000001Z"), controls.getNextBlockChange());
+
+        clock.advance(Duration.ofHours(2));
+        assertFalse(controls.isGameBlocked(), "The start time itself is still playable");
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(controls.isGameBlocked());
+        assertEquals(Instant.parse("2024-01-10T14:00:00Z"), controls.getNextBlockChange());
+    }
+
+    /**
+     * The daily limit runs out exactly when the running session has used it up, and applies until midnight
+     */
+    @Test
+    public void testDailyLimitRunsOutDuringSession() {
+        ParentalControls controls = createControls(clock); // Starts a session
+        controls.setTotalDailyPlaytimeLimit("0:30");
+        controls.enableDailyTimeLimit();
+
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(controls.isGameBlocked());
+        assertEquals(Instant.parse("2024-01-10T10:30:00.001Z"), controls.getNextBlockChange());
+
+        clock.advance(Duration.ofMinutes(20).plusMillis(1));
+        assertTrue(controls.isGameBlocked());
+        controls.stopTracking();
+        assertTrue(controls.isGameBlocked());
+        assertEquals(Instant.parse("2024-01-11T00:00:00Z"), controls.getNextBlockChange(), "Nothing changes before midnight");
+
+        clock.advance(Duration.ofDays(1));
+        assertFalse(controls.isGameBlocked());
+    }
+
+    /**
+     * Listeners hear about a changed setting right away, and about nothing once removed
+     */
+    @Test
+    public void testListenersHearAboutChangedSettings() {
+        ParentalControls controls = createControls(clock);
+        List<Boolean> changes = new ArrayList<>();
+        ParentalControls.BlockListener listener = changes::add;
+        controls.addBlockListener(listener);
+
+        controls.enableLimitOnDay("Wednesday");
+        controls.enableLimitPlayableDays();
+        assertEquals(List.of(true), changes);
+
+        controls.removeBlockListener(listener);
+        controls.disableLimitPlayableDays();
+        assertEquals(List.of(true), changes);
+        assertFalse(controls.isGameBlocked());
+    }
+
+    /**
+     * A listener is woken up when the limit runs out, without anyone asking in between
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testWakesUpWhenLimitRunsOut() throws InterruptedException {
+        ParentalControls controls = createControls(Clock.systemUTC());
+        controls.limitDailyPlaytime = Duration.ofMillis(200);
+        controls.enableDailyTimeLimit();
+        CountDownLatch blocked = new CountDownLatch(1);
+        controls.addBlockListener(isBlocked -> {
+            if (isBlocked) {
+                blocked.countDown();
+            }
+        });
+
+        assertTrue(blocked.await(5, TimeUnit.SECONDS), "The listener should be told the limit ran out");
+        assertTrue(controls.isGameBlocked());
+    }
+}
@@ -0,0 +1,144 @@
+package logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the {@link PetSimulation} class
+ * Verifies the decay rules and the events published while time passes
+ */
+class PetSimulationTest {
+
+    private PetType type;
+    private Pet pet;
+    private PetSimulation simulation;
+    private List<PetEvent> events;
+
+    /**
+     * Sets up a pet with full stats and a simulation that records every event
+     */
+    @BeforeEach
+    void setUp() {
+        // PetType constructor (name, maxHealth, maxSleep, maxFullness, maxHappiness, fullness/sleep/happiness/health decay)
+        type = new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0);
+        pet = new Pet("Buddy", type);
+        simulation = new PetSimulation(pet);
+        events = new ArrayList<>();
+        simulation.addListener((event, p) -> events.add(event));
+    }
+
+    /**
+     * A single tick decreases each stat by its pet type's decay rate
+     */
+    @Test
+    void testTickAppliesDecayRates() {
+        simulation.tick();
+        VitalStatistics stats = pet.getVitalStats();
+        assertEquals(7, stats.getHealth(), "Health should not change while no stat is critical");
+        assertEquals(4, stats.getSleep(), "Sleep should decrease by the sleep decay rate");
+        assertEquals(4, stats.getFullness(), "Fullness should decrease by the fullness decay rate");
+        assertEquals(5, stats.getHappiness(), "Happiness should decrease by the happiness decay rate");
+        assertTrue(events.contains(PetEvent.STATS_CHANGED), "A tick should publish a stats change");
+    }
+
+    /**
+     * Running out of sleep makes the pet collapse, and advancing time lets it recover and wake up
+     */
+    @Test
+    void testExhaustionAndRecovery() {
+        simulation.tick(3); // Sleep 6 -> 4 -> 2 -> 0
+        assertTrue(pet.isSleeping(), "Pet should fall asleep when sleep reaches 0");
+        assertTrue(events.contains(PetEvent.EXHAUSTED), "Collapsing should publish an exhaustion event");
+
+        simulation.recoverSleep();
+        simulation.recoverSleep();
+        assertFalse(pet.isSleeping(), "Pet should wake up once sleep is back at max");
+        assertEquals(type.getMaxSleep(), pet.getVitalStats().getSleep(), "Sleep should be capped at max");
+        assertTrue(events.contains(PetEvent.WOKE_UP), "Waking up should publish an event");
+    }
+
+    /**
+     * Advancing by a duration applies the same ticks as calling tick repeatedly
+     */
+    @Test
+    void testAdvanceMatchesTicks() {
+        Pet other = new Pet("Twin", type);
+        PetSimulation otherSimulation = new PetSimulation(other);
+
+        simulation.advance(Duration.ofMinutes(2));
+        otherSimulation.tick(2);
+
+        assertEquals(other.getVitalStats().getHealth(), pet.getVitalStats().getHealth(), "Health should match");
+        assertEquals(other.getVitalStats().getFullness(), pet.getVitalStats().getFullness(), "Fullness should match");
+        assertEquals(other.getVitalStats().getHappiness(), pet.getVitalStats().getHappiness(), "Happiness should match");
+        assertEquals(Duration.ofMinutes(2).toMillis(), simulation.getElapsedMillis(), "Elapsed time should be tracked");
+    }
+
+    /**
+     * A neglected pet eventually dies, publishes a death event and stops changing
+     */
+    @Test
+    void testNeglectedPetDies() {
+        simulation.advance(Duration.ofDays(7));
+        assertTrue(pet.isDead(), "Pet should die after a week without care");
+        assertEquals(1, events.stream().filter(e -> e == PetEvent.DIED).count(), "Death should be published once");
+
+        int eventsAtDeath = events.size();
+        simulation.tick();
+        assertEquals(eventsAtDeath, events.size(), "A dead pet should not publish further events");
+    }
+
+    /**
+     * A simulation given a manual clock moves it along, so the pet is timed in simulated time
+     */
+    @Test
+    void testClockFollowsSimulatedTime() {
+        ManualClock clock = new ManualClock(1_000_000);
+        simulation = new PetSimulation(pet, clock);
+        assertSame(clock, pet.getClock());
+
+        List<Long> tickTimes = new ArrayList<>();
+        simulation.addListener((event, p) -> tickTimes.add(p.getClock().millis()));
+        simulation.advance(Duration.ofSeconds(90));
+        assertEquals(1_060_000L, (long) tickTimes.get(0), "Listeners should see the time of the tick");
+        assertEquals(1_090_000, clock.millis());
+    }
+
+    /**
+     * A whole day of play with a player who cares for the pet every 30 seconds runs headless in
+     * simulated time, and the cooldowns let only every other play through
+     */
+    @Test
+    void testDayOfPlay() {
+        GameHarness game = new GameHarness(Pet.startNewGame("Rex", PetType.starters()[0]));
+        int[] plays = {0};
+        game.play(Duration.ofDays(1), Duration.ofSeconds(30), p -> {
+            p.feed(p.getType().getMaxFullness());
+            p.goToBed();
+            p.takeToVet();
+            if (p.play(p.getType().getMaxHappiness()).startsWith("You played")) {
+                plays[0]++;
+            }
+        });
+
+        Pet played = game.getPet();
+        assertFalse(played.isDead(), "A pet cared for every 30 seconds should survive the day");
+        assertEquals(Duration.ofDays(1), game.getElapsed());
+        assertEquals(24 * 60, plays[0], "Playing is only possible once a minute");
+        assertEquals(24 * 60, game.count(PetEvent.STATS_CHANGED), "One decay tick a minute");
+        assertEquals(0, game.count(PetEvent.HUNGRY));
+
+        PetSnapshot.forSave(played);
+        assertEquals(GameHarness.START_MILLIS + Duration.ofDays(1).toMillis(), played.getLastSaved(), "Saved at simulated time");
+
+        game.advance(Duration.ofDays(7));
+        assertTrue(played.isDead(), "Left alone for a week the pet dies");
+        assertEquals(1, game.count(PetEvent.DIED));
+    }
+}
@@ -0,0 +1,83 @@
+package logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the {@link PetStateMachine} class
+ * Verifies that state changes are published once, and only when a state actually changes
+ */
+class PetStateMachineTest {
+
+    private PetType type;
+    private Pet pet;
+    private List<PetTransition> transitions;
+
+    /**
+     * Sets up a pet with all stats at half and records every transition
+     */
+    @BeforeEach
+    void setUp() {
+        type = new PetType("Dog", 100, 100, 100, 100, 5, 5, 5, 5);
+        pet = new Pet("Buddy", type, new VitalStatistics(50, 50, 50, 50), 0, 0, false, false, false, false);
+        transitions = new ArrayList<>();
+        pet.getStateMachine().addListener((transition, p) -> transitions.add(transition));
+    }
+
+    /**
+     * Evaluating without any state change publishes nothing
+     */
+    @Test
+    void testNoTransitionWithoutChange() {
+        pet.checkStates();
+        pet.feed(10);
+        assertTrue(transitions.isEmpty(), "No state changed, so nothing should be published");
+    }
+
+    /**
+     * Every state change is published with its typed transition
+     */
+    @Test
+    void testTransitionsArePublished() {
+        pet.getVitalStats().setFullness(10);
+        pet.getVitalStats().setHappiness(0);
+        pet.checkStates();
+        assertEquals(List.of(PetTransition.GOT_HUNGRY, PetTransition.GOT_ANGRY), transitions);
+        assertEquals(PetState.CALM, transitions.get(1).getFrom());
+        assertEquals(PetState.ANGRY, transitions.get(1).getTo());
+
+        transitions.clear();
+        pet.feed(50); // The action evaluates the states itself
+        assertEquals(List.of(PetTransition.FED), transitions);
+
+        transitions.clear();
+        pet.giveGift(30); // Still below half happiness, so the pet stays angry
+        assertTrue(transitions.isEmpty());
+        pet.giveGift(30);
+        assertEquals(List.of(PetTransition.CALMED_DOWN), transitions);
+    }
+
+    /**
+     * Transitions caused by an action reach the simulation's listeners right away,
+     * transitions during a tick are published after the tick's stat change
+     */
+    @Test
+    void testSimulationForwardsTransitions() {
+        PetSimulation simulation = new PetSimulation(pet);
+        List<PetEvent> events = new ArrayList<>();
+        simulation.addListener((event, p) -> events.add(event));
+
+        pet.getVitalStats().setFullness(26);
+        simulation.tick(); // Fullness drops below a quarter at the end of the tick
+        assertEquals(List.of(PetEvent.STATS_CHANGED, PetEvent.HUNGRY), events);
+
+        events.clear();
+        pet.feed(50);
+        assertEquals(List.of(PetEvent.NO_LONGER_HUNGRY), events);
+    }
+}
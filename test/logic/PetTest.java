@@ -2,6 +2,9 @@ package logic;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -91,6 +94,26 @@ class PetTest {
         assertTrue(cooldownResult.contains("Cooldown active!"), "Second vet visit attempt should trigger cooldown");
     }
 
+    /**
+     * The play and vet cooldowns run out on the pet's clock, not on the wall clock
+     */
+    @Test
+    void testCooldownsFollowTheClock() {
+        ManualClock clock = new ManualClock(1_000_000);
+        pet.setClock(clock);
+        assertEquals("You played with your pet!", pet.play(10));
+        assertEquals("Your pet visited the vet!", pet.takeToVet());
+
+        clock.advance(Duration.ofMillis(Pet.PLAY_COOLDOWN_MILLIS - 1000));
+        assertEquals("Cooldown active! Please wait 1 seconds before playing with you pet again.", pet.play(10));
+        assertTrue(pet.takeToVet().contains("Cooldown active!"), "The vet cooldown should still be running");
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("You played with your pet!", pet.play(10));
+        assertEquals("Your pet visited the vet!", pet.takeToVet());
+        assertEquals(clock.millis(), pet.getLastPlay());
+    }
+
     /**
      * Test for the dead state function for the {@link Pet} class
      */
@@ -99,4 +122,21 @@ class PetTest {
         pet.getVitalStats().decreaseHealth(50); // Health diminishes to 0
         assertTrue(pet.deadState(), "Pet should be dead when health reaches 0");
     }
+
+    /**
+     * Tests that the mood shown for the pet follows its states in order of precedence
+     */
+    @Test
+    void testMood() {
+        assertEquals(PetMood.IDLE, PetMood.of(pet), "A healthy pet should be idle");
+
+        pet.getVitalStats().setHealth(10);
+        assertEquals(PetMood.SICK, PetMood.of(pet), "A pet with low health should look sick");
+
+        Pet hungryAndAngry = new Pet("Rex", type, new VitalStatistics(50, 50, 0, 0), 0, 0, false, true, true, false);
+        assertEquals(PetMood.HUNGRY, PetMood.of(hungryAndAngry), "Hunger should be shown before anger");
+
+        Pet sleeping = new Pet("Rex", type, new VitalStatistics(50, 0, 0, 0), 0, 0, true, true, true, false);
+        assertEquals(PetMood.SLEEP, PetMood.of(sleeping), "Sleep should be shown before hunger");
+    }
 }
@@ -0,0 +1,92 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the {@link PetWorld} class
+ * Verifies that the array-based world follows the same rules as {@link PetSimulation}
+ */
+class PetWorldTest {
+
+    /**
+     * Creates a random pet type with small stats so pets go through every state quickly
+     */
+    private PetType randomType(Random random) {
+        return new PetType("Random", 5 + random.nextInt(20), 5 + random.nextInt(20), 5 + random.nextInt(20),
+                5 + random.nextInt(20), random.nextInt(3), random.nextInt(3), random.nextInt(3), 0);
+    }
+
+    private Pet randomPet(Random random, PetType type) {
+        VitalStatistics stats = new VitalStatistics(1 + random.nextInt(type.getMaxHealth()), 1 + random.nextInt(type.getMaxSleep()),
+                random.nextInt(type.getMaxFullness() + 1), random.nextInt(type.getMaxHappiness() + 1));
+        Pet pet = new Pet("Pet", type, stats, random.nextInt(1000), random.nextInt(1000), false, false, false, false);
+        pet.checkStates();
+        return pet;
+    }
+
+    /**
+     * Many pets stepped in parallel end up in the same state as pets advanced one by one
+     */
+    @Test
+    void testTickMatchesSimulation() {
+        Random random = new Random(2212);
+        List<PetType> types = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            types.add(randomType(random));
+        }
+
+        PetWorld world = new PetWorld(16);
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Pet pet = randomPet(random, types.get(random.nextInt(types.size())));
+            pets.add(pet);
+            world.addPet(pet);
+        }
+
+        int ticks = 40;
+        world.tick(ticks);
+
+        for (int id = 0; id < pets.size(); id++) {
+            Pet expected = pets.get(id);
+            new PetSimulation(expected).advance(ticks * PetSimulation.DECAY_INTERVAL_MILLIS);
+            Pet actual = world.getPet(id);
+
+            assertEquals(expected.getVitalStats().getHealth(), actual.getVitalStats().getHealth(), "Health should match for pet " + id);
+            assertEquals(expected.getVitalStats().getSleep(), actual.getVitalStats().getSleep(), "Sleep should match for pet " + id);
+            assertEquals(expected.getVitalStats().getFullness(), actual.getVitalStats().getFullness(), "Fullness should match for pet " + id);
+            assertEquals(expected.getVitalStats().getHappiness(), actual.getVitalStats().getHappiness(), "Happiness should match for pet " + id);
+            assertEquals(expected.isSleeping(), actual.isSleeping(), "Sleeping should match for pet " + id);
+            assertEquals(expected.isHungry(), actual.isHungry(), "Hungry should match for pet " + id);
+            assertEquals(expected.isAngry(), actual.isAngry(), "Angry should match for pet " + id);
+            assertEquals(expected.isDead(), actual.isDead(), "Dead should match for pet " + id);
+        }
+    }
+
+    /**
+     * A pet read back from the world has the same state it was stored with
+     */
+    @Test
+    void testPetRoundTrip() {
+        PetType type = new PetType("Brock", 7, 6, 5, 7, 1, 2, 2, 0);
+        Pet pet = new Pet("Buddy", type, new VitalStatistics(6, 5, 1, 0), 123, 456, false, true, true, false);
+
+        PetWorld world = new PetWorld(1);
+        int id = world.addPet(pet);
+        Pet view = world.getPet(id);
+
+        assertEquals("Buddy", view.getName(), "Name should match");
+        assertSame(type, view.getType(), "Type should be shared");
+        assertEquals(6, view.getVitalStats().getHealth(), "Health should match");
+        assertEquals(123, view.getLastPlay(), "Last play time should match");
+        assertEquals(456, view.getLastVetVisit(), "Last vet visit should match");
+        assertTrue(view.isHungry(), "Hungry flag should match");
+        assertTrue(view.isAngry(), "Angry flag should match");
+        assertEquals(1, world.countAlive(), "Pet should be alive");
+    }
+}
@@ -0,0 +1,145 @@
+package logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PlaytimeJournal} class.
+ */
+public class PlaytimeJournalTest {
+
+    /**
+     * Wednesday 2024-01-10, 23:00 UTC
+     */
+    private static final Instant WEDNESDAY_EVENING = Instant.parse("2024-01-10T23:00:00Z");
+
+    @TempDir
+    Path directory;
+    private Path file;
+    private ManualClock clock;
+
+    /**
+     * Creates a journal file name in a temporary directory for every test
+     */
+    @BeforeEach
+    public void setUp() {
+        file = directory.resolve("playtime_journal.log");
+        clock = new ManualClock(WEDNESDAY_EVENING.toEpochMilli());
+    }
+
+    /**
+     * A session running past midnight only counts towards the new day from midnight on,
+     * and a new week starts from zero
+     */
+    @Test
+    public void testSumsRollOverAtMidnightAndMonday() {
+        PlaytimeJournal journal = new PlaytimeJournal(file, clock);
+        journal.startSession();
+        clock.advance(Duration.ofMinutes(90)); // Thursday 00:30
+        assertEquals(Duration.ofMinutes(30), journal.getDailyPlaytime(), "The running session counts from midnight");
+        journal.endSession();
+
+        assertEquals(Duration.ofMinutes(30), journal.getDailyPlaytime());
+        assertEquals(Duration.ofMinutes(90), journal.getWeeklyPlaytime());
+        assertEquals(Duration.ofMinutes(90), journal.getTotalPlaytime());
+        assertEquals(1, journal.getSessionCount());
+
+        clock.advance(Duration.ofDays(5)); // Tuesday of the next week
+        assertEquals(Duration.ZERO, journal.getDailyPlaytime());
+        assertEquals(Duration.ZERO, journal.getWeeklyPlaytime());
+        assertEquals(Duration.ofMinutes(90), journal.getTotalPlaytime());
+    }
+
+    /**
+     * The average only covers sessions that have ended
+     */
+    @Test
+    public void testAverageSessionLength() {
+        PlaytimeJournal journal = new PlaytimeJournal(file, clock);
+        journal.startSession();
+        clock.advance(Duration.ofMinutes(10));
+        journal.endSession();
+        journal.startSession();
+        clock.advance(Duration.ofMinutes(20));
+        journal.endSession();
+        journal.startSession();
+        clock.advance(Duration.ofMinutes(60));
+
+        assertEquals(Duration.ofMinutes(15), journal.getAverageSessionLength());
+        assertEquals(Duration.ofMinutes(90), journal.getTotalPlaytime());
+    }
+
+    /**
+     * A session the last run never ended counts up to its last checkpoint
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testRebuildAfterCrash() throws IOException {
+        PlaytimeJournal crashed = new PlaytimeJournal(file, clock);
+        crashed.startSession();
+        clock.advance(Duration.ofMinutes(5));
+        crashed.checkpoint();
+        clock.advance(Duration.ofMinutes(1)); // Lost with the crash
+        Files.writeString(file, "C,12", StandardCharsets.UTF_8, StandardOpenOption.APPEND); // A torn record
+
+        PlaytimeJournal journal = new PlaytimeJournal(file, clock);
+        assertFalse(journal.isSessionRunning());
+        assertEquals(1, journal.getSessionCount());
+        assertEquals(Duration.ofMinutes(5), journal.getTotalPlaytime());
+        assertEquals(Duration.ofMinutes(5), new PlaytimeJournal(file, clock).getTotalPlaytime(), "The recovered session is recorded");
+    }
+
+    /**
+     * Records from an earlier week are compacted into a summary when the journal is opened
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testCompactsOlderWeeks() throws IOException {
+        PlaytimeJournal journal = new PlaytimeJournal(file, clock);
+        for (int i = 0; i < 3; i++) {
+            journal.startSession();
+            clock.advance(Duration.ofMinutes(20));
+            journal.checkpoint();
+            journal.endSession();
+        }
+        clock.advance(Duration.ofDays(7));
+
+        PlaytimeJournal reopened = new PlaytimeJournal(file, clock);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size(), "Only the summary is left");
+        assertTrue(lines.get(0).startsWith("A,"));
+        assertEquals(Duration.ofMinutes(60), reopened.getTotalPlaytime());
+        assertEquals(3, reopened.getSessionCount());
+        assertEquals(Duration.ZERO, reopened.getWeeklyPlaytime());
+    }
+
+    /**
+     * Sums from an older save are only taken over by a new journal, and stale daily sums are dropped
+     */
+    @Test
+    public void testImportTotals() {
+        PlaytimeJournal journal = new PlaytimeJournal(file, clock);
+        journal.startSession();
+        Instant yesterday = WEDNESDAY_EVENING.minus(Duration.ofDays(1));
+        assertTrue(journal.importTotals(yesterday, Duration.ofHours(1), Duration.ofHours(2), Duration.ofHours(5), 4));
+        assertFalse(journal.importTotals(yesterday, Duration.ofHours(9), Duration.ofHours(9), Duration.ofHours(9), 9));
+
+        assertEquals(Duration.ZERO, journal.getDailyPlaytime());
+        assertEquals(Duration.ofHours(2), journal.getWeeklyPlaytime());
+        assertEquals(Duration.ofHours(5), journal.getTotalPlaytime());
+        assertEquals(4, journal.getSessionCount());
+        assertTrue(journal.isSessionRunning(), "Importing keeps the running session");
+    }
+}
@@ -0,0 +1,108 @@
+package logic;
+
+import inventory.ItemCatalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SaveFile} class.
+ * Verifies saving and loading pets in the binary slot file and importing legacy CSV saves.
+ */
+public class SaveFileTest {
+
+    @TempDir
+    Path directory;
+    private Path savePath;
+
+    /**
+     * Names the save file in the temporary directory for every test
+     */
+    @BeforeEach
+    public void setUp() {
+        savePath = directory.resolve("saves.dat");
+    }
+
+    /**
+     * Pets saved in different slots are loaded back independently, including names with commas
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testSaveAndLoadSlots() throws IOException {
+        SaveFile saveFile = new SaveFile(savePath);
+        saveFile.save(1, TestPets.create("Buddy, Jr.", 80));
+        saveFile.save(3, TestPets.create("Rex", 40));
+
+        Pet loaded = new SaveFile(savePath).load(1);
+        assertEquals("Buddy, Jr.", loaded.getName(), "Names with commas should survive");
+        assertEquals(80, loaded.getVitalStats().getHealth(), "Health should match");
+        assertEquals(1234, loaded.getLastPlay(), "Last play time should match");
+        assertTrue(loaded.isHungry(), "Hungry state should match");
+        assertEquals(3, loaded.getInventory().getQuantity(ItemCatalog.APPLE), "Food inventory should match");
+        assertEquals(1, loaded.getInventory().getQuantity(ItemCatalog.TOY_MOUSE), "Gift inventory should match");
+        assertTrue(loaded.getLastSaved() > 0, "Save time should be recorded");
+
+        assertEquals("Rex", saveFile.load(3).getName(), "Second slot should be independent");
+        assertFalse(saveFile.hasPet(2), "Unused slot should be empty");
+        assertThrows(IOException.class, () -> saveFile.load(2), "Loading an empty slot should fail");
+    }
+
+    /**
+     * Saving a slot again replaces the old pet, and compaction keeps every slot readable
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testOverwriteAndCompact() throws IOException {
+        SaveFile saveFile = new SaveFile(savePath);
+        saveFile.save(2, TestPets.create("Other", 10));
+        for (int i = 1; i <= 2000; i++) {
+            saveFile.save(1, TestPets.create("Buddy", i % 100));
+        }
+        assertEquals(2000 % 100, saveFile.load(1).getVitalStats().getHealth(), "Latest save should win");
+        assertEquals("Other", saveFile.load(2).getName(), "Other slots should survive compaction");
+        assertTrue(Files.size(savePath) < 100 * 1024, "Overwritten records should be compacted away");
+    }
+
+    /**
+     * A name longer than a two-byte length could hold survives a round trip
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testLongNameRoundTrip() throws IOException {
+        String name = "\u00e9".repeat(40_000); // 80,000 UTF-8 bytes
+        SaveFile saveFile = new SaveFile(savePath);
+        saveFile.save(1, TestPets.create(name, 50));
+        assertEquals(name, new SaveFile(savePath).load(1).getName());
+    }
+
+    /**
+     * Legacy CSV slots are imported into empty slots
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testImportLegacySlots() throws IOException {
+        SaveManager.savePet(directory.resolve("slot2.csv").toString(), TestPets.create("Legacy", 55));
+
+        SaveFile saveFile = new SaveFile(savePath);
+        assertEquals(1, saveFile.importLegacySlots(directory), "One CSV slot should be imported");
+        assertEquals("Legacy", saveFile.load(2).getName(), "Imported pet should be in its slot");
+        assertEquals(0, saveFile.importLegacySlots(directory), "Slots that already hold a pet are not imported again");
+    }
+
+    /**
+     * Files that are not save files are rejected
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Files.writeString(savePath, "typeName,maxHealth,maxSleep,maxFullness,maxHappiness");
+        assertThrows(IOException.class, () -> new SaveFile(savePath), "A CSV file is not a save file");
+    }
+}
@@ -1,5 +1,7 @@
 package logic;
 
+import inventory.ItemCatalog;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,8 +56,8 @@ public class SaveManagerTest {
                     false, false, false, false);
 
             // inventory data for the pet
-            pet.getFoodInventory().put("Bone", 3);
-            pet.getGiftInventory().put("Toy", 1);
+            pet.getInventory().add(ItemCatalog.CARROT, 3);
+            pet.getInventory().add(ItemCatalog.BALL, 1);
 
             // pet nsaved to the temp file
             SaveManager.savePet(tempFile.getAbsolutePath(), pet);
@@ -77,10 +79,10 @@ public class SaveManagerTest {
             assertEquals(pet.isHungry(), loadedPet.isHungry(), "Hungry states should match");
             assertEquals(pet.isAngry(), loadedPet.isAngry(), "Angry states should match");
             assertEquals(pet.isDead(), loadedPet.isDead(), "Dead states should match");
+            assertEquals(pet.getLastSaved(), loadedPet.getLastSaved(), "Save times should match");
 
             // Assert inventory matches
-            assertEquals(pet.getFoodInventory(), loadedPet.getFoodInventory(), "Food inventory should match");
-            assertEquals(pet.getGiftInventory(), loadedPet.getGiftInventory(), "Gift inventory should match");
+            assertEquals(pet.getInventory(), loadedPet.getInventory(), "Inventory should match");
 
         } catch (IOException e) { // failure if error is caught
             fail("IOException occurred during the test: " + e.getMessage());
@@ -0,0 +1,91 @@
+package logic;
+
+import inventory.ItemCatalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SaveService} class and the snapshots it writes.
+ */
+public class SaveServiceTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A snapshot keeps the state the pet had when it was taken
+     */
+    @Test
+    public void testSnapshotIsIndependentOfPet() {
+        Pet pet = TestPets.create("Rex", 80);
+
+        PetSnapshot snapshot = PetSnapshot.forSave(pet);
+        assertTrue(pet.getLastSaved() > 0);
+        pet.getVitalStats().setHealth(10);
+        pet.getInventory().remove(ItemCatalog.APPLE, 3);
+
+        Pet copy = snapshot.toPet();
+        assertEquals(80, copy.getVitalStats().getHealth());
+        assertEquals(3, copy.getInventory().getQuantity(ItemCatalog.APPLE));
+        assertEquals(pet.getLastSaved(), copy.getLastSaved());
+    }
+
+    /**
+     * Writes to the same file are coalesced, the newest contents win and every caller is notified
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testWritesAreCoalescedAndFlushed() throws IOException {
+        SaveService service = new SaveService();
+        Path file = directory.resolve("settings.csv");
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < 50; i++) {
+            byte[] contents = ("version " + i).getBytes(StandardCharsets.UTF_8);
+            service.writeFile(file, contents, error -> {
+                completed.incrementAndGet();
+                if (error != null) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        service.flush();
+
+        assertEquals("version 49", Files.readString(file));
+        assertEquals(50, completed.get());
+        assertEquals(0, failed.get());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "no temporary files are left behind");
+        }
+    }
+
+    /**
+     * Flushing from a callback fails right away instead of waiting for itself
+     */
+    @Test
+    public void testFlushFromCallbackFailsFast() {
+        SaveService service = new SaveService();
+        AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+        service.writeFile(directory.resolve("settings.csv"), new byte[]{1}, error -> {
+            try {
+                service.flush();
+            } catch (IllegalStateException e) {
+                thrown.set(e);
+            }
+        });
+        service.flush();
+        assertNotNull(thrown.get(), "flush() on the worker thread should throw");
+    }
+}
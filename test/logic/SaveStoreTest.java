@@ -0,0 +1,134 @@
+package logic;
+
+import inventory.ItemCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link SaveStore} class
+ */
+public class SaveStoreTest {
+
+    @TempDir
+    Path directory;
+    private SaveStore store;
+    private final List<String> evicted = new ArrayList<>();
+
+    /**
+     * Creates a store for two pets in a temporary directory, whose write-behind only runs when flushed
+     * @throws IOException if an I/O error occurs
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = SaveStore.open(directory, 2, 3_600_000, new SaveService());
+        store.addEvictionListener((playerId, slot, pet) -> evicted.add(playerId + "/" + slot));
+    }
+
+    /**
+     * Closes the store
+     * @throws IOException if an I/O error occurs
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    private static Pet newPet(String name) {
+        return Pet.startNewGame(name, PetType.starters()[0]);
+    }
+
+    /**
+     * A pet that was just saved is answered from the cache without touching the disk
+     */
+    @Test
+    public void testPutIsWrittenBehind() throws IOException {
+        Pet pet = newPet("Rex");
+        store.put(new Player("alice"), 1, pet);
+        assertSame(pet, store.get("alice", 1));
+        assertEquals(1, store.getHits());
+        assertFalse(Files.exists(store.path("alice", 1)), "Nothing should be written before the write-behind");
+
+        store.flush();
+        assertTrue(Files.exists(store.path("alice", 1)));
+        assertEquals(1, store.getWrites());
+    }
+
+    /**
+     * The least recently used pet leaves the cache first, and is read back with its unsaved changes
+     */
+    @Test
+    public void testEvictionKeepsNewestState() throws IOException {
+        store.put("alice", 1, newPet("Rex"));
+        store.put("bob", 1, newPet("Spot"));
+        store.get("alice", 1); // Bob's pet is now the least recently used
+        store.get("bob", 1).getInventory().add(ItemCatalog.PUZZLE, 4);
+        assertTrue(store.markDirty("bob", 1));
+        store.get("alice", 1);
+
+        store.put("carol", 2, newPet("Fluffy"));
+        assertEquals(List.of("bob/1"), evicted);
+        assertEquals(1, store.getEvictions());
+        assertEquals(2, store.getCachedCount());
+        assertFalse(store.markDirty("bob", 1), "An evicted pet is no longer tracked");
+
+        Pet reloaded = store.get("bob", 1); // Maybe not on disk yet, but never stale
+        assertEquals(1, store.getMisses());
+        assertEquals("Spot", reloaded.getName());
+        assertEquals(5, reloaded.getInventory().getQuantity(ItemCatalog.PUZZLE));
+    }
+
+    /**
+     * Saves survive a new store, and empty slots are reported
+     */
+    @Test
+    public void testSavesArePersistent() throws IOException {
+        Pet pet = newPet("Rex");
+        store.put("alice", 3, pet);
+        pet.getVitalStats().setHealth(2);
+        store.markDirty("alice", 3);
+        store.close();
+
+        store = SaveStore.open(directory, 2, 3_600_000, new SaveService());
+        assertEquals(2, store.get("alice", 3).getVitalStats().getHealth());
+        assertThrows(IOException.class, () -> store.get("alice", 4));
+        assertThrows(IOException.class, () -> store.get("bob", 3));
+    }
+
+    /**
+     * Files are spread over the shard directories and never leave the root
+     */
+    @Test
+    public void testFilesAreSharded() throws IOException {
+        Path alice = store.path("alice", 1);
+        assertEquals(directory, alice.getParent().getParent());
+        assertEquals(alice.getParent(), store.path("alice", 2).getParent(), "A player's slots share a shard");
+        assertTrue(alice.getParent().getFileName().toString().matches("[0-9a-f]{2}"));
+
+        Path sneaky = store.path("../..", 1);
+        assertEquals(directory, sneaky.getParent().getParent());
+        assertEquals(directory, sneaky.normalize().getParent().getParent());
+
+        Set<Path> shards = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            shards.add(store.path("player" + i, 1).getParent());
+        }
+        assertTrue(shards.size() > SaveStore.SHARDS * 0.9, "Players should use nearly every shard: " + shards.size());
+
+        store.put("../..", 1, newPet("Rex"));
+        store.flush();
+        assertEquals("Rex", SaveFile.decode(ByteBuffer.wrap(Files.readAllBytes(sneaky))).getName());
+    }
+}
@@ -0,0 +1,116 @@
+package logic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SlotIndex} class.
+ * Verifies that the index follows the save file and repairs itself when it falls behind.
+ */
+public class SlotIndexTest {
+
+    @TempDir
+    Path directory;
+    private Path indexPath;
+    private SaveFile saveFile;
+
+    /**
+     * Creates a save file in a temporary directory for every test
+     * @throws IOException if an I/O error occurs
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        indexPath = directory.resolve("slots.idx");
+        saveFile = new SaveFile(directory.resolve("saves.dat"));
+    }
+
+    /**
+     * Entries written with a save are read back without touching the save file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testEntriesFollowSaves() throws IOException {
+        SlotIndex index = new SlotIndex(indexPath, saveFile);
+        Pet pet = TestPets.create("Rex", 0);
+        pet.setLastSaved(4242);
+        byte[] record = SaveFile.encode(pet);
+        saveFile.write(40, record);
+        index.update(40, SaveFile.checksum(record, 0, record.length), pet);
+
+        SlotIndex reopened = new SlotIndex(indexPath, saveFile);
+        SlotIndex.Entry entry = reopened.get(40);
+        assertEquals("Rex", entry.getName());
+        assertEquals("Dog", entry.getTypeName());
+        assertEquals(4242, entry.getLastSaved());
+        assertTrue(entry.isDead());
+        assertEquals(PetMood.DEAD, entry.getMood());
+        assertNull(reopened.get(1), "Empty slots have no entry");
+        assertEquals(1, reopened.getEntries().size());
+    }
+
+    /**
+     * Slots saved behind the index's back are summarised again when it is opened
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testRepairsStaleEntries() throws IOException {
+        SlotIndex index = new SlotIndex(indexPath, saveFile);
+        Pet pet = TestPets.create("Old", 80);
+        byte[] record = SaveFile.encode(pet);
+        saveFile.write(2, record);
+        index.update(2, SaveFile.checksum(record, 0, record.length), pet);
+
+        saveFile.save(2, TestPets.create("New", 80)); // Like a crash right before the index was written
+        saveFile.save(5, TestPets.create("Other", 80));
+
+        SlotIndex reopened = new SlotIndex(indexPath, saveFile);
+        assertEquals("New", reopened.get(2).getName());
+        assertEquals("Other", reopened.get(5).getName());
+    }
+
+    /**
+     * A damaged index is rebuilt from the save file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testRebuildsDamagedIndex() throws IOException {
+        saveFile.save(3, TestPets.create("Buddy", 80));
+        Files.write(indexPath, new byte[] {1, 2, 3});
+
+        SlotIndex index = new SlotIndex(indexPath, saveFile);
+        assertEquals("Buddy", index.get(3).getName());
+        assertEquals("Buddy", new SlotIndex(indexPath, saveFile).get(3).getName());
+    }
+
+    /**
+     * A save handed over is listed before it is written, and never reaches the index file by itself
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testUnwrittenSaveIsShownUntilWritten() throws IOException {
+        SlotIndex index = new SlotIndex(indexPath, saveFile);
+        Pet pet = TestPets.create("Rex", 80);
+        pet.setLastSaved(1000);
+        index.updateUnwritten(2, pet);
+        assertEquals("Rex", index.get(2).getName());
+        assertEquals(1, index.getEntries().size());
+        assertNull(new SlotIndex(indexPath, saveFile).get(2), "Unwritten saves are kept in memory only");
+
+        index.updateUnwritten(2, null); // The write failed
+        assertNull(index.get(2));
+
+        index.updateUnwritten(2, pet);
+        saveFile.save(2, pet);
+        byte[] record = SaveFile.encode(pet);
+        index.update(2, SaveFile.checksum(record, 0, record.length), pet);
+        assertEquals("Rex", index.get(2).getName());
+        assertEquals("Rex", new SlotIndex(indexPath, saveFile).get(2).getName());
+    }
+}
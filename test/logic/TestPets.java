@@ -0,0 +1,29 @@
+package logic;
+
+import inventory.ItemCatalog;
+
+/**
+ * Builds the pets the save tests write and read back. Every field the binary save format keeps is
+ * set to something other than its default, so a field that is lost on the way shows up in the test.
+ */
+final class TestPets {
+
+    private TestPets() {
+    }
+
+    /**
+     * Creates a hungry dog with a few items, which is dead when its health is zero.
+     *
+     * @param name   the pet's name
+     * @param health the pet's health
+     * @return the new pet
+     */
+    static Pet create(String name, int health) {
+        PetType type = new PetType("Dog", 100, 100, 100, 100, 5, 5, 5, 5);
+        Pet pet = new Pet(name, type, new VitalStatistics(health, 90, 70, 100), 1234, 5678,
+                false, true, false, health <= 0);
+        pet.getInventory().add(ItemCatalog.APPLE, 3);
+        pet.getInventory().add(ItemCatalog.TOY_MOUSE, 1);
+        return pet;
+    }
+}
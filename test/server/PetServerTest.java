@@ -0,0 +1,209 @@
+package server;
+
+import inventory.ItemCatalog;
+import logic.VitalStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link PetServer} class. The server listens on a free port of
+ * localhost and never ticks on its own; the tests tick it by hand.
+ */
+public class PetServerTest {
+
+    @TempDir
+    Path directory;
+    private PetServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Starts a server saving into a temporary directory, whose ticks advance the pets by one minute
+     * @throws IOException if an I/O error occurs
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = startServer();
+    }
+
+    /**
+     * Stops the server
+     * @throws IOException if an I/O error occurs
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.stop();
+    }
+
+    private PetServer startServer() throws IOException {
+        PetServer started = new PetServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), directory,
+                3_600_000, 60_000);
+        started.start();
+        return started;
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * A new pet starts like a new game and can be looked up by its id
+     */
+    @Test
+    public void testAdoptAndStatus() throws Exception {
+        HttpResponse<String> adopted = send("POST", "/pets?id=alice&name=Rex&type=brock");
+        assertEquals(201, adopted.statusCode(), adopted.body());
+        assertTrue(adopted.body().contains("\"name\":\"Rex\""), adopted.body());
+        assertTrue(adopted.body().contains("\"Apple\":3"), adopted.body());
+
+        HttpResponse<String> status = send("GET", "/pets/alice");
+        assertEquals(200, status.statusCode());
+        assertTrue(status.body().contains("\"type\":\"Brock\""), status.body());
+
+        assertEquals(409, send("POST", "/pets?id=alice&name=Rex&type=Brock").statusCode(), "Ids are unique");
+        assertEquals(400, send("POST", "/pets?id=bob&name=Rex&type=Dragon").statusCode());
+        assertEquals(400, send("POST", "/pets?id=../etc&name=Rex&type=Brock").statusCode());
+        assertEquals(404, send("GET", "/pets/nobody").statusCode());
+        assertEquals(405, send("DELETE", "/pets/alice").statusCode());
+    }
+
+    /**
+     * Actions follow the gameplay screen's rules and messages
+     */
+    @Test
+    public void testActionsAndRefusals() throws Exception {
+        send("POST", "/pets?id=alice&name=Rex&type=Brock");
+
+        HttpResponse<String> fed = send("POST", "/pets/alice/feed?item=Banana");
+        assertEquals(200, fed.statusCode(), fed.body());
+        assertTrue(fed.body().contains("\"Banana\":1"), fed.body());
+        assertEquals(400, send("POST", "/pets/alice/feed?item=Ball").statusCode(), "A ball is not food");
+
+        assertEquals(200, send("POST", "/pets/alice/sleep").statusCode());
+        server.find("alice").withPet(pet -> {
+            pet.getVitalStats().setSleep(0); // Exhausted, so the pet falls asleep
+            pet.checkStates();
+            return null;
+        });
+        assertEquals(409, send("POST", "/pets/alice/sleep").statusCode(), "Already sleeping");
+        HttpResponse<String> refused = send("POST", "/pets/alice/play");
+        assertEquals(409, refused.statusCode());
+        assertTrue(refused.body().contains("Your pet is sleeping and cannot play right now!"), refused.body());
+        assertEquals(404, send("POST", "/pets/alice/dance").statusCode());
+    }
+
+    /**
+     * Concurrent actions on one pet are applied one after the other, so no item is used twice
+     */
+    @Test
+    public void testConcurrentActionsAreSerialized() throws Exception {
+        send("POST", "/pets?id=alice&name=Rex&type=Brock");
+        server.find("alice").withPet(pet -> {
+            pet.getInventory().setQuantity(ItemCatalog.BALL, 10);
+            return null;
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> gifts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/pets/alice/gift?item=Ball"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            gifts.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        long given = 0;
+        for (CompletableFuture<HttpResponse<String>> gift : gifts) {
+            if (gift.join().statusCode() == 200) {
+                given++;
+            }
+        }
+        assertEquals(10, given, "Exactly the ten balls held can be given");
+        assertEquals(0, (int) server.find("alice").withPet(pet -> pet.getInventory().getQuantity(ItemCatalog.BALL)));
+    }
+
+    /**
+     * Ticks decay the pets, and saved pets come back after a restart
+     */
+    @Test
+    public void testTickAndSave() throws Exception {
+        send("POST", "/pets?id=alice&name=Rex&type=Brock");
+        int fullness = server.find("alice").withPet(pet -> pet.getVitalStats().getFullness());
+        server.tick();
+        int decayed = server.find("alice").withPet(pet -> pet.getVitalStats().getFullness());
+        assertTrue(decayed < fullness, "A tick of one minute should decay the pet");
+
+        assertEquals(200, send("POST", "/pets/alice/save").statusCode());
+
+        server.stop();
+        server = startServer();
+        HttpResponse<String> status = send("GET", "/pets/alice");
+        assertEquals(200, status.statusCode(), status.body());
+        assertTrue(status.body().contains("\"fullness\":" + decayed), status.body());
+    }
+
+    /**
+     * Only the most recently used pets stay in memory; a dropped pet is loaded again with every action kept
+     */
+    @Test
+    public void testDroppedPetsAreReloaded() throws Exception {
+        server.stop();
+        server = new PetServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), directory, 3_600_000, 0, 1);
+        server.start();
+
+        send("POST", "/pets?id=alice&name=Rex&type=Brock");
+        assertEquals(200, send("POST", "/pets/alice/play").statusCode());
+        int happiness = server.find("alice").withPet(pet -> pet.getVitalStats().getHappiness());
+        send("POST", "/pets?id=bob&name=Spot&type=Sunny");
+        assertEquals(1, server.getHostedCount(), "Alice should have been dropped to make room for Bob");
+        assertEquals(409, send("POST", "/pets?id=alice&name=Rex&type=Brock").statusCode(), "A dropped pet still exists");
+
+        HttpResponse<String> status = send("GET", "/pets/alice");
+        assertEquals(200, status.statusCode(), status.body());
+        assertTrue(status.body().contains("\"happiness\":" + happiness), status.body());
+        assertEquals(1, server.getHostedCount());
+    }
+
+    /**
+     * A pet dropped from memory comes back on the simulated time it was saved on, so its cooldowns
+     * still hold when the simulation runs faster than real time
+     */
+    @Test
+    public void testReloadKeepsSimulatedTime() throws Exception {
+        server.stop();
+        server = new PetServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), directory, 3_600_000, 61_000, 1);
+        server.start();
+
+        send("POST", "/pets?id=alice&name=Rex&type=Brock");
+        server.find("alice").withPet(pet -> {
+            pet.setVitalStats(new VitalStatistics(7, 6, 5, 7)); // Healthy enough for a few decay ticks
+            return null;
+        });
+        send("POST", "/pets/alice/play");
+        server.tick(); // A simulated minute, just more than the cooldown, in no time at all
+        send("POST", "/pets?id=bob&name=Spot&type=Sunny");
+        assertEquals(1, server.getHostedCount(), "Alice should have been dropped to make room for Bob");
+
+        int happiness = server.find("alice").withPet(pet -> pet.getVitalStats().getHappiness());
+        HttpResponse<String> played = send("POST", "/pets/alice/play");
+        assertEquals(200, played.statusCode(), played.body());
+        assertTrue(server.find("alice").withPet(pet -> pet.getVitalStats().getHappiness()) > happiness,
+                "The play cooldown should be over on the pet's own clock");
+    }
+}
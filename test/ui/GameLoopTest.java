@@ -0,0 +1,194 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import logic.ManualClock;
+
+import javax.swing.JPanel;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link GameLoop} class. Frames are driven by hand with made-up
+ * times, so the loop's timer never has to run.
+ */
+public class GameLoopTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private GameLoop loop;
+    private long now;
+
+    /**
+     * Creates a loop planned for 20 ms frames and runs its first frame, which only sets the clock
+     */
+    @BeforeEach
+    public void setUp() {
+        loop = new GameLoop(20);
+        now = 5_000 * MILLIS;
+        loop.frame(now);
+    }
+
+    private void advance(long millis) {
+        now += millis * MILLIS;
+        loop.frame(now);
+    }
+
+    /**
+     * A system runs once per period, however the time is cut into frames
+     */
+    @Test
+    public void testSystemsRunOncePerPeriod() {
+        AtomicInteger slow = new AtomicInteger();
+        AtomicInteger fast = new AtomicInteger();
+        loop.register("slow", 1_000, slow::incrementAndGet);
+        loop.register("fast", 300, fast::incrementAndGet);
+
+        for (int i = 0; i < 150; i++) {
+            advance(20); // Three seconds in small frames
+        }
+        assertEquals(3, slow.get());
+        assertEquals(10, fast.get());
+        assertEquals(3_000, loop.getSimulatedMillis());
+
+        advance(3_000); // Then three seconds in a single frame
+        assertEquals(6, slow.get());
+        assertEquals(20, fast.get());
+    }
+
+    /**
+     * The renderer runs every frame and is told how far time got towards the next step
+     */
+    @Test
+    public void testRendererGetsInterpolationFactor() {
+        double[] alpha = {-1};
+        AtomicInteger frames = new AtomicInteger();
+        loop.setRenderer(a -> {
+            alpha[0] = a;
+            frames.incrementAndGet();
+        });
+
+        advance(30);
+        assertEquals(0.3, alpha[0], 1e-9);
+        advance(90);
+        assertEquals(0.2, alpha[0], 1e-9);
+        assertEquals(2, frames.get());
+        assertEquals(100, loop.getSimulatedMillis());
+    }
+
+    /**
+     * Speed scales simulated time, and a paused loop does not catch up on the pause
+     */
+    @Test
+    public void testSpeedAndPause() {
+        AtomicInteger ticks = new AtomicInteger();
+        loop.register("tick", 1_000, ticks::incrementAndGet);
+
+        loop.setSpeed(4);
+        advance(1_000);
+        assertEquals(4, ticks.get());
+
+        loop.pause();
+        advance(10_000);
+        assertEquals(4, ticks.get(), "Nothing should run while paused");
+        assertEquals(4_000, loop.getSimulatedMillis());
+
+        loop.setSpeed(1);
+        loop.resume();
+        advance(1_000);
+        assertEquals(5, ticks.get());
+        assertThrows(IllegalArgumentException.class, () -> loop.setSpeed(0));
+    }
+
+    /**
+     * A disabled system skips its updates and waits a whole period once enabled again
+     */
+    @Test
+    public void testEnablingWaitsAWholePeriod() {
+        AtomicInteger ticks = new AtomicInteger();
+        GameLoop.GameSystem system = loop.register("tick", 1_000, ticks::incrementAndGet);
+        system.setEnabled(false);
+        advance(2_500);
+        assertEquals(0, ticks.get());
+
+        system.setEnabled(true);
+        advance(900);
+        assertEquals(0, ticks.get(), "A restarted system waits its full period");
+        advance(100);
+        assertEquals(1, ticks.get());
+
+        system.cancel();
+        advance(5_000);
+        assertEquals(1, ticks.get());
+        assertTrue(loop.getSystems().isEmpty());
+    }
+
+    /**
+     * A loop timed with a manual clock sees exactly the time the clock was moved by
+     */
+    @Test
+    public void testManualTimeSource() {
+        ManualClock clock = new ManualClock(0);
+        GameLoop manual = new GameLoop(20, () -> clock.millis() * MILLIS);
+        AtomicInteger ticks = new AtomicInteger();
+        manual.register("tick", 1_000, ticks::incrementAndGet);
+
+        manual.frame(); // Only sets the clock
+        for (int i = 0; i < 60; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            manual.frame();
+        }
+        assertEquals(3_600, ticks.get(), "An hour of one-minute frames");
+        assertEquals(Duration.ofHours(1).toMillis(), manual.getSimulatedMillis());
+        assertEquals(0, manual.getFrameStats().getDroppedMillis());
+    }
+
+    /**
+     * Periods must be whole steps
+     */
+    @Test
+    public void testPeriodMustBeMultipleOfStep() {
+        assertThrows(IllegalArgumentException.class, () -> loop.register("odd", 150, () -> {}));
+        assertThrows(IllegalArgumentException.class, () -> loop.register("none", 0, () -> {}));
+    }
+
+    /**
+     * A stall longer than the step limit drops the excess instead of running it later
+     */
+    @Test
+    public void testLongStallIsDropped() {
+        AtomicInteger steps = new AtomicInteger();
+        loop.register("step", GameLoop.STEP_MILLIS, steps::incrementAndGet);
+
+        long limit = GameLoop.MAX_STEPS_PER_FRAME * GameLoop.STEP_MILLIS;
+        advance(limit + 5_000);
+        assertEquals(GameLoop.MAX_STEPS_PER_FRAME, steps.get());
+        assertEquals(5_000, loop.getFrameStats().getDroppedMillis(), "The stall also closed the statistics window");
+        assertEquals(2, loop.getFrameStats().getFrames());
+
+        advance(1_000);
+        assertEquals(GameLoop.MAX_STEPS_PER_FRAME + 10, steps.get(), "Time after the stall runs normally");
+    }
+
+    /**
+     * The timer only runs while the loop is started and not paused, and never while its screen is hidden
+     */
+    @Test
+    public void testTimerStopsWhilePausedOrHidden() {
+        GameLoop idle = new GameLoop(60_000); // No frame comes before the test ends
+        idle.start();
+        assertTrue(idle.isRunning());
+        idle.pause();
+        assertFalse(idle.isRunning(), "A paused loop has nothing to run");
+        idle.resume();
+        assertTrue(idle.isRunning());
+
+        idle.runWhileShowing(new JPanel()); // Never shown
+        assertFalse(idle.isRunning(), "A hidden screen needs no frames");
+        idle.stop();
+        idle.resume();
+        assertFalse(idle.isRunning(), "Resuming does not start a stopped loop");
+    }
+}
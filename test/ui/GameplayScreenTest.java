@@ -107,12 +107,12 @@ public class GameplayScreenTest {
     }
 
     /**
-     * This test verifies that pet sprite label is initialized properly
+     * This test verifies that pet canvas is initialized properly
      */
     @Test
-    public void testSpriteLabelExists() {
+    public void testPetCanvasExists() {
         SwingUtilities.invokeLater(() -> {
-            assertNotNull(gameplayScreen.petSpriteLabel, "Pet sprite label should exist");
+            assertNotNull(gameplayScreen.petCanvas, "Pet canvas should exist");
         });
     }
 
@@ -0,0 +1,59 @@
+package ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link ImageCache} class
+ */
+public class ImageCacheTest {
+
+    /**
+     * An image is decoded once and then shared
+     */
+    @Test
+    public void testImageIsDecodedOnce() {
+        Image first = ImageCache.get("gameOver.png");
+        assertNotNull(first);
+        assertSame(first, ImageCache.get("gameOver.png"));
+    }
+
+    /**
+     * A second request while the first decode is pending waits for it instead of decoding again
+     */
+    @Test
+    public void testPendingDecodeIsShared() {
+        List<Runnable> queued = new ArrayList<>();
+        CompletableFuture<Image> pending = ImageCache.load("tutorialScreen.png", queued::add);
+        assertSame(pending, ImageCache.load("tutorialScreen.png", queued::add));
+        assertEquals(1, queued.size(), "Only one decode should be started");
+        assertFalse(pending.isDone());
+
+        queued.get(0).run();
+        assertNotNull(pending.join());
+    }
+
+    /**
+     * A missing image gives null, as it always has for the sprites
+     */
+    @Test
+    public void testMissingImageIsNull() {
+        assertNull(ImageCache.get("doesNotExist.png"));
+    }
+
+    /**
+     * Every background the preloader decodes exists
+     */
+    @Test
+    public void testPreloadedScreenImagesExist() {
+        for (String name : Preloader.SCREEN_IMAGES) {
+            assertNotNull(ImageCache.get(name), name);
+        }
+    }
+}
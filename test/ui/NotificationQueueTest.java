@@ -0,0 +1,73 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link NotificationQueue} class
+ */
+public class NotificationQueueTest {
+
+    private NotificationQueue queue;
+
+    /**
+     * Creates a queue with room for three waiting messages
+     */
+    @BeforeEach
+    public void setUp() {
+        queue = new NotificationQueue(3);
+    }
+
+    /**
+     * Posting the same message again raises its count instead of queueing it twice
+     */
+    @Test
+    public void testDuplicatesAreCoalesced() {
+        queue.offer("Your pet is hungry!", NotificationQueue.Priority.NORMAL);
+        queue.offer("Your pet is hungry!", NotificationQueue.Priority.HIGH);
+        assertEquals(1, queue.size(), "Duplicate messages should be merged");
+
+        NotificationQueue.Notification shown = queue.next();
+        assertEquals(2, shown.getCount());
+        assertEquals(NotificationQueue.Priority.HIGH, shown.getPriority(), "The merged message keeps the higher priority");
+
+        assertSame(shown, queue.offer("Your pet is hungry!", NotificationQueue.Priority.LOW), "A message on screen is merged too");
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Messages are shown by priority, then in the order they were posted
+     */
+    @Test
+    public void testPriorityOrder() {
+        queue.offer("first", NotificationQueue.Priority.NORMAL);
+        queue.offer("second", NotificationQueue.Priority.NORMAL);
+        queue.offer("urgent", NotificationQueue.Priority.HIGH);
+        assertEquals("urgent", queue.next().getMessage());
+        assertEquals("first", queue.next().getMessage());
+        assertEquals("second", queue.next().getMessage());
+        assertNull(queue.next());
+    }
+
+    /**
+     * A full queue makes room for more important messages and drops less important ones
+     */
+    @Test
+    public void testQueueIsBounded() {
+        queue.offer("a", NotificationQueue.Priority.NORMAL);
+        queue.offer("b", NotificationQueue.Priority.NORMAL);
+        queue.offer("c", NotificationQueue.Priority.LOW);
+
+        assertNull(queue.offer("d", NotificationQueue.Priority.LOW), "A message no more important than the queue is dropped");
+        assertNotNull(queue.offer("e", NotificationQueue.Priority.HIGH));
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.getDroppedCount());
+
+        assertEquals("e", queue.next().getMessage());
+        assertEquals("a", queue.next().getMessage());
+        assertEquals("b", queue.next().getMessage());
+        assertNull(queue.next(), "The least important message made room");
+    }
+}
@@ -0,0 +1,119 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link PetCanvas} class
+ */
+public class PetCanvasTest {
+
+    private final List<Rectangle> repainted = new ArrayList<>();
+    private PetCanvas canvas;
+    private BufferedImage sprite;
+
+    /**
+     * Creates a 200x100 canvas with a blue background and a 20x20 red sprite centred in its left half
+     */
+    @BeforeEach
+    public void setUp() {
+        BufferedImage background = new BufferedImage(50, 25, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = background.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 50, 25);
+        g.dispose();
+
+        sprite = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+        g = sprite.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 20, 20);
+        g.dispose();
+
+        canvas = new PetCanvas(background, new Rectangle(0, 0, 100, 100)) {
+            @Override
+            public void repaint(Rectangle r) {
+                repainted.add(r);
+            }
+        };
+        canvas.setSize(200, 100);
+    }
+
+    /**
+     * Setting the sprite repaints exactly the area it covers, and setting it again repaints nothing
+     */
+    @Test
+    public void testSetSpriteRepaintsItsArea() {
+        canvas.setSprite(sprite);
+        assertEquals(List.of(new Rectangle(40, 40, 21, 21)), repainted);
+
+        canvas.setSprite(sprite);
+        assertEquals(1, repainted.size());
+    }
+
+    /**
+     * Rendering interpolates between the last two steps, and a frame without movement repaints nothing
+     */
+    @Test
+    public void testRenderInterpolatesBetweenSteps() {
+        canvas.setSprite(sprite);
+        repainted.clear();
+
+        canvas.step(0);
+        canvas.step(PetCanvas.BOB_PERIOD_MILLIS / 4); // The top of the movement
+        canvas.render(0.5);
+        assertEquals(-PetCanvas.BOB_AMPLITUDE / 2, canvas.getSpriteOffset(), 1e-9);
+        assertEquals(1, repainted.size());
+
+        Rectangle dirty = repainted.get(0);
+        assertTrue(dirty.contains(new Rectangle(40, 40, 20, 20)), "The area the sprite left is repainted");
+        assertTrue(dirty.contains(canvas.getSpriteBounds()), "The area the sprite moved to is repainted");
+        assertTrue(dirty.height <= 23, "Only the sprite's area is repainted: " + dirty);
+
+        canvas.render(0.5);
+        assertEquals(1, repainted.size(), "A sprite that did not move is not repainted");
+        canvas.render(1);
+        assertEquals(-PetCanvas.BOB_AMPLITUDE, canvas.getSpriteOffset(), 1e-9);
+    }
+
+    /**
+     * The same simulated time gives the same position, however many frames were rendered in between
+     */
+    @Test
+    public void testMotionDependsOnlyOnSimulatedTime() {
+        canvas.setSprite(sprite);
+        for (long t = 0; t <= 1_000; t += GameLoop.STEP_MILLIS) {
+            canvas.step(t);
+            canvas.render(0.25);
+            canvas.render(0.75);
+        }
+        canvas.render(1);
+        double offset = canvas.getSpriteOffset();
+
+        canvas.step(1_000);
+        canvas.render(0);
+        assertEquals(offset, canvas.getSpriteOffset(), 1e-9);
+    }
+
+    /**
+     * Painting draws the scaled background and the sprite on top of it
+     */
+    @Test
+    public void testPaintsBackgroundAndSprite() {
+        canvas.setSprite(sprite);
+        BufferedImage frame = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        canvas.paint(g);
+        g.dispose();
+
+        assertEquals(Color.BLUE.getRGB(), frame.getRGB(150, 50), "The background fills the canvas");
+        assertEquals(Color.RED.getRGB(), frame.getRGB(50, 50), "The sprite is centred in its area");
+        assertEquals(Color.BLUE.getRGB(), frame.getRGB(35, 50));
+    }
+}
@@ -0,0 +1,61 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import logic.PetType;
+import logic.VitalStatistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is the unit test for the {@link StatsPanel} class
+ */
+public class StatsPanelTest {
+
+    private StatsPanel statsPanel;
+    private PetType petType;
+    private VitalStatistics stats;
+
+    /**
+     * Creates a stats panel showing a pet with all stats at half
+     */
+    @BeforeEach
+    public void setUp() {
+        petType = new PetType("Dog", 10, 10, 10, 10, 1, 1, 1, 1);
+        stats = new VitalStatistics(5, 5, 5, 5);
+        statsPanel = new StatsPanel();
+        statsPanel.setBounds(500, 440, 300, 160);
+        statsPanel.refresh(stats, petType);
+    }
+
+    /**
+     * The rows are created once and never replaced
+     */
+    @Test
+    public void testRowsAreReused() {
+        assertEquals(4, statsPanel.getComponentCount(), "Stats panel should have one row per stat");
+        java.awt.Component healthRow = statsPanel.getComponent(0);
+        stats.setHealth(8);
+        statsPanel.refresh(stats, petType);
+        assertSame(healthRow, statsPanel.getComponent(0), "Rows should be updated in place");
+    }
+
+    /**
+     * Refreshing without changes requests no repaint, a single change requests one
+     */
+    @Test
+    public void testOnlyChangesAreRepainted() {
+        long repaints = statsPanel.getRepaintCount();
+        statsPanel.refresh(stats, petType);
+        assertEquals(repaints, statsPanel.getRepaintCount(), "Unchanged stats should not be repainted");
+
+        stats.setFullness(4);
+        statsPanel.refresh(stats, petType);
+        assertEquals(repaints + 1, statsPanel.getRepaintCount(), "Only the changed circles should be repainted");
+
+        stats.setFullness(2); // Drops below a quarter, so the label turns red as well
+        statsPanel.refresh(stats, petType);
+        assertEquals(repaints + 3, statsPanel.getRepaintCount(), "The label and the circles should be repainted");
+        assertEquals(4, statsPanel.getRefreshCount());
+    }
+}